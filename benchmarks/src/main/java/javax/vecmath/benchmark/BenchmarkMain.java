@@ -0,0 +1,55 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath.benchmark;
+
+import java.io.IOException;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the vecmath benchmarks with the GC profiler always attached, so every result reports
+ * gc.alloc.rate and gc.alloc.rate.norm (bytes per operation) next to the time per operation. The
+ * results are also written to jmh-result.json for comparison between runs. Command line arguments
+ * are the usual JMH options; -l and -h list and describe without running.
+ * <P>
+ * The SIMD kernels are only picked up when the forked JVMs add the incubator module, e.g.
+ * <code>-jvmArgsAppend --add-modules=jdk.incubator.vector</code>; run again with
+ * <code>-jvmArgsAppend -Djavax.vecmath.simd=false</code> for the scalar numbers.
+ *
+ */
+public class BenchmarkMain {
+
+ public static void main(String[] args) throws RunnerException, CommandLineOptionException,
+  IOException {
+  CommandLineOptions cmd = new CommandLineOptions(args);
+  if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams() || cmd.shouldListProfilers()
+   || cmd.shouldListResultFormats()) {
+   org.openjdk.jmh.Main.main(args);
+   return;
+  }
+  Options options = new OptionsBuilder()
+   .parent(cmd)
+   .addProfiler(GCProfiler.class)
+   .resultFormat(ResultFormatType.JSON)
+   .result("jmh-result.json")
+   .build();
+  new Runner(options).run();
+ }
+}
@@ -0,0 +1,71 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import javax.vecmath.Matrix3f;
+import javax.vecmath.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matrix3f inverse and scale/rotation decomposition.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Matrix3fBenchmark {
+
+ private final Matrix3f m = new Matrix3f();
+ private final Matrix3f result = new Matrix3f();
+ private final Vector3f scale = new Vector3f();
+
+ @Setup
+ public void setup() {
+  m.rotX(0.4f);
+  Matrix3f r = new Matrix3f();
+  r.rotZ(-0.9f);
+  m.mul(r);
+  m.mul(new Vector3f(1.5f, 0.25f, 3.0f));
+  m.m01 += 0.1f;
+ }
+
+ @Benchmark
+ public Matrix3f invert() {
+  return result.invert(m);
+ }
+
+ @Benchmark
+ public Matrix3f getScaleRotate() {
+  m.getScaleRotate(scale, result);
+  return result;
+ }
+
+ @Benchmark
+ public Matrix3f normalize() {
+  return result.normalize(m);
+ }
+}
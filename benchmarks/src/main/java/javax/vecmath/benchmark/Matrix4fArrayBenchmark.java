@@ -0,0 +1,103 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.vecmath.Matrix4f;
+import javax.vecmath.Matrix4fArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Composing a flattened transform hierarchy with one Matrix4f per node against a packed
+ * Matrix4fArray.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Matrix4fArrayBenchmark {
+
+ @Param({"20000"})
+ public int nodes;
+ private int[] parents;
+ private Matrix4f[] localObjects;
+ private Matrix4f[] worldObjects;
+ private Matrix4fArray locals;
+ private Matrix4fArray worlds;
+
+ @Setup
+ public void setup() {
+  Random random = new Random(1);
+  parents = new int[nodes];
+  localObjects = new Matrix4f[nodes];
+  worldObjects = new Matrix4f[nodes];
+  locals = new Matrix4fArray(nodes);
+  worlds = new Matrix4fArray(nodes);
+  Matrix4f r = new Matrix4f();
+  for (int i = 0; i < nodes; ++i) {
+   parents[i] = i == 0 ? -1 : random.nextInt(i);
+   localObjects[i] = new Matrix4f();
+   localObjects[i].rotX(random.nextFloat());
+   localObjects[i].mul(r.rotY(random.nextFloat()));
+   localObjects[i].setTranslation(random.nextFloat(), random.nextFloat(), random.nextFloat());
+   worldObjects[i] = new Matrix4f();
+   locals.set(i, localObjects[i]);
+  }
+ }
+
+ @Benchmark
+ public Matrix4f[] hierarchyObjects() {
+  for (int i = 0; i < nodes; ++i) {
+   int p = parents[i];
+   if (p < 0) {
+    worldObjects[i].set(localObjects[i]);
+   } else {
+    worldObjects[i].mul(worldObjects[p], localObjects[i]);
+   }
+  }
+  return worldObjects;
+ }
+
+ @Benchmark
+ public Matrix4fArray hierarchyPacked() {
+  return worlds.mulParent(0, nodes, parents, locals);
+ }
+
+ @Benchmark
+ public Matrix4f[] mulObjects() {
+  for (int i = 0; i < nodes; ++i) {
+   worldObjects[i].mul(localObjects[i], localObjects[nodes - 1 - i]);
+  }
+  return worldObjects;
+ }
+
+ @Benchmark
+ public Matrix4fArray mulPacked() {
+  return worlds.mul(0, nodes, locals, locals);
+ }
+}
@@ -0,0 +1,139 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.vecmath.Matrix4f;
+import javax.vecmath.Point3f;
+import javax.vecmath.Tuple3f;
+import javax.vecmath.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Matrix4f multiply, inverse and point transforms, one at a time and over packed arrays of mesh
+ * sized vertex counts.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Matrix4fBenchmark {
+
+
+ /**
+  * Packed vertex arrays of mesh sized counts for the bulk transforms, so that only those
+  * benchmarks run per vertex count.
+  */
+ @State(Scope.Thread)
+ public static class Mesh {
+
+  @Param({"1000", "500000"})
+  public int vertices;
+  float[] points;
+  float[] transformed;
+
+  @Setup
+  public void setup() {
+   Random random = new Random(2);
+   points = new float[vertices * 3];
+   for (int i = 0; i < points.length; ++i) {
+    points[i] = random.nextFloat() * 10.0f - 5.0f;
+   }
+   transformed = new float[vertices * 3];
+  }
+ }
+
+ private final Matrix4f a = new Matrix4f();
+ private final Matrix4f b = new Matrix4f();
+ private final Matrix4f projective = new Matrix4f();
+ private final Matrix4f result = new Matrix4f();
+ private final Point3f point = new Point3f();
+ private final Point3f transformedPoint = new Point3f();
+
+ @Setup
+ public void setup() {
+  Random random = new Random(1);
+  a.rotX(0.3f);
+  Matrix4f r = new Matrix4f();
+  r.rotY(-1.1f);
+  a.mul(r);
+  a.setTranslation(new Vector3f(1.0f, -2.0f, 3.0f));
+  b.rotZ(0.7f);
+  b.setScale(2.5f);
+  b.setTranslation(new Vector3f(-4.0f, 0.5f, 2.0f));
+  projective.set(a);
+  projective.m30 = 0.1f;
+  projective.m32 = -0.25f;
+  point.set(random.nextFloat(), random.nextFloat(), random.nextFloat());
+ }
+
+ @Benchmark
+ public Matrix4f mul() {
+  return result.mul(a, b);
+ }
+
+ @Benchmark
+ public Matrix4f invertAffine() {
+  return result.invert(b);
+ }
+
+ @Benchmark
+ public Matrix4f invertGeneral() {
+  return result.invert(projective);
+ }
+
+ @Benchmark
+ public Tuple3f transformPoint() {
+  return a.transform(point, transformedPoint);
+ }
+
+ @Benchmark
+ public float[] transformPoints(Mesh mesh) {
+  return a.transform(mesh.points, 0, 3, mesh.transformed, 0, 3, mesh.vertices);
+ }
+
+ @Benchmark
+ public float[] transformPointsObjects(Mesh mesh) {
+  float[] points = mesh.points;
+  float[] transformed = mesh.transformed;
+  Point3f p = new Point3f();
+  for (int i = 0, o = 0; i < mesh.vertices; ++i, o += 3) {
+   p.set(points[o], points[o + 1], points[o + 2]);
+   a.transform(p);
+   transformed[o] = p.x;
+   transformed[o + 1] = p.y;
+   transformed[o + 2] = p.z;
+  }
+  return transformed;
+ }
+
+ @Benchmark
+ public float[] transform3x3Vectors(Mesh mesh) {
+  return a.transform3x3(mesh.points, 0, 3, mesh.transformed, 0, 3, mesh.vertices);
+ }
+}
@@ -0,0 +1,75 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import javax.vecmath.AxisAngle4f;
+import javax.vecmath.Quat4f;
+import javax.vecmath.Tuple3f;
+import javax.vecmath.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Quat4f interpolation and vector rotation.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Quat4fBenchmark {
+
+ private final Quat4f q1 = new Quat4f();
+ private final Quat4f q2 = new Quat4f();
+ private final Quat4f result = new Quat4f();
+ private final Vector3f v = new Vector3f();
+ private float alpha;
+
+ @Setup
+ public void setup() {
+  q1.set(new AxisAngle4f(0.0f, 1.0f, 0.0f, 0.5f));
+  q2.set(new AxisAngle4f(0.6f, 0.0f, 0.8f, 2.0f));
+  v.set(1.0f, 2.0f, 3.0f);
+ }
+
+ @Benchmark
+ public Quat4f slerp() {
+  alpha += 0.001f;
+  if (alpha > 1.0f) {
+   alpha = 0.0f;
+  }
+  return result.slerp(q1, q2, alpha);
+ }
+
+ @Benchmark
+ public Tuple3f transform() {
+  return q2.transform(v.set(1.0f, 2.0f, 3.0f));
+ }
+
+ @Benchmark
+ public Tuple3f conjugateTransform() {
+  return q2.conjugateTransform(v.set(1.0f, 2.0f, 3.0f));
+ }
+}
@@ -0,0 +1,81 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.vecmath.Matrix;
+import javax.vecmath.SingularValueDecomposition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * General Matrix multiply and singular value decomposition from transform sized to least squares
+ * sized systems.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SingularValueDecompositionBenchmark {
+
+ @Param({"3", "50", "200"})
+ public int size;
+ private Matrix tall;
+ private Matrix square;
+
+ @Setup
+ public void setup() {
+  Random random = new Random(1);
+  tall = new Matrix(size * 2, size);
+  square = new Matrix(size, size);
+  for (int i = 0; i < size * 2; ++i) {
+   for (int j = 0; j < size; ++j) {
+    tall.set(i, j, random.nextGaussian());
+   }
+  }
+  for (int i = 0; i < size; ++i) {
+   for (int j = 0; j < size; ++j) {
+    square.set(i, j, random.nextGaussian());
+   }
+  }
+ }
+
+ @Benchmark
+ public SingularValueDecomposition svd() {
+  return new SingularValueDecomposition(tall);
+ }
+
+ @Benchmark
+ public int rank() {
+  return square.rank();
+ }
+
+ @Benchmark
+ public Matrix times() {
+  return square.times(square);
+ }
+}
@@ -0,0 +1,128 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.vecmath.Tuple3fArray;
+import javax.vecmath.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Tuple3f normalize and cross product on single objects, on arrays of objects and on packed
+ * Tuple3fArray storage.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Tuple3fBenchmark {
+
+ @Param({"100000"})
+ public int size;
+ private final Vector3f a = new Vector3f();
+ private final Vector3f b = new Vector3f();
+ private final Vector3f result = new Vector3f();
+ private Vector3f[] objects;
+ private Vector3f[] otherObjects;
+ private Tuple3fArray planar;
+ private Tuple3fArray otherPlanar;
+ private Tuple3fArray interleaved;
+ private Vector3f[] crossedObjects;
+ private Tuple3fArray crossedPlanar;
+ private float[] dots;
+
+ @Setup
+ public void setup() {
+  Random random = new Random(1);
+  a.set(1.0f, 2.0f, 3.0f);
+  b.set(-0.5f, 4.0f, 0.25f);
+  objects = new Vector3f[size];
+  otherObjects = new Vector3f[size];
+  planar = new Tuple3fArray(size);
+  otherPlanar = new Tuple3fArray(size);
+  interleaved = new Tuple3fArray(size, true);
+  crossedObjects = new Vector3f[size];
+  crossedPlanar = new Tuple3fArray(size);
+  dots = new float[size];
+  for (int i = 0; i < size; ++i) {
+   objects[i] = new Vector3f(random.nextFloat() + 0.1f, random.nextFloat(), random.nextFloat());
+   otherObjects[i] = new Vector3f(random.nextFloat(), random.nextFloat() + 0.1f, random
+    .nextFloat());
+   planar.set(i, objects[i]);
+   otherPlanar.set(i, otherObjects[i]);
+   interleaved.set(i, objects[i]);
+   crossedObjects[i] = new Vector3f();
+  }
+ }
+
+ @Benchmark
+ public Vector3f normalize() {
+  return result.normalize(a);
+ }
+
+ @Benchmark
+ public Vector3f cross() {
+  return result.cross(a, b);
+ }
+
+ @Benchmark
+ public Vector3f[] normalizeObjects() {
+  for (Vector3f v : objects) {
+   v.normalize();
+  }
+  return objects;
+ }
+
+ @Benchmark
+ public Tuple3fArray normalizePlanar() {
+  return planar.normalize(0, size);
+ }
+
+ @Benchmark
+ public Tuple3fArray normalizeInterleaved() {
+  return interleaved.normalize(0, size);
+ }
+
+ @Benchmark
+ public Vector3f[] crossObjects() {
+  for (int i = 0; i < size; ++i) {
+   crossedObjects[i].cross(objects[i], otherObjects[i]);
+  }
+  return crossedObjects;
+ }
+
+ @Benchmark
+ public Tuple3fArray crossPlanar() {
+  return crossedPlanar.cross(0, size, planar, otherPlanar);
+ }
+
+ @Benchmark
+ public float[] dotPlanar() {
+  return planar.dot(0, size, otherPlanar, dots, 0);
+ }
+}
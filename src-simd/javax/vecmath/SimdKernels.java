@@ -0,0 +1,227 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Bulk kernels on the incubating Vector API (JDK 17 and later, run with --add-modules
+ * jdk.incubator.vector). Packed tuple transforms and 4x4 products evaluate one 4 lane row or column
+ * per tuple; planar Tuple3fArray operations use the widest lanes the CPU supports. The arithmetic
+ * is done in the same order as the scalar loops so results are identical. Layouts that do not fit
+ * fall back to the scalar loops.
+ * <P>
+ * Built from a separate source tree because the core sources target Java 8 and GWT.
+ *
+ */
+final class SimdKernels extends BulkKernels {
+
+ private static final VectorSpecies<Float> LANES4 = FloatVector.SPECIES_128;
+ private static final VectorSpecies<Float> WIDE = FloatVector.SPECIES_PREFERRED;
+
+ /**
+  * A 4 lane column built in registers, an array to load it from would be allocated per call.
+  */
+ private static FloatVector column(float a, float b, float c, float d) {
+  return FloatVector.zero(LANES4).withLane(0, a).withLane(1, b).withLane(2, c).withLane(3, d);
+ }
+
+ /**
+  * Vectors process a tuple before the next is read, which matches the scalar loops only when the
+  * source and destination ranges are distinct or exactly the same.
+  */
+ private static boolean separate(float[] src, int srcOffset, int srcStride, float[] dst,
+  int dstOffset, int dstStride) {
+  return src != dst || (srcOffset == dstOffset && srcStride == dstStride);
+ }
+
+ @Override
+ void transform(Matrix4f m1, float[] src, int srcOffset, int srcStride, float[] dst,
+  int dstOffset, int dstStride, int count) {
+  if (dstStride != 3 || count < 2 || !separate(src, srcOffset, srcStride, dst, dstOffset,
+   dstStride)) {
+   super.transform(m1, src, srcOffset, srcStride, dst, dstOffset, dstStride, count);
+   return;
+  }
+  final FloatVector c0 = column(m1.m00, m1.m10, m1.m20, 0.0f);
+  final FloatVector c1 = column(m1.m01, m1.m11, m1.m21, 0.0f);
+  final FloatVector c2 = column(m1.m02, m1.m12, m1.m22, 0.0f);
+  final FloatVector c3 = column(m1.m03, m1.m13, m1.m23, 0.0f);
+  int s = srcOffset;
+  int d = dstOffset;
+  float x = src[s];
+  float y = src[s + 1];
+  float z = src[s + 2];
+  // the 4th lane lands on the next tuple, so read it before the store
+  for (int i = 1; i < count; ++i, d += 3) {
+   s += srcStride;
+   float nx = src[s];
+   float ny = src[s + 1];
+   float nz = src[s + 2];
+   c0.mul(x).add(c1.mul(y)).add(c2.mul(z)).add(c3).intoArray(dst, d);
+   x = nx;
+   y = ny;
+   z = nz;
+  }
+  dst[d] = m1.m00 * x + m1.m01 * y + m1.m02 * z + m1.m03;
+  dst[d + 1] = m1.m10 * x + m1.m11 * y + m1.m12 * z + m1.m13;
+  dst[d + 2] = m1.m20 * x + m1.m21 * y + m1.m22 * z + m1.m23;
+ }
+
+ @Override
+ void transform3x3(Matrix4f m1, float[] src, int srcOffset, int srcStride, float[] dst,
+  int dstOffset, int dstStride, int count) {
+  if (dstStride != 3 || count < 2 || !separate(src, srcOffset, srcStride, dst, dstOffset,
+   dstStride)) {
+   super.transform3x3(m1, src, srcOffset, srcStride, dst, dstOffset, dstStride, count);
+   return;
+  }
+  final FloatVector c0 = column(m1.m00, m1.m10, m1.m20, 0.0f);
+  final FloatVector c1 = column(m1.m01, m1.m11, m1.m21, 0.0f);
+  final FloatVector c2 = column(m1.m02, m1.m12, m1.m22, 0.0f);
+  int s = srcOffset;
+  int d = dstOffset;
+  float x = src[s];
+  float y = src[s + 1];
+  float z = src[s + 2];
+  for (int i = 1; i < count; ++i, d += 3) {
+   s += srcStride;
+   float nx = src[s];
+   float ny = src[s + 1];
+   float nz = src[s + 2];
+   c0.mul(x).add(c1.mul(y)).add(c2.mul(z)).intoArray(dst, d);
+   x = nx;
+   y = ny;
+   z = nz;
+  }
+  dst[d] = m1.m00 * x + m1.m01 * y + m1.m02 * z;
+  dst[d + 1] = m1.m10 * x + m1.m11 * y + m1.m12 * z;
+  dst[d + 2] = m1.m20 * x + m1.m21 * y + m1.m22 * z;
+ }
+
+ @Override
+ void transform4(Matrix4f m1, float[] src, int srcOffset, int srcStride, float[] dst,
+  int dstOffset, int dstStride, int count) {
+  if (dstStride < 4 || !separate(src, srcOffset, srcStride, dst, dstOffset, dstStride)) {
+   super.transform4(m1, src, srcOffset, srcStride, dst, dstOffset, dstStride, count);
+   return;
+  }
+  final FloatVector c0 = column(m1.m00, m1.m10, m1.m20, m1.m30);
+  final FloatVector c1 = column(m1.m01, m1.m11, m1.m21, m1.m31);
+  final FloatVector c2 = column(m1.m02, m1.m12, m1.m22, m1.m32);
+  final FloatVector c3 = column(m1.m03, m1.m13, m1.m23, m1.m33);
+  for (int i = 0, s = srcOffset, d = dstOffset; i < count; ++i, s += srcStride, d += dstStride) {
+   float x = src[s];
+   float y = src[s + 1];
+   float z = src[s + 2];
+   float w = src[s + 3];
+   c0.mul(x).add(c1.mul(y)).add(c2.mul(z)).add(c3.mul(w)).intoArray(dst, d);
+  }
+ }
+
+ @Override
+ void mul(float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int count) {
+  for (int i = 0, p = aOffset, q = bOffset, d = dstOffset; i < count; ++i, p += 16, q += 16, d +=
+   16) {
+   final FloatVector b0 = FloatVector.fromArray(LANES4, b, q);
+   final FloatVector b1 = FloatVector.fromArray(LANES4, b, q + 4);
+   final FloatVector b2 = FloatVector.fromArray(LANES4, b, q + 8);
+   final FloatVector b3 = FloatVector.fromArray(LANES4, b, q + 12);
+   for (int r = 0; r < 16; r += 4) {
+    float x = a[p + r];
+    float y = a[p + r + 1];
+    float z = a[p + r + 2];
+    float w = a[p + r + 3];
+    b0.mul(x).add(b1.mul(y)).add(b2.mul(z)).add(b3.mul(w)).intoArray(dst, d + r);
+   }
+  }
+ }
+
+ @Override
+ void mul(Matrix4f m1, float[] b, int bOffset, float[] dst, int dstOffset, int count) {
+  for (int i = 0, q = bOffset, d = dstOffset; i < count; ++i, q += 16, d += 16) {
+   final FloatVector b0 = FloatVector.fromArray(LANES4, b, q);
+   final FloatVector b1 = FloatVector.fromArray(LANES4, b, q + 4);
+   final FloatVector b2 = FloatVector.fromArray(LANES4, b, q + 8);
+   final FloatVector b3 = FloatVector.fromArray(LANES4, b, q + 12);
+   b0.mul(m1.m00).add(b1.mul(m1.m01)).add(b2.mul(m1.m02)).add(b3.mul(m1.m03)).intoArray(dst, d);
+   b0.mul(m1.m10).add(b1.mul(m1.m11)).add(b2.mul(m1.m12)).add(b3.mul(m1.m13)).intoArray(dst, d + 4);
+   b0.mul(m1.m20).add(b1.mul(m1.m21)).add(b2.mul(m1.m22)).add(b3.mul(m1.m23)).intoArray(dst, d + 8);
+   b0.mul(m1.m30).add(b1.mul(m1.m31)).add(b2.mul(m1.m32)).add(b3.mul(m1.m33)).intoArray(dst,
+    d + 12);
+  }
+ }
+
+ @Override
+ void mulTransposeLeft(float[] a, int aOffset, float[] b, int bOffset, float[] dst,
+  int dstOffset, int count) {
+  for (int i = 0, p = aOffset, q = bOffset, d = dstOffset; i < count; ++i, p += 16, q += 16, d +=
+   16) {
+   final FloatVector b0 = FloatVector.fromArray(LANES4, b, q);
+   final FloatVector b1 = FloatVector.fromArray(LANES4, b, q + 4);
+   final FloatVector b2 = FloatVector.fromArray(LANES4, b, q + 8);
+   final FloatVector b3 = FloatVector.fromArray(LANES4, b, q + 12);
+   // every element of a is read before the first store, so dst may be a
+   final float a00 = a[p], a01 = a[p + 4], a02 = a[p + 8], a03 = a[p + 12];
+   final float a10 = a[p + 1], a11 = a[p + 5], a12 = a[p + 9], a13 = a[p + 13];
+   final float a20 = a[p + 2], a21 = a[p + 6], a22 = a[p + 10], a23 = a[p + 14];
+   final float a30 = a[p + 3], a31 = a[p + 7], a32 = a[p + 11], a33 = a[p + 15];
+   b0.mul(a00).add(b1.mul(a01)).add(b2.mul(a02)).add(b3.mul(a03)).intoArray(dst, d);
+   b0.mul(a10).add(b1.mul(a11)).add(b2.mul(a12)).add(b3.mul(a13)).intoArray(dst, d + 4);
+   b0.mul(a20).add(b1.mul(a21)).add(b2.mul(a22)).add(b3.mul(a23)).intoArray(dst, d + 8);
+   b0.mul(a30).add(b1.mul(a31)).add(b2.mul(a32)).add(b3.mul(a33)).intoArray(dst, d + 12);
+  }
+ }
+
+ @Override
+ void cross(Tuple3fArray t, Tuple3fArray v1, Tuple3fArray v2, int index, int length) {
+  if (t.stride != 1 || v1.stride != 1 || v2.stride != 1) {
+   super.cross(t, v1, v2, index, length);
+   return;
+  }
+  int i = index;
+  for (int upper = index + WIDE.loopBound(length); i < upper; i += WIDE.length()) {
+   FloatVector x1 = FloatVector.fromArray(WIDE, v1.xs, v1.xo + i);
+   FloatVector y1 = FloatVector.fromArray(WIDE, v1.ys, v1.yo + i);
+   FloatVector z1 = FloatVector.fromArray(WIDE, v1.zs, v1.zo + i);
+   FloatVector x2 = FloatVector.fromArray(WIDE, v2.xs, v2.xo + i);
+   FloatVector y2 = FloatVector.fromArray(WIDE, v2.ys, v2.yo + i);
+   FloatVector z2 = FloatVector.fromArray(WIDE, v2.zs, v2.zo + i);
+   y1.mul(z2).sub(z1.mul(y2)).intoArray(t.xs, t.xo + i);
+   x2.mul(z1).sub(z2.mul(x1)).intoArray(t.ys, t.yo + i);
+   x1.mul(y2).sub(y1.mul(x2)).intoArray(t.zs, t.zo + i);
+  }
+  super.cross(t, v1, v2, i, index + length - i);
+ }
+
+ @Override
+ void dot(Tuple3fArray v1, Tuple3fArray v2, int index, int length, float[] dest, int destOffset) {
+  if (v1.stride != 1 || v2.stride != 1) {
+   super.dot(v1, v2, index, length, dest, destOffset);
+   return;
+  }
+  int i = index;
+  for (int upper = index + WIDE.loopBound(length); i < upper; i += WIDE.length()) {
+   FloatVector x = FloatVector.fromArray(WIDE, v1.xs, v1.xo + i).mul(FloatVector.fromArray(WIDE,
+    v2.xs, v2.xo + i));
+   FloatVector y = FloatVector.fromArray(WIDE, v1.ys, v1.yo + i).mul(FloatVector.fromArray(WIDE,
+    v2.ys, v2.yo + i));
+   FloatVector z = FloatVector.fromArray(WIDE, v1.zs, v1.zo + i).mul(FloatVector.fromArray(WIDE,
+    v2.zs, v2.zo + i));
+   x.add(y).add(z).intoArray(dest, destOffset + i - index);
+  }
+  super.dot(v1, v2, i, index + length - i, dest, destOffset + i - index);
+ }
+}
@@ -0,0 +1,808 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+import static javax.vecmath.VecMath.different_epsilon;
+import static javax.vecmath.VecMath.sqrt;
+
+/**
+ * A single precision floating point 3 by 4 affine transform. It holds the upper 3 rows of a
+ * Matrix4f whose bottom row is (0,0,0,1): a 3x3 rotation and scale in columns 0 to 2 and a
+ * translation in column 3. Multiplication, inversion and transformation skip the constant bottom
+ * row, so they take about three quarters of the arithmetic and storage of the Matrix4f versions.
+ *
+ * @param <T>
+ */
+public class Affine3f<T extends Affine3f> implements java.io.Serializable {
+
+ static final long serialVersionUID = 1;
+ /**
+  * The first element of the first row.
+  */
+ public float m00;
+ /**
+  * The second element of the first row.
+  */
+ public float m01;
+ /**
+  * The third element of the first row.
+  */
+ public float m02;
+ /**
+  * The fourth element of the first row, the x translation.
+  */
+ public float m03;
+ /**
+  * The first element of the second row.
+  */
+ public float m10;
+ /**
+  * The second element of the second row.
+  */
+ public float m11;
+ /**
+  * The third element of the second row.
+  */
+ public float m12;
+ /**
+  * The fourth element of the second row, the y translation.
+  */
+ public float m13;
+ /**
+  * The first element of the third row.
+  */
+ public float m20;
+ /**
+  * The second element of the third row.
+  */
+ public float m21;
+ /**
+  * The third element of the third row.
+  */
+ public float m22;
+ /**
+  * The fourth element of the third row, the z translation.
+  */
+ public float m23;
+
+ /**
+  * Constructs and initializes an Affine3f to identity.
+  */
+ public Affine3f() {
+  m00 = 1.0f;
+  m11 = 1.0f;
+  m22 = 1.0f;
+ }
+
+ /**
+  * Constructs and initializes an Affine3f from the specified 12 values.
+  *
+  * @param m00 the [0][0] element
+  * @param m01 the [0][1] element
+  * @param m02 the [0][2] element
+  * @param m03 the [0][3] element
+  * @param m10 the [1][0] element
+  * @param m11 the [1][1] element
+  * @param m12 the [1][2] element
+  * @param m13 the [1][3] element
+  * @param m20 the [2][0] element
+  * @param m21 the [2][1] element
+  * @param m22 the [2][2] element
+  * @param m23 the [2][3] element
+  */
+ public Affine3f(float m00, float m01, float m02, float m03,
+  float m10, float m11, float m12, float m13,
+  float m20, float m21, float m22, float m23) {
+  this.m00 = m00;
+  this.m01 = m01;
+  this.m02 = m02;
+  this.m03 = m03;
+  this.m10 = m10;
+  this.m11 = m11;
+  this.m12 = m12;
+  this.m13 = m13;
+  this.m20 = m20;
+  this.m21 = m21;
+  this.m22 = m22;
+  this.m23 = m23;
+ }
+
+ /**
+  * Constructs a new transform with the same values as the Affine3f parameter.
+  *
+  * @param a1 the source transform
+  */
+ public Affine3f(Affine3f a1) {
+  set(a1);
+ }
+
+ /**
+  * Constructs a new transform from the upper 3x4 of the Matrix4f parameter, the bottom row is
+  * ignored.
+  *
+  * @param m1 the source matrix
+  */
+ public Affine3f(Matrix4f m1) {
+  set(m1);
+ }
+
+ /**
+  * Constructs a new transform from the rotation and scale matrix m1 and the translation t1.
+  *
+  * @param m1 the rotation and scale
+  * @param t1 the translation
+  */
+ public Affine3f(Matrix3f m1, Tuple3f t1) {
+  set(m1, t1);
+ }
+
+ /**
+  * Constructs a new transform from the rotation q1 and the translation t1.
+  *
+  * @param q1 the rotation, need not be normalized
+  * @param t1 the translation
+  */
+ public Affine3f(Quat4f q1, Tuple3f t1) {
+  set(q1, t1, 1.0f);
+ }
+
+ /**
+  * Constructs a new transform from the rotation q1, the translation t1 and the uniform scale s.
+  *
+  * @param q1 the rotation, need not be normalized
+  * @param t1 the translation
+  * @param s the scale
+  */
+ public Affine3f(Quat4f q1, Tuple3f t1, float s) {
+  set(q1, t1, s);
+ }
+
+ /**
+  * Returns a string that contains the values of this Affine3f.
+  *
+  * @return the String representation
+  */
+ @Override
+ public String toString() {
+  return m00 + ", " + m01 + ", " + m02 + ", " + m03 + "\n" +
+   m10 + ", " + m11 + ", " + m12 + ", " + m13 + "\n" +
+   m20 + ", " + m21 + ", " + m22 + ", " + m23;
+ }
+
+ /**
+  * Sets this transform to identity.
+  *
+  * @return this for chaining
+  */
+ public T setIdentity() {
+  m00 = 1.0f;
+  m01 = 0.0f;
+  m02 = 0.0f;
+  m03 = 0.0f;
+  m10 = 0.0f;
+  m11 = 1.0f;
+  m12 = 0.0f;
+  m13 = 0.0f;
+  m20 = 0.0f;
+  m21 = 0.0f;
+  m22 = 1.0f;
+  m23 = 0.0f;
+  return (T) this;
+ }
+
+ /**
+  * Sets the value of this transform to a copy of a1.
+  *
+  * @param a1 the transform to be copied
+  * @return this for chaining
+  */
+ public T set(Affine3f a1) {
+  m00 = a1.m00;
+  m01 = a1.m01;
+  m02 = a1.m02;
+  m03 = a1.m03;
+  m10 = a1.m10;
+  m11 = a1.m11;
+  m12 = a1.m12;
+  m13 = a1.m13;
+  m20 = a1.m20;
+  m21 = a1.m21;
+  m22 = a1.m22;
+  m23 = a1.m23;
+  return (T) this;
+ }
+
+ /**
+  * Sets the value of this transform to the upper 3x4 of the matrix m1, the bottom row of m1 is
+  * ignored.
+  *
+  * @param m1 the affine matrix
+  * @return this for chaining
+  */
+ public T set(Matrix4f m1) {
+  m00 = m1.m00;
+  m01 = m1.m01;
+  m02 = m1.m02;
+  m03 = m1.m03;
+  m10 = m1.m10;
+  m11 = m1.m11;
+  m12 = m1.m12;
+  m13 = m1.m13;
+  m20 = m1.m20;
+  m21 = m1.m21;
+  m22 = m1.m22;
+  m23 = m1.m23;
+  return (T) this;
+ }
+
+ /**
+  * Sets the value of this transform to the rotation and scale matrix m1 and the translation t1.
+  *
+  * @param m1 the rotation and scale
+  * @param t1 the translation
+  * @return this for chaining
+  */
+ public T set(Matrix3f m1, Tuple3f t1) {
+  m00 = m1.m00;
+  m01 = m1.m01;
+  m02 = m1.m02;
+  m03 = t1.x;
+  m10 = m1.m10;
+  m11 = m1.m11;
+  m12 = m1.m12;
+  m13 = t1.y;
+  m20 = m1.m20;
+  m21 = m1.m21;
+  m22 = m1.m22;
+  m23 = t1.z;
+  return (T) this;
+ }
+
+ /**
+  * Sets the value of this transform to the rotation q1 and the translation t1.
+  *
+  * @param q1 the rotation, need not be normalized
+  * @param t1 the translation
+  * @return this for chaining
+  */
+ public T set(Quat4f q1, Tuple3f t1) {
+  return set(q1, t1, 1.0f);
+ }
+
+ /**
+  * Sets the value of this transform to the rotation q1, the translation t1 and the uniform scale
+  * s. Equal to Matrix4f.set(q1, t1, s) without the bottom row.
+  *
+  * @param q1 the rotation, need not be normalized
+  * @param t1 the translation
+  * @param s the scale
+  * @return this for chaining
+  */
+ public T set(Quat4f q1, Tuple3f t1, float s) {
+  // Matrix3f.set(Quat4f) with the scale folded into the normalization
+  float n = 2.0f / ((q1.x * q1.x) + (q1.y * q1.y) + (q1.z * q1.z) + (q1.w * q1.w));
+  float xs = q1.x * n;
+  float ys = q1.y * n;
+  float zs = q1.z * n;
+  float wx = q1.w * xs;
+  float wy = q1.w * ys;
+  float wz = q1.w * zs;
+  float xx = q1.x * xs;
+  float xy = q1.x * ys;
+  float xz = q1.x * zs;
+  float yy = q1.y * ys;
+  float yz = q1.y * zs;
+  float zz = q1.z * zs;
+  m00 = (1.0f - (yy + zz)) * s;
+  m01 = (xy - wz) * s;
+  m02 = (xz + wy) * s;
+  m03 = t1.x;
+  m10 = (xy + wz) * s;
+  m11 = (1.0f - (xx + zz)) * s;
+  m12 = (yz - wx) * s;
+  m13 = t1.y;
+  m20 = (xz - wy) * s;
+  m21 = (yz + wx) * s;
+  m22 = (1.0f - (xx + yy)) * s;
+  m23 = t1.z;
+  return (T) this;
+ }
+
+ /**
+  * Sets the translational components of this transform.
+  *
+  * @param trans the translational component
+  * @return this for chaining
+  */
+ public T setTranslation(Tuple3f trans) {
+  m03 = trans.x;
+  m13 = trans.y;
+  m23 = trans.z;
+  return (T) this;
+ }
+
+ /**
+  * Sets the translational components of this transform.
+  *
+  * @param x the x translation
+  * @param y the y translation
+  * @param z the z translation
+  * @return this for chaining
+  */
+ public T setTranslation(float x, float y, float z) {
+  m03 = x;
+  m13 = y;
+  m23 = z;
+  return (T) this;
+ }
+
+ /**
+  * Copies this transform into the matrix m1 with the bottom row set to (0,0,0,1).
+  *
+  * @param <M>
+  * @param m1 the matrix to receive the values
+  * @return m1 for chaining
+  */
+ public <M extends Matrix4f> M get(Matrix4f m1) {
+  m1.m00 = m00;
+  m1.m01 = m01;
+  m1.m02 = m02;
+  m1.m03 = m03;
+  m1.m10 = m10;
+  m1.m11 = m11;
+  m1.m12 = m12;
+  m1.m13 = m13;
+  m1.m20 = m20;
+  m1.m21 = m21;
+  m1.m22 = m22;
+  m1.m23 = m23;
+  m1.m30 = 0.0f;
+  m1.m31 = 0.0f;
+  m1.m32 = 0.0f;
+  m1.m33 = 1.0f;
+  return (M) m1;
+ }
+
+ /**
+  * Gets the upper 3x3 values of this transform and places them into the matrix m1.
+  *
+  * @param <M>
+  * @param m1 the matrix that will hold the rotation and scale
+  * @return m1 for chaining
+  */
+ public <M extends Matrix3f> M getRotationScale(Matrix3f m1) {
+  m1.m00 = m00;
+  m1.m01 = m01;
+  m1.m02 = m02;
+  m1.m10 = m10;
+  m1.m11 = m11;
+  m1.m12 = m12;
+  m1.m20 = m20;
+  m1.m21 = m21;
+  m1.m22 = m22;
+  return (M) m1;
+ }
+
+ /**
+  * Retrieves the translational components of this transform.
+  *
+  * @param <S>
+  * @param trans the vector that will receive the translational component
+  * @return trans for chaining
+  */
+ public <S extends Tuple3f> S get(S trans) {
+  trans.x = m03;
+  trans.y = m13;
+  trans.z = m23;
+  return trans;
+ }
+
+ /**
+  * Normalizes the columns of the upper 3x3 of this transform to calculate the rotation as a
+  * quaternion; the values are placed into the Quat4f parameter. The columns are the scaled axes
+  * of a rotation followed by a scale along each axis, as made by set(Quat4f, Tuple3f, float), so
+  * the scale does not change the rotation. Shear is not removed.
+  *
+  * @param <Q>
+  * @param q1 quaternion into which the rotation component is placed
+  * @return q1 for chaining
+  */
+ public <Q extends Quat4f> Q get(Quat4f q1) {
+  float sx = 1.0f / sqrt(m00 * m00 + m10 * m10 + m20 * m20);
+  float sy = 1.0f / sqrt(m01 * m01 + m11 * m11 + m21 * m21);
+  float sz = 1.0f / sqrt(m02 * m02 + m12 * m12 + m22 * m22);
+  float n00 = m00 * sx, n01 = m01 * sy, n02 = m02 * sz;
+  float n10 = m10 * sx, n11 = m11 * sy, n12 = m12 * sz;
+  float n20 = m20 * sx, n21 = m21 * sy, n22 = m22 * sz;
+  // the largest of 4|x|^2, 4|y|^2, 4|z|^2 and 4|w|^2 picks the branch, as in Quat4fArray
+  float t, x, y, z, w;
+  if (n22 < 0.0f) {
+   if (n00 > n11) {
+    t = 1.0f + n00 - n11 - n22;
+    x = t;
+    y = n01 + n10;
+    z = n02 + n20;
+    w = n21 - n12;
+   } else {
+    t = 1.0f - n00 + n11 - n22;
+    x = n01 + n10;
+    y = t;
+    z = n12 + n21;
+    w = n02 - n20;
+   }
+  } else {
+   if (n00 < -n11) {
+    t = 1.0f - n00 - n11 + n22;
+    x = n02 + n20;
+    y = n12 + n21;
+    z = t;
+    w = n10 - n01;
+   } else {
+    t = 1.0f + n00 + n11 + n22;
+    x = n21 - n12;
+    y = n02 - n20;
+    z = n10 - n01;
+    w = t;
+   }
+  }
+  float s = 0.5f / sqrt(t);
+  q1.x = x * s;
+  q1.y = y * s;
+  q1.z = z * s;
+  q1.w = w * s;
+  return (Q) q1;
+ }
+
+ /**
+  * Sets the value of this transform to the result of multiplying itself with a1, so that a1 is
+  * applied first.
+  *
+  * @param a1 the other transform
+  * @return this for chaining
+  */
+ public T mul(Affine3f a1) {
+  return mul(this, a1);
+ }
+
+ /**
+  * Sets the value of this transform to the result of multiplying the two argument transforms
+  * together, so that a2 is applied first. Either argument may be this transform.
+  *
+  * @param a1 the first transform
+  * @param a2 the second transform
+  * @return this for chaining
+  */
+ public T mul(Affine3f a1, Affine3f a2) {
+  float n00 = a1.m00 * a2.m00 + a1.m01 * a2.m10 + a1.m02 * a2.m20;
+  float n01 = a1.m00 * a2.m01 + a1.m01 * a2.m11 + a1.m02 * a2.m21;
+  float n02 = a1.m00 * a2.m02 + a1.m01 * a2.m12 + a1.m02 * a2.m22;
+  float n03 = a1.m00 * a2.m03 + a1.m01 * a2.m13 + a1.m02 * a2.m23 + a1.m03;
+  float n10 = a1.m10 * a2.m00 + a1.m11 * a2.m10 + a1.m12 * a2.m20;
+  float n11 = a1.m10 * a2.m01 + a1.m11 * a2.m11 + a1.m12 * a2.m21;
+  float n12 = a1.m10 * a2.m02 + a1.m11 * a2.m12 + a1.m12 * a2.m22;
+  float n13 = a1.m10 * a2.m03 + a1.m11 * a2.m13 + a1.m12 * a2.m23 + a1.m13;
+  float n20 = a1.m20 * a2.m00 + a1.m21 * a2.m10 + a1.m22 * a2.m20;
+  float n21 = a1.m20 * a2.m01 + a1.m21 * a2.m11 + a1.m22 * a2.m21;
+  float n22 = a1.m20 * a2.m02 + a1.m21 * a2.m12 + a1.m22 * a2.m22;
+  float n23 = a1.m20 * a2.m03 + a1.m21 * a2.m13 + a1.m22 * a2.m23 + a1.m23;
+  m00 = n00;
+  m01 = n01;
+  m02 = n02;
+  m03 = n03;
+  m10 = n10;
+  m11 = n11;
+  m12 = n12;
+  m13 = n13;
+  m20 = n20;
+  m21 = n21;
+  m22 = n22;
+  m23 = n23;
+  return (T) this;
+ }
+
+ /**
+  * Sets the value of this transform to the inverse of a1. The result is undefined if the upper 3x3
+  * of a1 is singular.
+  *
+  * @param a1 the transform to be inverted
+  * @return this for chaining
+  */
+ public T invert(Affine3f a1) {
+  float c00 = a1.m11 * a1.m22 - a1.m12 * a1.m21;
+  float c10 = a1.m12 * a1.m20 - a1.m10 * a1.m22;
+  float c20 = a1.m10 * a1.m21 - a1.m11 * a1.m20;
+  float det = a1.m00 * c00 + a1.m01 * c10 + a1.m02 * c20;
+  float invDet = (1.0f) / det;
+  float n00 = c00 * invDet;
+  float n01 = (a1.m02 * a1.m21 - a1.m01 * a1.m22) * invDet;
+  float n02 = (a1.m01 * a1.m12 - a1.m02 * a1.m11) * invDet;
+  float n10 = c10 * invDet;
+  float n11 = (a1.m00 * a1.m22 - a1.m02 * a1.m20) * invDet;
+  float n12 = (a1.m02 * a1.m10 - a1.m00 * a1.m12) * invDet;
+  float n20 = c20 * invDet;
+  float n21 = (a1.m01 * a1.m20 - a1.m00 * a1.m21) * invDet;
+  float n22 = (a1.m00 * a1.m11 - a1.m01 * a1.m10) * invDet;
+  float tx = a1.m03;
+  float ty = a1.m13;
+  float tz = a1.m23;
+  m00 = n00;
+  m01 = n01;
+  m02 = n02;
+  m03 = -(n00 * tx + n01 * ty + n02 * tz);
+  m10 = n10;
+  m11 = n11;
+  m12 = n12;
+  m13 = -(n10 * tx + n11 * ty + n12 * tz);
+  m20 = n20;
+  m21 = n21;
+  m22 = n22;
+  m23 = -(n20 * tx + n21 * ty + n22 * tz);
+  return (T) this;
+ }
+
+ /**
+  * Inverts this transform in place.
+  *
+  * @return this for chaining
+  */
+ public T invert() {
+  return invert(this);
+ }
+
+ /**
+  * Sets the value of this transform to the inverse of the rigid transform a1. The upper 3x3 of a1
+  * must be a rotation, optionally multiplied by a uniform scale. The inverse is calculated from
+  * the transpose of the upper 3x3.
+  *
+  * @param a1 the rigid transform to be inverted
+  * @return this for chaining
+  */
+ public T invertRigid(Affine3f a1) {
+  float s = 1.0f / (a1.m00 * a1.m00 + a1.m10 * a1.m10 + a1.m20 * a1.m20);
+  float n00 = a1.m00 * s;
+  float n01 = a1.m10 * s;
+  float n02 = a1.m20 * s;
+  float n10 = a1.m01 * s;
+  float n11 = a1.m11 * s;
+  float n12 = a1.m21 * s;
+  float n20 = a1.m02 * s;
+  float n21 = a1.m12 * s;
+  float n22 = a1.m22 * s;
+  float tx = a1.m03;
+  float ty = a1.m13;
+  float tz = a1.m23;
+  m00 = n00;
+  m01 = n01;
+  m02 = n02;
+  m03 = -(n00 * tx + n01 * ty + n02 * tz);
+  m10 = n10;
+  m11 = n11;
+  m12 = n12;
+  m13 = -(n10 * tx + n11 * ty + n12 * tz);
+  m20 = n20;
+  m21 = n21;
+  m22 = n22;
+  m23 = -(n20 * tx + n21 * ty + n22 * tz);
+  return (T) this;
+ }
+
+ /**
+  * Inverts this rigid transform in place. The upper 3x3 must be a rotation, optionally multiplied
+  * by a uniform scale.
+  *
+  * @return this for chaining
+  */
+ public T invertRigid() {
+  return invertRigid(this);
+ }
+
+ /**
+  * Computes the determinant of this transform, which is the determinant of the upper 3x3.
+  *
+  * @return the determinant
+  */
+ public float determinant() {
+  return m00 * (m11 * m22 - m12 * m21)
+   + m01 * (m12 * m20 - m10 * m22)
+   + m02 * (m10 * m21 - m11 * m20);
+ }
+
+ /**
+  * Transforms the point t1 by this transform and places the result into t2.
+  *
+  * @param <S>
+  * @param t1 the point to be transformed
+  * @param t2 the transformed point
+  * @return t2 for chaining
+  */
+ public <S extends Tuple3f> S transform(Tuple3f t1, S t2) {
+  float x = m00 * t1.x + m01 * t1.y + m02 * t1.z + m03;
+  float y = m10 * t1.x + m11 * t1.y + m12 * t1.z + m13;
+  t2.z = m20 * t1.x + m21 * t1.y + m22 * t1.z + m23;
+  t2.x = x;
+  t2.y = y;
+  return t2;
+ }
+
+ /**
+  * Transforms the point t1 by this transform and stores the result back into t1.
+  *
+  * @param <S>
+  * @param t1 the point to be transformed
+  * @return t1 for chaining
+  */
+ public <S extends Tuple3f> S transform(S t1) {
+  return transform(t1, t1);
+ }
+
+ /**
+  * Transforms the direction t1 using only the rotational components (upper 3x3) and places the
+  * result into t2.
+  *
+  * @param <S>
+  * @param t1 the direction to be transformed
+  * @param t2 the transformed direction
+  * @return t2 for chaining
+  */
+ public <S extends Tuple3f> S transform3x3(Tuple3f t1, S t2) {
+  float x = m00 * t1.x + m01 * t1.y + m02 * t1.z;
+  float y = m10 * t1.x + m11 * t1.y + m12 * t1.z;
+  t2.z = m20 * t1.x + m21 * t1.y + m22 * t1.z;
+  t2.x = x;
+  t2.y = y;
+  return t2;
+ }
+
+ /**
+  * Transforms the direction t1 using only the rotational components (upper 3x3) and stores the
+  * result back into t1.
+  *
+  * @param <S>
+  * @param t1 the direction to be transformed
+  * @return t1 for chaining
+  */
+ public <S extends Tuple3f> S transform3x3(S t1) {
+  return transform3x3(t1, t1);
+ }
+
+ /**
+  * Transforms an array of points using this transform and places the results into another array.
+  * Each point is 3 consecutive values (x,y,z). The source and destination may be the same array.
+  *
+  * @param src the packed points to transform
+  * @param srcOffset the location of the first point in src
+  * @param srcStride the distance between the start of consecutive points in src, at least 3
+  * @param dst the array to receive the transformed points
+  * @param dstOffset the location of the first point in dst
+  * @param dstStride the distance between the start of consecutive points in dst, at least 3
+  * @param count the number of points to transform
+  * @return dst for chaining
+  */
+ public float[] transform(float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset,
+  int dstStride, int count) {
+  for (int i = 0, s = srcOffset, d = dstOffset; i < count; ++i, s += srcStride, d += dstStride) {
+   float x = src[s];
+   float y = src[s + 1];
+   float z = src[s + 2];
+   dst[d] = m00 * x + m01 * y + m02 * z + m03;
+   dst[d + 1] = m10 * x + m11 * y + m12 * z + m13;
+   dst[d + 2] = m20 * x + m21 * y + m22 * z + m23;
+  }
+  return dst;
+ }
+
+ /**
+  * Transforms an array of directions using only the rotational components (upper 3x3) of this
+  * transform and places the results into another array. Each direction is 3 consecutive values
+  * (x,y,z). The source and destination may be the same array.
+  *
+  * @param src the packed directions to transform
+  * @param srcOffset the location of the first direction in src
+  * @param srcStride the distance between the start of consecutive directions in src, at least 3
+  * @param dst the array to receive the transformed directions
+  * @param dstOffset the location of the first direction in dst
+  * @param dstStride the distance between the start of consecutive directions in dst, at least 3
+  * @param count the number of directions to transform
+  * @return dst for chaining
+  */
+ public float[] transform3x3(float[] src, int srcOffset, int srcStride, float[] dst,
+  int dstOffset, int dstStride, int count) {
+  for (int i = 0, s = srcOffset, d = dstOffset; i < count; ++i, s += srcStride, d += dstStride) {
+   float x = src[s];
+   float y = src[s + 1];
+   float z = src[s + 2];
+   dst[d] = m00 * x + m01 * y + m02 * z;
+   dst[d + 1] = m10 * x + m11 * y + m12 * z;
+   dst[d + 2] = m20 * x + m21 * y + m22 * z;
+  }
+  return dst;
+ }
+
+ /**
+  * Returns true if all of the data members of a1 are equal to the corresponding data members in
+  * this Affine3f.
+  *
+  * @param a1 the transform with which the comparison is made.
+  * @return true or false
+  */
+ public boolean equals(Affine3f a1) {
+  return (m00 == a1.m00 && m01 == a1.m01 && m02 == a1.m02 &&
+   m03 == a1.m03 && m10 == a1.m10 && m11 == a1.m11 &&
+   m12 == a1.m12 && m13 == a1.m13 && m20 == a1.m20 &&
+   m21 == a1.m21 && m22 == a1.m22 && m23 == a1.m23);
+ }
+
+ /**
+  * Returns true if the Object t1 is of type Affine3f and all of the data members of t1 are equal
+  * to the corresponding data members in this Affine3f.
+  *
+  * @param t1 the transform with which the comparison is made.
+  * @return true or false
+  */
+ @Override
+ public boolean equals(Object t1) {
+  try {
+   return equals((Affine3f) t1);
+  } catch (ClassCastException | NullPointerException e1) {
+   return false;
+  }
+ }
+
+ /**
+  * Returns true if the L-infinite distance between this transform and a1 is less than or equal to
+  * the epsilon parameter, otherwise returns false.
+  *
+  * @param a1 the transform to be compared to this transform
+  * @param epsilon the threshold value
+  * @return true or false
+  */
+ public boolean epsilonEquals(Affine3f a1, float epsilon) {
+  return !(different_epsilon(m00, a1.m00, epsilon)
+   || different_epsilon(m01, a1.m01, epsilon)
+   || different_epsilon(m02, a1.m02, epsilon)
+   || different_epsilon(m03, a1.m03, epsilon)
+   || different_epsilon(m10, a1.m10, epsilon)
+   || different_epsilon(m11, a1.m11, epsilon)
+   || different_epsilon(m12, a1.m12, epsilon)
+   || different_epsilon(m13, a1.m13, epsilon)
+   || different_epsilon(m20, a1.m20, epsilon)
+   || different_epsilon(m21, a1.m21, epsilon)
+   || different_epsilon(m22, a1.m22, epsilon)
+   || different_epsilon(m23, a1.m23, epsilon));
+ }
+
+ /**
+  * Returns a hash code value based on the data values in this object. Two Affine3f objects that
+  * are equal return the same hash code value.
+  *
+  * @return the integer hash code value
+  */
+ @Override
+ public int hashCode() {
+  int hash = 7;
+  hash = 67 * hash + Float.floatToIntBits(m00);
+  hash = 67 * hash + Float.floatToIntBits(m01);
+  hash = 67 * hash + Float.floatToIntBits(m02);
+  hash = 67 * hash + Float.floatToIntBits(m03);
+  hash = 67 * hash + Float.floatToIntBits(m10);
+  hash = 67 * hash + Float.floatToIntBits(m11);
+  hash = 67 * hash + Float.floatToIntBits(m12);
+  hash = 67 * hash + Float.floatToIntBits(m13);
+  hash = 67 * hash + Float.floatToIntBits(m20);
+  hash = 67 * hash + Float.floatToIntBits(m21);
+  hash = 67 * hash + Float.floatToIntBits(m22);
+  hash = 67 * hash + Float.floatToIntBits(m23);
+  return hash;
+ }
+}
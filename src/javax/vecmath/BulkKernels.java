@@ -0,0 +1,256 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+/**
+ * Inner loops of the bulk array methods. This class is the portable scalar implementation; on a
+ * JVM with the jdk.incubator.vector module available a SIMD subclass is selected at class load
+ * time. Set the system property javax.vecmath.simd to false to always use the scalar loops.
+ *
+ */
+class BulkKernels {
+
+ private static BulkKernels selected = new BulkKernels();
+ @GwtIncompatible
+ private static final boolean SIMD = selectSimd();
+ /**
+  * The kernels used by the bulk methods.
+  */
+ static final BulkKernels INSTANCE = selected;
+
+ @GwtIncompatible
+ private static boolean selectSimd() {
+  try {
+   if (!"false".equals(System.getProperty("javax.vecmath.simd"))) {
+    selected = (BulkKernels) Class.forName("javax.vecmath.SimdKernels")
+     .getDeclaredConstructor().newInstance();
+    return true;
+   }
+  } catch (Throwable t) {
+   // classes not built, JRE older than 17 or module not added, keep the scalar loops
+  }
+  return false;
+ }
+
+ void transform(Matrix4f m1, float[] src, int srcOffset, int srcStride, float[] dst,
+  int dstOffset, int dstStride, int count) {
+  final float a00 = m1.m00, a01 = m1.m01, a02 = m1.m02, a03 = m1.m03;
+  final float a10 = m1.m10, a11 = m1.m11, a12 = m1.m12, a13 = m1.m13;
+  final float a20 = m1.m20, a21 = m1.m21, a22 = m1.m22, a23 = m1.m23;
+  for (int i = 0, s = srcOffset, d = dstOffset; i < count; ++i, s += srcStride, d += dstStride) {
+   float x = src[s];
+   float y = src[s + 1];
+   float z = src[s + 2];
+   dst[d] = a00 * x + a01 * y + a02 * z + a03;
+   dst[d + 1] = a10 * x + a11 * y + a12 * z + a13;
+   dst[d + 2] = a20 * x + a21 * y + a22 * z + a23;
+  }
+ }
+
+ void transform3x3(Matrix4f m1, float[] src, int srcOffset, int srcStride, float[] dst,
+  int dstOffset, int dstStride, int count) {
+  final float a00 = m1.m00, a01 = m1.m01, a02 = m1.m02;
+  final float a10 = m1.m10, a11 = m1.m11, a12 = m1.m12;
+  final float a20 = m1.m20, a21 = m1.m21, a22 = m1.m22;
+  for (int i = 0, s = srcOffset, d = dstOffset; i < count; ++i, s += srcStride, d += dstStride) {
+   float x = src[s];
+   float y = src[s + 1];
+   float z = src[s + 2];
+   dst[d] = a00 * x + a01 * y + a02 * z;
+   dst[d + 1] = a10 * x + a11 * y + a12 * z;
+   dst[d + 2] = a20 * x + a21 * y + a22 * z;
+  }
+ }
+
+ void transform4(Matrix4f m1, float[] src, int srcOffset, int srcStride, float[] dst,
+  int dstOffset, int dstStride, int count) {
+  final float a00 = m1.m00, a01 = m1.m01, a02 = m1.m02, a03 = m1.m03;
+  final float a10 = m1.m10, a11 = m1.m11, a12 = m1.m12, a13 = m1.m13;
+  final float a20 = m1.m20, a21 = m1.m21, a22 = m1.m22, a23 = m1.m23;
+  final float a30 = m1.m30, a31 = m1.m31, a32 = m1.m32, a33 = m1.m33;
+  for (int i = 0, s = srcOffset, d = dstOffset; i < count; ++i, s += srcStride, d += dstStride) {
+   float x = src[s];
+   float y = src[s + 1];
+   float z = src[s + 2];
+   float w = src[s + 3];
+   dst[d] = a00 * x + a01 * y + a02 * z + a03 * w;
+   dst[d + 1] = a10 * x + a11 * y + a12 * z + a13 * w;
+   dst[d + 2] = a20 * x + a21 * y + a22 * z + a23 * w;
+   dst[d + 3] = a30 * x + a31 * y + a32 * z + a33 * w;
+  }
+ }
+
+ /**
+  * Multiplies packed 4x4 matrices, dst[i] = a[i] * b[i]. Each matrix is 16 consecutive values in
+  * row major order. A result may overwrite its own a or b operand.
+  */
+ void mul(float[] a, int aOffset, float[] b, int bOffset, float[] dst, int dstOffset, int count) {
+  for (int i = 0, p = aOffset, q = bOffset, d = dstOffset; i < count; ++i, p += 16, q += 16, d +=
+   16) {
+   final float a00 = a[p], a01 = a[p + 1], a02 = a[p + 2], a03 = a[p + 3];
+   final float a10 = a[p + 4], a11 = a[p + 5], a12 = a[p + 6], a13 = a[p + 7];
+   final float a20 = a[p + 8], a21 = a[p + 9], a22 = a[p + 10], a23 = a[p + 11];
+   final float a30 = a[p + 12], a31 = a[p + 13], a32 = a[p + 14], a33 = a[p + 15];
+   final float b00 = b[q], b01 = b[q + 1], b02 = b[q + 2], b03 = b[q + 3];
+   final float b10 = b[q + 4], b11 = b[q + 5], b12 = b[q + 6], b13 = b[q + 7];
+   final float b20 = b[q + 8], b21 = b[q + 9], b22 = b[q + 10], b23 = b[q + 11];
+   final float b30 = b[q + 12], b31 = b[q + 13], b32 = b[q + 14], b33 = b[q + 15];
+   dst[d] = a00 * b00 + a01 * b10 + a02 * b20 + a03 * b30;
+   dst[d + 1] = a00 * b01 + a01 * b11 + a02 * b21 + a03 * b31;
+   dst[d + 2] = a00 * b02 + a01 * b12 + a02 * b22 + a03 * b32;
+   dst[d + 3] = a00 * b03 + a01 * b13 + a02 * b23 + a03 * b33;
+   dst[d + 4] = a10 * b00 + a11 * b10 + a12 * b20 + a13 * b30;
+   dst[d + 5] = a10 * b01 + a11 * b11 + a12 * b21 + a13 * b31;
+   dst[d + 6] = a10 * b02 + a11 * b12 + a12 * b22 + a13 * b32;
+   dst[d + 7] = a10 * b03 + a11 * b13 + a12 * b23 + a13 * b33;
+   dst[d + 8] = a20 * b00 + a21 * b10 + a22 * b20 + a23 * b30;
+   dst[d + 9] = a20 * b01 + a21 * b11 + a22 * b21 + a23 * b31;
+   dst[d + 10] = a20 * b02 + a21 * b12 + a22 * b22 + a23 * b32;
+   dst[d + 11] = a20 * b03 + a21 * b13 + a22 * b23 + a23 * b33;
+   dst[d + 12] = a30 * b00 + a31 * b10 + a32 * b20 + a33 * b30;
+   dst[d + 13] = a30 * b01 + a31 * b11 + a32 * b21 + a33 * b31;
+   dst[d + 14] = a30 * b02 + a31 * b12 + a32 * b22 + a33 * b32;
+   dst[d + 15] = a30 * b03 + a31 * b13 + a32 * b23 + a33 * b33;
+  }
+ }
+
+ /**
+  * Multiplies one matrix by packed 4x4 matrices, dst[i] = m1 * b[i]. A result may overwrite its
+  * own b operand.
+  */
+ void mul(Matrix4f m1, float[] b, int bOffset, float[] dst, int dstOffset, int count) {
+  final float a00 = m1.m00, a01 = m1.m01, a02 = m1.m02, a03 = m1.m03;
+  final float a10 = m1.m10, a11 = m1.m11, a12 = m1.m12, a13 = m1.m13;
+  final float a20 = m1.m20, a21 = m1.m21, a22 = m1.m22, a23 = m1.m23;
+  final float a30 = m1.m30, a31 = m1.m31, a32 = m1.m32, a33 = m1.m33;
+  for (int i = 0, q = bOffset, d = dstOffset; i < count; ++i, q += 16, d += 16) {
+   final float b00 = b[q], b01 = b[q + 1], b02 = b[q + 2], b03 = b[q + 3];
+   final float b10 = b[q + 4], b11 = b[q + 5], b12 = b[q + 6], b13 = b[q + 7];
+   final float b20 = b[q + 8], b21 = b[q + 9], b22 = b[q + 10], b23 = b[q + 11];
+   final float b30 = b[q + 12], b31 = b[q + 13], b32 = b[q + 14], b33 = b[q + 15];
+   dst[d] = a00 * b00 + a01 * b10 + a02 * b20 + a03 * b30;
+   dst[d + 1] = a00 * b01 + a01 * b11 + a02 * b21 + a03 * b31;
+   dst[d + 2] = a00 * b02 + a01 * b12 + a02 * b22 + a03 * b32;
+   dst[d + 3] = a00 * b03 + a01 * b13 + a02 * b23 + a03 * b33;
+   dst[d + 4] = a10 * b00 + a11 * b10 + a12 * b20 + a13 * b30;
+   dst[d + 5] = a10 * b01 + a11 * b11 + a12 * b21 + a13 * b31;
+   dst[d + 6] = a10 * b02 + a11 * b12 + a12 * b22 + a13 * b32;
+   dst[d + 7] = a10 * b03 + a11 * b13 + a12 * b23 + a13 * b33;
+   dst[d + 8] = a20 * b00 + a21 * b10 + a22 * b20 + a23 * b30;
+   dst[d + 9] = a20 * b01 + a21 * b11 + a22 * b21 + a23 * b31;
+   dst[d + 10] = a20 * b02 + a21 * b12 + a22 * b22 + a23 * b32;
+   dst[d + 11] = a20 * b03 + a21 * b13 + a22 * b23 + a23 * b33;
+   dst[d + 12] = a30 * b00 + a31 * b10 + a32 * b20 + a33 * b30;
+   dst[d + 13] = a30 * b01 + a31 * b11 + a32 * b21 + a33 * b31;
+   dst[d + 14] = a30 * b02 + a31 * b12 + a32 * b22 + a33 * b32;
+   dst[d + 15] = a30 * b03 + a31 * b13 + a32 * b23 + a33 * b33;
+  }
+ }
+
+ /**
+  * Multiplies packed 4x4 matrices with the left operand transposed, dst[i] = transpose(a[i]) *
+  * b[i]. The transpose is read in place. A result may overwrite its own a or b operand.
+  */
+ void mulTransposeLeft(float[] a, int aOffset, float[] b, int bOffset, float[] dst,
+  int dstOffset, int count) {
+  for (int i = 0, p = aOffset, q = bOffset, d = dstOffset; i < count; ++i, p += 16, q += 16, d +=
+   16) {
+   final float a00 = a[p], a01 = a[p + 4], a02 = a[p + 8], a03 = a[p + 12];
+   final float a10 = a[p + 1], a11 = a[p + 5], a12 = a[p + 9], a13 = a[p + 13];
+   final float a20 = a[p + 2], a21 = a[p + 6], a22 = a[p + 10], a23 = a[p + 14];
+   final float a30 = a[p + 3], a31 = a[p + 7], a32 = a[p + 11], a33 = a[p + 15];
+   final float b00 = b[q], b01 = b[q + 1], b02 = b[q + 2], b03 = b[q + 3];
+   final float b10 = b[q + 4], b11 = b[q + 5], b12 = b[q + 6], b13 = b[q + 7];
+   final float b20 = b[q + 8], b21 = b[q + 9], b22 = b[q + 10], b23 = b[q + 11];
+   final float b30 = b[q + 12], b31 = b[q + 13], b32 = b[q + 14], b33 = b[q + 15];
+   dst[d] = a00 * b00 + a01 * b10 + a02 * b20 + a03 * b30;
+   dst[d + 1] = a00 * b01 + a01 * b11 + a02 * b21 + a03 * b31;
+   dst[d + 2] = a00 * b02 + a01 * b12 + a02 * b22 + a03 * b32;
+   dst[d + 3] = a00 * b03 + a01 * b13 + a02 * b23 + a03 * b33;
+   dst[d + 4] = a10 * b00 + a11 * b10 + a12 * b20 + a13 * b30;
+   dst[d + 5] = a10 * b01 + a11 * b11 + a12 * b21 + a13 * b31;
+   dst[d + 6] = a10 * b02 + a11 * b12 + a12 * b22 + a13 * b32;
+   dst[d + 7] = a10 * b03 + a11 * b13 + a12 * b23 + a13 * b33;
+   dst[d + 8] = a20 * b00 + a21 * b10 + a22 * b20 + a23 * b30;
+   dst[d + 9] = a20 * b01 + a21 * b11 + a22 * b21 + a23 * b31;
+   dst[d + 10] = a20 * b02 + a21 * b12 + a22 * b22 + a23 * b32;
+   dst[d + 11] = a20 * b03 + a21 * b13 + a22 * b23 + a23 * b33;
+   dst[d + 12] = a30 * b00 + a31 * b10 + a32 * b20 + a33 * b30;
+   dst[d + 13] = a30 * b01 + a31 * b11 + a32 * b21 + a33 * b31;
+   dst[d + 14] = a30 * b02 + a31 * b12 + a32 * b22 + a33 * b32;
+   dst[d + 15] = a30 * b03 + a31 * b13 + a32 * b23 + a33 * b33;
+  }
+ }
+
+ /**
+  * Multiplies packed 4x4 matrices with the right operand transposed, dst[i] = a[i] *
+  * transpose(b[i]). The transpose is read in place. A result may overwrite its own a or b operand.
+  */
+ void mulTransposeRight(float[] a, int aOffset, float[] b, int bOffset, float[] dst,
+  int dstOffset, int count) {
+  for (int i = 0, p = aOffset, q = bOffset, d = dstOffset; i < count; ++i, p += 16, q += 16, d +=
+   16) {
+   final float a00 = a[p], a01 = a[p + 1], a02 = a[p + 2], a03 = a[p + 3];
+   final float a10 = a[p + 4], a11 = a[p + 5], a12 = a[p + 6], a13 = a[p + 7];
+   final float a20 = a[p + 8], a21 = a[p + 9], a22 = a[p + 10], a23 = a[p + 11];
+   final float a30 = a[p + 12], a31 = a[p + 13], a32 = a[p + 14], a33 = a[p + 15];
+   final float b00 = b[q], b01 = b[q + 4], b02 = b[q + 8], b03 = b[q + 12];
+   final float b10 = b[q + 1], b11 = b[q + 5], b12 = b[q + 9], b13 = b[q + 13];
+   final float b20 = b[q + 2], b21 = b[q + 6], b22 = b[q + 10], b23 = b[q + 14];
+   final float b30 = b[q + 3], b31 = b[q + 7], b32 = b[q + 11], b33 = b[q + 15];
+   dst[d] = a00 * b00 + a01 * b10 + a02 * b20 + a03 * b30;
+   dst[d + 1] = a00 * b01 + a01 * b11 + a02 * b21 + a03 * b31;
+   dst[d + 2] = a00 * b02 + a01 * b12 + a02 * b22 + a03 * b32;
+   dst[d + 3] = a00 * b03 + a01 * b13 + a02 * b23 + a03 * b33;
+   dst[d + 4] = a10 * b00 + a11 * b10 + a12 * b20 + a13 * b30;
+   dst[d + 5] = a10 * b01 + a11 * b11 + a12 * b21 + a13 * b31;
+   dst[d + 6] = a10 * b02 + a11 * b12 + a12 * b22 + a13 * b32;
+   dst[d + 7] = a10 * b03 + a11 * b13 + a12 * b23 + a13 * b33;
+   dst[d + 8] = a20 * b00 + a21 * b10 + a22 * b20 + a23 * b30;
+   dst[d + 9] = a20 * b01 + a21 * b11 + a22 * b21 + a23 * b31;
+   dst[d + 10] = a20 * b02 + a21 * b12 + a22 * b22 + a23 * b32;
+   dst[d + 11] = a20 * b03 + a21 * b13 + a22 * b23 + a23 * b33;
+   dst[d + 12] = a30 * b00 + a31 * b10 + a32 * b20 + a33 * b30;
+   dst[d + 13] = a30 * b01 + a31 * b11 + a32 * b21 + a33 * b31;
+   dst[d + 14] = a30 * b02 + a31 * b12 + a32 * b22 + a33 * b32;
+   dst[d + 15] = a30 * b03 + a31 * b13 + a32 * b23 + a33 * b33;
+  }
+ }
+
+ void cross(Tuple3fArray t, Tuple3fArray v1, Tuple3fArray v2, int index, int length) {
+  for (int i = index, end = index + length; i < end; ++i) {
+   int b = i * v1.stride;
+   int c = i * v2.stride;
+   float x1 = v1.xs[v1.xo + b];
+   float y1 = v1.ys[v1.yo + b];
+   float z1 = v1.zs[v1.zo + b];
+   float x2 = v2.xs[v2.xo + c];
+   float y2 = v2.ys[v2.yo + c];
+   float z2 = v2.zs[v2.zo + c];
+   int a = i * t.stride;
+   t.xs[t.xo + a] = y1 * z2 - z1 * y2;
+   t.ys[t.yo + a] = x2 * z1 - z2 * x1;
+   t.zs[t.zo + a] = x1 * y2 - y1 * x2;
+  }
+ }
+
+ void dot(Tuple3fArray v1, Tuple3fArray v2, int index, int length, float[] dest, int destOffset) {
+  for (int i = index, end = index + length, d = destOffset; i < end; ++i, ++d) {
+   int a = i * v1.stride;
+   int b = i * v2.stride;
+   dest[d] = v1.xs[v1.xo + a] * v2.xs[v2.xo + b] + v1.ys[v1.yo + a] * v2.ys[v2.yo + b] + v1.zs[v1.zo
+    + a] * v2.zs[v2.zo + b];
+  }
+ }
+}
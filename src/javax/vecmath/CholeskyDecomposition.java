@@ -0,0 +1,214 @@
+package javax.vecmath;
+
+/**
+ * Cholesky Decomposition.
+ * <P>
+ * For a symmetric, positive definite matrix A, the Cholesky decomposition is an lower triangular
+ * matrix L so that A = L*L'.
+ * <P>
+ * If the matrix is not symmetric or positive definite, the constructor returns a partial
+ * decomposition and sets an internal flag that may be queried by the isSPD() method.
+ * <P>
+ * The decomposition can be computed in the storage of A, which then holds L on and below the
+ * diagonal and zeros above it.
+ */
+public class CholeskyDecomposition implements java.io.Serializable {
+
+ /*
+	 * ------------------------ Class variables ------------------------
+  */
+ /**
+  * Array for internal storage of decomposition, element (i,j) is L[offset + i * ld + j].
+  *
+  * @serial internal array storage.
+  */
+ private final double[] L;
+ /**
+  * Index of element (0,0) and distance between rows in L.
+  *
+  * @serial offset of the first element.
+  * @serial leading dimension.
+  */
+ private final int offset, ld;
+ /**
+  * Row and column dimension (square matrix).
+  *
+  * @serial matrix dimension.
+  */
+ private final int n;
+ /**
+  * Symmetric and positive definite flag.
+  *
+  * @serial is symmetric and positive definite flag.
+  */
+ private boolean isspd;
+
+ /*
+	 * ------------------------ Constructor ------------------------
+  */
+ /**
+  * Cholesky algorithm for symmetric and positive definite matrix. Structure to access L and isspd
+  * flag.
+  *
+  * @param Arg Square, symmetric matrix.
+  */
+ public CholeskyDecomposition(Matrix Arg) {
+  this(Arg, false);
+ }
+
+ /**
+  * Cholesky algorithm for symmetric and positive definite matrix, optionally computed in the
+  * storage of Arg.
+  *
+  * @param Arg Square, symmetric matrix.
+  * @param overwrite true to factor Arg in place, Arg then holds L
+  */
+ public CholeskyDecomposition(Matrix Arg, boolean overwrite) {
+  n = Arg.getRowDimension();
+  if (overwrite) {
+   L = Arg.A;
+   offset = Arg.offset;
+   ld = Arg.ld;
+  } else {
+   L = Arg.getRowPackedCopy();
+   offset = 0;
+   ld = Arg.getColumnDimension();
+  }
+  isspd = (Arg.getColumnDimension() == n);
+  // Main loop. Row j of L replaces the lower part of row j of A, the upper triangle is only read
+  // for the symmetry test and cleared at the end.
+  for (int j = 0; j < n; j++) {
+   int rowj = offset + j * ld;
+   double d = 0.0;
+   for (int k = 0; k < j; k++) {
+    int rowk = offset + k * ld;
+    double s = 0.0;
+    for (int i = 0; i < k; i++) {
+     s += L[rowk + i] * L[rowj + i];
+    }
+    double a = L[rowj + k];
+    L[rowj + k] = s = (a - s) / L[rowk + k];
+    d = d + s * s;
+    isspd = isspd & (L[rowk + j] == a);
+   }
+   d = L[rowj + j] - d;
+   isspd = isspd & (d > 0.0);
+   L[rowj + j] = Math.sqrt(Math.max(d, 0.0));
+  }
+  for (int j = 0; j < n; j++) {
+   for (int k = j + 1; k < n; k++) {
+    L[offset + j * ld + k] = 0.0;
+   }
+  }
+ }
+
+ /*
+	 * ------------------------ Public Methods ------------------------
+  */
+ /**
+  * Is the matrix symmetric and positive definite?
+  *
+  * @return true if A is symmetric and positive definite.
+  */
+ public boolean isSPD() {
+  return isspd;
+ }
+
+ /**
+  * Return triangular factor.
+  *
+  * @return L
+  */
+ public Matrix getL() {
+  Matrix X = new Matrix(n, n);
+  for (int i = 0; i < n; i++) {
+   System.arraycopy(L, offset + i * ld, X.A, i * n, i + 1);
+  }
+  return X;
+ }
+
+ /**
+  * Determinant
+  *
+  * @return det(A)
+  */
+ public double det() {
+  double d = 1.0;
+  for (int j = 0; j < n; j++) {
+   double l = L[offset + j * ld + j];
+   d *= l * l;
+  }
+  return d;
+ }
+
+ /**
+  * Solve A*X = B
+  *
+  * @param B A Matrix with as many rows as A and any number of columns.
+  * @return X so that L*L'*X = B
+  * @exception IllegalArgumentException Matrix row dimensions must agree.
+  * @exception IllegalArgumentException Matrix is not symmetric positive definite.
+  */
+ public Matrix solve(Matrix B) {
+  return solveInPlace(B.copy());
+ }
+
+ /**
+  * Solve A*X = B, overwriting B with X.
+  *
+  * @param B A Matrix with as many rows as A and any number of columns.
+  * @return B, now holding X so that L*L'*X = B
+  * @exception IllegalArgumentException Matrix row dimensions must agree.
+  * @exception IllegalArgumentException Matrix is not symmetric positive definite.
+  */
+ public Matrix solveInPlace(Matrix B) {
+  if (B.getRowDimension() != n) {
+   throw new IllegalArgumentException("Matrix row dimensions must agree.");
+  }
+  if (!isspd) {
+   throw new IllegalArgumentException("Matrix is not symmetric positive definite.");
+  }
+  final double[] X = B.A;
+  final int xo = B.offset, xl = B.ld, nx = B.getColumnDimension();
+  // Solve L*Y = B;
+  for (int k = 0; k < n; k++) {
+   int xk = xo + k * xl;
+   for (int i = 0; i < k; i++) {
+    double l = L[offset + k * ld + i];
+    for (int j = 0, xi = xo + i * xl; j < nx; j++) {
+     X[xk + j] -= X[xi + j] * l;
+    }
+   }
+   double d = L[offset + k * ld + k];
+   for (int j = 0; j < nx; j++) {
+    X[xk + j] /= d;
+   }
+  }
+  // Solve L'*X = Y;
+  for (int k = n - 1; k >= 0; k--) {
+   int xk = xo + k * xl;
+   for (int i = k + 1; i < n; i++) {
+    double l = L[offset + i * ld + k];
+    for (int j = 0, xi = xo + i * xl; j < nx; j++) {
+     X[xk + j] -= X[xi + j] * l;
+    }
+   }
+   double d = L[offset + k * ld + k];
+   for (int j = 0; j < nx; j++) {
+    X[xk + j] /= d;
+   }
+  }
+  return B;
+ }
+
+ /**
+  * Matrix inverse
+  *
+  * @return inverse(A)
+  * @exception IllegalArgumentException Matrix is not symmetric positive definite.
+  */
+ public Matrix inverse() {
+  return solveInPlace(Matrix.identity(n, n));
+ }
+ private static final long serialVersionUID = 1;
+}
@@ -0,0 +1,546 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+import static javax.vecmath.VecMath.different_epsilon;
+import static javax.vecmath.VecMath.sqrt;
+
+/**
+ * A single precision dual quaternion, real + e * dual, representing a rigid transform in 8 values.
+ * The real part is the rotation quaternion r and the dual part is 0.5 * t * r for the translation
+ * t. Unlike matrices, a weighted sum of dual quaternions followed by normalize is again a rigid
+ * transform, which is the basis of dual quaternion linear blend (DLB) skinning.
+ * <P>
+ * The transforms and conversions accept dual quaternions that are not normalized, such as a
+ * weighted sum, and give the same result as for the normalized value.
+ *
+ * @param <T>
+ */
+public class DualQuat4f<T extends DualQuat4f> implements java.io.Serializable {
+
+ static final long serialVersionUID = 1;
+ /**
+  * The real part, the rotation.
+  */
+ public final Quat4f real;
+ /**
+  * The dual part, half the translation multiplied by the rotation.
+  */
+ public final Quat4f dual;
+
+ /**
+  * Constructs and initializes a DualQuat4f to the identity transform.
+  */
+ public DualQuat4f() {
+  real = new Quat4f(0.0f, 0.0f, 0.0f, 1.0f);
+  dual = new Quat4f(0.0f, 0.0f, 0.0f, 0.0f);
+ }
+
+ /**
+  * Constructs a new dual quaternion with the same values as d1.
+  *
+  * @param d1 the source dual quaternion
+  */
+ public DualQuat4f(DualQuat4f d1) {
+  real = new Quat4f(d1.real);
+  dual = new Quat4f(d1.dual);
+ }
+
+ /**
+  * Constructs a new dual quaternion from the rotation q1 followed by the translation t1.
+  *
+  * @param q1 the rotation, should be normalized
+  * @param t1 the translation
+  */
+ public DualQuat4f(Quat4f q1, Tuple3f t1) {
+  this();
+  set(q1, t1);
+ }
+
+ /**
+  * Constructs a new dual quaternion from the rigid matrix m1.
+  *
+  * @param m1 the matrix, the upper 3x3 must be a rotation
+  */
+ public DualQuat4f(Matrix4f m1) {
+  this();
+  set(m1);
+ }
+
+ /**
+  * Constructs a new dual quaternion from the rigid transform a1.
+  *
+  * @param a1 the transform, the upper 3x3 must be a rotation
+  */
+ public DualQuat4f(Affine3f a1) {
+  this();
+  set(a1);
+ }
+
+ /**
+  * Returns a string that contains the values of this DualQuat4f.
+  *
+  * @return the String representation
+  */
+ @Override
+ public String toString() {
+  return "(" + real + ", " + dual + ")";
+ }
+
+ /**
+  * Sets this dual quaternion to the identity transform.
+  *
+  * @return this for chaining
+  */
+ public T setIdentity() {
+  real.set(0.0f, 0.0f, 0.0f, 1.0f);
+  dual.set(0.0f, 0.0f, 0.0f, 0.0f);
+  return (T) this;
+ }
+
+ /**
+  * Sets the value of this dual quaternion to a copy of d1.
+  *
+  * @param d1 the dual quaternion to be copied
+  * @return this for chaining
+  */
+ public T set(DualQuat4f d1) {
+  real.set(d1.real);
+  dual.set(d1.dual);
+  return (T) this;
+ }
+
+ /**
+  * Sets the value of this dual quaternion to the rotation q1 followed by the translation t1.
+  *
+  * @param q1 the rotation, should be normalized
+  * @param t1 the translation
+  * @return this for chaining
+  */
+ public T set(Quat4f q1, Tuple3f t1) {
+  return set(q1.x, q1.y, q1.z, q1.w, t1.x, t1.y, t1.z);
+ }
+
+ private T set(float rx, float ry, float rz, float rw, float tx, float ty, float tz) {
+  tx *= 0.5f;
+  ty *= 0.5f;
+  tz *= 0.5f;
+  real.set(rx, ry, rz, rw);
+  // (t,0) * r / 2
+  dual.set(tx * rw + ty * rz - tz * ry,
+   ty * rw + tz * rx - tx * rz,
+   tz * rw + tx * ry - ty * rx,
+   -(tx * rx + ty * ry + tz * rz));
+  return (T) this;
+ }
+
+ /**
+  * Sets the value of this dual quaternion to the rigid matrix m1.
+  *
+  * @param m1 the matrix, the upper 3x3 must be a rotation and the bottom row is ignored
+  * @return this for chaining
+  */
+ public T set(Matrix4f m1) {
+  return set(m1.m00, m1.m01, m1.m02, m1.m10, m1.m11, m1.m12, m1.m20, m1.m21, m1.m22,
+   m1.m03, m1.m13, m1.m23);
+ }
+
+ /**
+  * Sets the value of this dual quaternion to the rigid transform a1.
+  *
+  * @param a1 the transform, the upper 3x3 must be a rotation
+  * @return this for chaining
+  */
+ public T set(Affine3f a1) {
+  return set(a1.m00, a1.m01, a1.m02, a1.m10, a1.m11, a1.m12, a1.m20, a1.m21, a1.m22,
+   a1.m03, a1.m13, a1.m23);
+ }
+
+ /**
+  * Sets the rotation from the matrix elements and the translation (tx,ty,tz). The largest of
+  * 4|w|^2, 4|x|^2, 4|y|^2 and 4|z|^2 is picked with two comparisons, as in Quat4fArray, and the
+  * quaternion is normalized.
+  */
+ private T set(float m00, float m01, float m02, float m10, float m11, float m12, float m20,
+  float m21, float m22, float tx, float ty, float tz) {
+  float x, y, z, w;
+  if (m22 < 0.0f) {
+   if (m00 > m11) {
+    x = 1.0f + m00 - m11 - m22;
+    y = m01 + m10;
+    z = m02 + m20;
+    w = m21 - m12;
+   } else {
+    x = m01 + m10;
+    y = 1.0f - m00 + m11 - m22;
+    z = m12 + m21;
+    w = m02 - m20;
+   }
+  } else {
+   if (m00 < -m11) {
+    x = m02 + m20;
+    y = m12 + m21;
+    z = 1.0f - m00 - m11 + m22;
+    w = m10 - m01;
+   } else {
+    x = m21 - m12;
+    y = m02 - m20;
+    z = m10 - m01;
+    w = 1.0f + m00 + m11 + m22;
+   }
+  }
+  float n = 1.0f / sqrt(x * x + y * y + z * z + w * w);
+  return set(x * n, y * n, z * n, w * n, tx, ty, tz);
+ }
+
+ /**
+  * Retrieves the rotation of this dual quaternion.
+  *
+  * @param <Q>
+  * @param q1 the quaternion to receive the normalized rotation
+  * @return q1 for chaining
+  */
+ public <Q extends Quat4f> Q getRotation(Quat4f q1) {
+  q1.normalize(real);
+  return (Q) q1;
+ }
+
+ /**
+  * Retrieves the translation of this dual quaternion.
+  *
+  * @param <S>
+  * @param t1 the tuple to receive the translation
+  * @return t1 for chaining
+  */
+ public <S extends Tuple3f> S getTranslation(S t1) {
+  float rx = real.x, ry = real.y, rz = real.z, rw = real.w;
+  float dx = dual.x, dy = dual.y, dz = dual.z, dw = dual.w;
+  // 2 * vector part of d * conjugate(r) / |r|^2
+  float s = 2.0f / (rx * rx + ry * ry + rz * rz + rw * rw);
+  t1.x = (rw * dx - dw * rx + ry * dz - rz * dy) * s;
+  t1.y = (rw * dy - dw * ry + rz * dx - rx * dz) * s;
+  t1.z = (rw * dz - dw * rz + rx * dy - ry * dx) * s;
+  return t1;
+ }
+
+ /**
+  * Copies the transform of this dual quaternion into the matrix m1.
+  *
+  * @param <M>
+  * @param m1 the matrix to receive the transform
+  * @return m1 for chaining
+  */
+ public <M extends Matrix4f> M get(Matrix4f m1) {
+  float rx = real.x, ry = real.y, rz = real.z, rw = real.w;
+  float dx = dual.x, dy = dual.y, dz = dual.z, dw = dual.w;
+  // Matrix3f.set(Quat4f) and getTranslation, sharing 2 / |r|^2
+  float s = 2.0f / (rx * rx + ry * ry + rz * rz + rw * rw);
+  float xs = rx * s, ys = ry * s, zs = rz * s;
+  float wx = rw * xs, wy = rw * ys, wz = rw * zs;
+  float xx = rx * xs, xy = rx * ys, xz = rx * zs;
+  float yy = ry * ys, yz = ry * zs, zz = rz * zs;
+  m1.m00 = 1.0f - (yy + zz);
+  m1.m01 = xy - wz;
+  m1.m02 = xz + wy;
+  m1.m03 = (rw * dx - dw * rx + ry * dz - rz * dy) * s;
+  m1.m10 = xy + wz;
+  m1.m11 = 1.0f - (xx + zz);
+  m1.m12 = yz - wx;
+  m1.m13 = (rw * dy - dw * ry + rz * dx - rx * dz) * s;
+  m1.m20 = xz - wy;
+  m1.m21 = yz + wx;
+  m1.m22 = 1.0f - (xx + yy);
+  m1.m23 = (rw * dz - dw * rz + rx * dy - ry * dx) * s;
+  m1.m30 = 0.0f;
+  m1.m31 = 0.0f;
+  m1.m32 = 0.0f;
+  m1.m33 = 1.0f;
+  return (M) m1;
+ }
+
+ /**
+  * Copies the transform of this dual quaternion into the affine transform a1.
+  *
+  * @param <A>
+  * @param a1 the transform to receive the values
+  * @return a1 for chaining
+  */
+ public <A extends Affine3f> A get(Affine3f a1) {
+  float rx = real.x, ry = real.y, rz = real.z, rw = real.w;
+  float dx = dual.x, dy = dual.y, dz = dual.z, dw = dual.w;
+  float s = 2.0f / (rx * rx + ry * ry + rz * rz + rw * rw);
+  float xs = rx * s, ys = ry * s, zs = rz * s;
+  float wx = rw * xs, wy = rw * ys, wz = rw * zs;
+  float xx = rx * xs, xy = rx * ys, xz = rx * zs;
+  float yy = ry * ys, yz = ry * zs, zz = rz * zs;
+  a1.m00 = 1.0f - (yy + zz);
+  a1.m01 = xy - wz;
+  a1.m02 = xz + wy;
+  a1.m03 = (rw * dx - dw * rx + ry * dz - rz * dy) * s;
+  a1.m10 = xy + wz;
+  a1.m11 = 1.0f - (xx + zz);
+  a1.m12 = yz - wx;
+  a1.m13 = (rw * dy - dw * ry + rz * dx - rx * dz) * s;
+  a1.m20 = xz - wy;
+  a1.m21 = yz + wx;
+  a1.m22 = 1.0f - (xx + yy);
+  a1.m23 = (rw * dz - dw * rz + rx * dy - ry * dx) * s;
+  return (A) a1;
+ }
+
+ /**
+  * Sets the value of this dual quaternion to the product of d1 and d2, the transform that applies
+  * d2 first. This may be d1 or d2.
+  *
+  * @param d1 the first dual quaternion
+  * @param d2 the second dual quaternion
+  * @return this for chaining
+  */
+ public T mul(DualQuat4f d1, DualQuat4f d2) {
+  Quat4f a = d1.real, b = d1.dual, c = d2.real, d = d2.dual;
+  // real = a*c, dual = a*d + b*c
+  float nx = a.w * c.x + c.w * a.x + a.y * c.z - a.z * c.y;
+  float ny = a.w * c.y + c.w * a.y - a.x * c.z + a.z * c.x;
+  float nz = a.w * c.z + c.w * a.z + a.x * c.y - a.y * c.x;
+  float nw = a.w * c.w - a.x * c.x - a.y * c.y - a.z * c.z;
+  float dx = a.w * d.x + d.w * a.x + a.y * d.z - a.z * d.y
+   + b.w * c.x + c.w * b.x + b.y * c.z - b.z * c.y;
+  float dy = a.w * d.y + d.w * a.y - a.x * d.z + a.z * d.x
+   + b.w * c.y + c.w * b.y - b.x * c.z + b.z * c.x;
+  float dz = a.w * d.z + d.w * a.z + a.x * d.y - a.y * d.x
+   + b.w * c.z + c.w * b.z + b.x * c.y - b.y * c.x;
+  float dw = a.w * d.w - a.x * d.x - a.y * d.y - a.z * d.z
+   + b.w * c.w - b.x * c.x - b.y * c.y - b.z * c.z;
+  real.set(nx, ny, nz, nw);
+  dual.set(dx, dy, dz, dw);
+  return (T) this;
+ }
+
+ /**
+  * Sets the value of this dual quaternion to the product of itself and d1, the transform that
+  * applies d1 first.
+  *
+  * @param d1 the other dual quaternion
+  * @return this for chaining
+  */
+ public T mul(DualQuat4f d1) {
+  return mul(this, d1);
+ }
+
+ /**
+  * Sets the value of this dual quaternion to the quaternion conjugate of d1, which is the inverse
+  * transform when d1 is normalized.
+  *
+  * @param d1 the source dual quaternion
+  * @return this for chaining
+  */
+ public T conjugate(DualQuat4f d1) {
+  real.conjugate(d1.real);
+  dual.conjugate(d1.dual);
+  return (T) this;
+ }
+
+ /**
+  * Sets the value of this dual quaternion to its quaternion conjugate, which is the inverse
+  * transform when it is normalized.
+  *
+  * @return this for chaining
+  */
+ public T conjugate() {
+  return conjugate(this);
+ }
+
+ /**
+  * Sets the value of this dual quaternion to d1 normalized: the real part is unit length and the
+  * dual part is orthogonal to it.
+  *
+  * @param d1 the dual quaternion to normalize
+  * @return this for chaining
+  */
+ public T normalize(DualQuat4f d1) {
+  float rx = d1.real.x, ry = d1.real.y, rz = d1.real.z, rw = d1.real.w;
+  float dx = d1.dual.x, dy = d1.dual.y, dz = d1.dual.z, dw = d1.dual.w;
+  float n = 1.0f / sqrt(rx * rx + ry * ry + rz * rz + rw * rw);
+  rx *= n;
+  ry *= n;
+  rz *= n;
+  rw *= n;
+  float rd = rx * dx + ry * dy + rz * dz + rw * dw;
+  real.set(rx, ry, rz, rw);
+  dual.set((dx - rx * rd) * n, (dy - ry * rd) * n, (dz - rz * rd) * n, (dw - rw * rd) * n);
+  return (T) this;
+ }
+
+ /**
+  * Normalizes this dual quaternion in place.
+  *
+  * @return this for chaining
+  */
+ public T normalize() {
+  return normalize(this);
+ }
+
+ /**
+  * Sets the value of this dual quaternion to the weighted sum w1 * d1 + w2 * d2, negating d2 when
+  * needed so that both rotations take the shorter path, and normalizes the result.
+  *
+  * @param d1 the first dual quaternion
+  * @param w1 the weight of d1
+  * @param d2 the second dual quaternion
+  * @param w2 the weight of d2
+  * @return this for chaining
+  */
+ public T blend(DualQuat4f d1, float w1, DualQuat4f d2, float w2) {
+  if (d1.real.dot(d2.real) < 0.0f) {
+   w2 = -w2;
+  }
+  real.set(w1 * d1.real.x + w2 * d2.real.x, w1 * d1.real.y + w2 * d2.real.y,
+   w1 * d1.real.z + w2 * d2.real.z, w1 * d1.real.w + w2 * d2.real.w);
+  dual.set(w1 * d1.dual.x + w2 * d2.dual.x, w1 * d1.dual.y + w2 * d2.dual.y,
+   w1 * d1.dual.z + w2 * d2.dual.z, w1 * d1.dual.w + w2 * d2.dual.w);
+  return normalize();
+ }
+
+ /**
+  * Transforms the point t1 by this dual quaternion and places the result into t2.
+  *
+  * @param <S>
+  * @param t1 the point to be transformed
+  * @param t2 the transformed point
+  * @return t2 for chaining
+  */
+ public <S extends Tuple3f> S transform(Tuple3f t1, S t2) {
+  float rx = real.x, ry = real.y, rz = real.z, rw = real.w;
+  float dx = dual.x, dy = dual.y, dz = dual.z, dw = dual.w;
+  float px = t1.x, py = t1.y, pz = t1.z;
+  float s = 1.0f / (rx * rx + ry * ry + rz * rz + rw * rw);
+  // r*p*r' as in Quat4f.transform plus the translation, both scaled by 1/|r|^2
+  float a = rw * rw - (rx * rx + ry * ry + rz * rz);
+  float b = 2.0f * (rx * px + ry * py + rz * pz);
+  float c = 2.0f * rw;
+  float x = a * px + b * rx + c * (ry * pz - rz * py)
+   + 2.0f * (rw * dx - dw * rx + ry * dz - rz * dy);
+  float y = a * py + b * ry + c * (rz * px - rx * pz)
+   + 2.0f * (rw * dy - dw * ry + rz * dx - rx * dz);
+  float z = a * pz + b * rz + c * (rx * py - ry * px)
+   + 2.0f * (rw * dz - dw * rz + rx * dy - ry * dx);
+  t2.x = x * s;
+  t2.y = y * s;
+  t2.z = z * s;
+  return t2;
+ }
+
+ /**
+  * Transforms the point t1 by this dual quaternion and stores the result back into t1.
+  *
+  * @param <S>
+  * @param t1 the point to be transformed
+  * @return t1 for chaining
+  */
+ public <S extends Tuple3f> S transform(S t1) {
+  return transform(t1, t1);
+ }
+
+ /**
+  * Rotates the direction t1 by this dual quaternion, ignoring the translation, and places the
+  * result into t2.
+  *
+  * @param <S>
+  * @param t1 the direction to be transformed
+  * @param t2 the transformed direction
+  * @return t2 for chaining
+  */
+ public <S extends Tuple3f> S transform3x3(Tuple3f t1, S t2) {
+  float rx = real.x, ry = real.y, rz = real.z, rw = real.w;
+  float px = t1.x, py = t1.y, pz = t1.z;
+  float s = 1.0f / (rx * rx + ry * ry + rz * rz + rw * rw);
+  float a = rw * rw - (rx * rx + ry * ry + rz * rz);
+  float b = 2.0f * (rx * px + ry * py + rz * pz);
+  float c = 2.0f * rw;
+  t2.x = (a * px + b * rx + c * (ry * pz - rz * py)) * s;
+  t2.y = (a * py + b * ry + c * (rz * px - rx * pz)) * s;
+  t2.z = (a * pz + b * rz + c * (rx * py - ry * px)) * s;
+  return t2;
+ }
+
+ /**
+  * Rotates the direction t1 by this dual quaternion, ignoring the translation, and stores the
+  * result back into t1.
+  *
+  * @param <S>
+  * @param t1 the direction to be transformed
+  * @return t1 for chaining
+  */
+ public <S extends Tuple3f> S transform3x3(S t1) {
+  return transform3x3(t1, t1);
+ }
+
+ /**
+  * Returns true if all of the data members of d1 are equal to the corresponding data members in
+  * this DualQuat4f.
+  *
+  * @param d1 the dual quaternion with which the comparison is made.
+  * @return true or false
+  */
+ public boolean equals(DualQuat4f d1) {
+  return real.equals(d1.real) && dual.equals(d1.dual);
+ }
+
+ /**
+  * Returns true if the Object t1 is of type DualQuat4f and all of the data members of t1 are equal
+  * to the corresponding data members in this DualQuat4f.
+  *
+  * @param t1 the dual quaternion with which the comparison is made.
+  * @return true or false
+  */
+ @Override
+ public boolean equals(Object t1) {
+  try {
+   return equals((DualQuat4f) t1);
+  } catch (ClassCastException | NullPointerException e1) {
+   return false;
+  }
+ }
+
+ /**
+  * Returns true if the L-infinite distance between this dual quaternion and d1 is less than or
+  * equal to the epsilon parameter, otherwise returns false. A dual quaternion and its negation are
+  * the same transform but are not epsilon equal.
+  *
+  * @param d1 the dual quaternion to be compared to this dual quaternion
+  * @param epsilon the threshold value
+  * @return true or false
+  */
+ public boolean epsilonEquals(DualQuat4f d1, float epsilon) {
+  return !(different_epsilon(real.x, d1.real.x, epsilon)
+   || different_epsilon(real.y, d1.real.y, epsilon)
+   || different_epsilon(real.z, d1.real.z, epsilon)
+   || different_epsilon(real.w, d1.real.w, epsilon)
+   || different_epsilon(dual.x, d1.dual.x, epsilon)
+   || different_epsilon(dual.y, d1.dual.y, epsilon)
+   || different_epsilon(dual.z, d1.dual.z, epsilon)
+   || different_epsilon(dual.w, d1.dual.w, epsilon));
+ }
+
+ /**
+  * Returns a hash code value based on the data values in this object. Two DualQuat4f objects that
+  * are equal return the same hash code value.
+  *
+  * @return the integer hash code value
+  */
+ @Override
+ public int hashCode() {
+  return 67 * real.hashCode() + dual.hashCode();
+ }
+}
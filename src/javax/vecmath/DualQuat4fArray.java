@@ -0,0 +1,359 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+import static javax.vecmath.VecMath.sqrt;
+
+/**
+ * A packed array of single precision dual quaternions. Each dual quaternion is 8 consecutive values
+ * of a single float[], the real x,y,z,w followed by the dual x,y,z,w. Bulk methods mirror the
+ * DualQuat4f API and operate over the range of entries starting at index and spanning length
+ * entries, like Matrix4fArray.
+ * <P>
+ * A bone palette of 8 values per bone is half the size of a Matrix4fArray palette. blend computes
+ * the dual quaternion linear blend (DLB) of the weighted bones of each vertex, and transform
+ * applies the blended transforms to packed points.
+ *
+ */
+public class DualQuat4fArray implements java.io.Serializable {
+
+ private static final long serialVersionUID = 1;
+ final float[] q;
+ private final int size;
+
+ /**
+  * Constructs an array of dual quaternions initialized to all zeros.
+  *
+  * @param size the number of dual quaternions
+  */
+ public DualQuat4fArray(int size) {
+  this.size = size;
+  q = new float[size * 8];
+ }
+
+ /**
+  * Constructs an array of dual quaternions that wraps an existing array of values. The array is
+  * not copied.
+  *
+  * @param values the dual quaternion elements, 8 for each entry, the length must be a multiple of
+  * 8
+  */
+ public DualQuat4fArray(float[] values) {
+  if (values.length % 8 != 0) {
+   throw new IllegalArgumentException("Array length must be a multiple of 8.");
+  }
+  size = values.length / 8;
+  q = values;
+ }
+
+ /**
+  * Get the number of dual quaternions in this array.
+  *
+  * @return the number of dual quaternions
+  */
+ public int size() {
+  return size;
+ }
+
+ /**
+  * Copies a dual quaternion out of the array.
+  *
+  * @param <S>
+  * @param i the index
+  * @param d1 the dual quaternion to receive the values
+  * @return d1
+  */
+ public <S extends DualQuat4f> S get(int i, S d1) {
+  checkRange(i, 1);
+  int o = i * 8;
+  d1.real.set(q[o], q[o + 1], q[o + 2], q[o + 3]);
+  d1.dual.set(q[o + 4], q[o + 5], q[o + 6], q[o + 7]);
+  return d1;
+ }
+
+ /**
+  * Sets a dual quaternion in the array.
+  *
+  * @param i the index
+  * @param d1 the dual quaternion to copy
+  * @return this for chaining
+  */
+ public DualQuat4fArray set(int i, DualQuat4f d1) {
+  checkRange(i, 1);
+  int o = i * 8;
+  q[o] = d1.real.x;
+  q[o + 1] = d1.real.y;
+  q[o + 2] = d1.real.z;
+  q[o + 3] = d1.real.w;
+  q[o + 4] = d1.dual.x;
+  q[o + 5] = d1.dual.y;
+  q[o + 6] = d1.dual.z;
+  q[o + 7] = d1.dual.w;
+  return this;
+ }
+
+ /**
+  * Sets each entry in the range to the rigid matrix at the same index of m1.
+  *
+  * @param index the first entry
+  * @param length the number of entries
+  * @param m1 the matrices, the upper 3x3 of each must be a rotation
+  * @return this for chaining
+  */
+ public DualQuat4fArray set(int index, int length, Matrix4fArray m1) {
+  checkRange(index, length);
+  m1.checkRange(index, length);
+  final float[] a = m1.m;
+  for (int i = 0, o = index * 8, s = index * 16; i < length; ++i, o += 8, s += 16) {
+   Quat4fArray.set(q, o, a[s], a[s + 1], a[s + 2], a[s + 4], a[s + 5], a[s + 6], a[s + 8],
+    a[s + 9], a[s + 10]);
+   float rx = q[o], ry = q[o + 1], rz = q[o + 2], rw = q[o + 3];
+   float n = 1.0f / sqrt(rx * rx + ry * ry + rz * rz + rw * rw);
+   rx *= n;
+   ry *= n;
+   rz *= n;
+   rw *= n;
+   float tx = 0.5f * a[s + 3], ty = 0.5f * a[s + 7], tz = 0.5f * a[s + 11];
+   q[o] = rx;
+   q[o + 1] = ry;
+   q[o + 2] = rz;
+   q[o + 3] = rw;
+   // (t,0) * r / 2
+   q[o + 4] = tx * rw + ty * rz - tz * ry;
+   q[o + 5] = ty * rw + tz * rx - tx * rz;
+   q[o + 6] = tz * rw + tx * ry - ty * rx;
+   q[o + 7] = -(tx * rx + ty * ry + tz * rz);
+  }
+  return this;
+ }
+
+ /**
+  * Sets each entry in the range to the identity transform.
+  *
+  * @param index the first entry
+  * @param length the number of entries
+  * @return this for chaining
+  */
+ public DualQuat4fArray setIdentity(int index, int length) {
+  checkRange(index, length);
+  for (int i = 0, o = index * 8; i < length; ++i, o += 8) {
+   for (int j = 0; j < 8; ++j) {
+    q[o + j] = (j == 3) ? 1.0f : 0.0f;
+   }
+  }
+  return this;
+ }
+
+ /**
+  * Sets each entry in the range to the product of the corresponding entries in d1 and d2. Either
+  * argument may be this array.
+  *
+  * @param index the first entry
+  * @param length the number of entries
+  * @param d1 the dual quaternions on the left hand side of the multiplication
+  * @param d2 the dual quaternions on the right hand side of the multiplication
+  * @return this for chaining
+  */
+ public DualQuat4fArray mul(int index, int length, DualQuat4fArray d1, DualQuat4fArray d2) {
+  checkRange(index, length);
+  d1.checkRange(index, length);
+  d2.checkRange(index, length);
+  final float[] a = d1.q, b = d2.q;
+  for (int i = 0, o = index * 8; i < length; ++i, o += 8) {
+   float ax = a[o], ay = a[o + 1], az = a[o + 2], aw = a[o + 3];
+   float bx = a[o + 4], by = a[o + 5], bz = a[o + 6], bw = a[o + 7];
+   float cx = b[o], cy = b[o + 1], cz = b[o + 2], cw = b[o + 3];
+   float dx = b[o + 4], dy = b[o + 5], dz = b[o + 6], dw = b[o + 7];
+   q[o] = aw * cx + cw * ax + ay * cz - az * cy;
+   q[o + 1] = aw * cy + cw * ay - ax * cz + az * cx;
+   q[o + 2] = aw * cz + cw * az + ax * cy - ay * cx;
+   q[o + 3] = aw * cw - ax * cx - ay * cy - az * cz;
+   q[o + 4] = aw * dx + dw * ax + ay * dz - az * dy + bw * cx + cw * bx + by * cz - bz * cy;
+   q[o + 5] = aw * dy + dw * ay - ax * dz + az * dx + bw * cy + cw * by - bx * cz + bz * cx;
+   q[o + 6] = aw * dz + dw * az + ax * dy - ay * dx + bw * cz + cw * bz + bx * cy - by * cx;
+   q[o + 7] = aw * dw - ax * dx - ay * dy - az * dz + bw * cw - bx * cx - by * cy - bz * cz;
+  }
+  return this;
+ }
+
+ /**
+  * Normalizes each entry in the range, as DualQuat4f.normalize.
+  *
+  * @param index the first entry
+  * @param length the number of entries
+  * @return this for chaining
+  */
+ public DualQuat4fArray normalize(int index, int length) {
+  checkRange(index, length);
+  for (int i = 0, o = index * 8; i < length; ++i, o += 8) {
+   normalize(q, o);
+  }
+  return this;
+ }
+
+ private static void normalize(float[] q, int o) {
+  float rx = q[o], ry = q[o + 1], rz = q[o + 2], rw = q[o + 3];
+  float n = 1.0f / sqrt(rx * rx + ry * ry + rz * rz + rw * rw);
+  rx *= n;
+  ry *= n;
+  rz *= n;
+  rw *= n;
+  float rd = rx * q[o + 4] + ry * q[o + 5] + rz * q[o + 6] + rw * q[o + 7];
+  q[o] = rx;
+  q[o + 1] = ry;
+  q[o + 2] = rz;
+  q[o + 3] = rw;
+  q[o + 4] = (q[o + 4] - rx * rd) * n;
+  q[o + 5] = (q[o + 5] - ry * rd) * n;
+  q[o + 6] = (q[o + 6] - rz * rd) * n;
+  q[o + 7] = (q[o + 7] - rw * rd) * n;
+ }
+
+ /**
+  * Dual quaternion linear blend. Sets each entry i in the range to the normalized weighted sum of
+  * the bones that influence it: bones indices[i * influences + k] with weights[i * influences +
+  * k] for k from 0 to influences - 1. Bones whose rotation is on the opposite side of the first
+  * bone's are negated so that the blend takes the shorter path, and influences with a weight of 0
+  * are skipped.
+  *
+  * @param index the first entry
+  * @param length the number of entries
+  * @param bones the bone palette
+  * @param indices the bone indices, influences per entry
+  * @param weights the bone weights, influences per entry
+  * @param influences the number of bones per entry
+  * @return this for chaining
+  */
+ public DualQuat4fArray blend(int index, int length, DualQuat4fArray bones, int[] indices,
+  float[] weights, int influences) {
+  checkRange(index, length);
+  final float[] b = bones.q;
+  for (int i = index, o = index * 8; i < index + length; ++i, o += 8) {
+   float rx = 0, ry = 0, rz = 0, rw = 0, dx = 0, dy = 0, dz = 0, dw = 0;
+   float px = 0, py = 0, pz = 0, pw = 0;
+   boolean first = true;
+   for (int k = i * influences, end = k + influences; k < end; ++k) {
+    float w = weights[k];
+    if (w == 0.0f) {
+     continue;
+    }
+    int s = indices[k] * 8;
+    if (first) {
+     px = b[s];
+     py = b[s + 1];
+     pz = b[s + 2];
+     pw = b[s + 3];
+     first = false;
+    } else if (px * b[s] + py * b[s + 1] + pz * b[s + 2] + pw * b[s + 3] < 0.0f) {
+     w = -w;
+    }
+    rx += w * b[s];
+    ry += w * b[s + 1];
+    rz += w * b[s + 2];
+    rw += w * b[s + 3];
+    dx += w * b[s + 4];
+    dy += w * b[s + 5];
+    dz += w * b[s + 6];
+    dw += w * b[s + 7];
+   }
+   if (first) {
+    rw = 1.0f;
+   }
+   q[o] = rx;
+   q[o + 1] = ry;
+   q[o + 2] = rz;
+   q[o + 3] = rw;
+   q[o + 4] = dx;
+   q[o + 5] = dy;
+   q[o + 6] = dz;
+   q[o + 7] = dw;
+   normalize(q, o);
+  }
+  return this;
+ }
+
+ /**
+  * Transforms an array of points by the entries in the range, point j by entry index + j, and
+  * places the results into another array. Each point is 3 consecutive values (x,y,z). The source
+  * and destination may be the same array. The entries need not be normalized.
+  *
+  * @param index the first entry
+  * @param length the number of entries and points
+  * @param src the packed points to transform
+  * @param srcOffset the location of the first point in src
+  * @param srcStride the distance between the start of consecutive points in src, at least 3
+  * @param dst the array to receive the transformed points
+  * @param dstOffset the location of the first point in dst
+  * @param dstStride the distance between the start of consecutive points in dst, at least 3
+  * @return dst for chaining
+  */
+ public float[] transform(int index, int length, float[] src, int srcOffset, int srcStride,
+  float[] dst, int dstOffset, int dstStride) {
+  checkRange(index, length);
+  for (int i = 0, o = index * 8, s = srcOffset, d = dstOffset; i < length; ++i, o += 8,
+   s += srcStride, d += dstStride) {
+   float rx = q[o], ry = q[o + 1], rz = q[o + 2], rw = q[o + 3];
+   float dx = q[o + 4], dy = q[o + 5], dz = q[o + 6], dw = q[o + 7];
+   float px = src[s], py = src[s + 1], pz = src[s + 2];
+   float n = 1.0f / (rx * rx + ry * ry + rz * rz + rw * rw);
+   float a = rw * rw - (rx * rx + ry * ry + rz * rz);
+   float b = 2.0f * (rx * px + ry * py + rz * pz);
+   float c = 2.0f * rw;
+   dst[d] = (a * px + b * rx + c * (ry * pz - rz * py)
+    + 2.0f * (rw * dx - dw * rx + ry * dz - rz * dy)) * n;
+   dst[d + 1] = (a * py + b * ry + c * (rz * px - rx * pz)
+    + 2.0f * (rw * dy - dw * ry + rz * dx - rx * dz)) * n;
+   dst[d + 2] = (a * pz + b * rz + c * (rx * py - ry * px)
+    + 2.0f * (rw * dz - dw * rz + rx * dy - ry * dx)) * n;
+  }
+  return dst;
+ }
+
+ /**
+  * Returns a string that contains the values of the dual quaternions in this array.
+  *
+  * @return the String representation
+  */
+ @Override
+ public String toString() {
+  StringBuilder s = new StringBuilder("[");
+  for (int i = 0, o = 0; i < size; ++i, o += 8) {
+   if (i > 0) {
+    s.append(", ");
+   }
+   s.append('(');
+   for (int j = 0; j < 8; ++j) {
+    if (j > 0) {
+     s.append(j == 4 ? "; " : ", ");
+    }
+    s.append(q[o + j]);
+   }
+   s.append(')');
+  }
+  return s.append(']').toString();
+ }
+
+ /**
+  * Check that a range of entries is within this array.
+  *
+  * @param index the first entry
+  * @param length the number of entries
+  */
+ final void checkRange(int index, int length) {
+  if (index < 0 || length < 0 || length > size - index) {
+   throw new IndexOutOfBoundsException("Range " + index + " + " + length + " is outside size " +
+    size);
+  }
+ }
+}
@@ -22,8 +22,8 @@ import java.io.Serializable;
  */
 public class FloatPointer implements Serializable {
 
- final private float[] array;
- final private int offset;
+ final float[] array;
+ final int offset;
 
  /**
   * Construct a FloatPointer object that points to the value in the specified array at the specified
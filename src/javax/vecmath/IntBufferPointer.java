@@ -0,0 +1,229 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Points to an element within a buffer. The buffer counterpart of IntPointer with the same
+ * get/set/read/write/copy semantics, for working directly on direct, memory mapped or heap buffers
+ * without copying to an int[]. Indices and deltas count ints, not bytes.
+ * <P>
+ * The pointer keeps its own view of the buffer, the position, limit and byte order of the buffer
+ * passed in are not used after construction or changed.
+ * <P>
+ * Not available in the GWT module.
+ *
+ */
+public class IntBufferPointer {
+
+ final private IntBuffer buffer;
+ final private int offset;
+
+ /**
+  * Construct a IntBufferPointer object that points to the value in the specified buffer at the
+  * specified index. Index 0 is the position of the buffer.
+  *
+  * @param buffer
+  * @param index
+  */
+ public IntBufferPointer(IntBuffer buffer, int index) {
+  this.buffer = buffer.slice();
+  this.offset = index;
+ }
+
+ public IntBufferPointer(IntBuffer buffer) {
+  this(buffer, 0);
+ }
+
+ /**
+  * Construct a IntBufferPointer object that reads and writes ints in a byte buffer with the
+  * specified byte order. Index 0 is the position of the buffer.
+  *
+  * @param buffer the bytes
+  * @param index the int index to point to
+  * @param order the byte order of the ints in the buffer
+  */
+ public IntBufferPointer(ByteBuffer buffer, int index, ByteOrder order) {
+  this(buffer.duplicate().order(order).asIntBuffer(), index);
+ }
+
+ /**
+  * Construct a IntBufferPointer object that reads and writes ints in a byte buffer using the
+  * current byte order of the buffer.
+  *
+  * @param buffer the bytes
+  * @param index the int index to point to
+  */
+ public IntBufferPointer(ByteBuffer buffer, int index) {
+  this(buffer, index, buffer.order());
+ }
+
+ /**
+  * Construct a IntBufferPointer object from another IntBufferPointer object with a shifted
+  * base index
+  *
+  * @param base pointer to a value
+  * @param delta shift the location the new object points to by delta indices relative to base
+  * pointer
+  */
+ public IntBufferPointer(IntBufferPointer base, int delta) {
+  buffer = base.buffer;
+  offset = base.offset + delta;
+ }
+
+ /**
+  * Construct a IntBufferPointer object by copying another IntBufferPointer object
+  *
+  * @param base pointer to a value
+  */
+ public IntBufferPointer(IntBufferPointer base) {
+  buffer = base.buffer;
+  offset = base.offset;
+ }
+
+ /**
+  * Get the byte order used to read and write values.
+  *
+  * @return the byte order
+  */
+ public ByteOrder order() {
+  return buffer.order();
+ }
+
+ /**
+  * Dereference this pointer to get a single value
+  *
+  * @return the value at the location this pointer points to
+  */
+ public int get() {
+  return buffer.get(offset);
+ }
+
+ /**
+  * Adjust the pointer by an offset and dereference to get a single value.
+  *
+  * @param delta the amount to move the pointer before dereferencing
+  * @return the dereferenced value
+  */
+ public int get(int delta) {
+  return buffer.get(offset + delta);
+ }
+
+ /**
+  * Write a single value to the location that this pointer points to
+  *
+  * @param value the new value to write.
+  */
+ public void set(int value) {
+  buffer.put(offset, value);
+ }
+
+ /**
+  * Write a single value to a location that is offset from the base location
+  *
+  * @param delta the amount to move the pointer by before writing the value
+  * @param value the value to write
+  */
+ public void set(int delta, int value) {
+  buffer.put(offset + delta, value);
+ }
+
+ /**
+  * Copy values from the pointed to location into an array.
+  *
+  * @param dest the array to copy values to
+  * @param length the number of values to copy. Will throw buffer or array exceptions if the length
+  * is too long for the source or destination.
+  */
+ public void read(int[] dest, int length) {
+  range(length).get(dest, 0, length);
+ }
+
+ /**
+  * Write an array of values starting at this pointer with each element at a higher address
+  *
+  * @param values the values to write, all values from index 0 to length-1 will be written.
+  */
+ public void write(int[] values) {
+  range(values.length).put(values);
+ }
+
+ /**
+  * Copy values from the location pointed to by a source pointer to the location pointed to by this
+  * pointer. Overlapping ranges are copied as if through an intermediate array when both pointers
+  * are into the same array, possibly through different slices or duplicates, or were derived from
+  * the same pointer. Other overlapping direct and view buffers rely on the bulk put of the buffer,
+  * which does the same from Java 16 on.
+  *
+  * @param source The pointer to read values from
+  * @param length the number of values to read.
+  */
+ public void copy(IntBufferPointer source, int length) {
+  IntBuffer src = source.range(length);
+  IntBuffer dst = range(length);
+  if (src.hasArray() && dst.hasArray()) {
+   if (src.array() == dst.array()) {
+    // the same memory whichever buffers the pointers were made from, arraycopy handles overlap
+    System.arraycopy(src.array(), src.arrayOffset() + source.offset, dst.array(),
+     dst.arrayOffset() + offset, length);
+    return;
+   }
+  } else if (source.buffer == buffer && source.offset < offset && offset < source.offset
+   + length) {
+   // the destination starts inside the source, copy backwards so no value is read after it is
+   // overwritten
+   for (int i = length - 1; i >= 0; --i) {
+    buffer.put(offset + i, buffer.get(source.offset + i));
+   }
+   return;
+  }
+  dst.put(src);
+ }
+
+ /**
+  * Copy values from an array pointer to the location pointed to by this pointer.
+  *
+  * @param source The pointer to read values from
+  * @param length the number of values to read.
+  */
+ public void copy(IntPointer source, int length) {
+  range(length).put(source.array, source.offset, length);
+ }
+
+ /**
+  * Copy values from the location pointed to by this pointer to the location pointed to by an array
+  * pointer.
+  *
+  * @param dest The pointer to write values to
+  * @param length the number of values to write.
+  */
+ public void copyTo(IntPointer dest, int length) {
+  range(length).get(dest.array, dest.offset, length);
+ }
+
+ /**
+  * A view of length values starting at this pointer.
+  */
+ private IntBuffer range(int length) {
+  IntBuffer view = buffer.duplicate();
+  // through Buffer, the IntBuffer overrides returning IntBuffer do not exist before Java 9
+  ((Buffer) view).limit(offset + length);
+  ((Buffer) view).position(offset);
+  return view;
+ }
+}
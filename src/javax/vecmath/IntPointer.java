@@ -19,8 +19,8 @@ package javax.vecmath;
  */
 public class IntPointer {
  
- final private int[] array;
- final private int offset;
+ final int[] array;
+ final int offset;
 
  /**
   * Construct a IntPointer object that points to the value in the specified array at the specified
@@ -0,0 +1,317 @@
+package javax.vecmath;
+
+/**
+ * LU Decomposition.
+ * <P>
+ * For an m-by-n matrix A with m >= n, the LU decomposition is an m-by-n unit lower triangular
+ * matrix L, an n-by-n upper triangular matrix U, and a permutation vector piv of length m so that
+ * A(piv,:) = L*U. If m < n, then L is m-by-m and U is m-by-n.
+ * <P>
+ * The LU decompostion with pivoting always exists, even if the matrix is singular, so the
+ * constructor will never fail. The primary use of the LU decomposition is in the solution of
+ * square systems of simultaneous linear equations. This will fail if isNonsingular() returns false.
+ * <P>
+ * The decomposition can be computed in the storage of A, which then holds L below the diagonal and
+ * U on and above it, with the rows in pivot order.
+ */
+public class LUDecomposition implements java.io.Serializable {
+
+ /*
+	 * ------------------------ Class variables ------------------------
+  */
+ /**
+  * Array for internal storage of decomposition, element (i,j) is LU[offset + i * ld + j].
+  *
+  * @serial internal array storage.
+  */
+ private final double[] LU;
+ /**
+  * Index of element (0,0) and distance between rows in LU.
+  *
+  * @serial offset of the first element.
+  * @serial leading dimension.
+  */
+ private final int offset, ld;
+ /**
+  * Row and column dimensions, and pivot sign.
+  *
+  * @serial column dimension.
+  * @serial row dimension.
+  * @serial pivot sign.
+  */
+ private final int m, n;
+ private int pivsign;
+ /**
+  * Internal storage of pivot vector.
+  *
+  * @serial pivot vector.
+  */
+ private final int[] piv;
+
+ /*
+	 * ------------------------ Constructor ------------------------
+  */
+ /**
+  * LU Decomposition Structure to access L, U and piv.
+  *
+  * @param A Rectangular matrix
+  */
+ public LUDecomposition(Matrix A) {
+  this(A, false);
+ }
+
+ /**
+  * LU Decomposition, optionally computed in the storage of A.
+  *
+  * @param A Rectangular matrix
+  * @param overwrite true to factor A in place, A then holds the factors and must not be used as a
+  * matrix while the decomposition is in use
+  */
+ public LUDecomposition(Matrix A, boolean overwrite) {
+  // Use a "left-looking", dot-product, Crout/Doolittle algorithm.
+  m = A.getRowDimension();
+  n = A.getColumnDimension();
+  if (overwrite) {
+   LU = A.A;
+   offset = A.offset;
+   ld = A.ld;
+  } else {
+   LU = A.getRowPackedCopy();
+   offset = 0;
+   ld = n;
+  }
+  piv = new int[m];
+  for (int i = 0; i < m; i++) {
+   piv[i] = i;
+  }
+  pivsign = 1;
+  double[] LUcolj = new double[m];
+  // Outer loop.
+  for (int j = 0; j < n; j++) {
+   // Make a copy of the j-th column to localize references.
+   for (int i = 0; i < m; i++) {
+    LUcolj[i] = LU[offset + i * ld + j];
+   }
+   // Apply previous transformations.
+   for (int i = 0; i < m; i++) {
+    int rowi = offset + i * ld;
+    // Most of the time is spent in the following dot product.
+    int kmax = Math.min(i, j);
+    double s = 0.0;
+    for (int k = 0; k < kmax; k++) {
+     s += LU[rowi + k] * LUcolj[k];
+    }
+    LU[rowi + j] = LUcolj[i] -= s;
+   }
+   // Find pivot and exchange if necessary.
+   int p = j;
+   for (int i = j + 1; i < m; i++) {
+    if (Math.abs(LUcolj[i]) > Math.abs(LUcolj[p])) {
+     p = i;
+    }
+   }
+   if (p != j) {
+    for (int k = 0, rp = offset + p * ld, rj = offset + j * ld; k < n; k++) {
+     double t = LU[rp + k];
+     LU[rp + k] = LU[rj + k];
+     LU[rj + k] = t;
+    }
+    int k = piv[p];
+    piv[p] = piv[j];
+    piv[j] = k;
+    pivsign = -pivsign;
+   }
+   // Compute multipliers.
+   double d = j < m ? LU[offset + j * ld + j] : 0.0;
+   if (d != 0.0) {
+    for (int i = j + 1; i < m; i++) {
+     LU[offset + i * ld + j] /= d;
+    }
+   }
+  }
+ }
+
+ /*
+	 * ------------------------ Public Methods ------------------------
+  */
+ /**
+  * Is the matrix nonsingular?
+  *
+  * @return true if U, and hence A, is nonsingular.
+  */
+ public boolean isNonsingular() {
+  for (int j = 0; j < n; j++) {
+   if (LU[offset + j * ld + j] == 0) {
+    return false;
+   }
+  }
+  return true;
+ }
+
+ /**
+  * Return lower triangular factor
+  *
+  * @return L
+  */
+ public Matrix getL() {
+  int c = Math.min(m, n);
+  Matrix X = new Matrix(m, c);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < c; j++) {
+    if (i > j) {
+     X.A[i * c + j] = LU[offset + i * ld + j];
+    } else if (i == j) {
+     X.A[i * c + j] = 1.0;
+    }
+   }
+  }
+  return X;
+ }
+
+ /**
+  * Return upper triangular factor
+  *
+  * @return U
+  */
+ public Matrix getU() {
+  int r = Math.min(m, n);
+  Matrix X = new Matrix(r, n);
+  for (int i = 0; i < r; i++) {
+   for (int j = i; j < n; j++) {
+    X.A[i * n + j] = LU[offset + i * ld + j];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * Return pivot permutation vector
+  *
+  * @return piv
+  */
+ public int[] getPivot() {
+  return piv.clone();
+ }
+
+ /**
+  * Return pivot permutation vector as a one-dimensional double array
+  *
+  * @return (double) piv
+  */
+ public double[] getDoublePivot() {
+  double[] vals = new double[m];
+  for (int i = 0; i < m; i++) {
+   vals[i] = (double) piv[i];
+  }
+  return vals;
+ }
+
+ /**
+  * Determinant
+  *
+  * @return det(A)
+  * @exception IllegalArgumentException Matrix must be square
+  */
+ public double det() {
+  if (m != n) {
+   throw new IllegalArgumentException("Matrix must be square.");
+  }
+  double d = (double) pivsign;
+  for (int j = 0; j < n; j++) {
+   d *= LU[offset + j * ld + j];
+  }
+  return d;
+ }
+
+ /**
+  * Solve A*X = B
+  *
+  * @param B A Matrix with as many rows as A and any number of columns.
+  * @return X so that L*U*X = B(piv,:)
+  * @exception IllegalArgumentException Matrix row dimensions must agree.
+  * @exception SingularMatrixException Matrix is singular.
+  */
+ public Matrix solve(Matrix B) {
+  return solveInPlace(B.copy());
+ }
+
+ /**
+  * Solve A*X = B, overwriting B with X.
+  *
+  * @param B A Matrix with as many rows as A and any number of columns.
+  * @return B, now holding X so that L*U*X = B(piv,:)
+  * @exception IllegalArgumentException Matrix row dimensions must agree.
+  * @exception SingularMatrixException Matrix is singular.
+  */
+ public Matrix solveInPlace(Matrix B) {
+  if (B.getRowDimension() != m) {
+   throw new IllegalArgumentException("Matrix row dimensions must agree.");
+  }
+  if (!this.isNonsingular()) {
+   throw new SingularMatrixException("Matrix is singular.");
+  }
+  // Copy right hand side with pivoting
+  permuteRows(B);
+  final double[] X = B.A;
+  final int xo = B.offset, xl = B.ld, nx = B.getColumnDimension();
+  // Solve L*Y = B(piv,:)
+  for (int k = 0; k < n; k++) {
+   for (int i = k + 1; i < n; i++) {
+    double l = LU[offset + i * ld + k];
+    for (int j = 0, xi = xo + i * xl, xk = xo + k * xl; j < nx; j++) {
+     X[xi + j] -= X[xk + j] * l;
+    }
+   }
+  }
+  // Solve U*X = Y;
+  for (int k = n - 1; k >= 0; k--) {
+   double d = LU[offset + k * ld + k];
+   for (int j = 0, xk = xo + k * xl; j < nx; j++) {
+    X[xk + j] /= d;
+   }
+   for (int i = 0; i < k; i++) {
+    double u = LU[offset + i * ld + k];
+    for (int j = 0, xi = xo + i * xl, xk = xo + k * xl; j < nx; j++) {
+     X[xi + j] -= X[xk + j] * u;
+    }
+   }
+  }
+  return B;
+ }
+
+ /**
+  * Matrix inverse
+  *
+  * @return inverse(A)
+  * @exception SingularMatrixException Matrix is singular.
+  */
+ public Matrix inverse() {
+  return solveInPlace(Matrix.identity(m, m));
+ }
+
+ /**
+  * Reorders the rows of B so that row i becomes row piv[i], following the cycles of the
+  * permutation so that each row is moved once.
+  */
+ private void permuteRows(Matrix B) {
+  final double[] X = B.A;
+  final int xo = B.offset, xl = B.ld, nx = B.getColumnDimension();
+  double[] row = new double[nx];
+  boolean[] done = new boolean[m];
+  for (int start = 0; start < m; start++) {
+   if (done[start] || piv[start] == start) {
+    continue;
+   }
+   System.arraycopy(X, xo + start * xl, row, 0, nx);
+   int i = start;
+   while (piv[i] != start) {
+    System.arraycopy(X, xo + piv[i] * xl, X, xo + i * xl, nx);
+    done[i] = true;
+    i = piv[i];
+   }
+   System.arraycopy(row, 0, X, xo + i * xl, nx);
+   done[i] = true;
+  }
+ }
+ private static final long serialVersionUID = 1;
+}
@@ -1,6 +1,7 @@
 package javax.vecmath;
 
 import java.util.Arrays;
+import java.util.stream.IntStream;
 
 /**
  * Jama = Java Matrix class.
@@ -43,23 +44,32 @@ import java.util.Arrays;
  */
 public class Matrix implements java.io.Serializable {
 
- static final long serialVersionUID = 1L;
+ static final long serialVersionUID = 2L;
  /*
 	 * ------------------------ Class variables ------------------------
   */
  /**
-  * Array for internal storage of elements.
+  * Array for internal storage of elements. Element (i,j) is A[offset + i * ld + j], so rows are
+  * contiguous and a sub-matrix view shares the array of the matrix it was taken from.
   *
   * @serial internal array storage.
   */
- private double[][] A;
+ final double[] A;
+ /**
+  * Index of element (0,0) in A and the distance between the starts of consecutive rows, the
+  * leading dimension, which is at least n.
+  *
+  * @serial offset of the first element.
+  * @serial leading dimension.
+  */
+ final int offset, ld;
  /**
   * Row and column dimensions.
   *
   * @serial row dimension.
   * @serial column dimension.
   */
- private final int m, n;
+ final int m, n;
 
  /*
 	 * ------------------------ Constructors ------------------------
@@ -71,9 +81,24 @@ public class Matrix implements java.io.Serializable {
   * @param n Number of colums.
   */
  public Matrix(int m, int n) {
+  this(new double[m * n], 0, n, m, n);
+ }
+
+ /**
+  * Construct a matrix over existing storage without copying.
+  *
+  * @param A the storage, element (i,j) is A[offset + i * ld + j]
+  * @param offset index of element (0,0)
+  * @param ld distance between the starts of consecutive rows
+  * @param m Number of rows.
+  * @param n Number of colums.
+  */
+ Matrix(double[] A, int offset, int ld, int m, int n) {
+  this.A = A;
+  this.offset = offset;
+  this.ld = ld;
   this.m = m;
   this.n = n;
-  A = new double[m][n];
  }
 
  /**
@@ -84,14 +109,8 @@ public class Matrix implements java.io.Serializable {
   * @param s Fill the matrix with this scalar value.
   */
  public Matrix(int m, int n, double s) {
-  this.m = m;
-  this.n = n;
-  A = new double[m][n];
-  for (int i = 0; i < m; i++) {
-   for (int j = 0; j < n; j++) {
-    A[i][j] = s;
-   }
-  }
+  this(m, n);
+  Arrays.fill(A, s);
  }
 
  /**
@@ -102,16 +121,12 @@ public class Matrix implements java.io.Serializable {
   * @see #constructWithCopy
   */
  public Matrix(double[][] A) {
-  m = A.length;
-  n = A[0].length;
+  this(A.length, A[0].length);
   for (int i = 0; i < m; i++) {
    if (A[i].length != n) {
     throw new IllegalArgumentException("All rows must have the same length.");
    }
-  }
-  this.A = new double[A.length][];
-  for (int i = 0; i < A.length; ++i) {
-   this.A[i] = Arrays.copyOf(A[i], A[i].length);
+   System.arraycopy(A[i], 0, this.A, i * n, n);
   }
  }
 
@@ -123,12 +138,10 @@ public class Matrix implements java.io.Serializable {
   * @param n Number of colums.
   */
  public Matrix(double[][] A, int m, int n) {
-  this.A = new double[A.length][];
-  for (int i = 0; i < A.length; ++i) {
-   this.A[i] = Arrays.copyOf(A[i], A[i].length);
+  this(m, n);
+  for (int i = 0; i < m; i++) {
+   System.arraycopy(A[i], 0, this.A, i * n, n);
   }
-  this.m = m;
-  this.n = n;
  }
 
  /**
@@ -139,15 +152,13 @@ public class Matrix implements java.io.Serializable {
   * @exception IllegalArgumentException Array length must be a multiple of m.
   */
  public Matrix(double vals[], int m) {
-  this.m = m;
-  n = (m != 0 ? vals.length / m : 0);
+  this(m, (m != 0 ? vals.length / m : 0));
   if (m * n != vals.length) {
    throw new IllegalArgumentException("Array length must be a multiple of m.");
   }
-  A = new double[m][n];
   for (int i = 0; i < m; i++) {
    for (int j = 0; j < n; j++) {
-    A[i][j] = vals[i + j * m];
+    A[i * n + j] = vals[i + j * m];
    }
   }
  }
@@ -165,15 +176,7 @@ public class Matrix implements java.io.Serializable {
  public static Matrix constructWithCopy(double[][] A) {
   int m = A.length;
   int n = A[0].length;
-  Matrix X = new Matrix(m, n);
-  double[][] C = X.getArray();
-  for (int i = 0; i < m; i++) {
-   if (A[i].length != n) {
-    throw new IllegalArgumentException("All rows must have the same length.");
-   }
-   System.arraycopy(A[i], 0, C[i], 0, n);
-  }
-  return X;
+  return new Matrix(A);
  }
 
  /**
@@ -182,32 +185,34 @@ public class Matrix implements java.io.Serializable {
   * @return
   */
  public Matrix copy() {
-  Matrix X = new Matrix(m, n);
-  double[][] C = X.getArray();
-  for (int i = 0; i < m; i++) {
-   System.arraycopy(A[i], 0, C[i], 0, n);
-  }
-  return X;
+  return new Matrix(getRowPackedCopy(), 0, n, m, n);
  }
 
  /**
-  * Access the internal two-dimensional array.
+  * Copy the elements into a two-dimensional array.
+  * <P>
+  * <B>Warning: this returns a copy, not the internal storage.</B> The elements are stored in a
+  * one-dimensional row-major array, so writes to the returned array are NOT seen by the matrix.
+  * Code that modified the matrix through this array must use {@link #set(int, int, double)} or
+  * {@link #setMatrix(int, int, int, int, Matrix)} instead.
   *
-  * @return Pointer to the two-dimensional array of matrix elements.
+  * @return Two-dimensional array copy of matrix elements.
+  * @deprecated Returns a copy; use {@link #getArrayCopy()}, which says so.
   */
+ @Deprecated
  public double[][] getArray() {
-  return A;
+  return getArrayCopy();
  }
 
  /**
-  * Copy the internal two-dimensional array.
+  * Copy the internal array into a two-dimensional array.
   *
   * @return Two-dimensional array copy of matrix elements.
   */
  public double[][] getArrayCopy() {
   double[][] C = new double[m][n];
   for (int i = 0; i < m; i++) {
-   System.arraycopy(A[i], 0, C[i], 0, n);
+   System.arraycopy(A, offset + i * ld, C[i], 0, n);
   }
   return C;
  }
@@ -221,7 +226,7 @@ public class Matrix implements java.io.Serializable {
   double[] vals = new double[m * n];
   for (int i = 0; i < m; i++) {
    for (int j = 0; j < n; j++) {
-    vals[i + j * m] = A[i][j];
+    vals[i + j * m] = A[offset + i * ld + j];
    }
   }
   return vals;
@@ -234,8 +239,12 @@ public class Matrix implements java.io.Serializable {
   */
  public double[] getRowPackedCopy() {
   double[] vals = new double[m * n];
-  for (int i = 0; i < m; i++) {
-   System.arraycopy(A[i], 0, vals, i * n, n);
+  if (ld == n) {
+   System.arraycopy(A, offset, vals, 0, m * n);
+  } else {
+   for (int i = 0; i < m; i++) {
+    System.arraycopy(A, offset + i * ld, vals, i * n, n);
+   }
   }
   return vals;
  }
@@ -267,7 +276,8 @@ public class Matrix implements java.io.Serializable {
   * @exception ArrayIndexOutOfBoundsException
   */
  public double get(int i, int j) {
-  return A[i][j];
+  checkIndex(i, j);
+  return A[offset + i * ld + j];
  }
 
  /**
@@ -281,18 +291,25 @@ public class Matrix implements java.io.Serializable {
   * @exception ArrayIndexOutOfBoundsException Submatrix indices
   */
  public Matrix getMatrix(int i0, int i1, int j0, int j1) {
-  Matrix X = new Matrix(i1 - i0 + 1, j1 - j0 + 1);
-  double[][] B = X.getArray();
-  try {
-   for (int i = i0; i <= i1; i++) {
-    for (int j = j0; j <= j1; j++) {
-     B[i - i0][j - j0] = A[i][j];
-    }
-   }
-  } catch (ArrayIndexOutOfBoundsException e) {
+  return getMatrixView(i0, i1, j0, j1).copy();
+ }
+
+ /**
+  * Get a submatrix that shares storage with this matrix. Changes to either matrix are visible in
+  * the other.
+  *
+  * @param i0 Initial row index
+  * @param i1 Final row index
+  * @param j0 Initial column index
+  * @param j1 Final column index
+  * @return A(i0:i1,j0:j1)
+  * @exception ArrayIndexOutOfBoundsException Submatrix indices
+  */
+ public Matrix getMatrixView(int i0, int i1, int j0, int j1) {
+  if (i0 < 0 || j0 < 0 || i1 >= m || j1 >= n || i1 < i0 - 1 || j1 < j0 - 1) {
    throw new ArrayIndexOutOfBoundsException("Submatrix indices");
   }
-  return X;
+  return new Matrix(A, offset + i0 * ld + j0, ld, i1 - i0 + 1, j1 - j0 + 1);
  }
 
  /**
@@ -305,11 +322,11 @@ public class Matrix implements java.io.Serializable {
   */
  public Matrix getMatrix(int[] r, int[] c) {
   Matrix X = new Matrix(r.length, c.length);
-  double[][] B = X.getArray();
+  double[] B = X.A;
   try {
    for (int i = 0; i < r.length; i++) {
     for (int j = 0; j < c.length; j++) {
-     B[i][j] = A[r[i]][c[j]];
+     B[i * c.length + j] = get(r[i], c[j]);
     }
    }
   } catch (ArrayIndexOutOfBoundsException e) {
@@ -329,11 +346,11 @@ public class Matrix implements java.io.Serializable {
   */
  public Matrix getMatrix(int i0, int i1, int[] c) {
   Matrix X = new Matrix(i1 - i0 + 1, c.length);
-  double[][] B = X.getArray();
+  double[] B = X.A;
   try {
    for (int i = i0; i <= i1; i++) {
     for (int j = 0; j < c.length; j++) {
-     B[i - i0][j] = A[i][c[j]];
+     B[(i - i0) * c.length + j] = get(i, c[j]);
     }
    }
   } catch (ArrayIndexOutOfBoundsException e) {
@@ -353,11 +370,11 @@ public class Matrix implements java.io.Serializable {
   */
  public Matrix getMatrix(int[] r, int j0, int j1) {
   Matrix X = new Matrix(r.length, j1 - j0 + 1);
-  double[][] B = X.getArray();
+  double[] B = X.A;
   try {
    for (int i = 0; i < r.length; i++) {
     for (int j = j0; j <= j1; j++) {
-     B[i][j - j0] = A[r[i]][j];
+     B[i * X.n + j - j0] = get(r[i], j);
     }
    }
   } catch (ArrayIndexOutOfBoundsException e) {
@@ -375,7 +392,8 @@ public class Matrix implements java.io.Serializable {
   * @exception ArrayIndexOutOfBoundsException
   */
  public void set(int i, int j, double s) {
-  A[i][j] = s;
+  checkIndex(i, j);
+  A[offset + i * ld + j] = s;
  }
 
  /**
@@ -392,7 +410,7 @@ public class Matrix implements java.io.Serializable {
   try {
    for (int i = i0; i <= i1; i++) {
     for (int j = j0; j <= j1; j++) {
-     A[i][j] = X.get(i - i0, j - j0);
+     set(i, j, X.get(i - i0, j - j0));
     }
    }
   } catch (ArrayIndexOutOfBoundsException e) {
@@ -412,7 +430,7 @@ public class Matrix implements java.io.Serializable {
   try {
    for (int i = 0; i < r.length; i++) {
     for (int j = 0; j < c.length; j++) {
-     A[r[i]][c[j]] = X.get(i, j);
+     set(r[i], c[j], X.get(i, j));
     }
    }
   } catch (ArrayIndexOutOfBoundsException e) {
@@ -433,7 +451,7 @@ public class Matrix implements java.io.Serializable {
   try {
    for (int i = 0; i < r.length; i++) {
     for (int j = j0; j <= j1; j++) {
-     A[r[i]][j] = X.get(i, j - j0);
+     set(r[i], j, X.get(i, j - j0));
     }
    }
   } catch (ArrayIndexOutOfBoundsException e) {
@@ -454,7 +472,7 @@ public class Matrix implements java.io.Serializable {
   try {
    for (int i = i0; i <= i1; i++) {
     for (int j = 0; j < c.length; j++) {
-     A[i][c[j]] = X.get(i - i0, j);
+     set(i, c[j], X.get(i - i0, j));
     }
    }
   } catch (ArrayIndexOutOfBoundsException e) {
@@ -469,10 +487,10 @@ public class Matrix implements java.io.Serializable {
   */
  public Matrix transpose() {
   Matrix X = new Matrix(n, m);
-  double[][] C = X.getArray();
+  double[] C = X.A;
   for (int i = 0; i < m; i++) {
-   for (int j = 0; j < n; j++) {
-    C[j][i] = A[i][j];
+   for (int j = 0, a = offset + i * ld; j < n; j++) {
+    C[j * m + i] = A[a + j];
    }
   }
   return X;
@@ -487,10 +505,10 @@ public class Matrix implements java.io.Serializable {
  public Matrix plus(Matrix B) {
   checkMatrixDimensions(B);
   Matrix X = new Matrix(m, n);
-  double[][] C = X.getArray();
+  double[] C = X.A;
   for (int i = 0; i < m; i++) {
-   for (int j = 0; j < n; j++) {
-    C[i][j] = A[i][j] + B.A[i][j];
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld, c = i * n; j < n; j++) {
+    C[c + j] = A[a + j] + B.A[b + j];
    }
   }
   return X;
@@ -505,8 +523,8 @@ public class Matrix implements java.io.Serializable {
  public Matrix plusEquals(Matrix B) {
   checkMatrixDimensions(B);
   for (int i = 0; i < m; i++) {
-   for (int j = 0; j < n; j++) {
-    A[i][j] = A[i][j] + B.A[i][j];
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld; j < n; j++) {
+    A[a + j] = A[a + j] + B.A[b + j];
    }
   }
   return this;
@@ -521,10 +539,10 @@ public class Matrix implements java.io.Serializable {
  public Matrix minus(Matrix B) {
   checkMatrixDimensions(B);
   Matrix X = new Matrix(m, n);
-  double[][] C = X.getArray();
+  double[] C = X.A;
   for (int i = 0; i < m; i++) {
-   for (int j = 0; j < n; j++) {
-    C[i][j] = A[i][j] - B.A[i][j];
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld, c = i * n; j < n; j++) {
+    C[c + j] = A[a + j] - B.A[b + j];
    }
   }
   return X;
@@ -539,8 +557,8 @@ public class Matrix implements java.io.Serializable {
  public Matrix minusEquals(Matrix B) {
   checkMatrixDimensions(B);
   for (int i = 0; i < m; i++) {
-   for (int j = 0; j < n; j++) {
-    A[i][j] = A[i][j] - B.A[i][j];
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld; j < n; j++) {
+    A[a + j] = A[a + j] - B.A[b + j];
    }
   }
   return this;
@@ -555,10 +573,10 @@ public class Matrix implements java.io.Serializable {
  public Matrix arrayTimes(Matrix B) {
   checkMatrixDimensions(B);
   Matrix X = new Matrix(m, n);
-  double[][] C = X.getArray();
+  double[] C = X.A;
   for (int i = 0; i < m; i++) {
-   for (int j = 0; j < n; j++) {
-    C[i][j] = A[i][j] * B.A[i][j];
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld, c = i * n; j < n; j++) {
+    C[c + j] = A[a + j] * B.A[b + j];
    }
   }
   return X;
@@ -573,8 +591,8 @@ public class Matrix implements java.io.Serializable {
  public Matrix arrayTimesEquals(Matrix B) {
   checkMatrixDimensions(B);
   for (int i = 0; i < m; i++) {
-   for (int j = 0; j < n; j++) {
-    A[i][j] = A[i][j] * B.A[i][j];
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld; j < n; j++) {
+    A[a + j] = A[a + j] * B.A[b + j];
    }
   }
   return this;
@@ -589,10 +607,10 @@ public class Matrix implements java.io.Serializable {
  public Matrix arrayRightDivide(Matrix B) {
   checkMatrixDimensions(B);
   Matrix X = new Matrix(m, n);
-  double[][] C = X.getArray();
+  double[] C = X.A;
   for (int i = 0; i < m; i++) {
-   for (int j = 0; j < n; j++) {
-    C[i][j] = A[i][j] / B.A[i][j];
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld, c = i * n; j < n; j++) {
+    C[c + j] = A[a + j] / B.A[b + j];
    }
   }
   return X;
@@ -606,10 +624,10 @@ public class Matrix implements java.io.Serializable {
   */
  public Matrix times(double s) {
   Matrix X = new Matrix(m, n);
-  double[][] C = X.getArray();
+  double[] C = X.A;
   for (int i = 0; i < m; i++) {
-   for (int j = 0; j < n; j++) {
-    C[i][j] = s * A[i][j];
+   for (int j = 0, a = offset + i * ld, c = i * n; j < n; j++) {
+    C[c + j] = s * A[a + j];
    }
   }
   return X;
@@ -623,8 +641,8 @@ public class Matrix implements java.io.Serializable {
   */
  public Matrix timesEquals(double s) {
   for (int i = 0; i < m; i++) {
-   for (int j = 0; j < n; j++) {
-    A[i][j] = s * A[i][j];
+   for (int j = 0, a = offset + i * ld; j < n; j++) {
+    A[a + j] = s * A[a + j];
    }
   }
   return this;
@@ -642,24 +660,60 @@ public class Matrix implements java.io.Serializable {
    throw new IllegalArgumentException("Matrix inner dimensions must agree.");
   }
   Matrix X = new Matrix(m, B.n);
-  double[][] C = X.getArray();
-  double[] Bcolj = new double[n];
-  for (int j = 0; j < B.n; j++) {
-   for (int k = 0; k < n; k++) {
-    Bcolj[k] = B.A[k][j];
-   }
-   for (int i = 0; i < m; i++) {
-    double[] Arowi = A[i];
-    double s = 0;
-    for (int k = 0; k < n; k++) {
-     s += Arowi[k] * Bcolj[k];
+  if ((long) m * n * B.n < PARALLEL_THRESHOLD) {
+   multiply(this, B, X.A, 0, m, 0, n, 0, B.n);
+  } else {
+   int panels = (m + BLOCK_ROWS - 1) / BLOCK_ROWS;
+   IntStream.range(0, panels).parallel().forEach(panel -> {
+    int i0 = panel * BLOCK_ROWS;
+    int i1 = Math.min(i0 + BLOCK_ROWS, m);
+    for (int j0 = 0; j0 < B.n; j0 += BLOCK_COLUMNS) {
+     int j1 = Math.min(j0 + BLOCK_COLUMNS, B.n);
+     for (int k0 = 0; k0 < n; k0 += BLOCK_DEPTH) {
+      multiply(this, B, X.A, i0, i1, k0, Math.min(k0 + BLOCK_DEPTH, n), j0, j1);
+     }
     }
-    C[i][j] = s;
-   }
+   });
   }
   return X;
  }
 
+ /**
+  * Number of multiply-adds above which times splits the rows of the product into panels that are
+  * computed on the ForkJoin common pool.
+  */
+ private static final long PARALLEL_THRESHOLD = 1L << 18;
+ /**
+  * Rows of the product in one parallel panel.
+  */
+ private static final int BLOCK_ROWS = 32;
+ /**
+  * Rows and columns of the block of B accumulated into a panel at a time, sized so the block of B
+  * and the matching block of the panel stay in cache.
+  */
+ private static final int BLOCK_DEPTH = 64, BLOCK_COLUMNS = 256;
+
+ /**
+  * Accumulates A(i0:i1-1,k0:k1-1) * B(k0:k1-1,j0:j1-1) into the packed m x B.n array C.
+  * Each element of C sums its terms in increasing k, so the blocked and sequential products are
+  * identical.
+  */
+ private static void multiply(Matrix A, Matrix B, double[] C, int i0, int i1, int k0, int k1,
+  int j0, int j1) {
+  final double[] AA = A.A, BA = B.A;
+  final int p = B.n, w = j1 - j0;
+  // row i of C accumulates row k of B scaled by A(i,k), all unit stride
+  for (int i = i0; i < i1; i++) {
+   int c = i * p + j0;
+   for (int k = k0, a = A.offset + i * A.ld + k0; k < k1; k++, a++) {
+    double s = AA[a];
+    for (int j = 0, b = B.offset + k * B.ld + j0; j < w; j++) {
+     C[c + j] += s * BA[b + j];
+    }
+   }
+  }
+ }
+
  /**
   *
   * @return
@@ -668,12 +722,23 @@ public class Matrix implements java.io.Serializable {
   return new SingularValueDecomposition(this);
  }
 
+ /**
+  * Truncated Singular Value Decomposition
+  *
+  * @param k number of singular values and vectors to compute
+  * @return TruncatedSingularValueDecomposition
+  * @see TruncatedSingularValueDecomposition
+  */
+ public TruncatedSingularValueDecomposition svd(int k) {
+  return new TruncatedSingularValueDecomposition(this, k);
+ }
+
  /**
   *
   * @return
   */
  public int rank() {
-  return new SingularValueDecomposition(this).rank();
+  return new SingularValueDecomposition(this, false).rank();
  }
 
  /**
@@ -682,7 +747,75 @@ public class Matrix implements java.io.Serializable {
   * @return ratio of largest to smallest singular value.
   */
  public double cond() {
-  return new SingularValueDecomposition(this).cond();
+  return new SingularValueDecomposition(this, false).cond();
+ }
+
+ /**
+  * LU Decomposition
+  *
+  * @return LUDecomposition
+  * @see LUDecomposition
+  */
+ public LUDecomposition lu() {
+  return new LUDecomposition(this);
+ }
+
+ /**
+  * QR Decomposition
+  *
+  * @return QRDecomposition
+  * @see QRDecomposition
+  */
+ public QRDecomposition qr() {
+  return new QRDecomposition(this);
+ }
+
+ /**
+  * Cholesky Decomposition
+  *
+  * @return CholeskyDecomposition
+  * @see CholeskyDecomposition
+  */
+ public CholeskyDecomposition chol() {
+  return new CholeskyDecomposition(this);
+ }
+
+ /**
+  * Solve A*X = B
+  *
+  * @param B right hand side
+  * @return solution if A is square, least squares solution otherwise
+  */
+ public Matrix solve(Matrix B) {
+  return (m == n ? (new LUDecomposition(this)).solve(B) : (new QRDecomposition(this)).solve(B));
+ }
+
+ /**
+  * Solve X*A = B, which is also A'*X' = B'
+  *
+  * @param B right hand side
+  * @return solution if A is square, least squares solution otherwise.
+  */
+ public Matrix solveTranspose(Matrix B) {
+  return transpose().solve(B.transpose());
+ }
+
+ /**
+  * Matrix inverse or pseudoinverse
+  *
+  * @return inverse(A) if A is square, pseudoinverse otherwise.
+  */
+ public Matrix inverse() {
+  return solve(identity(m, m));
+ }
+
+ /**
+  * Matrix determinant
+  *
+  * @return determinant
+  */
+ public double det() {
+  return new LUDecomposition(this).det();
  }
 
  /**
@@ -693,7 +826,7 @@ public class Matrix implements java.io.Serializable {
  public double trace() {
   double t = 0;
   for (int i = 0; i < Math.min(m, n); i++) {
-   t += A[i][i];
+   t += A[offset + i * ld + i];
   }
   return t;
  }
@@ -707,10 +840,10 @@ public class Matrix implements java.io.Serializable {
   */
  public static Matrix random(int m, int n) {
   Matrix A = new Matrix(m, n);
-  double[][] X = A.getArray();
+  double[] X = A.A;
   for (int i = 0; i < m; i++) {
    for (int j = 0; j < n; j++) {
-    X[i][j] = Math.random();
+    X[i * n + j] = Math.random();
    }
   }
   return A;
@@ -725,10 +858,10 @@ public class Matrix implements java.io.Serializable {
   */
  public static Matrix identity(int m, int n) {
   Matrix A = new Matrix(m, n);
-  double[][] X = A.getArray();
+  double[] X = A.A;
   for (int i = 0; i < m; i++) {
    for (int j = 0; j < n; j++) {
-    X[i][j] = (i == j ? 1.0 : 0.0);
+    X[i * n + j] = (i == j ? 1.0 : 0.0);
    }
   }
   return A;
@@ -745,4 +878,13 @@ public class Matrix implements java.io.Serializable {
    throw new IllegalArgumentException("Matrix dimensions must agree.");
   }
  }
+
+ /**
+  * Check that (i,j) is inside this matrix, a view would otherwise reach into its neighbours. *
+  */
+ private void checkIndex(int i, int j) {
+  if (i < 0 || i >= m || j < 0 || j >= n) {
+   throw new ArrayIndexOutOfBoundsException("(" + i + "," + j + ") is outside " + m + "x" + n);
+  }
+ }
 }
@@ -543,22 +543,22 @@ public class Matrix2f<T extends Matrix2f> implements java.io.Serializable  {
  }
 
  static void getScaleRotate(Matrix2f m1, Tuple2f scale, Matrix2f rotate) {
-  double[] tmp = new double[4];  // scratch matrix
+  float[] tmp = new float[4];  // scratch matrix
   tmp[0] = m1.m00;
   tmp[1] = m1.m10;
   tmp[2] = m1.m01;
   tmp[3] = m1.m11;
-  SingularValueDecomposition svd = new Matrix(tmp, 2).svd();
-  Matrix u = svd.getU();
-  Matrix vt = svd.getV().transpose();
-  Matrix R = u.times(vt);
-  double[] singles = svd.getSingularValues();
-  scale.x = (float) singles[0];
-  scale.y = (float) singles[1];
-  rotate.m00 = (float) R.get(0, 0);
-  rotate.m01 = (float) R.get(0, 1);
-  rotate.m10 = (float) R.get(1, 0);
-  rotate.m11 = (float) R.get(1, 1);
+  SingularValueDecompositionF svd = new MatrixF(tmp, 2).svd();
+  MatrixF u = svd.getU();
+  MatrixF vt = svd.getV().transpose();
+  MatrixF R = u.times(vt);
+  float[] singles = svd.getSingularValues();
+  scale.x = singles[0];
+  scale.y = singles[1];
+  rotate.m00 = R.get(0, 0);
+  rotate.m01 = R.get(0, 1);
+  rotate.m10 = R.get(1, 0);
+  rotate.m11 = R.get(1, 1);
  }
 
  private static void scale(Matrix2f dest, Matrix2f mat, Tuple2f s) {
@@ -251,7 +251,7 @@ public class Matrix3f<T extends Matrix3f> implements java.io.Serializable  {
   */
  public T setScale(float scale) {
   Matrix3f rotate = new Matrix3f();
-  getScaleRotate(this, new Vector3f(), rotate);
+  getScaleRotate(this, null, rotate);
   m00 = rotate.m00 * scale;
   m01 = rotate.m01 * scale;
   m02 = rotate.m02 * scale;
@@ -275,8 +275,7 @@ public class Matrix3f<T extends Matrix3f> implements java.io.Serializable  {
   */
  public T setScale(float x, float y, float z) {
   Matrix3f rotate = new Matrix3f();
-  Tuple3f scale = new Vector3f();
-  getScaleRotate(this, scale, rotate);
+  getScaleRotate(this, null, rotate);
   m00 = rotate.m00 * x;
   m01 = rotate.m01 * x;
   m02 = rotate.m02 * x;
@@ -1073,9 +1072,8 @@ public class Matrix3f<T extends Matrix3f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T rotX(float angle) {
-  float sinAngle, cosAngle;
-  sinAngle = sin(angle);
-  cosAngle = cos(angle);
+  float sinAngle = sin(angle);
+  float cosAngle = cos(angle);
   m00 = 1.0f;
   m01 = 0.0f;
   m02 = 0.0f;
@@ -1095,9 +1093,8 @@ public class Matrix3f<T extends Matrix3f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T rotY(float angle) {
-  float sinAngle, cosAngle;
-  sinAngle = sin(angle);
-  cosAngle = cos(angle);
+  float sinAngle = sin(angle);
+  float cosAngle = cos(angle);
   m00 = cosAngle;
   m01 = 0.0f;
   m02 = sinAngle;
@@ -1117,9 +1114,8 @@ public class Matrix3f<T extends Matrix3f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T rotZ(float angle) {
-  float sinAngle, cosAngle;
-  sinAngle = sin(angle);
-  cosAngle = cos(angle);
+  float sinAngle = sin(angle);
+  float cosAngle = cos(angle);
   m00 = cosAngle;
   m01 = -sinAngle;
   m02 = 0.0f;
@@ -1237,9 +1233,8 @@ public class Matrix3f<T extends Matrix3f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T mulNormalize(Matrix3f m1) {
-  Matrix3f tmp = new Matrix3f();
-  tmp.mul(this, m1);
-  getScaleRotate(tmp, new Vector3f(), this);
+  mul(this, m1);
+  getScaleRotate(this, null, this);
   return (T) this;
  }
 
@@ -1252,9 +1247,8 @@ public class Matrix3f<T extends Matrix3f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T mulNormalize(Matrix3f m1, Matrix3f m2) {
-  Matrix3f tmp = new Matrix3f();
-  tmp.mul(m1, m2);
-  getScaleRotate(tmp, new Vector3f(), this);
+  mul(m1, m2);
+  getScaleRotate(this, null, this);
   return (T) this;
  }
 
@@ -1352,7 +1346,7 @@ public class Matrix3f<T extends Matrix3f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T normalize() {
-  getScaleRotate(this, new Vector3f(), this);
+  getScaleRotate(this, null, this);
   return (T) this;
  }
 
@@ -1364,7 +1358,7 @@ public class Matrix3f<T extends Matrix3f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T normalize(Matrix3f m1) {
-  getScaleRotate(m1, new Vector3f(), this);
+  getScaleRotate(m1, null, this);
   return (T) this;
  }
 
@@ -1609,52 +1603,163 @@ public class Matrix3f<T extends Matrix3f> implements java.io.Serializable  {
  }
 
  private static Tuple3f getScale(Matrix3f m1, Tuple3f scale) {
-  double[] tmp = new double[9];  // scratch matrix
-  tmp[0] = m1.m00;
-  tmp[1] = m1.m10;
-  tmp[2] = m1.m20;
-  tmp[3] = m1.m01;
-  tmp[4] = m1.m11;
-  tmp[5] = m1.m21;
-  tmp[6] = m1.m02;
-  tmp[7] = m1.m12;
-  tmp[8] = m1.m22;
-  SingularValueDecomposition svd = new Matrix(tmp, 3).svd();
-  double[] singles = svd.getSingularValues();
-  scale.x = (float) (singles[0]);
-  scale.y = (float) (singles[1]);
-  scale.z = (float) (singles[2]);
+  getScaleRotate(m1.m00, m1.m01, m1.m02, m1.m10, m1.m11, m1.m12, m1.m20, m1.m21, m1.m22, scale,
+   null);
   return scale;
  }
 
  static void getScaleRotate(Matrix3f m1, Tuple3f scale, Matrix3f rotate) {
-  double[] tmp = new double[9];  // scratch matrix
-  tmp[0] = m1.m00;
-  tmp[1] = m1.m10;
-  tmp[2] = m1.m20;
-  tmp[3] = m1.m01;
-  tmp[4] = m1.m11;
-  tmp[5] = m1.m21;
-  tmp[6] = m1.m02;
-  tmp[7] = m1.m12;
-  tmp[8] = m1.m22;
-  SingularValueDecomposition svd = new Matrix(tmp, 3).svd();
-  Matrix u = svd.getU();
-  Matrix vt = svd.getV().transpose();
-  Matrix R = u.times(vt);
-  double[] singles = svd.getSingularValues();
-  scale.x = (float) (singles[0]);
-  scale.y = (float) (singles[1]);
-  scale.z = (float) (singles[2]);
-  rotate.m00 = (float) R.get(0, 0);
-  rotate.m01 = (float) R.get(0, 1);
-  rotate.m02 = (float) R.get(0, 2);
-  rotate.m10 = (float) R.get(1, 0);
-  rotate.m11 = (float) R.get(1, 1);
-  rotate.m12 = (float) R.get(1, 2);
-  rotate.m20 = (float) R.get(2, 0);
-  rotate.m21 = (float) R.get(2, 1);
-  rotate.m22 = (float) R.get(2, 2);
+  getScaleRotate(m1.m00, m1.m01, m1.m02, m1.m10, m1.m11, m1.m12, m1.m20, m1.m21, m1.m22, scale,
+   rotate);
+ }
+
+ /**
+  * Decompose a 3x3 matrix A into the polar form A = R*P without allocating. R is the closest
+  * orthogonal matrix to A, it is found with the scaled Newton iteration R = (g*R + (g*R)^-T)/2. The
+  * singular values of A are the eigenvalues of the symmetric P = R'*A, found in closed form. The
+  * results are the same as U*V' and the singular values of the SVD A = U*S*V'. Matrices that are too
+  * close to singular for the iteration are decomposed with the general SVD.
+  *
+  * @param scale receives the singular values in descending order, may be null
+  * @param rotate receives R, may be null
+  */
+ static void getScaleRotate(float a00, float a01, float a02, float a10, float a11, float a12,
+  float a20, float a21, float a22, Tuple3f scale, Matrix3f rotate) {
+  double x00 = a00, x01 = a01, x02 = a02;
+  double x10 = a10, x11 = a11, x12 = a12;
+  double x20 = a20, x21 = a21, x22 = a22;
+  boolean converged = false;
+  for (int iter = 0; iter < 32; ++iter) {
+   // cofactors, X^-T = C/det
+   double c00 = x11 * x22 - x12 * x21;
+   double c01 = x12 * x20 - x10 * x22;
+   double c02 = x10 * x21 - x11 * x20;
+   double c10 = x02 * x21 - x01 * x22;
+   double c11 = x00 * x22 - x02 * x20;
+   double c12 = x01 * x20 - x00 * x21;
+   double c20 = x01 * x12 - x02 * x11;
+   double c21 = x02 * x10 - x00 * x12;
+   double c22 = x00 * x11 - x01 * x10;
+   double det = x00 * c00 + x01 * c01 + x02 * c02;
+   double xn = x00 * x00 + x01 * x01 + x02 * x02 + x10 * x10 + x11 * x11 + x12 * x12 + x20 * x20 +
+    x21 * x21 + x22 * x22;
+   double cn = c00 * c00 + c01 * c01 + c02 * c02 + c10 * c10 + c11 * c11 + c12 * c12 + c20 * c20 +
+    c21 * c21 + c22 * c22;
+   if (!(Math.abs(det) > 1.0e-12 * xn * Math.sqrt(xn)) || Double.isInfinite(cn)) {
+    break;
+   }
+   // g = sqrt(|X^-1|/|X|) minimizes the next iterate's distance from orthogonal
+   double g = Math.sqrt(Math.sqrt(cn / xn) / Math.abs(det));
+   double f = 0.5 * g;
+   double h = 0.5 / (g * det);
+   double n00 = f * x00 + h * c00, n01 = f * x01 + h * c01, n02 = f * x02 + h * c02;
+   double n10 = f * x10 + h * c10, n11 = f * x11 + h * c11, n12 = f * x12 + h * c12;
+   double n20 = f * x20 + h * c20, n21 = f * x21 + h * c21, n22 = f * x22 + h * c22;
+   double d00 = n00 - x00, d01 = n01 - x01, d02 = n02 - x02;
+   double d10 = n10 - x10, d11 = n11 - x11, d12 = n12 - x12;
+   double d20 = n20 - x20, d21 = n21 - x21, d22 = n22 - x22;
+   double delta = d00 * d00 + d01 * d01 + d02 * d02 + d10 * d10 + d11 * d11 + d12 * d12 + d20 *
+    d20 + d21 * d21 + d22 * d22;
+   x00 = n00;
+   x01 = n01;
+   x02 = n02;
+   x10 = n10;
+   x11 = n11;
+   x12 = n12;
+   x20 = n20;
+   x21 = n21;
+   x22 = n22;
+   if (delta < 1.0e-22) {
+    converged = true;
+    break;
+   }
+  }
+  if (!converged) {
+   getScaleRotateSVD(a00, a01, a02, a10, a11, a12, a20, a21, a22, scale, rotate);
+   return;
+  }
+  if (scale != null) {
+   // P = R'*A, symmetric positive semi-definite
+   double p00 = x00 * a00 + x10 * a10 + x20 * a20;
+   double p11 = x01 * a01 + x11 * a11 + x21 * a21;
+   double p22 = x02 * a02 + x12 * a12 + x22 * a22;
+   double p01 = 0.5 * ((x00 * a01 + x10 * a11 + x20 * a21) + (x01 * a00 + x11 * a10 + x21 * a20));
+   double p02 = 0.5 * ((x00 * a02 + x10 * a12 + x20 * a22) + (x02 * a00 + x12 * a10 + x22 * a20));
+   double p12 = 0.5 * ((x01 * a02 + x11 * a12 + x21 * a22) + (x02 * a01 + x12 * a11 + x22 * a21));
+   double e0, e1, e2;
+   double off = p01 * p01 + p02 * p02 + p12 * p12;
+   if (off == 0.0) {
+    e0 = Math.max(p00, Math.max(p11, p22));
+    e2 = Math.min(p00, Math.min(p11, p22));
+    e1 = p00 + p11 + p22 - e0 - e2;
+   } else {
+    // eigenvalues of a symmetric 3x3 matrix, O. K. Smith 1961
+    double q = (p00 + p11 + p22) / 3.0;
+    double b00 = p00 - q;
+    double b11 = p11 - q;
+    double b22 = p22 - q;
+    double p = Math.sqrt((b00 * b00 + b11 * b11 + b22 * b22 + 2.0 * off) / 6.0);
+    double detB = b00 * (b11 * b22 - p12 * p12) - p01 * (p01 * b22 - p12 * p02) + p02 * (p01 *
+     p12 - b11 * p02);
+    double r = detB / (2.0 * p * p * p);
+    double phi = (r <= -1.0) ? Math.PI / 3.0 : (r >= 1.0) ? 0.0 : Math.acos(r) / 3.0;
+    e0 = q + 2.0 * p * Math.cos(phi);
+    e2 = q + 2.0 * p * Math.cos(phi + (2.0 * Math.PI / 3.0));
+    e1 = 3.0 * q - e0 - e2;
+   }
+   scale.x = (float) Math.max(e0, 0.0);
+   scale.y = (float) Math.max(e1, 0.0);
+   scale.z = (float) Math.max(e2, 0.0);
+  }
+  if (rotate != null) {
+   rotate.m00 = (float) x00;
+   rotate.m01 = (float) x01;
+   rotate.m02 = (float) x02;
+   rotate.m10 = (float) x10;
+   rotate.m11 = (float) x11;
+   rotate.m12 = (float) x12;
+   rotate.m20 = (float) x20;
+   rotate.m21 = (float) x21;
+   rotate.m22 = (float) x22;
+  }
+ }
+
+ /**
+  * Decompose with the general SVD, used for matrices that are singular or nearly so.
+  */
+ private static void getScaleRotateSVD(float a00, float a01, float a02, float a10, float a11,
+  float a12, float a20, float a21, float a22, Tuple3f scale, Matrix3f rotate) {
+  float[] tmp = new float[9];  // scratch matrix
+  tmp[0] = a00;
+  tmp[1] = a10;
+  tmp[2] = a20;
+  tmp[3] = a01;
+  tmp[4] = a11;
+  tmp[5] = a21;
+  tmp[6] = a02;
+  tmp[7] = a12;
+  tmp[8] = a22;
+  SingularValueDecompositionF svd = new MatrixF(tmp, 3).svd();
+  float[] singles = svd.getSingularValues();
+  if (scale != null) {
+   scale.x = singles[0];
+   scale.y = singles[1];
+   scale.z = singles[2];
+  }
+  if (rotate != null) {
+   MatrixF u = svd.getU();
+   MatrixF vt = svd.getV().transpose();
+   MatrixF R = u.times(vt);
+   rotate.m00 = R.get(0, 0);
+   rotate.m01 = R.get(0, 1);
+   rotate.m02 = R.get(0, 2);
+   rotate.m10 = R.get(1, 0);
+   rotate.m11 = R.get(1, 1);
+   rotate.m12 = R.get(1, 2);
+   rotate.m20 = R.get(2, 0);
+   rotate.m21 = R.get(2, 1);
+   rotate.m22 = R.get(2, 2);
+  }
  }
 
  /**
@@ -623,7 +623,7 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   */
  public T setScale(float scale) {
   Matrix3f rotate = new Matrix3f();
-  getScaleRotate(this, new Vector3f(), rotate);
+  getScaleRotate(this, null, rotate);
   m00 = rotate.m00 * scale;
   m01 = rotate.m01 * scale;
   m02 = rotate.m02 * scale;
@@ -644,7 +644,7 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   * @return
   */
  public <T extends Matrix3f> T get(Matrix3f m1) {
-  getScaleRotate(this, new Vector3f(), m1);
+  getScaleRotate(this, null, m1);
   return (T) m1;
  }
 
@@ -772,7 +772,9 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   * @return the scale factor of this matrix
   */
  public float getScale() {
-  return new Matrix3f(this).getScale();
+  Vector3f scale = new Vector3f();
+  getScale(this, scale);
+  return scale.max();
  }
 
  /**
@@ -783,12 +785,13 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   * @return scale for chaining.
   */
  public <S extends Tuple3f> S getScale(S scale) {
-  new Matrix3f(this).getScale(scale);
+  getScale(this, scale);
   return scale;
  }
 
  private static void getScale(Matrix4f m1, Tuple3f scale) {
-  new Matrix3f(m1).getScale(scale);
+  Matrix3f.getScaleRotate(m1.m00, m1.m01, m1.m02, m1.m10, m1.m11, m1.m12, m1.m20, m1.m21, m1.m22,
+   scale, null);
  }
 
  /**
@@ -1303,6 +1306,17 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   return (T) this;
  }
 
+ /**
+  * Sets the value of this matrix to the affine transform a1, the bottom row is set to (0,0,0,1).
+  *
+  * @param a1 the affine transform
+  * @return this for chaining
+  */
+ public T set(Affine3f a1) {
+  a1.get(this);
+  return (T) this;
+ }
+
  /**
   * Sets the value of this matrix to a copy of the passed matrix m1.
   *
@@ -1336,7 +1350,7 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T invert(Matrix4f m1) {
-  invertGeneral(new Matrix4f(m1).invert());
+  invertGeneral(m1, this);
   return (T) this;
  }
 
@@ -1346,17 +1360,96 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T invert() {
-  invertGeneral(this);
+  invertGeneral(this, this);
   return (T) this;
  }
 
  /**
-  * General invert routine. Inverts m1 and places the result in "this". Note that this routine
-  * handles both the "this" version and the non-"this" version.
+  * Sets the value of this matrix to the inverse of the affine matrix m1. Only the upper 3x4 of m1
+  * is used, the bottom row is taken to be (0,0,0,1).
   *
+  * @param m1 the affine matrix to be inverted
+  * @return this for chaining
+  */
+ public T invertAffine(Matrix4f m1) {
+  invertAffine(m1, this);
+  return (T) this;
+ }
+
+ /**
+  * Inverts this affine matrix in place. Only the upper 3x4 is used, the bottom row is taken to be
+  * (0,0,0,1).
+  *
+  * @return this for chaining
+  */
+ public T invertAffine() {
+  invertAffine(this, this);
+  return (T) this;
+ }
+
+ /**
+  * Sets the value of this matrix to the inverse of the rigid matrix m1. The upper 3x3 of m1 must be
+  * a rotation, optionally multiplied by a uniform scale, and the bottom row is taken to be
+  * (0,0,0,1). The inverse is calculated from the transpose of the upper 3x3.
   *
+  * @param m1 the rigid matrix to be inverted
+  * @return this for chaining
   */
- private static void invertGeneral(Matrix4f m1) {
+ public T invertRigid(Matrix4f m1) {
+  float s = 1.0f / (m1.m00 * m1.m00 + m1.m10 * m1.m10 + m1.m20 * m1.m20);
+  float n00 = m1.m00 * s;
+  float n01 = m1.m10 * s;
+  float n02 = m1.m20 * s;
+  float n10 = m1.m01 * s;
+  float n11 = m1.m11 * s;
+  float n12 = m1.m21 * s;
+  float n20 = m1.m02 * s;
+  float n21 = m1.m12 * s;
+  float n22 = m1.m22 * s;
+  float tx = m1.m03;
+  float ty = m1.m13;
+  float tz = m1.m23;
+  m00 = n00;
+  m01 = n01;
+  m02 = n02;
+  m03 = -(n00 * tx + n01 * ty + n02 * tz);
+  m10 = n10;
+  m11 = n11;
+  m12 = n12;
+  m13 = -(n10 * tx + n11 * ty + n12 * tz);
+  m20 = n20;
+  m21 = n21;
+  m22 = n22;
+  m23 = -(n20 * tx + n21 * ty + n22 * tz);
+  m30 = 0.0f;
+  m31 = 0.0f;
+  m32 = 0.0f;
+  m33 = 1.0f;
+  return (T) this;
+ }
+
+ /**
+  * Inverts this rigid matrix in place. The upper 3x3 must be a rotation, optionally multiplied by a
+  * uniform scale, and the bottom row is taken to be (0,0,0,1).
+  *
+  * @return this for chaining
+  */
+ public T invertRigid() {
+  invertRigid(this);
+  return (T) this;
+ }
+
+ /**
+  * General invert routine. Inverts m1 and places the result in result. m1 and result may be the
+  * same matrix. Matrices with a bottom row of (0,0,0,1) are inverted with the cheaper affine
+  * routine.
+  *
+  */
+ private static void invertGeneral(Matrix4f m1, Matrix4f result) {
+  if (m1.m30 == 0.0f && m1.m31 == 0.0f && m1.m32 == 0.0f && m1.m33 == 1.0f) {
+   invertAffine(m1, result);
+   return;
+  }
   float a0 = m1.m00 * m1.m11 - m1.m01 * m1.m10;
   float a1 = m1.m00 * m1.m12 - m1.m02 * m1.m10;
   float a2 = m1.m00 * m1.m13 - m1.m03 * m1.m10;
@@ -1370,25 +1463,80 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   float b4 = m1.m21 * m1.m33 - m1.m23 * m1.m31;
   float b5 = m1.m22 * m1.m33 - m1.m23 * m1.m32;
   float det = a0 * b5 - a1 * b4 + a2 * b3 + a3 * b2 - a4 * b1 + a5 * b0;
-  Matrix4f inverse = new Matrix4f();
   float invDet = (1.0f) / det;
-  inverse.m00 = (+m1.m11 * b5 - m1.m12 * b4 + m1.m13 * b3) * invDet;
-  inverse.m01 = (-m1.m01 * b5 + m1.m02 * b4 - m1.m03 * b3) * invDet;
-  inverse.m02 = (+m1.m31 * a5 - m1.m32 * a4 + m1.m33 * a3) * invDet;
-  inverse.m03 = (-m1.m21 * a5 + m1.m22 * a4 - m1.m23 * a3) * invDet;
-  inverse.m10 = (-m1.m10 * b5 + m1.m12 * b2 - m1.m13 * b1) * invDet;
-  inverse.m11 = (+m1.m00 * b5 - m1.m02 * b2 + m1.m03 * b1) * invDet;
-  inverse.m12 = (-m1.m30 * a5 + m1.m32 * a2 - m1.m33 * a1) * invDet;
-  inverse.m13 = (+m1.m20 * a5 - m1.m22 * a2 + m1.m23 * a1) * invDet;
-  inverse.m20 = (+m1.m10 * b4 - m1.m11 * b2 + m1.m13 * b0) * invDet;
-  inverse.m21 = (-m1.m00 * b4 + m1.m01 * b2 - m1.m03 * b0) * invDet;
-  inverse.m22 = (+m1.m30 * a4 - m1.m31 * a2 + m1.m33 * a0) * invDet;
-  inverse.m23 = (-m1.m20 * a4 + m1.m21 * a2 - m1.m23 * a0) * invDet;
-  inverse.m30 = (-m1.m10 * b3 + m1.m11 * b1 - m1.m12 * b0) * invDet;
-  inverse.m31 = (+m1.m00 * b3 - m1.m01 * b1 + m1.m02 * b0) * invDet;
-  inverse.m32 = (-m1.m30 * a3 + m1.m31 * a1 - m1.m32 * a0) * invDet;
-  inverse.m33 = (+m1.m20 * a3 - m1.m21 * a1 + m1.m22 * a0) * invDet;
-  m1.set(inverse);
+  float n00 = (+m1.m11 * b5 - m1.m12 * b4 + m1.m13 * b3) * invDet;
+  float n01 = (-m1.m01 * b5 + m1.m02 * b4 - m1.m03 * b3) * invDet;
+  float n02 = (+m1.m31 * a5 - m1.m32 * a4 + m1.m33 * a3) * invDet;
+  float n03 = (-m1.m21 * a5 + m1.m22 * a4 - m1.m23 * a3) * invDet;
+  float n10 = (-m1.m10 * b5 + m1.m12 * b2 - m1.m13 * b1) * invDet;
+  float n11 = (+m1.m00 * b5 - m1.m02 * b2 + m1.m03 * b1) * invDet;
+  float n12 = (-m1.m30 * a5 + m1.m32 * a2 - m1.m33 * a1) * invDet;
+  float n13 = (+m1.m20 * a5 - m1.m22 * a2 + m1.m23 * a1) * invDet;
+  float n20 = (+m1.m10 * b4 - m1.m11 * b2 + m1.m13 * b0) * invDet;
+  float n21 = (-m1.m00 * b4 + m1.m01 * b2 - m1.m03 * b0) * invDet;
+  float n22 = (+m1.m30 * a4 - m1.m31 * a2 + m1.m33 * a0) * invDet;
+  float n23 = (-m1.m20 * a4 + m1.m21 * a2 - m1.m23 * a0) * invDet;
+  float n30 = (-m1.m10 * b3 + m1.m11 * b1 - m1.m12 * b0) * invDet;
+  float n31 = (+m1.m00 * b3 - m1.m01 * b1 + m1.m02 * b0) * invDet;
+  float n32 = (-m1.m30 * a3 + m1.m31 * a1 - m1.m32 * a0) * invDet;
+  float n33 = (+m1.m20 * a3 - m1.m21 * a1 + m1.m22 * a0) * invDet;
+  result.m00 = n00;
+  result.m01 = n01;
+  result.m02 = n02;
+  result.m03 = n03;
+  result.m10 = n10;
+  result.m11 = n11;
+  result.m12 = n12;
+  result.m13 = n13;
+  result.m20 = n20;
+  result.m21 = n21;
+  result.m22 = n22;
+  result.m23 = n23;
+  result.m30 = n30;
+  result.m31 = n31;
+  result.m32 = n32;
+  result.m33 = n33;
+ }
+
+ /**
+  * Affine invert routine. Inverts the upper 3x3 of m1 by cofactors and transforms the negated
+  * translation by it, the bottom row of the result is (0,0,0,1). m1 and result may be the same
+  * matrix.
+  */
+ private static void invertAffine(Matrix4f m1, Matrix4f result) {
+  float c00 = m1.m11 * m1.m22 - m1.m12 * m1.m21;
+  float c10 = m1.m12 * m1.m20 - m1.m10 * m1.m22;
+  float c20 = m1.m10 * m1.m21 - m1.m11 * m1.m20;
+  float det = m1.m00 * c00 + m1.m01 * c10 + m1.m02 * c20;
+  float invDet = (1.0f) / det;
+  float n00 = c00 * invDet;
+  float n01 = (m1.m02 * m1.m21 - m1.m01 * m1.m22) * invDet;
+  float n02 = (m1.m01 * m1.m12 - m1.m02 * m1.m11) * invDet;
+  float n10 = c10 * invDet;
+  float n11 = (m1.m00 * m1.m22 - m1.m02 * m1.m20) * invDet;
+  float n12 = (m1.m02 * m1.m10 - m1.m00 * m1.m12) * invDet;
+  float n20 = c20 * invDet;
+  float n21 = (m1.m01 * m1.m20 - m1.m00 * m1.m21) * invDet;
+  float n22 = (m1.m00 * m1.m11 - m1.m01 * m1.m10) * invDet;
+  float tx = m1.m03;
+  float ty = m1.m13;
+  float tz = m1.m23;
+  result.m00 = n00;
+  result.m01 = n01;
+  result.m02 = n02;
+  result.m03 = -(n00 * tx + n01 * ty + n02 * tz);
+  result.m10 = n10;
+  result.m11 = n11;
+  result.m12 = n12;
+  result.m13 = -(n10 * tx + n11 * ty + n12 * tz);
+  result.m20 = n20;
+  result.m21 = n21;
+  result.m22 = n22;
+  result.m23 = -(n20 * tx + n21 * ty + n22 * tz);
+  result.m30 = 0.0f;
+  result.m31 = 0.0f;
+  result.m32 = 0.0f;
+  result.m33 = 1.0f;
  }
 
  /**
@@ -1660,9 +1808,8 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T rotX(float angle) {
-  float sinAngle, cosAngle;
-  sinAngle = sin(angle);
-  cosAngle = cos(angle);
+  float sinAngle = sin(angle);
+  float cosAngle = cos(angle);
   m00 = 1.0f;
   m01 = 0.0f;
   m02 = 0.0f;
@@ -1689,9 +1836,8 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T rotY(float angle) {
-  float sinAngle, cosAngle;
-  sinAngle = sin(angle);
-  cosAngle = cos(angle);
+  float sinAngle = sin(angle);
+  float cosAngle = cos(angle);
   m00 = cosAngle;
   m01 = 0.0f;
   m02 = sinAngle;
@@ -1718,9 +1864,8 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   * @return this for chaining
   */
  public T rotZ(float angle) {
-  float sinAngle, cosAngle;
-  sinAngle = sin(angle);
-  cosAngle = cos(angle);
+  float sinAngle = sin(angle);
+  float cosAngle = cos(angle);
   m00 = cosAngle;
   m01 = -sinAngle;
   m02 = 0.0f;
@@ -2234,6 +2379,110 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
   return t2;
  }
 
+ /**
+  * Transforms an array of points in place using this matrix. Each point is 3 consecutive values
+  * (x,y,z) and the first value of consecutive points are stride values apart.
+  *
+  * @param points the packed points
+  * @param offset the location of the first point in the array
+  * @param stride the distance between the start of consecutive points, at least 3
+  * @param count the number of points to transform
+  * @return points for chaining
+  */
+ public float[] transform(float[] points, int offset, int stride, int count) {
+  return transform(points, offset, stride, points, offset, stride, count);
+ }
+
+ /**
+  * Transforms an array of points using this matrix and places the results into another array. Each
+  * point is 3 consecutive values (x,y,z). The source and destination may be the same array.
+  *
+  * @param src the packed points to transform
+  * @param srcOffset the location of the first point in src
+  * @param srcStride the distance between the start of consecutive points in src, at least 3
+  * @param dst the array to receive the transformed points
+  * @param dstOffset the location of the first point in dst
+  * @param dstStride the distance between the start of consecutive points in dst, at least 3
+  * @param count the number of points to transform
+  * @return dst for chaining
+  */
+ public float[] transform(float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset,
+  int dstStride, int count) {
+  BulkKernels.INSTANCE.transform(this, src, srcOffset, srcStride, dst, dstOffset, dstStride,
+   count);
+  return dst;
+ }
+
+ /**
+  * Transforms an array of directions in place using only the rotational components (upper 3x3) of
+  * this matrix. Each direction is 3 consecutive values (x,y,z).
+  *
+  * @param vectors the packed directions
+  * @param offset the location of the first direction in the array
+  * @param stride the distance between the start of consecutive directions, at least 3
+  * @param count the number of directions to transform
+  * @return vectors for chaining
+  */
+ public float[] transform3x3(float[] vectors, int offset, int stride, int count) {
+  return transform3x3(vectors, offset, stride, vectors, offset, stride, count);
+ }
+
+ /**
+  * Transforms an array of directions using only the rotational components (upper 3x3) of this
+  * matrix and places the results into another array. Each direction is 3 consecutive values
+  * (x,y,z). The source and destination may be the same array.
+  *
+  * @param src the packed directions to transform
+  * @param srcOffset the location of the first direction in src
+  * @param srcStride the distance between the start of consecutive directions in src, at least 3
+  * @param dst the array to receive the transformed directions
+  * @param dstOffset the location of the first direction in dst
+  * @param dstStride the distance between the start of consecutive directions in dst, at least 3
+  * @param count the number of directions to transform
+  * @return dst for chaining
+  */
+ public float[] transform3x3(float[] src, int srcOffset, int srcStride, float[] dst,
+  int dstOffset, int dstStride, int count) {
+  BulkKernels.INSTANCE.transform3x3(this, src, srcOffset, srcStride, dst, dstOffset, dstStride,
+   count);
+  return dst;
+ }
+
+ /**
+  * Transforms an array of homogeneous 4 component tuples in place using this matrix. Each tuple is
+  * 4 consecutive values (x,y,z,w).
+  *
+  * @param tuples the packed tuples
+  * @param offset the location of the first tuple in the array
+  * @param stride the distance between the start of consecutive tuples, at least 4
+  * @param count the number of tuples to transform
+  * @return tuples for chaining
+  */
+ public float[] transform4(float[] tuples, int offset, int stride, int count) {
+  return transform4(tuples, offset, stride, tuples, offset, stride, count);
+ }
+
+ /**
+  * Transforms an array of homogeneous 4 component tuples using this matrix and places the results
+  * into another array. Each tuple is 4 consecutive values (x,y,z,w). The source and destination may
+  * be the same array.
+  *
+  * @param src the packed tuples to transform
+  * @param srcOffset the location of the first tuple in src
+  * @param srcStride the distance between the start of consecutive tuples in src, at least 4
+  * @param dst the array to receive the transformed tuples
+  * @param dstOffset the location of the first tuple in dst
+  * @param dstStride the distance between the start of consecutive tuples in dst, at least 4
+  * @param count the number of tuples to transform
+  * @return dst for chaining
+  */
+ public float[] transform4(float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset,
+  int dstStride, int count) {
+  BulkKernels.INSTANCE.transform4(this, src, srcOffset, srcStride, dst, dstOffset, dstStride,
+   count);
+  return dst;
+ }
+
  /**
   * Sets the rotational component (upper 3x3) of this matrix to the matrix values in the single
   * precision Matrix3f argument; the other elements of this matrix are unchanged; a singular value
@@ -2400,7 +2649,8 @@ public class Matrix4f<T extends Matrix4f> implements java.io.Serializable  {
  }
 
  private static void getScaleRotate(Matrix4f m1, Tuple3f scale, Matrix3f rotate) {
-  new Matrix3f(m1).getScaleRotate(scale, rotate);
+  Matrix3f.getScaleRotate(m1.m00, m1.m01, m1.m02, m1.m10, m1.m11, m1.m12, m1.m20, m1.m21, m1.m22,
+   scale, rotate);
  }
 
  
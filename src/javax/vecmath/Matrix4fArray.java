@@ -0,0 +1,566 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+import java.util.stream.IntStream;
+
+import static javax.vecmath.VecMath.sqrt;
+
+/**
+ * A packed array of 4x4 single precision matrices. Each matrix is 16 consecutive values of a single
+ * float[] in row major order, the same order as Matrix4f.set(float[]). Bulk methods mirror the
+ * Matrix4f API and operate over the range of matrices starting at index and spanning length
+ * matrices; matrix i of the result is computed from matrix i of the arguments. Use get and set with
+ * a reusable Matrix4f to move single matrices in and out of the array.
+ *
+ */
+public class Matrix4fArray implements java.io.Serializable {
+
+ private static final long serialVersionUID = -2607283613651386044L;
+ final float[] m;
+ private final int size;
+
+ /**
+  * Constructs an array of matrices initialized to all zeros.
+  *
+  * @param size the number of matrices
+  */
+ public Matrix4fArray(int size) {
+  this.size = size;
+  m = new float[size * 16];
+ }
+
+ /**
+  * Constructs an array of matrices that wraps an existing array of values. The array is not copied.
+  *
+  * @param values the matrix elements, 16 in row major order for each matrix, the length must be a
+  * multiple of 16
+  */
+ public Matrix4fArray(float[] values) {
+  if (values.length % 16 != 0) {
+   throw new IllegalArgumentException("Array length must be a multiple of 16.");
+  }
+  size = values.length / 16;
+  m = values;
+ }
+
+ /**
+  * Get the number of matrices in this array.
+  *
+  * @return the number of matrices
+  */
+ public int size() {
+  return size;
+ }
+
+ /**
+  * Copies a matrix out of the array.
+  *
+  * @param <S>
+  * @param i the matrix index
+  * @param m1 the matrix to receive the values
+  * @return m1
+  */
+ public <S extends Matrix4f> S get(int i, S m1) {
+  checkRange(i, 1);
+  int o = i * 16;
+  m1.m00 = m[o];
+  m1.m01 = m[o + 1];
+  m1.m02 = m[o + 2];
+  m1.m03 = m[o + 3];
+  m1.m10 = m[o + 4];
+  m1.m11 = m[o + 5];
+  m1.m12 = m[o + 6];
+  m1.m13 = m[o + 7];
+  m1.m20 = m[o + 8];
+  m1.m21 = m[o + 9];
+  m1.m22 = m[o + 10];
+  m1.m23 = m[o + 11];
+  m1.m30 = m[o + 12];
+  m1.m31 = m[o + 13];
+  m1.m32 = m[o + 14];
+  m1.m33 = m[o + 15];
+  return m1;
+ }
+
+ /**
+  * Sets a matrix in the array.
+  *
+  * @param i the matrix index
+  * @param m1 the matrix to copy
+  * @return this for chaining
+  */
+ public Matrix4fArray set(int i, Matrix4f m1) {
+  checkRange(i, 1);
+  int o = i * 16;
+  m[o] = m1.m00;
+  m[o + 1] = m1.m01;
+  m[o + 2] = m1.m02;
+  m[o + 3] = m1.m03;
+  m[o + 4] = m1.m10;
+  m[o + 5] = m1.m11;
+  m[o + 6] = m1.m12;
+  m[o + 7] = m1.m13;
+  m[o + 8] = m1.m20;
+  m[o + 9] = m1.m21;
+  m[o + 10] = m1.m22;
+  m[o + 11] = m1.m23;
+  m[o + 12] = m1.m30;
+  m[o + 13] = m1.m31;
+  m[o + 14] = m1.m32;
+  m[o + 15] = m1.m33;
+  return this;
+ }
+
+ /**
+  * Sets each matrix in the range to the corresponding matrix in m1.
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @param m1 the source matrices
+  * @return this for chaining
+  */
+ public Matrix4fArray set(int index, int length, Matrix4fArray m1) {
+  checkRange(index, length);
+  m1.checkRange(index, length);
+  System.arraycopy(m1.m, index * 16, m, index * 16, length * 16);
+  return this;
+ }
+
+ /**
+  * Sets each matrix in the range to the identity matrix.
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @return this for chaining
+  */
+ public Matrix4fArray setIdentity(int index, int length) {
+  checkRange(index, length);
+  for (int i = 0, o = index * 16; i < length; ++i, o += 16) {
+   for (int j = 0; j < 16; ++j) {
+    m[o + j] = (j % 5 == 0) ? 1.0f : 0.0f;
+   }
+  }
+  return this;
+ }
+
+ /**
+  * Sets each matrix in the range to the product of the corresponding matrices in m1 and m2.
+  * Either argument may be this array.
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @param m1 the matrices on the left hand side of the multiplication
+  * @param m2 the matrices on the right hand side of the multiplication
+  * @return this for chaining
+  */
+ public Matrix4fArray mul(int index, int length, Matrix4fArray m1, Matrix4fArray m2) {
+  checkRange(index, length);
+  m1.checkRange(index, length);
+  m2.checkRange(index, length);
+  int o = index * 16;
+  BulkKernels.INSTANCE.mul(m1.m, o, m2.m, o, m, o, length);
+  return this;
+ }
+
+ /**
+  * Multiplies each matrix in the range by the corresponding matrix in m1 (this = this * m1).
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @param m1 the matrices on the right hand side of the multiplication
+  * @return this for chaining
+  */
+ public Matrix4fArray mul(int index, int length, Matrix4fArray m1) {
+  return mul(index, length, this, m1);
+ }
+
+ /**
+  * Sets each matrix in the range to the product of the single matrix m1 and the corresponding
+  * matrix in m2, for example a world transform applied to local transforms.
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @param m1 the matrix on the left hand side of the multiplication
+  * @param m2 the matrices on the right hand side of the multiplication
+  * @return this for chaining
+  */
+ public Matrix4fArray mul(int index, int length, Matrix4f m1, Matrix4fArray m2) {
+  checkRange(index, length);
+  m2.checkRange(index, length);
+  int o = index * 16;
+  BulkKernels.INSTANCE.mul(m1, m2.m, o, m, o, length);
+  return this;
+ }
+
+ /**
+  * Composes a flattened hierarchy. For each node i in the range, matrix i is set to matrix
+  * parents[i] of this array times matrix i of locals. Nodes with a negative parent index are roots
+  * and get a copy of their local matrix. Parents must come before their children, so that a single
+  * pass in index order produces the complete transform of every node. Locals may be this array.
+  *
+  * @param index the first node
+  * @param length the number of nodes
+  * @param parents the parent index of each node, indexed by node
+  * @param locals the transform of each node relative to its parent
+  * @return this for chaining
+  */
+ public Matrix4fArray mulParent(int index, int length, int[] parents, Matrix4fArray locals) {
+  checkRange(index, length);
+  locals.checkRange(index, length);
+  BulkKernels kernels = BulkKernels.INSTANCE;
+  for (int i = index, end = index + length, o = index * 16; i < end; ++i, o += 16) {
+   int p = parents[i];
+   if (p < 0) {
+    if (locals != this) {
+     System.arraycopy(locals.m, o, m, o, 16);
+    }
+   } else if (p < i) {
+    kernels.mul(m, p * 16, locals.m, o, m, o, 1);
+   } else {
+    throw new IllegalArgumentException("Parent " + p + " of node " + i +
+     " does not come before it.");
+   }
+  }
+  return this;
+ }
+
+ /**
+  * Sets each matrix in the range to the transpose of the corresponding matrix in m1 times the
+  * corresponding matrix in m2.
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @param m1 the matrices on the left hand side of the multiplication
+  * @param m2 the matrices on the right hand side of the multiplication
+  * @return this for chaining
+  */
+ public Matrix4fArray mulTransposeLeft(int index, int length, Matrix4fArray m1, Matrix4fArray m2) {
+  checkRange(index, length);
+  m1.checkRange(index, length);
+  m2.checkRange(index, length);
+  int o = index * 16;
+  BulkKernels.INSTANCE.mulTransposeLeft(m1.m, o, m2.m, o, m, o, length);
+  return this;
+ }
+
+ /**
+  * Sets each matrix in the range to the corresponding matrix in m1 times the transpose of the
+  * corresponding matrix in m2.
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @param m1 the matrices on the left hand side of the multiplication
+  * @param m2 the matrices on the right hand side of the multiplication
+  * @return this for chaining
+  */
+ public Matrix4fArray mulTransposeRight(int index, int length, Matrix4fArray m1, Matrix4fArray m2) {
+  checkRange(index, length);
+  m1.checkRange(index, length);
+  m2.checkRange(index, length);
+  int o = index * 16;
+  BulkKernels.INSTANCE.mulTransposeRight(m1.m, o, m2.m, o, m, o, length);
+  return this;
+ }
+
+ /**
+  * Sets each matrix in the range to the inverse of the corresponding matrix in m1. Matrices with a
+  * bottom row of (0,0,0,1) are inverted with the cheaper affine routine, as in Matrix4f.invert.
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @param m1 the matrices to be inverted
+  * @return this for chaining
+  */
+ public Matrix4fArray invert(int index, int length, Matrix4fArray m1) {
+  checkRange(index, length);
+  m1.checkRange(index, length);
+  for (int i = 0, o = index * 16; i < length; ++i, o += 16) {
+   invert(m1.m, o, m, o);
+  }
+  return this;
+ }
+
+ /**
+  * Inverts each matrix in the range in place.
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @return this for chaining
+  */
+ public Matrix4fArray invert(int index, int length) {
+  return invert(index, length, this);
+ }
+
+ /**
+  * Sets each matrix in the range to the transpose of the corresponding matrix in m1.
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @param m1 the matrices to be transposed
+  * @return this for chaining
+  */
+ public Matrix4fArray transpose(int index, int length, Matrix4fArray m1) {
+  checkRange(index, length);
+  m1.checkRange(index, length);
+  for (int i = 0, o = index * 16; i < length; ++i, o += 16) {
+   transpose(m1.m, o, m, o);
+  }
+  return this;
+ }
+
+ /**
+  * Transposes each matrix in the range in place.
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @return this for chaining
+  */
+ public Matrix4fArray transpose(int index, int length) {
+  return transpose(index, length, this);
+ }
+
+ /**
+  * Inverts one packed matrix with the cofactors of Matrix4f.invert, so the results are identical.
+  * src and dst may be the same location.
+  */
+ private static void invert(float[] src, int s, float[] dst, int d) {
+  final float m00 = src[s], m01 = src[s + 1], m02 = src[s + 2], m03 = src[s + 3];
+  final float m10 = src[s + 4], m11 = src[s + 5], m12 = src[s + 6], m13 = src[s + 7];
+  final float m20 = src[s + 8], m21 = src[s + 9], m22 = src[s + 10], m23 = src[s + 11];
+  final float m30 = src[s + 12], m31 = src[s + 13], m32 = src[s + 14], m33 = src[s + 15];
+  if (m30 == 0.0f && m31 == 0.0f && m32 == 0.0f && m33 == 1.0f) {
+   float c00 = m11 * m22 - m12 * m21;
+   float c10 = m12 * m20 - m10 * m22;
+   float c20 = m10 * m21 - m11 * m20;
+   float invDet = (1.0f) / (m00 * c00 + m01 * c10 + m02 * c20);
+   float n00 = c00 * invDet;
+   float n01 = (m02 * m21 - m01 * m22) * invDet;
+   float n02 = (m01 * m12 - m02 * m11) * invDet;
+   float n10 = c10 * invDet;
+   float n11 = (m00 * m22 - m02 * m20) * invDet;
+   float n12 = (m02 * m10 - m00 * m12) * invDet;
+   float n20 = c20 * invDet;
+   float n21 = (m01 * m20 - m00 * m21) * invDet;
+   float n22 = (m00 * m11 - m01 * m10) * invDet;
+   dst[d] = n00;
+   dst[d + 1] = n01;
+   dst[d + 2] = n02;
+   dst[d + 3] = -(n00 * m03 + n01 * m13 + n02 * m23);
+   dst[d + 4] = n10;
+   dst[d + 5] = n11;
+   dst[d + 6] = n12;
+   dst[d + 7] = -(n10 * m03 + n11 * m13 + n12 * m23);
+   dst[d + 8] = n20;
+   dst[d + 9] = n21;
+   dst[d + 10] = n22;
+   dst[d + 11] = -(n20 * m03 + n21 * m13 + n22 * m23);
+   dst[d + 12] = 0.0f;
+   dst[d + 13] = 0.0f;
+   dst[d + 14] = 0.0f;
+   dst[d + 15] = 1.0f;
+   return;
+  }
+  float a0 = m00 * m11 - m01 * m10;
+  float a1 = m00 * m12 - m02 * m10;
+  float a2 = m00 * m13 - m03 * m10;
+  float a3 = m01 * m12 - m02 * m11;
+  float a4 = m01 * m13 - m03 * m11;
+  float a5 = m02 * m13 - m03 * m12;
+  float b0 = m20 * m31 - m21 * m30;
+  float b1 = m20 * m32 - m22 * m30;
+  float b2 = m20 * m33 - m23 * m30;
+  float b3 = m21 * m32 - m22 * m31;
+  float b4 = m21 * m33 - m23 * m31;
+  float b5 = m22 * m33 - m23 * m32;
+  float det = a0 * b5 - a1 * b4 + a2 * b3 + a3 * b2 - a4 * b1 + a5 * b0;
+  float invDet = (1.0f) / det;
+  dst[d] = (+m11 * b5 - m12 * b4 + m13 * b3) * invDet;
+  dst[d + 1] = (-m01 * b5 + m02 * b4 - m03 * b3) * invDet;
+  dst[d + 2] = (+m31 * a5 - m32 * a4 + m33 * a3) * invDet;
+  dst[d + 3] = (-m21 * a5 + m22 * a4 - m23 * a3) * invDet;
+  dst[d + 4] = (-m10 * b5 + m12 * b2 - m13 * b1) * invDet;
+  dst[d + 5] = (+m00 * b5 - m02 * b2 + m03 * b1) * invDet;
+  dst[d + 6] = (-m30 * a5 + m32 * a2 - m33 * a1) * invDet;
+  dst[d + 7] = (+m20 * a5 - m22 * a2 + m23 * a1) * invDet;
+  dst[d + 8] = (+m10 * b4 - m11 * b2 + m13 * b0) * invDet;
+  dst[d + 9] = (-m00 * b4 + m01 * b2 - m03 * b0) * invDet;
+  dst[d + 10] = (+m30 * a4 - m31 * a2 + m33 * a0) * invDet;
+  dst[d + 11] = (-m20 * a4 + m21 * a2 - m23 * a0) * invDet;
+  dst[d + 12] = (-m10 * b3 + m11 * b1 - m12 * b0) * invDet;
+  dst[d + 13] = (+m00 * b3 - m01 * b1 + m02 * b0) * invDet;
+  dst[d + 14] = (-m30 * a3 + m31 * a1 - m32 * a0) * invDet;
+  dst[d + 15] = (+m20 * a3 - m21 * a1 + m22 * a0) * invDet;
+ }
+
+ /**
+  * Transposes one packed matrix, src and dst may be the same location.
+  */
+ private static void transpose(float[] src, int s, float[] dst, int d) {
+  for (int r = 1; r < 4; ++r) {
+   for (int c = 0; c < r; ++c) {
+    float upper = src[s + c * 4 + r];
+    dst[d + c * 4 + r] = src[s + r * 4 + c];
+    dst[d + r * 4 + c] = upper;
+   }
+  }
+  if (src != dst || s != d) {
+   dst[d] = src[s];
+   dst[d + 5] = src[s + 5];
+   dst[d + 10] = src[s + 10];
+   dst[d + 15] = src[s + 15];
+  }
+ }
+
+ /**
+  * Linear blend skinning with this array as the bone palette. For each vertex v in the range the
+  * upper 3x4 of the bones indices[v * influences + k], weighted by weights[v * influences + k] for
+  * k from 0 to influences - 1, are summed and the sum transforms the position and normal of v.
+  * Positions and normals are 3 consecutive values (x,y,z) per vertex, starting at v * 3, and the
+  * results go to the same location in the output arrays. Skinned normals are transformed by the
+  * upper 3x3 and normalized, which is exact for bones without non-uniform scale. Influences with a
+  * weight of 0 are skipped.
+  * <P>
+  * Each vertex is read and written once. Large ranges are split into chunks of vertices that are
+  * skinned in parallel on the ForkJoin common pool, so the output arrays must not overlap the
+  * inputs of other vertices.
+  *
+  * @param positions the packed bind pose positions
+  * @param normals the packed bind pose normals, or null to skin positions only
+  * @param indices the bone indices, influences per vertex
+  * @param weights the bone weights, influences per vertex
+  * @param influences the number of bones per vertex
+  * @param first the first vertex
+  * @param count the number of vertices
+  * @param skinnedPositions the array to receive the skinned positions, may be positions
+  * @param skinnedNormals the array to receive the skinned normals, may be normals, unused when
+  * normals is null
+  */
+ public void skin(float[] positions, float[] normals, int[] indices, float[] weights,
+  int influences, int first, int count, float[] skinnedPositions, float[] skinnedNormals) {
+  if (first < 0 || count < 0) {
+   throw new IndexOutOfBoundsException("Range " + first + " + " + count + " is negative");
+  }
+  if ((long) count * influences < PARALLEL_THRESHOLD) {
+   skinRange(positions, normals, indices, weights, influences, first, first + count,
+    skinnedPositions, skinnedNormals);
+  } else {
+   int chunks = (count + SKIN_CHUNK - 1) / SKIN_CHUNK;
+   IntStream.range(0, chunks).parallel().forEach(c -> {
+    int from = first + c * SKIN_CHUNK;
+    skinRange(positions, normals, indices, weights, influences, from,
+     Math.min(from + SKIN_CHUNK, first + count), skinnedPositions, skinnedNormals);
+   });
+  }
+ }
+
+ /**
+  * Skins the vertices from up to, not including, to.
+  */
+ private void skinRange(float[] positions, float[] normals, int[] indices, float[] weights,
+  int influences, int from, int to, float[] skinnedPositions, float[] skinnedNormals) {
+  final float[] b = m;
+  for (int v = from; v < to; ++v) {
+   float a00 = 0, a01 = 0, a02 = 0, a03 = 0;
+   float a10 = 0, a11 = 0, a12 = 0, a13 = 0;
+   float a20 = 0, a21 = 0, a22 = 0, a23 = 0;
+   for (int k = v * influences, end = k + influences; k < end; ++k) {
+    float w = weights[k];
+    if (w == 0.0f) {
+     continue;
+    }
+    int o = indices[k] * 16;
+    a00 += w * b[o];
+    a01 += w * b[o + 1];
+    a02 += w * b[o + 2];
+    a03 += w * b[o + 3];
+    a10 += w * b[o + 4];
+    a11 += w * b[o + 5];
+    a12 += w * b[o + 6];
+    a13 += w * b[o + 7];
+    a20 += w * b[o + 8];
+    a21 += w * b[o + 9];
+    a22 += w * b[o + 10];
+    a23 += w * b[o + 11];
+   }
+   int p = v * 3;
+   float x = positions[p];
+   float y = positions[p + 1];
+   float z = positions[p + 2];
+   skinnedPositions[p] = a00 * x + a01 * y + a02 * z + a03;
+   skinnedPositions[p + 1] = a10 * x + a11 * y + a12 * z + a13;
+   skinnedPositions[p + 2] = a20 * x + a21 * y + a22 * z + a23;
+   if (normals != null) {
+    x = normals[p];
+    y = normals[p + 1];
+    z = normals[p + 2];
+    float nx = a00 * x + a01 * y + a02 * z;
+    float ny = a10 * x + a11 * y + a12 * z;
+    float nz = a20 * x + a21 * y + a22 * z;
+    float len2 = nx * nx + ny * ny + nz * nz;
+    float s = len2 > 0.0f ? 1.0f / sqrt(len2) : 0.0f;
+    skinnedNormals[p] = nx * s;
+    skinnedNormals[p + 1] = ny * s;
+    skinnedNormals[p + 2] = nz * s;
+   }
+  }
+ }
+
+ /**
+  * Number of vertex influences above which skin splits the vertices across the ForkJoin common
+  * pool.
+  */
+ private static final long PARALLEL_THRESHOLD = 1L << 14;
+ /**
+  * Vertices in one parallel skinning task.
+  */
+ private static final int SKIN_CHUNK = 1024;
+
+ /**
+  * Returns a string that contains the values of the matrices in this array.
+  *
+  * @return the String representation
+  */
+ @Override
+ public String toString() {
+  StringBuilder s = new StringBuilder("[");
+  for (int i = 0, o = 0; i < size; ++i, o += 16) {
+   if (i > 0) {
+    s.append(", ");
+   }
+   s.append('(');
+   for (int j = 0; j < 16; ++j) {
+    if (j > 0) {
+     s.append(j % 4 == 0 ? "; " : ", ");
+    }
+    s.append(m[o + j]);
+   }
+   s.append(')');
+  }
+  return s.append(']').toString();
+ }
+
+ /**
+  * Check that a range of matrices is within this array.
+  *
+  * @param index the first matrix
+  * @param length the number of matrices
+  */
+ final void checkRange(int index, int length) {
+  if (index < 0 || length < 0 || length > size - index) {
+   throw new IndexOutOfBoundsException("Range " + index + " + " + length + " is outside size " +
+    size);
+  }
+ }
+}
@@ -0,0 +1,204 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Bulk Matrix4f transforms over FloatBuffer ranges. Offsets are absolute buffer indices, the
+ * position and limit of the buffers are not used or changed. Heap buffers are transformed through
+ * their backing arrays with the float[] methods of Matrix4f.
+ * <P>
+ * Not available in the GWT module.
+ *
+ */
+public final class Matrix4fBuffers {
+
+ private Matrix4fBuffers() {
+ }
+
+ /**
+  * Checks that count elements of size values at offset, offset + stride, ... lie within the limit
+  * of the buffer, as the absolute get and put of the direct path would.
+  */
+ private static void checkRange(FloatBuffer buffer, int offset, int stride, int count, int size) {
+  if (count > 0 && (offset < 0
+   || offset + (long) (count - 1) * stride + size > buffer.limit())) {
+   throw new IndexOutOfBoundsException();
+  }
+ }
+
+ /**
+  * Transforms a range of points in place. Each point is 3 consecutive values (x,y,z).
+  *
+  * @param m1 the transform
+  * @param points the packed points
+  * @param offset the index of the first point in the buffer
+  * @param stride the distance between the start of consecutive points, at least 3
+  * @param count the number of points to transform
+  * @return points for chaining
+  */
+ public static FloatBuffer transform(Matrix4f m1, FloatBuffer points, int offset, int stride,
+  int count) {
+  return transform(m1, points, offset, stride, points, offset, stride, count);
+ }
+
+ /**
+  * Transforms a range of points and places the results into another buffer. Each point is 3
+  * consecutive values (x,y,z). The source and destination may be the same buffer.
+  *
+  * @param m1 the transform
+  * @param src the packed points to transform
+  * @param srcOffset the index of the first point in src
+  * @param srcStride the distance between the start of consecutive points in src, at least 3
+  * @param dst the buffer to receive the transformed points
+  * @param dstOffset the index of the first point in dst
+  * @param dstStride the distance between the start of consecutive points in dst, at least 3
+  * @param count the number of points to transform
+  * @return dst for chaining
+  */
+ public static FloatBuffer transform(Matrix4f m1, FloatBuffer src, int srcOffset, int srcStride,
+  FloatBuffer dst, int dstOffset, int dstStride, int count) {
+  if (src.hasArray() && dst.hasArray()) {
+   checkRange(src, srcOffset, srcStride, count, 3);
+   checkRange(dst, dstOffset, dstStride, count, 3);
+   m1.transform(src.array(), src.arrayOffset() + srcOffset, srcStride, dst.array(),
+    dst.arrayOffset() + dstOffset, dstStride, count);
+   return dst;
+  }
+  final float a00 = m1.m00, a01 = m1.m01, a02 = m1.m02, a03 = m1.m03;
+  final float a10 = m1.m10, a11 = m1.m11, a12 = m1.m12, a13 = m1.m13;
+  final float a20 = m1.m20, a21 = m1.m21, a22 = m1.m22, a23 = m1.m23;
+  for (int i = 0, s = srcOffset, d = dstOffset; i < count; ++i, s += srcStride, d += dstStride) {
+   float x = src.get(s);
+   float y = src.get(s + 1);
+   float z = src.get(s + 2);
+   dst.put(d, a00 * x + a01 * y + a02 * z + a03);
+   dst.put(d + 1, a10 * x + a11 * y + a12 * z + a13);
+   dst.put(d + 2, a20 * x + a21 * y + a22 * z + a23);
+  }
+  return dst;
+ }
+
+ /**
+  * Transforms a range of directions in place using only the upper 3x3 of the matrix. Each
+  * direction is 3 consecutive values (x,y,z).
+  *
+  * @param m1 the transform
+  * @param vectors the packed directions
+  * @param offset the index of the first direction in the buffer
+  * @param stride the distance between the start of consecutive directions, at least 3
+  * @param count the number of directions to transform
+  * @return vectors for chaining
+  */
+ public static FloatBuffer transform3x3(Matrix4f m1, FloatBuffer vectors, int offset, int stride,
+  int count) {
+  return transform3x3(m1, vectors, offset, stride, vectors, offset, stride, count);
+ }
+
+ /**
+  * Transforms a range of directions using only the upper 3x3 of the matrix and places the results
+  * into another buffer. Each direction is 3 consecutive values (x,y,z). The source and destination
+  * may be the same buffer.
+  *
+  * @param m1 the transform
+  * @param src the packed directions to transform
+  * @param srcOffset the index of the first direction in src
+  * @param srcStride the distance between the start of consecutive directions in src, at least 3
+  * @param dst the buffer to receive the transformed directions
+  * @param dstOffset the index of the first direction in dst
+  * @param dstStride the distance between the start of consecutive directions in dst, at least 3
+  * @param count the number of directions to transform
+  * @return dst for chaining
+  */
+ public static FloatBuffer transform3x3(Matrix4f m1, FloatBuffer src, int srcOffset,
+  int srcStride, FloatBuffer dst, int dstOffset, int dstStride, int count) {
+  if (src.hasArray() && dst.hasArray()) {
+   checkRange(src, srcOffset, srcStride, count, 3);
+   checkRange(dst, dstOffset, dstStride, count, 3);
+   m1.transform3x3(src.array(), src.arrayOffset() + srcOffset, srcStride, dst.array(),
+    dst.arrayOffset() + dstOffset, dstStride, count);
+   return dst;
+  }
+  final float a00 = m1.m00, a01 = m1.m01, a02 = m1.m02;
+  final float a10 = m1.m10, a11 = m1.m11, a12 = m1.m12;
+  final float a20 = m1.m20, a21 = m1.m21, a22 = m1.m22;
+  for (int i = 0, s = srcOffset, d = dstOffset; i < count; ++i, s += srcStride, d += dstStride) {
+   float x = src.get(s);
+   float y = src.get(s + 1);
+   float z = src.get(s + 2);
+   dst.put(d, a00 * x + a01 * y + a02 * z);
+   dst.put(d + 1, a10 * x + a11 * y + a12 * z);
+   dst.put(d + 2, a20 * x + a21 * y + a22 * z);
+  }
+  return dst;
+ }
+
+ /**
+  * Transforms a range of homogeneous 4 component tuples in place. Each tuple is 4 consecutive
+  * values (x,y,z,w).
+  *
+  * @param m1 the transform
+  * @param tuples the packed tuples
+  * @param offset the index of the first tuple in the buffer
+  * @param stride the distance between the start of consecutive tuples, at least 4
+  * @param count the number of tuples to transform
+  * @return tuples for chaining
+  */
+ public static FloatBuffer transform4(Matrix4f m1, FloatBuffer tuples, int offset, int stride,
+  int count) {
+  return transform4(m1, tuples, offset, stride, tuples, offset, stride, count);
+ }
+
+ /**
+  * Transforms a range of homogeneous 4 component tuples and places the results into another
+  * buffer. Each tuple is 4 consecutive values (x,y,z,w). The source and destination may be the same
+  * buffer.
+  *
+  * @param m1 the transform
+  * @param src the packed tuples to transform
+  * @param srcOffset the index of the first tuple in src
+  * @param srcStride the distance between the start of consecutive tuples in src, at least 4
+  * @param dst the buffer to receive the transformed tuples
+  * @param dstOffset the index of the first tuple in dst
+  * @param dstStride the distance between the start of consecutive tuples in dst, at least 4
+  * @param count the number of tuples to transform
+  * @return dst for chaining
+  */
+ public static FloatBuffer transform4(Matrix4f m1, FloatBuffer src, int srcOffset, int srcStride,
+  FloatBuffer dst, int dstOffset, int dstStride, int count) {
+  if (src.hasArray() && dst.hasArray()) {
+   checkRange(src, srcOffset, srcStride, count, 4);
+   checkRange(dst, dstOffset, dstStride, count, 4);
+   m1.transform4(src.array(), src.arrayOffset() + srcOffset, srcStride, dst.array(),
+    dst.arrayOffset() + dstOffset, dstStride, count);
+   return dst;
+  }
+  final float a00 = m1.m00, a01 = m1.m01, a02 = m1.m02, a03 = m1.m03;
+  final float a10 = m1.m10, a11 = m1.m11, a12 = m1.m12, a13 = m1.m13;
+  final float a20 = m1.m20, a21 = m1.m21, a22 = m1.m22, a23 = m1.m23;
+  final float a30 = m1.m30, a31 = m1.m31, a32 = m1.m32, a33 = m1.m33;
+  for (int i = 0, s = srcOffset, d = dstOffset; i < count; ++i, s += srcStride, d += dstStride) {
+   float x = src.get(s);
+   float y = src.get(s + 1);
+   float z = src.get(s + 2);
+   float w = src.get(s + 3);
+   dst.put(d, a00 * x + a01 * y + a02 * z + a03 * w);
+   dst.put(d + 1, a10 * x + a11 * y + a12 * z + a13 * w);
+   dst.put(d + 2, a20 * x + a21 * y + a22 * z + a23 * w);
+   dst.put(d + 3, a30 * x + a31 * y + a32 * z + a33 * w);
+  }
+  return dst;
+ }
+}
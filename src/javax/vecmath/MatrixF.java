@@ -0,0 +1,906 @@
+package javax.vecmath;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Single precision general matrix, the float counterpart of Matrix.
+ * <P>
+ * Elements are stored in a flat row-major float[] with a leading dimension, like Matrix, so
+ * sub-matrix views share storage and a matrix takes half the memory of its double precision
+ * equivalent. The products, transpose and the singular value decomposition work in float
+ * throughout, matching the precision of the rest of the library. Tuple3f, Matrix3f and Matrix4f
+ * convert directly to and from MatrixF.
+ *
+ * @see Matrix
+ * @see SingularValueDecompositionF
+ */
+public class MatrixF implements java.io.Serializable {
+
+ static final long serialVersionUID = 1L;
+ /*
+	 * ------------------------ Class variables ------------------------
+  */
+ /**
+  * Array for internal storage of elements. Element (i,j) is A[offset + i * ld + j], so rows are
+  * contiguous and a sub-matrix view shares the array of the matrix it was taken from.
+  *
+  * @serial internal array storage.
+  */
+ final float[] A;
+ /**
+  * Index of element (0,0) in A and the distance between the starts of consecutive rows, the
+  * leading dimension, which is at least n.
+  *
+  * @serial offset of the first element.
+  * @serial leading dimension.
+  */
+ final int offset, ld;
+ /**
+  * Row and column dimensions.
+  *
+  * @serial row dimension.
+  * @serial column dimension.
+  */
+ final int m, n;
+
+ /*
+	 * ------------------------ Constructors ------------------------
+  */
+ /**
+  * Construct an m-by-n matrix of zeros.
+  *
+  * @param m Number of rows.
+  * @param n Number of colums.
+  */
+ public MatrixF(int m, int n) {
+  this(new float[m * n], 0, n, m, n);
+ }
+
+ /**
+  * Construct a matrix over existing storage without copying.
+  *
+  * @param A the storage, element (i,j) is A[offset + i * ld + j]
+  * @param offset index of element (0,0)
+  * @param ld distance between the starts of consecutive rows
+  * @param m Number of rows.
+  * @param n Number of colums.
+  */
+ MatrixF(float[] A, int offset, int ld, int m, int n) {
+  this.A = A;
+  this.offset = offset;
+  this.ld = ld;
+  this.m = m;
+  this.n = n;
+ }
+
+ /**
+  * Construct an m-by-n constant matrix.
+  *
+  * @param m Number of rows.
+  * @param n Number of colums.
+  * @param s Fill the matrix with this scalar value.
+  */
+ public MatrixF(int m, int n, float s) {
+  this(m, n);
+  Arrays.fill(A, s);
+ }
+
+ /**
+  * Construct a matrix from a 2-D array.
+  *
+  * @param A Two-dimensional array of floats.
+  * @exception IllegalArgumentException All rows must have the same length
+  * @see #constructWithCopy
+  */
+ public MatrixF(float[][] A) {
+  this(A.length, A[0].length);
+  for (int i = 0; i < m; i++) {
+   if (A[i].length != n) {
+    throw new IllegalArgumentException("All rows must have the same length.");
+   }
+   System.arraycopy(A[i], 0, this.A, i * n, n);
+  }
+ }
+
+ /**
+  * Construct a matrix quickly without checking arguments.
+  *
+  * @param A Two-dimensional array of floats.
+  * @param m Number of rows.
+  * @param n Number of colums.
+  */
+ public MatrixF(float[][] A, int m, int n) {
+  this(m, n);
+  for (int i = 0; i < m; i++) {
+   System.arraycopy(A[i], 0, this.A, i * n, n);
+  }
+ }
+
+ /**
+  * Construct a matrix from a one-dimensional packed array
+  *
+  * @param vals One-dimensional array of floats, packed by columns (ala Fortran).
+  * @param m Number of rows.
+  * @exception IllegalArgumentException Array length must be a multiple of m.
+  */
+ public MatrixF(float vals[], int m) {
+  this(m, (m != 0 ? vals.length / m : 0));
+  if (m * n != vals.length) {
+   throw new IllegalArgumentException("Array length must be a multiple of m.");
+  }
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < n; j++) {
+    A[i * n + j] = vals[i + j * m];
+   }
+  }
+ }
+
+ /**
+  * Construct a 1-by-3 row matrix from a tuple.
+  *
+  * @param t1 the tuple
+  */
+ public MatrixF(Tuple3f t1) {
+  this(1, 3);
+  A[0] = t1.x;
+  A[1] = t1.y;
+  A[2] = t1.z;
+ }
+
+ /**
+  * Construct a 3-by-3 matrix from a Matrix3f.
+  *
+  * @param m1 the matrix
+  */
+ public MatrixF(Matrix3f m1) {
+  this(3, 3);
+  A[0] = m1.m00;
+  A[1] = m1.m01;
+  A[2] = m1.m02;
+  A[3] = m1.m10;
+  A[4] = m1.m11;
+  A[5] = m1.m12;
+  A[6] = m1.m20;
+  A[7] = m1.m21;
+  A[8] = m1.m22;
+ }
+
+ /**
+  * Construct a 4-by-4 matrix from a Matrix4f.
+  *
+  * @param m1 the matrix
+  */
+ public MatrixF(Matrix4f m1) {
+  this(4, 4);
+  m1.getRowMajor(A);
+ }
+
+ /*
+	 * ------------------------ Public Methods ------------------------
+  */
+ /**
+  * Construct a matrix from a copy of a 2-D array.
+  *
+  * @param A Two-dimensional array of floats.
+  * @return
+  * @exception IllegalArgumentException All rows must have the same length
+  */
+ public static MatrixF constructWithCopy(float[][] A) {
+  int m = A.length;
+  int n = A[0].length;
+  return new MatrixF(A);
+ }
+
+ /**
+  * Make a deep copy of a matrix
+  *
+  * @return
+  */
+ public MatrixF copy() {
+  return new MatrixF(getRowPackedCopy(), 0, n, m, n);
+ }
+
+ /**
+  * Copy the elements into a two-dimensional array.
+  * <P>
+  * <B>Warning: this returns a copy, not the internal storage.</B> The elements are stored in a
+  * one-dimensional row-major array, so writes to the returned array are NOT seen by the matrix.
+  * Code that modified the matrix through this array must use {@link #set(int, int, float)} or
+  * {@link #setMatrix(int, int, int, int, MatrixF)} instead.
+  *
+  * @return Two-dimensional array copy of matrix elements.
+  * @deprecated Returns a copy; use {@link #getArrayCopy()}, which says so.
+  */
+ @Deprecated
+ public float[][] getArray() {
+  return getArrayCopy();
+ }
+
+ /**
+  * Copy the internal array into a two-dimensional array.
+  *
+  * @return Two-dimensional array copy of matrix elements.
+  */
+ public float[][] getArrayCopy() {
+  float[][] C = new float[m][n];
+  for (int i = 0; i < m; i++) {
+   System.arraycopy(A, offset + i * ld, C[i], 0, n);
+  }
+  return C;
+ }
+
+ /**
+  * Make a one-dimensional column packed copy of the internal array.
+  *
+  * @return MatrixF elements packed in a one-dimensional array by columns.
+  */
+ public float[] getColumnPackedCopy() {
+  float[] vals = new float[m * n];
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < n; j++) {
+    vals[i + j * m] = A[offset + i * ld + j];
+   }
+  }
+  return vals;
+ }
+
+ /**
+  * Make a one-dimensional row packed copy of the internal array.
+  *
+  * @return MatrixF elements packed in a one-dimensional array by rows.
+  */
+ public float[] getRowPackedCopy() {
+  float[] vals = new float[m * n];
+  if (ld == n) {
+   System.arraycopy(A, offset, vals, 0, m * n);
+  } else {
+   for (int i = 0; i < m; i++) {
+    System.arraycopy(A, offset + i * ld, vals, i * n, n);
+   }
+  }
+  return vals;
+ }
+
+ /**
+  * Copy the first three elements of a row or column matrix into a tuple.
+  *
+  * @param t1 the tuple to receive the elements
+  * @return t1 for chaining
+  * @exception IllegalArgumentException The matrix has fewer than 3 elements in a row or column.
+  */
+ public <T extends Tuple3f> T get(T t1) {
+  if (m == 1 && n >= 3) {
+   t1.x = A[offset];
+   t1.y = A[offset + 1];
+   t1.z = A[offset + 2];
+  } else if (n == 1 && m >= 3) {
+   t1.x = A[offset];
+   t1.y = A[offset + ld];
+   t1.z = A[offset + 2 * ld];
+  } else {
+   throw new IllegalArgumentException("Matrix must be a row or column of at least 3 elements.");
+  }
+  return t1;
+ }
+
+ /**
+  * Copy the upper left 3-by-3 block into a Matrix3f.
+  *
+  * @param m1 the matrix to receive the elements
+  * @return m1 for chaining
+  * @exception IllegalArgumentException The matrix is smaller than 3-by-3.
+  */
+ public <T extends Matrix3f> T get(T m1) {
+  checkBlock(3);
+  int r0 = offset, r1 = r0 + ld, r2 = r1 + ld;
+  m1.m00 = A[r0];
+  m1.m01 = A[r0 + 1];
+  m1.m02 = A[r0 + 2];
+  m1.m10 = A[r1];
+  m1.m11 = A[r1 + 1];
+  m1.m12 = A[r1 + 2];
+  m1.m20 = A[r2];
+  m1.m21 = A[r2 + 1];
+  m1.m22 = A[r2 + 2];
+  return m1;
+ }
+
+ /**
+  * Copy the upper left 4-by-4 block into a Matrix4f.
+  *
+  * @param m1 the matrix to receive the elements
+  * @return m1 for chaining
+  * @exception IllegalArgumentException The matrix is smaller than 4-by-4.
+  */
+ public <T extends Matrix4f> T get(T m1) {
+  checkBlock(4);
+  int r0 = offset, r1 = r0 + ld, r2 = r1 + ld, r3 = r2 + ld;
+  m1.m00 = A[r0];
+  m1.m01 = A[r0 + 1];
+  m1.m02 = A[r0 + 2];
+  m1.m03 = A[r0 + 3];
+  m1.m10 = A[r1];
+  m1.m11 = A[r1 + 1];
+  m1.m12 = A[r1 + 2];
+  m1.m13 = A[r1 + 3];
+  m1.m20 = A[r2];
+  m1.m21 = A[r2 + 1];
+  m1.m22 = A[r2 + 2];
+  m1.m23 = A[r2 + 3];
+  m1.m30 = A[r3];
+  m1.m31 = A[r3 + 1];
+  m1.m32 = A[r3 + 2];
+  m1.m33 = A[r3 + 3];
+  return m1;
+ }
+
+ /**
+  * Get row dimension.
+  *
+  * @return m, the number of rows.
+  */
+ public int getRowDimension() {
+  return m;
+ }
+
+ /**
+  * Get column dimension.
+  *
+  * @return n, the number of columns.
+  */
+ public int getColumnDimension() {
+  return n;
+ }
+
+ /**
+  * Get a single element.
+  *
+  * @param i Row index.
+  * @param j Column index.
+  * @return A(i,j)
+  * @exception ArrayIndexOutOfBoundsException
+  */
+ public float get(int i, int j) {
+  checkIndex(i, j);
+  return A[offset + i * ld + j];
+ }
+
+ /**
+  * Get a submatrix.
+  *
+  * @param i0 Initial row index
+  * @param i1 Final row index
+  * @param j0 Initial column index
+  * @param j1 Final column index
+  * @return A(i0:i1,j0:j1)
+  * @exception ArrayIndexOutOfBoundsException Submatrix indices
+  */
+ public MatrixF getMatrix(int i0, int i1, int j0, int j1) {
+  return getMatrixView(i0, i1, j0, j1).copy();
+ }
+
+ /**
+  * Get a submatrix that shares storage with this matrix. Changes to either matrix are visible in
+  * the other.
+  *
+  * @param i0 Initial row index
+  * @param i1 Final row index
+  * @param j0 Initial column index
+  * @param j1 Final column index
+  * @return A(i0:i1,j0:j1)
+  * @exception ArrayIndexOutOfBoundsException Submatrix indices
+  */
+ public MatrixF getMatrixView(int i0, int i1, int j0, int j1) {
+  if (i0 < 0 || j0 < 0 || i1 >= m || j1 >= n || i1 < i0 - 1 || j1 < j0 - 1) {
+   throw new ArrayIndexOutOfBoundsException("Submatrix indices");
+  }
+  return new MatrixF(A, offset + i0 * ld + j0, ld, i1 - i0 + 1, j1 - j0 + 1);
+ }
+
+ /**
+  * Get a submatrix.
+  *
+  * @param r Array of row indices.
+  * @param c Array of column indices.
+  * @return A(r(:),c(:))
+  * @exception ArrayIndexOutOfBoundsException Submatrix indices
+  */
+ public MatrixF getMatrix(int[] r, int[] c) {
+  MatrixF X = new MatrixF(r.length, c.length);
+  float[] B = X.A;
+  try {
+   for (int i = 0; i < r.length; i++) {
+    for (int j = 0; j < c.length; j++) {
+     B[i * c.length + j] = get(r[i], c[j]);
+    }
+   }
+  } catch (ArrayIndexOutOfBoundsException e) {
+   throw new ArrayIndexOutOfBoundsException("Submatrix indices");
+  }
+  return X;
+ }
+
+ /**
+  * Get a submatrix.
+  *
+  * @param i0 Initial row index
+  * @param i1 Final row index
+  * @param c Array of column indices.
+  * @return A(i0:i1,c(:))
+  * @exception ArrayIndexOutOfBoundsException Submatrix indices
+  */
+ public MatrixF getMatrix(int i0, int i1, int[] c) {
+  MatrixF X = new MatrixF(i1 - i0 + 1, c.length);
+  float[] B = X.A;
+  try {
+   for (int i = i0; i <= i1; i++) {
+    for (int j = 0; j < c.length; j++) {
+     B[(i - i0) * c.length + j] = get(i, c[j]);
+    }
+   }
+  } catch (ArrayIndexOutOfBoundsException e) {
+   throw new ArrayIndexOutOfBoundsException("Submatrix indices");
+  }
+  return X;
+ }
+
+ /**
+  * Get a submatrix.
+  *
+  * @param r Array of row indices.
+  * @param j0 Initial column index
+  * @param j1 Final column index
+  * @return A(r(:),j0:j1)
+  * @exception ArrayIndexOutOfBoundsException Submatrix indices
+  */
+ public MatrixF getMatrix(int[] r, int j0, int j1) {
+  MatrixF X = new MatrixF(r.length, j1 - j0 + 1);
+  float[] B = X.A;
+  try {
+   for (int i = 0; i < r.length; i++) {
+    for (int j = j0; j <= j1; j++) {
+     B[i * X.n + j - j0] = get(r[i], j);
+    }
+   }
+  } catch (ArrayIndexOutOfBoundsException e) {
+   throw new ArrayIndexOutOfBoundsException("Submatrix indices");
+  }
+  return X;
+ }
+
+ /**
+  * Set a single element.
+  *
+  * @param i Row index.
+  * @param j Column index.
+  * @param s A(i,j).
+  * @exception ArrayIndexOutOfBoundsException
+  */
+ public void set(int i, int j, float s) {
+  checkIndex(i, j);
+  A[offset + i * ld + j] = s;
+ }
+
+ /**
+  * Set a submatrix.
+  *
+  * @param i0 Initial row index
+  * @param i1 Final row index
+  * @param j0 Initial column index
+  * @param j1 Final column index
+  * @param X A(i0:i1,j0:j1)
+  * @exception ArrayIndexOutOfBoundsException Submatrix indices
+  */
+ public void setMatrix(int i0, int i1, int j0, int j1, MatrixF X) {
+  try {
+   for (int i = i0; i <= i1; i++) {
+    for (int j = j0; j <= j1; j++) {
+     set(i, j, X.get(i - i0, j - j0));
+    }
+   }
+  } catch (ArrayIndexOutOfBoundsException e) {
+   throw new ArrayIndexOutOfBoundsException("Submatrix indices");
+  }
+ }
+
+ /**
+  * Set a submatrix.
+  *
+  * @param r Array of row indices.
+  * @param c Array of column indices.
+  * @param X A(r(:),c(:))
+  * @exception ArrayIndexOutOfBoundsException Submatrix indices
+  */
+ public void setMatrix(int[] r, int[] c, MatrixF X) {
+  try {
+   for (int i = 0; i < r.length; i++) {
+    for (int j = 0; j < c.length; j++) {
+     set(r[i], c[j], X.get(i, j));
+    }
+   }
+  } catch (ArrayIndexOutOfBoundsException e) {
+   throw new ArrayIndexOutOfBoundsException("Submatrix indices");
+  }
+ }
+
+ /**
+  * Set a submatrix.
+  *
+  * @param r Array of row indices.
+  * @param j0 Initial column index
+  * @param j1 Final column index
+  * @param X A(r(:),j0:j1)
+  * @exception ArrayIndexOutOfBoundsException Submatrix indices
+  */
+ public void setMatrix(int[] r, int j0, int j1, MatrixF X) {
+  try {
+   for (int i = 0; i < r.length; i++) {
+    for (int j = j0; j <= j1; j++) {
+     set(r[i], j, X.get(i, j - j0));
+    }
+   }
+  } catch (ArrayIndexOutOfBoundsException e) {
+   throw new ArrayIndexOutOfBoundsException("Submatrix indices");
+  }
+ }
+
+ /**
+  * Set a submatrix.
+  *
+  * @param i0 Initial row index
+  * @param i1 Final row index
+  * @param c Array of column indices.
+  * @param X A(i0:i1,c(:))
+  * @exception ArrayIndexOutOfBoundsException Submatrix indices
+  */
+ public void setMatrix(int i0, int i1, int[] c, MatrixF X) {
+  try {
+   for (int i = i0; i <= i1; i++) {
+    for (int j = 0; j < c.length; j++) {
+     set(i, c[j], X.get(i - i0, j));
+    }
+   }
+  } catch (ArrayIndexOutOfBoundsException e) {
+   throw new ArrayIndexOutOfBoundsException("Submatrix indices");
+  }
+ }
+
+ /**
+  * MatrixF transpose.
+  *
+  * @return A'
+  */
+ public MatrixF transpose() {
+  MatrixF X = new MatrixF(n, m);
+  float[] C = X.A;
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = offset + i * ld; j < n; j++) {
+    C[j * m + i] = A[a + j];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * C = A + B
+  *
+  * @param B another matrix
+  * @return A + B
+  */
+ public MatrixF plus(MatrixF B) {
+  checkMatrixDimensions(B);
+  MatrixF X = new MatrixF(m, n);
+  float[] C = X.A;
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld, c = i * n; j < n; j++) {
+    C[c + j] = A[a + j] + B.A[b + j];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * A = A + B
+  *
+  * @param B another matrix
+  * @return A + B
+  */
+ public MatrixF plusEquals(MatrixF B) {
+  checkMatrixDimensions(B);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld; j < n; j++) {
+    A[a + j] = A[a + j] + B.A[b + j];
+   }
+  }
+  return this;
+ }
+
+ /**
+  * C = A - B
+  *
+  * @param B another matrix
+  * @return A - B
+  */
+ public MatrixF minus(MatrixF B) {
+  checkMatrixDimensions(B);
+  MatrixF X = new MatrixF(m, n);
+  float[] C = X.A;
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld, c = i * n; j < n; j++) {
+    C[c + j] = A[a + j] - B.A[b + j];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * A = A - B
+  *
+  * @param B another matrix
+  * @return A - B
+  */
+ public MatrixF minusEquals(MatrixF B) {
+  checkMatrixDimensions(B);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld; j < n; j++) {
+    A[a + j] = A[a + j] - B.A[b + j];
+   }
+  }
+  return this;
+ }
+
+ /**
+  * Element-by-element multiplication, C = A.*B
+  *
+  * @param B another matrix
+  * @return A.*B
+  */
+ public MatrixF arrayTimes(MatrixF B) {
+  checkMatrixDimensions(B);
+  MatrixF X = new MatrixF(m, n);
+  float[] C = X.A;
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld, c = i * n; j < n; j++) {
+    C[c + j] = A[a + j] * B.A[b + j];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * Element-by-element multiplication in place, A = A.*B
+  *
+  * @param B another matrix
+  * @return A.*B
+  */
+ public MatrixF arrayTimesEquals(MatrixF B) {
+  checkMatrixDimensions(B);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld; j < n; j++) {
+    A[a + j] = A[a + j] * B.A[b + j];
+   }
+  }
+  return this;
+ }
+
+ /**
+  * Element-by-element right division, C = A./B
+  *
+  * @param B another matrix
+  * @return A./B
+  */
+ public MatrixF arrayRightDivide(MatrixF B) {
+  checkMatrixDimensions(B);
+  MatrixF X = new MatrixF(m, n);
+  float[] C = X.A;
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = offset + i * ld, b = B.offset + i * B.ld, c = i * n; j < n; j++) {
+    C[c + j] = A[a + j] / B.A[b + j];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * Multiply a matrix by a scalar, C = s*A
+  *
+  * @param s scalar
+  * @return s*A
+  */
+ public MatrixF times(float s) {
+  MatrixF X = new MatrixF(m, n);
+  float[] C = X.A;
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = offset + i * ld, c = i * n; j < n; j++) {
+    C[c + j] = s * A[a + j];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * Multiply a matrix by a scalar in place, A = s*A
+  *
+  * @param s scalar
+  * @return replace A by s*A
+  */
+ public MatrixF timesEquals(float s) {
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = offset + i * ld; j < n; j++) {
+    A[a + j] = s * A[a + j];
+   }
+  }
+  return this;
+ }
+
+ /**
+  * Linear algebraic matrix multiplication, A * B
+  *
+  * @param B another matrix
+  * @return MatrixF product, A * B
+  * @exception IllegalArgumentException MatrixF inner dimensions must agree.
+  */
+ public MatrixF times(MatrixF B) {
+  if (B.m != n) {
+   throw new IllegalArgumentException("MatrixF inner dimensions must agree.");
+  }
+  MatrixF X = new MatrixF(m, B.n);
+  if ((long) m * n * B.n < PARALLEL_THRESHOLD) {
+   multiply(this, B, X.A, 0, m, 0, n, 0, B.n);
+  } else {
+   int panels = (m + BLOCK_ROWS - 1) / BLOCK_ROWS;
+   IntStream.range(0, panels).parallel().forEach(panel -> {
+    int i0 = panel * BLOCK_ROWS;
+    int i1 = Math.min(i0 + BLOCK_ROWS, m);
+    for (int j0 = 0; j0 < B.n; j0 += BLOCK_COLUMNS) {
+     int j1 = Math.min(j0 + BLOCK_COLUMNS, B.n);
+     for (int k0 = 0; k0 < n; k0 += BLOCK_DEPTH) {
+      multiply(this, B, X.A, i0, i1, k0, Math.min(k0 + BLOCK_DEPTH, n), j0, j1);
+     }
+    }
+   });
+  }
+  return X;
+ }
+
+ /**
+  * Number of multiply-adds above which times splits the rows of the product into panels that are
+  * computed on the ForkJoin common pool.
+  */
+ private static final long PARALLEL_THRESHOLD = 1L << 18;
+ /**
+  * Rows of the product in one parallel panel.
+  */
+ private static final int BLOCK_ROWS = 32;
+ /**
+  * Rows and columns of the block of B accumulated into a panel at a time, sized so the block of B
+  * and the matching block of the panel stay in cache.
+  */
+ private static final int BLOCK_DEPTH = 64, BLOCK_COLUMNS = 256;
+
+ /**
+  * Accumulates A(i0:i1-1,k0:k1-1) * B(k0:k1-1,j0:j1-1) into the packed m x B.n array C.
+  * Each element of C sums its terms in increasing k, so the blocked and sequential products are
+  * identical.
+  */
+ private static void multiply(MatrixF A, MatrixF B, float[] C, int i0, int i1, int k0, int k1,
+  int j0, int j1) {
+  final float[] AA = A.A, BA = B.A;
+  final int p = B.n, w = j1 - j0;
+  // row i of C accumulates row k of B scaled by A(i,k), all unit stride
+  for (int i = i0; i < i1; i++) {
+   int c = i * p + j0;
+   for (int k = k0, a = A.offset + i * A.ld + k0; k < k1; k++, a++) {
+    float s = AA[a];
+    for (int j = 0, b = B.offset + k * B.ld + j0; j < w; j++) {
+     C[c + j] += s * BA[b + j];
+    }
+   }
+  }
+ }
+
+ /**
+  *
+  * @return
+  */
+ public SingularValueDecompositionF svd() {
+  return new SingularValueDecompositionF(this);
+ }
+
+ /**
+  *
+  * @return
+  */
+ public int rank() {
+  return new SingularValueDecompositionF(this, false).rank();
+ }
+
+ /**
+  * MatrixF condition (2 norm)
+  *
+  * @return ratio of largest to smallest singular value.
+  */
+ public float cond() {
+  return new SingularValueDecompositionF(this, false).cond();
+ }
+
+ /**
+  * MatrixF trace.
+  *
+  * @return sum of the diagonal elements.
+  */
+ public float trace() {
+  float t = 0;
+  for (int i = 0; i < Math.min(m, n); i++) {
+   t += A[offset + i * ld + i];
+  }
+  return t;
+ }
+
+ /**
+  * Generate matrix with random elements
+  *
+  * @param m Number of rows.
+  * @param n Number of colums.
+  * @return An m-by-n matrix with uniformly distributed random elements.
+  */
+ public static MatrixF random(int m, int n) {
+  MatrixF A = new MatrixF(m, n);
+  float[] X = A.A;
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < n; j++) {
+    X[i * n + j] = (float) Math.random();
+   }
+  }
+  return A;
+ }
+
+ /**
+  * Generate identity matrix
+  *
+  * @param m Number of rows.
+  * @param n Number of colums.
+  * @return An m-by-n matrix with ones on the diagonal and zeros elsewhere.
+  */
+ public static MatrixF identity(int m, int n) {
+  MatrixF A = new MatrixF(m, n);
+  float[] X = A.A;
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < n; j++) {
+    X[i * n + j] = (i == j ? 1.0f : 0.0f);
+   }
+  }
+  return A;
+ }
+ 
+ /*
+	 * ------------------------ Private Methods ------------------------
+  */
+ /**
+  * Check if size(A) == size(B) *
+  */
+ private void checkMatrixDimensions(MatrixF B) {
+  if (B.m != m || B.n != n) {
+   throw new IllegalArgumentException("MatrixF dimensions must agree.");
+  }
+ }
+
+ /**
+  * Check that the matrix holds a size-by-size block. *
+  */
+ private void checkBlock(int size) {
+  if (m < size || n < size) {
+   throw new IllegalArgumentException("Matrix must be at least " + size + "x" + size + ".");
+  }
+ }
+
+ /**
+  * Check that (i,j) is inside this matrix, a view would otherwise reach into its neighbours. *
+  */
+ private void checkIndex(int i, int j) {
+  if (i < 0 || i >= m || j < 0 || j >= n) {
+   throw new ArrayIndexOutOfBoundsException("(" + i + "," + j + ") is outside " + m + "x" + n);
+  }
+ }
+}
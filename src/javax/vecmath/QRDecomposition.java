@@ -0,0 +1,270 @@
+package javax.vecmath;
+
+/**
+ * QR Decomposition.
+ * <P>
+ * For an m-by-n matrix A with m >= n, the QR decomposition is an m-by-n orthogonal matrix Q and an
+ * n-by-n upper triangular matrix R so that A = Q*R.
+ * <P>
+ * The QR decompostion always exists, even if the matrix does not have full rank, so the
+ * constructor will never fail. The primary use of the QR decomposition is in the least squares
+ * solution of nonsquare systems of simultaneous linear equations. This will fail if isFullRank()
+ * returns false.
+ * <P>
+ * The decomposition can be computed in the storage of A, which then holds the Householder vectors
+ * on and below the diagonal and R above it.
+ */
+public class QRDecomposition implements java.io.Serializable {
+
+ /*
+	 * ------------------------ Class variables ------------------------
+  */
+ /**
+  * Array for internal storage of decomposition, element (i,j) is QR[offset + i * ld + j].
+  *
+  * @serial internal array storage.
+  */
+ private final double[] QR;
+ /**
+  * Index of element (0,0) and distance between rows in QR.
+  *
+  * @serial offset of the first element.
+  * @serial leading dimension.
+  */
+ private final int offset, ld;
+ /**
+  * Row and column dimensions.
+  *
+  * @serial column dimension.
+  * @serial row dimension.
+  */
+ private final int m, n;
+ /**
+  * Array for internal storage of diagonal of R.
+  *
+  * @serial diagonal of R.
+  */
+ private final double[] Rdiag;
+
+ /*
+	 * ------------------------ Constructor ------------------------
+  */
+ /**
+  * QR Decomposition, computed by Householder reflections. Structure to access R and the
+  * Householder vectors and compute Q.
+  *
+  * @param A Rectangular matrix
+  */
+ public QRDecomposition(Matrix A) {
+  this(A, false);
+ }
+
+ /**
+  * QR Decomposition, optionally computed in the storage of A.
+  *
+  * @param A Rectangular matrix
+  * @param overwrite true to factor A in place, A then holds the factors and must not be used as a
+  * matrix while the decomposition is in use
+  */
+ public QRDecomposition(Matrix A, boolean overwrite) {
+  m = A.getRowDimension();
+  n = A.getColumnDimension();
+  if (overwrite) {
+   QR = A.A;
+   offset = A.offset;
+   ld = A.ld;
+  } else {
+   QR = A.getRowPackedCopy();
+   offset = 0;
+   ld = n;
+  }
+  Rdiag = new double[n];
+  double[] work = new double[n];
+  // Main loop.
+  for (int k = 0; k < n; k++) {
+   // Compute 2-norm of k-th column without under/overflow.
+   double nrm = 0;
+   for (int i = k; i < m; i++) {
+    nrm = SingularValueDecomposition.hypot(nrm, QR[offset + i * ld + k]);
+   }
+   if (nrm != 0.0) {
+    // Form k-th Householder vector.
+    if (QR[offset + k * ld + k] < 0) {
+     nrm = -nrm;
+    }
+    for (int i = k; i < m; i++) {
+     QR[offset + i * ld + k] /= nrm;
+    }
+    QR[offset + k * ld + k] += 1.0;
+    // Apply transformation to remaining columns, sweeping the rows so that the inner loops run
+    // along them: work[j] = v'*A(:,j), then A(:,j) -= v * work[j] / v[k].
+    for (int j = k + 1; j < n; j++) {
+     work[j] = 0.0;
+    }
+    for (int i = k; i < m; i++) {
+     int rowi = offset + i * ld;
+     double v = QR[rowi + k];
+     for (int j = k + 1; j < n; j++) {
+      work[j] += v * QR[rowi + j];
+     }
+    }
+    double vk = QR[offset + k * ld + k];
+    for (int j = k + 1; j < n; j++) {
+     work[j] = -work[j] / vk;
+    }
+    for (int i = k; i < m; i++) {
+     int rowi = offset + i * ld;
+     double v = QR[rowi + k];
+     for (int j = k + 1; j < n; j++) {
+      QR[rowi + j] += work[j] * v;
+     }
+    }
+   }
+   Rdiag[k] = -nrm;
+  }
+ }
+
+ /*
+	 * ------------------------ Public Methods ------------------------
+  */
+ /**
+  * Is the matrix full rank?
+  *
+  * @return true if R, and hence A, has full rank.
+  */
+ public boolean isFullRank() {
+  for (int j = 0; j < n; j++) {
+   if (Rdiag[j] == 0) {
+    return false;
+   }
+  }
+  return true;
+ }
+
+ /**
+  * Return the Householder vectors
+  *
+  * @return Lower trapezoidal matrix whose columns define the reflections
+  */
+ public Matrix getH() {
+  Matrix X = new Matrix(m, n);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j <= i && j < n; j++) {
+    X.A[i * n + j] = QR[offset + i * ld + j];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * Return the upper triangular factor
+  *
+  * @return R
+  */
+ public Matrix getR() {
+  Matrix X = new Matrix(n, n);
+  for (int i = 0; i < n; i++) {
+   X.A[i * n + i] = Rdiag[i];
+   for (int j = i + 1; j < n; j++) {
+    X.A[i * n + j] = QR[offset + i * ld + j];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * Generate and return the (economy-sized) orthogonal factor
+  *
+  * @return Q
+  */
+ public Matrix getQ() {
+  Matrix X = new Matrix(m, n);
+  double[] Q = X.A;
+  for (int k = n - 1; k >= 0; k--) {
+   Q[k * n + k] = 1.0;
+   double vk = QR[offset + k * ld + k];
+   if (vk != 0) {
+    for (int j = k; j < n; j++) {
+     double s = 0.0;
+     for (int i = k; i < m; i++) {
+      s += QR[offset + i * ld + k] * Q[i * n + j];
+     }
+     s = -s / vk;
+     for (int i = k; i < m; i++) {
+      Q[i * n + j] += s * QR[offset + i * ld + k];
+     }
+    }
+   }
+  }
+  return X;
+ }
+
+ /**
+  * Least squares solution of A*X = B
+  *
+  * @param B A Matrix with as many rows as A and any number of columns.
+  * @return X that minimizes the two norm of Q*R*X-B.
+  * @exception IllegalArgumentException Matrix row dimensions must agree.
+  * @exception SingularMatrixException Matrix is rank deficient.
+  */
+ public Matrix solve(Matrix B) {
+  return solveInPlace(B.copy()).copy();
+ }
+
+ /**
+  * Least squares solution of A*X = B, overwriting B.
+  *
+  * @param B A Matrix with as many rows as A and any number of columns.
+  * @return a view of the first n rows of B, holding X that minimizes the two norm of Q*R*X-B.
+  * @exception IllegalArgumentException Matrix row dimensions must agree.
+  * @exception SingularMatrixException Matrix is rank deficient.
+  */
+ public Matrix solveInPlace(Matrix B) {
+  if (B.getRowDimension() != m) {
+   throw new IllegalArgumentException("Matrix row dimensions must agree.");
+  }
+  if (!this.isFullRank()) {
+   throw new SingularMatrixException("Matrix is rank deficient.");
+  }
+  final double[] X = B.A;
+  final int xo = B.offset, xl = B.ld, nx = B.getColumnDimension();
+  double[] work = new double[nx];
+  // Compute Y = transpose(Q)*B
+  for (int k = 0; k < n; k++) {
+   double vk = QR[offset + k * ld + k];
+   for (int j = 0; j < nx; j++) {
+    work[j] = 0.0;
+   }
+   for (int i = k; i < m; i++) {
+    double v = QR[offset + i * ld + k];
+    for (int j = 0, xi = xo + i * xl; j < nx; j++) {
+     work[j] += v * X[xi + j];
+    }
+   }
+   for (int j = 0; j < nx; j++) {
+    work[j] = -work[j] / vk;
+   }
+   for (int i = k; i < m; i++) {
+    double v = QR[offset + i * ld + k];
+    for (int j = 0, xi = xo + i * xl; j < nx; j++) {
+     X[xi + j] += work[j] * v;
+    }
+   }
+  }
+  // Solve R*X = Y;
+  for (int k = n - 1; k >= 0; k--) {
+   int xk = xo + k * xl;
+   for (int j = 0; j < nx; j++) {
+    X[xk + j] /= Rdiag[k];
+   }
+   for (int i = 0; i < k; i++) {
+    double r = QR[offset + i * ld + k];
+    for (int j = 0, xi = xo + i * xl; j < nx; j++) {
+     X[xi + j] -= X[xk + j] * r;
+    }
+   }
+  }
+  return B.getMatrixView(0, n - 1, 0, nx - 1);
+ }
+ private static final long serialVersionUID = 1;
+}
@@ -258,10 +258,12 @@ public class Quat4f<T extends Quat4f> extends Tuple4f<T> implements java.io.Seri
   cosom = q1.dot(q2);
   if ((1.0f + cosom) > EPS) {
    if ((1.0f - cosom) > EPS) {
+    // sin((1 - alpha) * omega) = sin(omega) cos(alpha * omega) - cos(omega) sin(alpha * omega)
     omega = acos(cosom);
-    sinom = sin(omega);
-    sclp = sin((1.0f - alpha) * omega) / sinom;
-    sclq = sin(alpha * omega) / sinom;
+    sinom = sqrt((1.0f - cosom) * (1.0f + cosom));
+    float s = sin(alpha * omega);
+    sclp = (sinom * cos(alpha * omega) - cosom * s) / sinom;
+    sclq = s / sinom;
    } else {
     sclp = 1.0f - alpha;
     sclq = alpha;
@@ -271,7 +273,7 @@ public class Quat4f<T extends Quat4f> extends Tuple4f<T> implements java.io.Seri
    z = (sclp * q1.z) + (sclq * q2.z);
    w = (sclp * q1.w) + (sclq * q2.w);
   } else {
-   sclp = sin(1.0f - alpha) * (PI / 2.0f);
+   sclp = cos(alpha * (PI / 2.0f));
    sclq = sin(alpha * (PI / 2.0f));
    float nx = -q1.y;
    float ny = q1.x;
@@ -292,9 +294,16 @@ public class Quat4f<T extends Quat4f> extends Tuple4f<T> implements java.io.Seri
   * @return t1 for chaining
   */
  public <S extends Tuple3f> S transform(S t1) {
-  final Quat4f q = new Quat4f(this).mul(new Quat4f(t1.x, t1.y, t1.z, 0)).mul(new Quat4f(this)
-   .conjugate());
-  t1.set(q.x, q.y, q.z);
+  // expansion of q*(t1,0)*q' that is also valid for quaternions that are not unit length
+  float tx = t1.x;
+  float ty = t1.y;
+  float tz = t1.z;
+  float a = w * w - (x * x + y * y + z * z);
+  float b = 2.0f * (x * tx + y * ty + z * tz);
+  float c = 2.0f * w;
+  t1.x = a * tx + b * x + c * (y * tz - z * ty);
+  t1.y = a * ty + b * y + c * (z * tx - x * tz);
+  t1.z = a * tz + b * z + c * (x * ty - y * tx);
   return (S) t1;
  }
 
@@ -308,8 +317,103 @@ public class Quat4f<T extends Quat4f> extends Tuple4f<T> implements java.io.Seri
   *
   */
  public <S extends Tuple3f> S conjugateTransform(S t1) {
-  final Quat4f q = new Quat4f(this).conjugate().mul(new Quat4f(t1.x, t1.y, t1.z, 0)).mul(this);
-  t1.set(q.x, q.y, q.z);
+  float tx = t1.x;
+  float ty = t1.y;
+  float tz = t1.z;
+  float a = w * w - (x * x + y * y + z * z);
+  float b = 2.0f * (x * tx + y * ty + z * tz);
+  float c = -2.0f * w;
+  t1.x = a * tx + b * x + c * (y * tz - z * ty);
+  t1.y = a * ty + b * y + c * (z * tx - x * tz);
+  t1.z = a * tz + b * z + c * (x * ty - y * tx);
   return (S) t1;
  }
+
+ /**
+  * Transform an array of 3 tuples in place by this quaternion. Each tuple is 3 consecutive values
+  * (x,y,z).
+  *
+  * @param vectors the packed tuples
+  * @param offset the location of the first tuple in the array
+  * @param stride the distance between the start of consecutive tuples, at least 3
+  * @param count the number of tuples to transform
+  * @return vectors for chaining
+  */
+ public float[] transform(float[] vectors, int offset, int stride, int count) {
+  return transform(vectors, offset, stride, vectors, offset, stride, count);
+ }
+
+ /**
+  * Transform an array of 3 tuples by this quaternion and place the results into another array.
+  * Each tuple is 3 consecutive values (x,y,z). The source and destination may be the same array.
+  *
+  * @param src the packed tuples to transform
+  * @param srcOffset the location of the first tuple in src
+  * @param srcStride the distance between the start of consecutive tuples in src, at least 3
+  * @param dst the array to receive the transformed tuples
+  * @param dstOffset the location of the first tuple in dst
+  * @param dstStride the distance between the start of consecutive tuples in dst, at least 3
+  * @param count the number of tuples to transform
+  * @return dst for chaining
+  */
+ public float[] transform(float[] src, int srcOffset, int srcStride, float[] dst, int dstOffset,
+  int dstStride, int count) {
+  rotate(x, y, z, 2.0f * w, w * w - (x * x + y * y + z * z), src, srcOffset, srcStride, dst,
+   dstOffset, dstStride, count);
+  return dst;
+ }
+
+ /**
+  * Transform an array of 3 tuples in place by the conjugate of this quaternion. Each tuple is 3
+  * consecutive values (x,y,z).
+  *
+  * @param vectors the packed tuples
+  * @param offset the location of the first tuple in the array
+  * @param stride the distance between the start of consecutive tuples, at least 3
+  * @param count the number of tuples to transform
+  * @return vectors for chaining
+  */
+ public float[] conjugateTransform(float[] vectors, int offset, int stride, int count) {
+  return conjugateTransform(vectors, offset, stride, vectors, offset, stride, count);
+ }
+
+ /**
+  * Transform an array of 3 tuples by the conjugate of this quaternion and place the results into
+  * another array. Each tuple is 3 consecutive values (x,y,z). The source and destination may be the
+  * same array.
+  *
+  * @param src the packed tuples to transform
+  * @param srcOffset the location of the first tuple in src
+  * @param srcStride the distance between the start of consecutive tuples in src, at least 3
+  * @param dst the array to receive the transformed tuples
+  * @param dstOffset the location of the first tuple in dst
+  * @param dstStride the distance between the start of consecutive tuples in dst, at least 3
+  * @param count the number of tuples to transform
+  * @return dst for chaining
+  */
+ public float[] conjugateTransform(float[] src, int srcOffset, int srcStride, float[] dst,
+  int dstOffset, int dstStride, int count) {
+  rotate(x, y, z, -2.0f * w, w * w - (x * x + y * y + z * z), src, srcOffset, srcStride, dst,
+   dstOffset, dstStride, count);
+  return dst;
+ }
+
+ /**
+  * Apply a*v + 2*(q.v)*q + c*(q x v) to each packed tuple v.
+  */
+ private static void rotate(float qx, float qy, float qz, float c, float a, float[] src,
+  int srcOffset, int srcStride, float[] dst, int dstOffset, int dstStride, int count) {
+  final float qx2 = 2.0f * qx;
+  final float qy2 = 2.0f * qy;
+  final float qz2 = 2.0f * qz;
+  for (int i = 0, s = srcOffset, d = dstOffset; i < count; ++i, s += srcStride, d += dstStride) {
+   float tx = src[s];
+   float ty = src[s + 1];
+   float tz = src[s + 2];
+   float b = qx * tx + qy * ty + qz * tz;
+   dst[d] = a * tx + b * qx2 + c * (qy * tz - qz * ty);
+   dst[d + 1] = a * ty + b * qy2 + c * (qz * tx - qx * tz);
+   dst[d + 2] = a * tz + b * qz2 + c * (qx * ty - qy * tx);
+  }
+ }
 }
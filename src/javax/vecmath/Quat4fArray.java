@@ -0,0 +1,577 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+import static javax.vecmath.VecMath.acos;
+import static javax.vecmath.VecMath.cos;
+import static javax.vecmath.VecMath.sin;
+import static javax.vecmath.VecMath.sqrt;
+
+/**
+ * A packed array of single precision quaternions. Each quaternion is 4 consecutive values (x,y,z,w)
+ * of a single float[]. Bulk methods mirror the Quat4f API and operate over the range of quaternions
+ * starting at index and spanning length quaternions; quaternion i of the result is computed from
+ * quaternion i of the arguments, so a whole skeleton can be blended in one call. Any argument may
+ * be this array.
+ *
+ */
+public class Quat4fArray implements java.io.Serializable {
+
+ private static final long serialVersionUID = 1;
+ final float[] q;
+ private final int size;
+
+ /**
+  * Constructs an array of quaternions initialized to all zeros.
+  *
+  * @param size the number of quaternions
+  */
+ public Quat4fArray(int size) {
+  this.size = size;
+  q = new float[size * 4];
+ }
+
+ /**
+  * Constructs an array of quaternions that wraps an existing array of values. The array is not
+  * copied.
+  *
+  * @param values the quaternion elements, x,y,z,w for each quaternion, the length must be a
+  * multiple of 4
+  */
+ public Quat4fArray(float[] values) {
+  if (values.length % 4 != 0) {
+   throw new IllegalArgumentException("Array length must be a multiple of 4.");
+  }
+  size = values.length / 4;
+  q = values;
+ }
+
+ /**
+  * Get the number of quaternions in this array.
+  *
+  * @return the number of quaternions
+  */
+ public int size() {
+  return size;
+ }
+
+ /**
+  * Copies a quaternion out of the array.
+  *
+  * @param <S>
+  * @param i the quaternion index
+  * @param q1 the quaternion to receive the values
+  * @return q1
+  */
+ public <S extends Quat4f> S get(int i, S q1) {
+  checkRange(i, 1);
+  int o = i * 4;
+  q1.x = q[o];
+  q1.y = q[o + 1];
+  q1.z = q[o + 2];
+  q1.w = q[o + 3];
+  return q1;
+ }
+
+ /**
+  * Sets a quaternion in the array.
+  *
+  * @param i the quaternion index
+  * @param q1 the quaternion to copy
+  * @return this for chaining
+  */
+ public Quat4fArray set(int i, Quat4f q1) {
+  checkRange(i, 1);
+  int o = i * 4;
+  q[o] = q1.x;
+  q[o + 1] = q1.y;
+  q[o + 2] = q1.z;
+  q[o + 3] = q1.w;
+  return this;
+ }
+
+ /**
+  * Sets each quaternion in the range to the corresponding quaternion in q1.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param q1 the source quaternions
+  * @return this for chaining
+  */
+ public Quat4fArray set(int index, int length, Quat4fArray q1) {
+  checkRange(index, length);
+  q1.checkRange(index, length);
+  System.arraycopy(q1.q, index * 4, q, index * 4, length * 4);
+  return this;
+ }
+
+ /**
+  * Sets each quaternion in the range to the identity rotation (0,0,0,1).
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @return this for chaining
+  */
+ public Quat4fArray setIdentity(int index, int length) {
+  checkRange(index, length);
+  for (int i = 0, o = index * 4; i < length; ++i, o += 4) {
+   q[o] = 0.0f;
+   q[o + 1] = 0.0f;
+   q[o + 2] = 0.0f;
+   q[o + 3] = 1.0f;
+  }
+  return this;
+ }
+
+ /**
+  * Sets each quaternion in the range to the product of the corresponding quaternions in q1 and q2
+  * (this = q1 * q2).
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param q1 the quaternions on the left hand side of the multiplication
+  * @param q2 the quaternions on the right hand side of the multiplication
+  * @return this for chaining
+  */
+ public Quat4fArray mul(int index, int length, Quat4fArray q1, Quat4fArray q2) {
+  checkRange(index, length);
+  q1.checkRange(index, length);
+  q2.checkRange(index, length);
+  final float[] a = q1.q, b = q2.q;
+  for (int i = 0, o = index * 4; i < length; ++i, o += 4) {
+   float ax = a[o], ay = a[o + 1], az = a[o + 2], aw = a[o + 3];
+   float bx = b[o], by = b[o + 1], bz = b[o + 2], bw = b[o + 3];
+   q[o] = aw * bx + bw * ax + ay * bz - az * by;
+   q[o + 1] = aw * by + bw * ay - ax * bz + az * bx;
+   q[o + 2] = aw * bz + bw * az + ax * by - ay * bx;
+   q[o + 3] = aw * bw - ax * bx - ay * by - az * bz;
+  }
+  return this;
+ }
+
+ /**
+  * Multiplies each quaternion in the range by the corresponding quaternion in q1 (this = this *
+  * q1).
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param q1 the quaternions on the right hand side of the multiplication
+  * @return this for chaining
+  */
+ public Quat4fArray mul(int index, int length, Quat4fArray q1) {
+  return mul(index, length, this, q1);
+ }
+
+ /**
+  * Sets each quaternion in the range to the conjugate of the corresponding quaternion in q1.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param q1 the source quaternions
+  * @return this for chaining
+  */
+ public Quat4fArray conjugate(int index, int length, Quat4fArray q1) {
+  checkRange(index, length);
+  q1.checkRange(index, length);
+  final float[] a = q1.q;
+  for (int i = 0, o = index * 4; i < length; ++i, o += 4) {
+   q[o] = -a[o];
+   q[o + 1] = -a[o + 1];
+   q[o + 2] = -a[o + 2];
+   q[o + 3] = a[o + 3];
+  }
+  return this;
+ }
+
+ /**
+  * Conjugates each quaternion in the range.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @return this for chaining
+  */
+ public Quat4fArray conjugate(int index, int length) {
+  return conjugate(index, length, this);
+ }
+
+ /**
+  * Sets each quaternion in the range to the corresponding quaternion in q1 scaled to unit length.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param q1 the source quaternions
+  * @return this for chaining
+  */
+ public Quat4fArray normalize(int index, int length, Quat4fArray q1) {
+  checkRange(index, length);
+  q1.checkRange(index, length);
+  final float[] a = q1.q;
+  for (int i = 0, o = index * 4; i < length; ++i, o += 4) {
+   float x = a[o], y = a[o + 1], z = a[o + 2], w = a[o + 3];
+   float n = 1.0f / sqrt(x * x + y * y + z * z + w * w);
+   q[o] = x * n;
+   q[o + 1] = y * n;
+   q[o + 2] = z * n;
+   q[o + 3] = w * n;
+  }
+  return this;
+ }
+
+ /**
+  * Normalizes each quaternion in the range.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @return this for chaining
+  */
+ public Quat4fArray normalize(int index, int length) {
+  return normalize(index, length, this);
+ }
+
+ /**
+  * Normalized linear interpolation. Sets each quaternion in the range to the normalized (1 -
+  * alpha) * q1 + alpha * q2, negating q2 when needed to take the shorter arc. Cheaper than slerp,
+  * the rotation follows the same arc but its speed is not constant in alpha.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param q1 the quaternions at alpha = 0, should be normalized
+  * @param q2 the quaternions at alpha = 1, should be normalized
+  * @param alpha the alpha interpolation parameter
+  * @return this for chaining
+  */
+ public Quat4fArray nlerp(int index, int length, Quat4fArray q1, Quat4fArray q2, float alpha) {
+  checkRange(index, length);
+  q1.checkRange(index, length);
+  q2.checkRange(index, length);
+  final float[] a = q1.q, b = q2.q;
+  for (int i = 0, o = index * 4; i < length; ++i, o += 4) {
+   float ax = a[o], ay = a[o + 1], az = a[o + 2], aw = a[o + 3];
+   float bx = b[o], by = b[o + 1], bz = b[o + 2], bw = b[o + 3];
+   float cosom = ax * bx + ay * by + az * bz + aw * bw;
+   blend(q, o, ax, ay, az, aw, bx, by, bz, bw, 1.0f - alpha,
+    cosom < 0.0f ? -alpha : alpha, true);
+  }
+  return this;
+ }
+
+ /**
+  * Spherical linear interpolation, as Quat4f.slerp for each quaternion in the range except that q2
+  * is negated when needed to take the shorter arc.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param q1 the quaternions at alpha = 0, should be normalized
+  * @param q2 the quaternions at alpha = 1, should be normalized
+  * @param alpha the alpha interpolation parameter
+  * @return this for chaining
+  */
+ public Quat4fArray slerp(int index, int length, Quat4fArray q1, Quat4fArray q2, float alpha) {
+  checkRange(index, length);
+  q1.checkRange(index, length);
+  q2.checkRange(index, length);
+  final float[] a = q1.q, b = q2.q;
+  for (int i = 0, o = index * 4; i < length; ++i, o += 4) {
+   float ax = a[o], ay = a[o + 1], az = a[o + 2], aw = a[o + 3];
+   float bx = b[o], by = b[o + 1], bz = b[o + 2], bw = b[o + 3];
+   float cosom = ax * bx + ay * by + az * bz + aw * bw;
+   float sign = 1.0f;
+   if (cosom < 0.0f) {
+    cosom = -cosom;
+    sign = -1.0f;
+   }
+   float sclp, sclq;
+   if ((1.0f - cosom) > Quat4f.EPS) {
+    float omega = acos(cosom);
+    float sinom = sqrt((1.0f - cosom) * (1.0f + cosom));
+    float s = sin(alpha * omega);
+    sclp = (sinom * cos(alpha * omega) - cosom * s) / sinom;
+    sclq = s / sinom;
+   } else {
+    sclp = 1.0f - alpha;
+    sclq = alpha;
+   }
+   blend(q, o, ax, ay, az, aw, bx, by, bz, bw, sclp, sign * sclq, false);
+  }
+  return this;
+ }
+
+ /**
+  * Approximate spherical linear interpolation without transcendental functions. Each quaternion is
+  * interpolated by nlerp with alpha corrected by a polynomial in alpha and the angle between the
+  * quaternions, which makes the speed close to constant. The result is normalized and its rotation
+  * differs from the exact slerp by less than 0.002 radians, at about a tenth of the cost. q2 is
+  * negated when needed to take the shorter arc.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param q1 the quaternions at alpha = 0, should be normalized
+  * @param q2 the quaternions at alpha = 1, should be normalized
+  * @param alpha the alpha interpolation parameter, between 0 and 1
+  * @return this for chaining
+  */
+ public Quat4fArray fastSlerp(int index, int length, Quat4fArray q1, Quat4fArray q2,
+  float alpha) {
+  checkRange(index, length);
+  q1.checkRange(index, length);
+  q2.checkRange(index, length);
+  final float[] a = q1.q, b = q2.q;
+  final float h = alpha - 0.5f;
+  final float g = alpha * h * (alpha - 1.0f);
+  for (int i = 0, o = index * 4; i < length; ++i, o += 4) {
+   float ax = a[o], ay = a[o + 1], az = a[o + 2], aw = a[o + 3];
+   float bx = b[o], by = b[o + 1], bz = b[o + 2], bw = b[o + 3];
+   float cosom = ax * bx + ay * by + az * bz + aw * bw;
+   float d = Math.abs(cosom);
+   // fitted correction of alpha, zero at alpha 0, 1/2 and 1, growing as the angle widens
+   float k1 = 1.0904f + d * (-3.2452f + d * (3.55645f - d * 1.43519f));
+   float k2 = 0.848013f + d * (-1.06021f + d * 0.215638f);
+   float t = alpha + g * (k1 * h * h + k2);
+   blend(q, o, ax, ay, az, aw, bx, by, bz, bw, 1.0f - t, cosom < 0.0f ? -t : t, true);
+  }
+  return this;
+ }
+
+ /**
+  * Converts each quaternion in the range to a rotation matrix, as Matrix3f.set(Quat4f), and
+  * stores it in the array m1 as 9 values in row major order starting at 9 * i for quaternion i.
+  * The quaternions need not be normalized. The loop has no data dependent branches.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param m1 the array to receive the matrices
+  * @return m1 for chaining
+  */
+ public float[] get(int index, int length, float[] m1) {
+  checkRange(index, length);
+  for (int i = 0, o = index * 4, d = index * 9; i < length; ++i, o += 4, d += 9) {
+   rotation(q, o, 1.0f, 1.0f, 1.0f, m1, d, 3);
+  }
+  return m1;
+ }
+
+ /**
+  * Sets each matrix in the range of m1 to the rotation matrix of the quaternion with the same
+  * index, as Matrix4f.set(Quat4f). The translation is zero and the bottom row is (0,0,0,1).
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param m1 the matrices to receive the rotations
+  * @return m1 for chaining
+  */
+ public Matrix4fArray get(int index, int length, Matrix4fArray m1) {
+  return get(index, length, null, null, m1);
+ }
+
+ /**
+  * Sets each matrix in the range of m1 to the affine transform that scales, rotates by the
+  * quaternion with the same index and then translates, T * R * S. Translation and scale i are the
+  * 3 values starting at 3 * i of their arrays. The bottom row of each matrix is (0,0,0,1). The
+  * quaternions need not be normalized. The loop has no data dependent branches.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param translations the packed translations, or null for none
+  * @param scales the packed x,y,z scales, or null for none
+  * @param m1 the matrices to receive the transforms
+  * @return m1 for chaining
+  */
+ public Matrix4fArray get(int index, int length, float[] translations, float[] scales,
+  Matrix4fArray m1) {
+  checkRange(index, length);
+  m1.checkRange(index, length);
+  final float[] m = m1.m;
+  for (int i = index, o = index * 4, d = index * 16, t = index * 3; i < index + length; ++i,
+   o += 4, d += 16, t += 3) {
+   if (scales == null) {
+    rotation(q, o, 1.0f, 1.0f, 1.0f, m, d, 4);
+   } else {
+    rotation(q, o, scales[t], scales[t + 1], scales[t + 2], m, d, 4);
+   }
+   if (translations == null) {
+    m[d + 3] = 0.0f;
+    m[d + 7] = 0.0f;
+    m[d + 11] = 0.0f;
+   } else {
+    m[d + 3] = translations[t];
+    m[d + 7] = translations[t + 1];
+    m[d + 11] = translations[t + 2];
+   }
+   m[d + 12] = 0.0f;
+   m[d + 13] = 0.0f;
+   m[d + 14] = 0.0f;
+   m[d + 15] = 1.0f;
+  }
+  return m1;
+ }
+
+ /**
+  * Sets each quaternion in the range to the rotation of the 3x3 matrix stored in m1 as 9 values in
+  * row major order starting at 9 * i for quaternion i. The matrices must be rotations.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param m1 the packed matrices
+  * @return this for chaining
+  */
+ public Quat4fArray set(int index, int length, float[] m1) {
+  checkRange(index, length);
+  for (int i = 0, o = index * 4, s = index * 9; i < length; ++i, o += 4, s += 9) {
+   set(q, o, m1[s], m1[s + 1], m1[s + 2], m1[s + 3], m1[s + 4], m1[s + 5], m1[s + 6],
+    m1[s + 7], m1[s + 8]);
+  }
+  return this;
+ }
+
+ /**
+  * Sets each quaternion in the range to the rotation of the upper 3x3 of the matrix of m1 with the
+  * same index. The upper 3x3 must be a rotation.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  * @param m1 the matrices
+  * @return this for chaining
+  */
+ public Quat4fArray set(int index, int length, Matrix4fArray m1) {
+  checkRange(index, length);
+  m1.checkRange(index, length);
+  final float[] m = m1.m;
+  for (int i = 0, o = index * 4, s = index * 16; i < length; ++i, o += 4, s += 16) {
+   set(q, o, m[s], m[s + 1], m[s + 2], m[s + 4], m[s + 5], m[s + 6], m[s + 8], m[s + 9],
+    m[s + 10]);
+  }
+  return this;
+ }
+
+ /**
+  * Writes the rotation matrix of the quaternion at o, with its columns multiplied by sx, sy and
+  * sz, to the 3x3 block of m at d whose rows are rs apart. Matrix3f.set(Quat4f) with the scale
+  * folded in.
+  */
+ private static void rotation(float[] q, int o, float sx, float sy, float sz, float[] m, int d,
+  int rs) {
+  float x = q[o], y = q[o + 1], z = q[o + 2], w = q[o + 3];
+  float s = 2.0f / (x * x + y * y + z * z + w * w);
+  float xs = x * s, ys = y * s, zs = z * s;
+  float wx = w * xs, wy = w * ys, wz = w * zs;
+  float xx = x * xs, xy = x * ys, xz = x * zs;
+  float yy = y * ys, yz = y * zs, zz = z * zs;
+  m[d] = (1.0f - (yy + zz)) * sx;
+  m[d + 1] = (xy - wz) * sy;
+  m[d + 2] = (xz + wy) * sz;
+  m[d + rs] = (xy + wz) * sx;
+  m[d + rs + 1] = (1.0f - (xx + zz)) * sy;
+  m[d + rs + 2] = (yz - wx) * sz;
+  m[d + 2 * rs] = (xz - wy) * sx;
+  m[d + 2 * rs + 1] = (yz + wx) * sy;
+  m[d + 2 * rs + 2] = (1.0f - (xx + yy)) * sz;
+ }
+
+ /**
+  * Writes the quaternion of a rotation matrix to q at o. The largest of 4|w|^2, 4|x|^2, 4|y|^2 and
+  * 4|z|^2 is picked with two comparisons instead of the three of Quat4f.set(Matrix3f), and that
+  * component and the three others are then formed by the same multiply by 0.5/sqrt(t).
+  */
+ static void set(float[] q, int o, float m00, float m01, float m02, float m10, float m11,
+  float m12, float m20, float m21, float m22) {
+  float t, x, y, z, w;
+  if (m22 < 0.0f) {
+   if (m00 > m11) {
+    t = 1.0f + m00 - m11 - m22;
+    x = t;
+    y = m01 + m10;
+    z = m02 + m20;
+    w = m21 - m12;
+   } else {
+    t = 1.0f - m00 + m11 - m22;
+    x = m01 + m10;
+    y = t;
+    z = m12 + m21;
+    w = m02 - m20;
+   }
+  } else {
+   if (m00 < -m11) {
+    t = 1.0f - m00 - m11 + m22;
+    x = m02 + m20;
+    y = m12 + m21;
+    z = t;
+    w = m10 - m01;
+   } else {
+    t = 1.0f + m00 + m11 + m22;
+    x = m21 - m12;
+    y = m02 - m20;
+    z = m10 - m01;
+    w = t;
+   }
+  }
+  float s = 0.5f / sqrt(t);
+  q[o] = x * s;
+  q[o + 1] = y * s;
+  q[o + 2] = z * s;
+  q[o + 3] = w * s;
+ }
+
+ /**
+  * Writes sa * a + sb * b to q at o, optionally normalized.
+  */
+ private static void blend(float[] q, int o, float ax, float ay, float az, float aw, float bx,
+  float by, float bz, float bw, float sa, float sb, boolean normalize) {
+  float x = sa * ax + sb * bx;
+  float y = sa * ay + sb * by;
+  float z = sa * az + sb * bz;
+  float w = sa * aw + sb * bw;
+  if (normalize) {
+   float n = 1.0f / sqrt(x * x + y * y + z * z + w * w);
+   x *= n;
+   y *= n;
+   z *= n;
+   w *= n;
+  }
+  q[o] = x;
+  q[o + 1] = y;
+  q[o + 2] = z;
+  q[o + 3] = w;
+ }
+
+ /**
+  * Returns a string that contains the values of the quaternions in this array.
+  *
+  * @return the String representation
+  */
+ @Override
+ public String toString() {
+  StringBuilder s = new StringBuilder("[");
+  for (int i = 0, o = 0; i < size; ++i, o += 4) {
+   if (i > 0) {
+    s.append(", ");
+   }
+   s.append('(').append(q[o]).append(", ").append(q[o + 1]).append(", ").append(q[o + 2])
+    .append(", ").append(q[o + 3]).append(')');
+  }
+  return s.append(']').toString();
+ }
+
+ /**
+  * Check that a range of quaternions is within this array.
+  *
+  * @param index the first quaternion
+  * @param length the number of quaternions
+  */
+ final void checkRange(int index, int length) {
+  if (index < 0 || length < 0 || length > size - index) {
+   throw new IndexOutOfBoundsException("Range " + index + " + " + length + " is outside size " +
+    size);
+  }
+ }
+}
@@ -0,0 +1,326 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Thread local arena of reusable temporaries. Objects taken between push() and pop() belong to
+ * the frame and are handed out again after the frame is popped, so a hot function can use
+ * temporaries without allocating once the arena has grown to its working size.
+ *
+ * <pre>
+ * Scratch scratch = Scratch.get();
+ * int frame = scratch.push();
+ * try {
+ *  Vector3f v = scratch.vector3f();
+ *  Matrix4f m = scratch.matrix4f();
+ *  ...
+ * } finally {
+ *  scratch.pop(frame);
+ * }
+ * </pre>
+ * <P>
+ * The contents of an object returned by the arena are undefined, set it before use. An object must
+ * not be used after its frame is popped or passed to another thread.
+ * <P>
+ * Debug mode, enabled with setDebug or the system property javax.vecmath.scratch.debug=true,
+ * checks the use of the arena: pop(frame) fails when a nested frame was not popped, popped objects
+ * are filled with NaN so that reads after pop show up in the results, popped objects are never
+ * handed out again and a write to one is reported by the next push or pop of the thread. New
+ * objects are also filled with NaN to expose reads before the first write.
+ * <P>
+ * Not available in the GWT module.
+ *
+ */
+public final class Scratch {
+
+ private static final ThreadLocal<Scratch> LOCAL = ThreadLocal.withInitial(Scratch::new);
+ private static volatile boolean debug = Boolean.getBoolean("javax.vecmath.scratch.debug");
+ private final Pool<Vector3f> vector3f = new Pool<>(Vector3f::new);
+ private final Pool<Point3f> point3f = new Pool<>(Point3f::new);
+ private final Pool<Vector4f> vector4f = new Pool<>(Vector4f::new);
+ private final Pool<Point4f> point4f = new Pool<>(Point4f::new);
+ private final Pool<Quat4f> quat4f = new Pool<>(Quat4f::new);
+ private final Pool<Matrix3f> matrix3f = new Pool<>(Matrix3f::new);
+ private final Pool<Matrix4f> matrix4f = new Pool<>(Matrix4f::new);
+ private final Pool<?>[] pools = {vector3f, point3f, vector4f, point4f, quat4f, matrix3f,
+  matrix4f};
+ /**
+  * Top of each pool when each open frame was pushed, pools.length entries per frame.
+  */
+ private int[] marks = new int[16 * 7];
+ private int depth;
+ /**
+  * Popped objects in debug mode, checked for writes until the next outermost frame is pushed.
+  */
+ private final ArrayList<Object> released = new ArrayList<>();
+
+ private Scratch() {
+ }
+
+ /**
+  * Returns the arena of the calling thread. Fetch it once outside a hot loop.
+  *
+  * @return the arena of this thread
+  */
+ public static Scratch get() {
+  return LOCAL.get();
+ }
+
+ /**
+  * Enables or disables the debug checks for all threads. Change it only while no frames are open.
+  *
+  * @param on true to check the use of the arena
+  */
+ public static void setDebug(boolean on) {
+  debug = on;
+ }
+
+ /**
+  * @return true if the debug checks are enabled
+  */
+ public static boolean isDebug() {
+  return debug;
+ }
+
+ /**
+  * Opens a frame. Objects taken from the arena until the matching pop belong to this frame.
+  *
+  * @return the frame, to pass to pop(int)
+  */
+ public int push() {
+  if (debug) {
+   checkReleased();
+   if (depth == 0) {
+    released.clear();
+   }
+  }
+  int n = pools.length;
+  if ((depth + 1) * n > marks.length) {
+   marks = Arrays.copyOf(marks, marks.length * 2);
+  }
+  for (int p = 0; p < n; ++p) {
+   marks[depth * n + p] = pools[p].top;
+  }
+  return depth++;
+ }
+
+ /**
+  * Closes the innermost frame, returning its objects to the arena.
+  *
+  * @throws IllegalStateException if no frame is open
+  */
+ public void pop() {
+  if (depth == 0) {
+   throw new IllegalStateException("No scratch frame to pop.");
+  }
+  --depth;
+  int n = pools.length;
+  boolean check = debug;
+  for (int p = 0; p < n; ++p) {
+   Pool<?> pool = pools[p];
+   int mark = marks[depth * n + p];
+   if (check) {
+    pool.release(mark, released);
+   }
+   pool.top = mark;
+  }
+  if (check) {
+   checkReleased();
+  }
+ }
+
+ /**
+  * Closes a frame, returning its objects to the arena. In debug mode this fails if frame is not
+  * the innermost open frame, which means a nested frame was pushed and never popped.
+  *
+  * @param frame the value returned by the matching push
+  * @throws IllegalStateException if frame is not the innermost frame in debug mode, or no frame
+  * is open
+  */
+ public void pop(int frame) {
+  if (debug && frame != depth - 1) {
+   throw new IllegalStateException("Scratch frame " + frame + " popped while frame "
+    + (depth - 1) + " is open, a nested push was not popped.");
+  }
+  pop();
+ }
+
+ /**
+  * @return the number of open frames on this thread
+  */
+ public int depth() {
+  return depth;
+ }
+
+ /**
+  * @return a temporary vector of the current frame
+  */
+ public Vector3f vector3f() {
+  return take(vector3f);
+ }
+
+ /**
+  * @return a temporary point of the current frame
+  */
+ public Point3f point3f() {
+  return take(point3f);
+ }
+
+ /**
+  * @return a temporary vector of the current frame
+  */
+ public Vector4f vector4f() {
+  return take(vector4f);
+ }
+
+ /**
+  * @return a temporary point of the current frame
+  */
+ public Point4f point4f() {
+  return take(point4f);
+ }
+
+ /**
+  * @return a temporary quaternion of the current frame
+  */
+ public Quat4f quat4f() {
+  return take(quat4f);
+ }
+
+ /**
+  * @return a temporary matrix of the current frame
+  */
+ public Matrix3f matrix3f() {
+  return take(matrix3f);
+ }
+
+ /**
+  * @return a temporary matrix of the current frame
+  */
+ public Matrix4f matrix4f() {
+  return take(matrix4f);
+ }
+
+ private <T> T take(Pool<T> pool) {
+  if (depth == 0) {
+   throw new IllegalStateException("Scratch objects must be taken inside a push/pop frame.");
+  }
+  T t = pool.take();
+  if (debug) {
+   poison(t);
+  }
+  return t;
+ }
+
+ /**
+  * Throws if a popped object no longer holds the NaNs it was filled with.
+  */
+ private void checkReleased() {
+  for (int i = 0, n = released.size(); i < n; ++i) {
+   Object o = released.get(i);
+   if (!poisoned(o)) {
+    released.clear();
+    throw new IllegalStateException("Scratch " + o.getClass().getSimpleName()
+     + " was written after its frame was popped.");
+   }
+  }
+ }
+
+ private static void poison(Object o) {
+  if (o instanceof Tuple3f) {
+   ((Tuple3f) o).set(Float.NaN, Float.NaN, Float.NaN);
+  } else if (o instanceof Tuple4f) {
+   ((Tuple4f) o).set(Float.NaN, Float.NaN, Float.NaN, Float.NaN);
+  } else if (o instanceof Matrix3f) {
+   Matrix3f m = (Matrix3f) o;
+   for (int i = 0; i < 9; ++i) {
+    m.setElement(i / 3, i % 3, Float.NaN);
+   }
+  } else {
+   Matrix4f m = (Matrix4f) o;
+   for (int i = 0; i < 16; ++i) {
+    m.setElement(i / 4, i % 4, Float.NaN);
+   }
+  }
+ }
+
+ private static boolean poisoned(Object o) {
+  if (o instanceof Tuple3f) {
+   Tuple3f t = (Tuple3f) o;
+   return Float.isNaN(t.x) && Float.isNaN(t.y) && Float.isNaN(t.z);
+  } else if (o instanceof Tuple4f) {
+   Tuple4f t = (Tuple4f) o;
+   return Float.isNaN(t.x) && Float.isNaN(t.y) && Float.isNaN(t.z) && Float.isNaN(t.w);
+  } else if (o instanceof Matrix3f) {
+   Matrix3f m = (Matrix3f) o;
+   for (int i = 0; i < 9; ++i) {
+    if (!Float.isNaN(m.getElement(i / 3, i % 3))) {
+     return false;
+    }
+   }
+   return true;
+  } else {
+   Matrix4f m = (Matrix4f) o;
+   for (int i = 0; i < 16; ++i) {
+    if (!Float.isNaN(m.getElement(i / 4, i % 4))) {
+     return false;
+    }
+   }
+   return true;
+  }
+ }
+
+ /**
+  * Stack of instances of one type, the entries below top are in use by open frames.
+  */
+ private static final class Pool<T> {
+
+  private final Supplier<T> factory;
+  private Object[] items = new Object[16];
+  private int top;
+
+  Pool(Supplier<T> factory) {
+   this.factory = factory;
+  }
+
+  @SuppressWarnings("unchecked")
+  T take() {
+   if (top == items.length) {
+    items = Arrays.copyOf(items, items.length * 2);
+   }
+   Object t = items[top];
+   if (t == null) {
+    t = items[top] = factory.get();
+   }
+   ++top;
+   return (T) t;
+  }
+
+  /**
+   * Poisons the entries from mark to top and replaces them with new instances, so popped objects
+   * are never handed out again.
+   */
+  void release(int mark, ArrayList<Object> released) {
+   for (int i = mark; i < top; ++i) {
+    poison(items[i]);
+    released.add(items[i]);
+    items[i] = null;
+   }
+  }
+ }
+}
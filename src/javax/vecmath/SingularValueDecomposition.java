@@ -1,5 +1,8 @@
 package javax.vecmath;
 
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
 /**
  * Singular Value Decomposition.
  * <P>
@@ -11,6 +14,10 @@ package javax.vecmath;
  * <P>
  * The singular value decompostion always exists, so the constructor will never fail. The matrix
  * condition number and the effective numerical rank can be computed from this decomposition.
+ * <P>
+ * The Householder updates of large inputs run column by column on the ForkJoin common pool. When
+ * only the singular values are needed U and V can be skipped, which avoids forming and rotating
+ * them.
  */
 public class SingularValueDecomposition implements java.io.Serializable {
 
@@ -18,12 +25,13 @@ public class SingularValueDecomposition implements java.io.Serializable {
 	 * ------------------------ Class variables ------------------------
   */
  /**
-  * Arrays for internal storage of U and V.
+  * Arrays for internal storage of U and V, column major, null when only the singular values were
+  * computed.
   *
   * @serial internal storage of U.
   * @serial internal storage of V.
   */
- private double[][] U, V;
+ private double[] U, V;
  /**
   * Array for internal storage of singular values.
   *
@@ -47,11 +55,29 @@ public class SingularValueDecomposition implements java.io.Serializable {
   * @param Arg Rectangular matrix
   */
  public SingularValueDecomposition(Matrix Arg) {
+  this(Arg, true);
+ }
+
+ /**
+  * Construct the singular value decomposition, optionally without the singular vectors.
+  *
+  * @param Arg Rectangular matrix
+  * @param wantVectors false to compute only the singular values, getU and getV then throw
+  * IllegalStateException
+  */
+ public SingularValueDecomposition(Matrix Arg, boolean wantVectors) {
   // Derived from LINPACK code.
   // Initialize.
-  double[][] A = Arg.getArrayCopy();
   m = Arg.getRowDimension();
   n = Arg.getColumnDimension();
+  // Work on column major copies so that the column operations run with unit stride,
+  // element (i,j) of A, U and V is at [j * rows + i].
+  double[] A = new double[m * n];
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = Arg.offset + i * Arg.ld; j < n; j++) {
+    A[j * m + i] = Arg.A[a + j];
+   }
+  }
 
   /*
 		 * Apparently the failing cases are only a proper subset of (m<n), so let's not throw error. Correct fix to come
@@ -59,12 +85,14 @@ public class SingularValueDecomposition implements java.io.Serializable {
    */
   int nu = Math.min(m, n);
   s = new double[Math.min(m + 1, n)];
-  U = new double[m][nu];
-  V = new double[n][n];
+  boolean wantu = wantVectors;
+  boolean wantv = wantVectors;
+  double[] U = wantu ? new double[m * nu] : null;
+  double[] V = wantv ? new double[n * n] : null;
+  this.U = U;
+  this.V = V;
   double[] e = new double[n];
   double[] work = new double[m];
-  boolean wantu = true;
-  boolean wantv = true;
   // Reduce A to bidiagonal form, storing the diagonal elements
   // in s and the super-diagonal elements in e.
   int nct = Math.min(m - 1, n);
@@ -76,40 +104,43 @@ public class SingularValueDecomposition implements java.io.Serializable {
     // Compute 2-norm of k-th column without under/overflow.
     s[k] = 0;
     for (int i = k; i < m; i++) {
-     s[k] = hypot(s[k], A[i][k]);
+     s[k] = hypot(s[k], A[k * m + i]);
     }
     if (s[k] != 0.0) {
-     if (A[k][k] < 0.0) {
+     if (A[k * m + k] < 0.0) {
       s[k] = -s[k];
      }
      for (int i = k; i < m; i++) {
-      A[i][k] /= s[k];
+      A[k * m + i] /= s[k];
      }
-     A[k][k] += 1.0;
+     A[k * m + k] += 1.0;
     }
     s[k] = -s[k];
    }
-   for (int j = k + 1; j < n; j++) {
-    if ((k < nct) && (s[k] != 0.0)) {
-     // Apply the transformation.
+   final int kk = k;
+   if ((k < nct) && (s[k] != 0.0)) {
+    // Apply the transformation to each trailing column.
+    columns(k + 1, n, (long) (m - k) * (n - k), j -> {
      double t = 0;
-     for (int i = k; i < m; i++) {
-      t += A[i][k] * A[i][j];
+     for (int i = kk; i < m; i++) {
+      t += A[kk * m + i] * A[j * m + i];
      }
-     t = -t / A[k][k];
-     for (int i = k; i < m; i++) {
-      A[i][j] += t * A[i][k];
+     t = -t / A[kk * m + kk];
+     for (int i = kk; i < m; i++) {
+      A[j * m + i] += t * A[kk * m + i];
      }
-    }
+    });
+   }
+   for (int j = k + 1; j < n; j++) {
     // Place the k-th row of A into e for the
     // subsequent calculation of the row transformation.
-    e[j] = A[k][j];
+    e[j] = A[j * m + k];
    }
    if (wantu & (k < nct)) {
     // Place the transformation in U for subsequent back
     // multiplication.
     for (int i = k; i < m; i++) {
-     U[i][k] = A[i][k];
+     U[k * m + i] = A[k * m + i];
     }
    }
    if (k < nrt) {
@@ -132,26 +163,32 @@ public class SingularValueDecomposition implements java.io.Serializable {
     e[k] = -e[k];
     if ((k + 1 < m) && (e[k] != 0.0)) {
      // Apply the transformation.
-     for (int i = k + 1; i < m; i++) {
-      work[i] = 0.0;
-     }
-     for (int j = k + 1; j < n; j++) {
-      for (int i = k + 1; i < m; i++) {
-       work[i] += e[j] * A[i][j];
+     long size = (long) (m - k) * (n - k);
+     // work = A * e accumulated over blocks of rows, each block sweeping the columns in order.
+     columns(0, (m - k - 1 + ROW_BLOCK - 1) / ROW_BLOCK, size, b -> {
+      int i0 = kk + 1 + b * ROW_BLOCK;
+      int i1 = Math.min(i0 + ROW_BLOCK, m);
+      for (int i = i0; i < i1; i++) {
+       work[i] = 0.0;
       }
-     }
-     for (int j = k + 1; j < n; j++) {
-      double t = -e[j] / e[k + 1];
-      for (int i = k + 1; i < m; i++) {
-       A[i][j] += t * work[i];
+      for (int j = kk + 1; j < n; j++) {
+       for (int i = i0; i < i1; i++) {
+        work[i] += e[j] * A[j * m + i];
+       }
       }
-     }
+     });
+     columns(k + 1, n, size, j -> {
+      double t = -e[j] / e[kk + 1];
+      for (int i = kk + 1; i < m; i++) {
+       A[j * m + i] += t * work[i];
+      }
+     });
     }
     if (wantv) {
      // Place the transformation in V for subsequent
      // back multiplication.
      for (int i = k + 1; i < n; i++) {
-      V[i][k] = e[i];
+      V[k * n + i] = e[i];
      }
     }
    }
@@ -159,69 +196,71 @@ public class SingularValueDecomposition implements java.io.Serializable {
   // Set up the final bidiagonal matrix or order p.
   int p = Math.min(n, m + 1);
   if (nct < n) {
-   s[nct] = A[nct][nct];
+   s[nct] = A[nct * m + nct];
   }
   if (m < p) {
    s[p - 1] = 0.0;
   }
   if (nrt + 1 < p) {
-   e[nrt] = A[nrt][p - 1];
+   e[nrt] = A[(p - 1) * m + nrt];
   }
   e[p - 1] = 0.0;
   // If required, generate U.
   if (wantu) {
    for (int j = nct; j < nu; j++) {
     for (int i = 0; i < m; i++) {
-     U[i][j] = 0.0;
+     U[j * m + i] = 0.0;
     }
-    U[j][j] = 1.0;
+    U[j * m + j] = 1.0;
    }
    for (int k = nct - 1; k >= 0; k--) {
+    final int kk = k;
     if (s[k] != 0.0) {
-     for (int j = k + 1; j < nu; j++) {
+     columns(k + 1, nu, (long) (m - k) * (nu - k), j -> {
       double t = 0;
-      for (int i = k; i < m; i++) {
-       t += U[i][k] * U[i][j];
+      for (int i = kk; i < m; i++) {
+       t += U[kk * m + i] * U[j * m + i];
       }
-      t = -t / U[k][k];
-      for (int i = k; i < m; i++) {
-       U[i][j] += t * U[i][k];
+      t = -t / U[kk * m + kk];
+      for (int i = kk; i < m; i++) {
+       U[j * m + i] += t * U[kk * m + i];
       }
-     }
+     });
      for (int i = k; i < m; i++) {
-      U[i][k] = -U[i][k];
+      U[k * m + i] = -U[k * m + i];
      }
-     U[k][k] = 1.0 + U[k][k];
+     U[k * m + k] = 1.0 + U[k * m + k];
      for (int i = 0; i < k - 1; i++) {
-      U[i][k] = 0.0;
+      U[k * m + i] = 0.0;
      }
     } else {
      for (int i = 0; i < m; i++) {
-      U[i][k] = 0.0;
+      U[k * m + i] = 0.0;
      }
-     U[k][k] = 1.0;
+     U[k * m + k] = 1.0;
     }
    }
   }
   // If required, generate V.
   if (wantv) {
    for (int k = n - 1; k >= 0; k--) {
+    final int kk = k;
     if ((k < nrt) & (e[k] != 0.0)) {
-     for (int j = k + 1; j < nu; j++) {
+     columns(k + 1, nu, (long) (n - k) * (nu - k), j -> {
       double t = 0;
-      for (int i = k + 1; i < n; i++) {
-       t += V[i][k] * V[i][j];
+      for (int i = kk + 1; i < n; i++) {
+       t += V[kk * n + i] * V[j * n + i];
       }
-      t = -t / V[k + 1][k];
-      for (int i = k + 1; i < n; i++) {
-       V[i][j] += t * V[i][k];
+      t = -t / V[kk * n + kk + 1];
+      for (int i = kk + 1; i < n; i++) {
+       V[j * n + i] += t * V[kk * n + i];
       }
-     }
+     });
     }
     for (int i = 0; i < n; i++) {
-     V[i][k] = 0.0;
+     V[k * n + i] = 0.0;
     }
-    V[k][k] = 1.0;
+    V[k * n + k] = 1.0;
    }
   }
   // Main iteration loop for the singular values.
@@ -292,9 +331,9 @@ public class SingularValueDecomposition implements java.io.Serializable {
       }
       if (wantv) {
        for (int i = 0; i < n; i++) {
-        t = cs * V[i][j] + sn * V[i][p - 1];
-        V[i][p - 1] = -sn * V[i][j] + cs * V[i][p - 1];
-        V[i][j] = t;
+        t = cs * V[j * n + i] + sn * V[(p - 1) * n + i];
+        V[(p - 1) * n + i] = -sn * V[j * n + i] + cs * V[(p - 1) * n + i];
+        V[j * n + i] = t;
        }
       }
      }
@@ -313,9 +352,9 @@ public class SingularValueDecomposition implements java.io.Serializable {
       e[j] = cs * e[j];
       if (wantu) {
        for (int i = 0; i < m; i++) {
-        t = cs * U[i][j] + sn * U[i][k - 1];
-        U[i][k - 1] = -sn * U[i][j] + cs * U[i][k - 1];
-        U[i][j] = t;
+        t = cs * U[j * m + i] + sn * U[(k - 1) * m + i];
+        U[(k - 1) * m + i] = -sn * U[j * m + i] + cs * U[(k - 1) * m + i];
+        U[j * m + i] = t;
        }
       }
      }
@@ -358,9 +397,9 @@ public class SingularValueDecomposition implements java.io.Serializable {
       s[j + 1] = cs * s[j + 1];
       if (wantv) {
        for (int i = 0; i < n; i++) {
-        t = cs * V[i][j] + sn * V[i][j + 1];
-        V[i][j + 1] = -sn * V[i][j] + cs * V[i][j + 1];
-        V[i][j] = t;
+        t = cs * V[j * n + i] + sn * V[(j + 1) * n + i];
+        V[(j + 1) * n + i] = -sn * V[j * n + i] + cs * V[(j + 1) * n + i];
+        V[j * n + i] = t;
        }
       }
       t = hypot(f, g);
@@ -373,9 +412,9 @@ public class SingularValueDecomposition implements java.io.Serializable {
       e[j + 1] = cs * e[j + 1];
       if (wantu && (j < m - 1)) {
        for (int i = 0; i < m; i++) {
-        t = cs * U[i][j] + sn * U[i][j + 1];
-        U[i][j + 1] = -sn * U[i][j] + cs * U[i][j + 1];
-        U[i][j] = t;
+        t = cs * U[j * m + i] + sn * U[(j + 1) * m + i];
+        U[(j + 1) * m + i] = -sn * U[j * m + i] + cs * U[(j + 1) * m + i];
+        U[j * m + i] = t;
        }
       }
      }
@@ -390,7 +429,7 @@ public class SingularValueDecomposition implements java.io.Serializable {
       s[k] = (s[k] < 0.0 ? -s[k] : 0.0);
       if (wantv) {
        for (int i = 0; i <= pp; i++) {
-        V[i][k] = -V[i][k];
+        V[k * n + i] = -V[k * n + i];
        }
       }
      }
@@ -404,16 +443,16 @@ public class SingularValueDecomposition implements java.io.Serializable {
       s[k + 1] = t;
       if (wantv && (k < n - 1)) {
        for (int i = 0; i < n; i++) {
-        t = V[i][k + 1];
-        V[i][k + 1] = V[i][k];
-        V[i][k] = t;
+        t = V[(k + 1) * n + i];
+        V[(k + 1) * n + i] = V[k * n + i];
+        V[k * n + i] = t;
        }
       }
       if (wantu && (k < m - 1)) {
        for (int i = 0; i < m; i++) {
-        t = U[i][k + 1];
-        U[i][k + 1] = U[i][k];
-        U[i][k] = t;
+        t = U[(k + 1) * m + i];
+        U[(k + 1) * m + i] = U[k * m + i];
+        U[k * m + i] = t;
        }
       }
       k++;
@@ -435,7 +474,17 @@ public class SingularValueDecomposition implements java.io.Serializable {
   * @return U
   */
  public Matrix getU() {
-  return new Matrix(U, m, Math.min(m + 1, n));
+  if (U == null) {
+   throw new IllegalStateException("Singular vectors were not computed.");
+  }
+  int nu = U.length / Math.max(m, 1);
+  Matrix X = new Matrix(m, nu);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < nu; j++) {
+    X.A[i * nu + j] = U[j * m + i];
+   }
+  }
+  return X;
  }
 
  /**
@@ -444,7 +493,16 @@ public class SingularValueDecomposition implements java.io.Serializable {
   * @return V
   */
  public Matrix getV() {
-  return new Matrix(V, n, n);
+  if (V == null) {
+   throw new IllegalStateException("Singular vectors were not computed.");
+  }
+  Matrix X = new Matrix(n, n);
+  for (int i = 0; i < n; i++) {
+   for (int j = 0; j < n; j++) {
+    X.A[i * n + j] = V[j * n + i];
+   }
+  }
+  return X;
  }
 
  /**
@@ -463,12 +521,8 @@ public class SingularValueDecomposition implements java.io.Serializable {
   */
  public Matrix getS() {
   Matrix X = new Matrix(n, n);
-  double[][] S = X.getArray();
   for (int i = 0; i < n; i++) {
-   for (int j = 0; j < n; j++) {
-    S[i][j] = 0.0;
-   }
-   S[i][i] = this.s[i];
+   X.A[i * n + i] = this.s[i];
   }
   return X;
  }
@@ -509,10 +563,34 @@ public class SingularValueDecomposition implements java.io.Serializable {
  }
  private static final long serialVersionUID = 1;
 
+ /**
+  * Number of elements touched by an update above which its columns run on the ForkJoin common
+  * pool.
+  */
+ private static final long PARALLEL_THRESHOLD = 1L << 16;
+ /**
+  * Rows of A in one block of the row transformation.
+  */
+ private static final int ROW_BLOCK = 256;
+
+ /**
+  * Runs column.accept(j) for j from (inclusive) to to (exclusive), in parallel when the update
+  * touches at least PARALLEL_THRESHOLD elements. The columns must be independent.
+  */
+ private static void columns(int from, int to, long size, IntConsumer column) {
+  if (size < PARALLEL_THRESHOLD) {
+   for (int j = from; j < to; j++) {
+    column.accept(j);
+   }
+  } else {
+   IntStream.range(from, to).parallel().forEach(column);
+  }
+ }
+
  /**
   * sqrt(a^2 + b^2) without under/overflow. *
   */
- private static double hypot(double a, double b) {
+ static double hypot(double a, double b) {
   double r;
   if (Math.abs(a) > Math.abs(b)) {
    r = b / a;
@@ -0,0 +1,607 @@
+package javax.vecmath;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Single precision Singular Value Decomposition of a MatrixF, the float counterpart of
+ * SingularValueDecomposition.
+ * <P>
+ * For an m-by-n matrix A with m >= n, the singular value decomposition is an m-by-n orthogonal
+ * matrix U, an n-by-n diagonal matrix S, and an n-by-n orthogonal matrix V so that A = U*S*V'.
+ * <P>
+ * The singular values, sigma[k] = S[k][k], are ordered so that sigma[0] >= sigma[1] >= ... >=
+ * sigma[n-1].
+ * <P>
+ * The singular value decompostion always exists, so the constructor will never fail. The matrix
+ * condition number and the effective numerical rank can be computed from this decomposition.
+ * <P>
+ * The Householder updates of large inputs run column by column on the ForkJoin common pool. When
+ * only the singular values are needed U and V can be skipped, which avoids forming and rotating
+ * them.
+ */
+public class SingularValueDecompositionF implements java.io.Serializable {
+
+ /*
+	 * ------------------------ Class variables ------------------------
+  */
+ /**
+  * Arrays for internal storage of U and V, column major, null when only the singular values were
+  * computed.
+  *
+  * @serial internal storage of U.
+  * @serial internal storage of V.
+  */
+ private float[] U, V;
+ /**
+  * Array for internal storage of singular values.
+  *
+  * @serial internal storage of singular values.
+  */
+ private float[] s;
+ /**
+  * Row and column dimensions.
+  *
+  * @serial row dimension.
+  * @serial column dimension.
+  */
+ private int m, n;
+
+ /*
+	 * ------------------------ Constructor ------------------------
+  */
+ /**
+  * Construct the singular value decomposition Structure to access U, S and V.
+  *
+  * @param Arg Rectangular matrix
+  */
+ public SingularValueDecompositionF(MatrixF Arg) {
+  this(Arg, true);
+ }
+
+ /**
+  * Construct the singular value decomposition, optionally without the singular vectors.
+  *
+  * @param Arg Rectangular matrix
+  * @param wantVectors false to compute only the singular values, getU and getV then throw
+  * IllegalStateException
+  */
+ public SingularValueDecompositionF(MatrixF Arg, boolean wantVectors) {
+  // Derived from LINPACK code.
+  // Initialize.
+  m = Arg.getRowDimension();
+  n = Arg.getColumnDimension();
+  // Work on column major copies so that the column operations run with unit stride,
+  // element (i,j) of A, U and V is at [j * rows + i].
+  float[] A = new float[m * n];
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = Arg.offset + i * Arg.ld; j < n; j++) {
+    A[j * m + i] = Arg.A[a + j];
+   }
+  }
+
+  /*
+		 * Apparently the failing cases are only a proper subset of (m<n), so let's not throw error. Correct fix to come
+		 * later? if (m<n) { throw new IllegalArgumentException("Jama SVD only works for m >= n"); }
+   */
+  int nu = Math.min(m, n);
+  s = new float[Math.min(m + 1, n)];
+  boolean wantu = wantVectors;
+  boolean wantv = wantVectors;
+  float[] U = wantu ? new float[m * nu] : null;
+  float[] V = wantv ? new float[n * n] : null;
+  this.U = U;
+  this.V = V;
+  float[] e = new float[n];
+  float[] work = new float[m];
+  // Reduce A to bidiagonal form, storing the diagonal elements
+  // in s and the super-diagonal elements in e.
+  int nct = Math.min(m - 1, n);
+  int nrt = Math.max(0, Math.min(n - 2, m));
+  for (int k = 0; k < Math.max(nct, nrt); k++) {
+   if (k < nct) {
+    // Compute the transformation for the k-th column and
+    // place the k-th diagonal in s[k].
+    // Compute 2-norm of k-th column without under/overflow.
+    s[k] = 0;
+    for (int i = k; i < m; i++) {
+     s[k] = hypot(s[k], A[k * m + i]);
+    }
+    if (s[k] != 0.0f) {
+     if (A[k * m + k] < 0.0f) {
+      s[k] = -s[k];
+     }
+     for (int i = k; i < m; i++) {
+      A[k * m + i] /= s[k];
+     }
+     A[k * m + k] += 1.0f;
+    }
+    s[k] = -s[k];
+   }
+   final int kk = k;
+   if ((k < nct) && (s[k] != 0.0f)) {
+    // Apply the transformation to each trailing column.
+    columns(k + 1, n, (long) (m - k) * (n - k), j -> {
+     float t = 0;
+     for (int i = kk; i < m; i++) {
+      t += A[kk * m + i] * A[j * m + i];
+     }
+     t = -t / A[kk * m + kk];
+     for (int i = kk; i < m; i++) {
+      A[j * m + i] += t * A[kk * m + i];
+     }
+    });
+   }
+   for (int j = k + 1; j < n; j++) {
+    // Place the k-th row of A into e for the
+    // subsequent calculation of the row transformation.
+    e[j] = A[j * m + k];
+   }
+   if (wantu & (k < nct)) {
+    // Place the transformation in U for subsequent back
+    // multiplication.
+    for (int i = k; i < m; i++) {
+     U[k * m + i] = A[k * m + i];
+    }
+   }
+   if (k < nrt) {
+    // Compute the k-th row transformation and place the
+    // k-th super-diagonal in e[k].
+    // Compute 2-norm without under/overflow.
+    e[k] = 0;
+    for (int i = k + 1; i < n; i++) {
+     e[k] = hypot(e[k], e[i]);
+    }
+    if (e[k] != 0.0f) {
+     if (e[k + 1] < 0.0f) {
+      e[k] = -e[k];
+     }
+     for (int i = k + 1; i < n; i++) {
+      e[i] /= e[k];
+     }
+     e[k + 1] += 1.0f;
+    }
+    e[k] = -e[k];
+    if ((k + 1 < m) && (e[k] != 0.0f)) {
+     // Apply the transformation.
+     long size = (long) (m - k) * (n - k);
+     // work = A * e accumulated over blocks of rows, each block sweeping the columns in order.
+     columns(0, (m - k - 1 + ROW_BLOCK - 1) / ROW_BLOCK, size, b -> {
+      int i0 = kk + 1 + b * ROW_BLOCK;
+      int i1 = Math.min(i0 + ROW_BLOCK, m);
+      for (int i = i0; i < i1; i++) {
+       work[i] = 0.0f;
+      }
+      for (int j = kk + 1; j < n; j++) {
+       for (int i = i0; i < i1; i++) {
+        work[i] += e[j] * A[j * m + i];
+       }
+      }
+     });
+     columns(k + 1, n, size, j -> {
+      float t = -e[j] / e[kk + 1];
+      for (int i = kk + 1; i < m; i++) {
+       A[j * m + i] += t * work[i];
+      }
+     });
+    }
+    if (wantv) {
+     // Place the transformation in V for subsequent
+     // back multiplication.
+     for (int i = k + 1; i < n; i++) {
+      V[k * n + i] = e[i];
+     }
+    }
+   }
+  }
+  // Set up the final bidiagonal matrix or order p.
+  int p = Math.min(n, m + 1);
+  if (nct < n) {
+   s[nct] = A[nct * m + nct];
+  }
+  if (m < p) {
+   s[p - 1] = 0.0f;
+  }
+  if (nrt + 1 < p) {
+   e[nrt] = A[(p - 1) * m + nrt];
+  }
+  e[p - 1] = 0.0f;
+  // If required, generate U.
+  if (wantu) {
+   for (int j = nct; j < nu; j++) {
+    for (int i = 0; i < m; i++) {
+     U[j * m + i] = 0.0f;
+    }
+    U[j * m + j] = 1.0f;
+   }
+   for (int k = nct - 1; k >= 0; k--) {
+    final int kk = k;
+    if (s[k] != 0.0f) {
+     columns(k + 1, nu, (long) (m - k) * (nu - k), j -> {
+      float t = 0;
+      for (int i = kk; i < m; i++) {
+       t += U[kk * m + i] * U[j * m + i];
+      }
+      t = -t / U[kk * m + kk];
+      for (int i = kk; i < m; i++) {
+       U[j * m + i] += t * U[kk * m + i];
+      }
+     });
+     for (int i = k; i < m; i++) {
+      U[k * m + i] = -U[k * m + i];
+     }
+     U[k * m + k] = 1.0f + U[k * m + k];
+     for (int i = 0; i < k - 1; i++) {
+      U[k * m + i] = 0.0f;
+     }
+    } else {
+     for (int i = 0; i < m; i++) {
+      U[k * m + i] = 0.0f;
+     }
+     U[k * m + k] = 1.0f;
+    }
+   }
+  }
+  // If required, generate V.
+  if (wantv) {
+   for (int k = n - 1; k >= 0; k--) {
+    final int kk = k;
+    if ((k < nrt) & (e[k] != 0.0f)) {
+     columns(k + 1, nu, (long) (n - k) * (nu - k), j -> {
+      float t = 0;
+      for (int i = kk + 1; i < n; i++) {
+       t += V[kk * n + i] * V[j * n + i];
+      }
+      t = -t / V[kk * n + kk + 1];
+      for (int i = kk + 1; i < n; i++) {
+       V[j * n + i] += t * V[kk * n + i];
+      }
+     });
+    }
+    for (int i = 0; i < n; i++) {
+     V[k * n + i] = 0.0f;
+    }
+    V[k * n + k] = 1.0f;
+   }
+  }
+  // Main iteration loop for the singular values.
+  int pp = p - 1;
+  int iter = 0;
+  float eps = (float) Math.pow(2.0, -23.0);
+  float tiny = (float) Math.pow(2.0, -120.0);
+  while (p > 0) {
+   int k, kase;
+   // Here is where a test for too many iterations would go.
+   // This section of the program inspects for
+   // negligible elements in the s and e arrays.  On
+   // completion the variables kase and k are set as follows.
+   // kase = 1     if s(p) and e[k-1] are negligible and k<p
+   // kase = 2     if s(k) is negligible and k<p
+   // kase = 3     if e[k-1] is negligible, k<p, and
+   //              s(k), ..., s(p) are not negligible (qr step).
+   // kase = 4     if e(p-1) is negligible (convergence).
+   for (k = p - 2; k >= -1; k--) {
+    if (k == -1) {
+     break;
+    }
+    if (Math.abs(e[k]) <=
+      tiny + eps * (Math.abs(s[k]) + Math.abs(s[k + 1]))) {
+     e[k] = 0.0f;
+     break;
+    }
+   }
+   if (k == p - 2) {
+    kase = 4;
+   } else {
+    int ks;
+    for (ks = p - 1; ks >= k; ks--) {
+     if (ks == k) {
+      break;
+     }
+     float t = (ks != p ? Math.abs(e[ks]) : 0.f) +
+       (ks != k + 1 ? Math.abs(e[ks - 1]) : 0.f);
+     if (Math.abs(s[ks]) <= tiny + eps * t) {
+      s[ks] = 0.0f;
+      break;
+     }
+    }
+    if (ks == k) {
+     kase = 3;
+    } else if (ks == p - 1) {
+     kase = 1;
+    } else {
+     kase = 2;
+     k = ks;
+    }
+   }
+   k++;
+   // Perform the task indicated by kase.
+   switch (kase) {
+    // Deflate negligible s(p).
+    case 1: {
+     float f = e[p - 2];
+     e[p - 2] = 0.0f;
+     for (int j = p - 2; j >= k; j--) {
+      float t = hypot(s[j], f);
+      float cs = s[j] / t;
+      float sn = f / t;
+      s[j] = t;
+      if (j != k) {
+       f = -sn * e[j - 1];
+       e[j - 1] = cs * e[j - 1];
+      }
+      if (wantv) {
+       for (int i = 0; i < n; i++) {
+        t = cs * V[j * n + i] + sn * V[(p - 1) * n + i];
+        V[(p - 1) * n + i] = -sn * V[j * n + i] + cs * V[(p - 1) * n + i];
+        V[j * n + i] = t;
+       }
+      }
+     }
+    }
+    break;
+    // Split at negligible s(k).
+    case 2: {
+     float f = e[k - 1];
+     e[k - 1] = 0.0f;
+     for (int j = k; j < p; j++) {
+      float t = hypot(s[j], f);
+      float cs = s[j] / t;
+      float sn = f / t;
+      s[j] = t;
+      f = -sn * e[j];
+      e[j] = cs * e[j];
+      if (wantu) {
+       for (int i = 0; i < m; i++) {
+        t = cs * U[j * m + i] + sn * U[(k - 1) * m + i];
+        U[(k - 1) * m + i] = -sn * U[j * m + i] + cs * U[(k - 1) * m + i];
+        U[j * m + i] = t;
+       }
+      }
+     }
+    }
+    break;
+    // Perform one qr step.
+    case 3: {
+     // Calculate the shift.
+     float scale = Math.max(Math.max(Math.max(Math.max(
+      Math.abs(s[p - 1]), Math.abs(s[p - 2])), Math.abs(e[p - 2])),
+      Math.abs(s[k])), Math.abs(e[k]));
+     float sp = s[p - 1] / scale;
+     float spm1 = s[p - 2] / scale;
+     float epm1 = e[p - 2] / scale;
+     float sk = s[k] / scale;
+     float ek = e[k] / scale;
+     float b = ((spm1 + sp) * (spm1 - sp) + epm1 * epm1) / 2.0f;
+     float c = (sp * epm1) * (sp * epm1);
+     float shift = 0.0f;
+     if ((b != 0.0f) || (c != 0.0f)) {
+      shift = (float) Math.sqrt(b * b + c);
+      if (b < 0.0f) {
+       shift = -shift;
+      }
+      shift = c / (b + shift);
+     }
+     float f = (sk + sp) * (sk - sp) + shift;
+     float g = sk * ek;
+     // Chase zeros.
+     for (int j = k; j < p - 1; j++) {
+      float t = hypot(f, g);
+      float cs = f / t;
+      float sn = g / t;
+      if (j != k) {
+       e[j - 1] = t;
+      }
+      f = cs * s[j] + sn * e[j];
+      e[j] = cs * e[j] - sn * s[j];
+      g = sn * s[j + 1];
+      s[j + 1] = cs * s[j + 1];
+      if (wantv) {
+       for (int i = 0; i < n; i++) {
+        t = cs * V[j * n + i] + sn * V[(j + 1) * n + i];
+        V[(j + 1) * n + i] = -sn * V[j * n + i] + cs * V[(j + 1) * n + i];
+        V[j * n + i] = t;
+       }
+      }
+      t = hypot(f, g);
+      cs = f / t;
+      sn = g / t;
+      s[j] = t;
+      f = cs * e[j] + sn * s[j + 1];
+      s[j + 1] = -sn * e[j] + cs * s[j + 1];
+      g = sn * e[j + 1];
+      e[j + 1] = cs * e[j + 1];
+      if (wantu && (j < m - 1)) {
+       for (int i = 0; i < m; i++) {
+        t = cs * U[j * m + i] + sn * U[(j + 1) * m + i];
+        U[(j + 1) * m + i] = -sn * U[j * m + i] + cs * U[(j + 1) * m + i];
+        U[j * m + i] = t;
+       }
+      }
+     }
+     e[p - 2] = f;
+     iter = iter + 1;
+    }
+    break;
+    // Convergence.
+    case 4: {
+     // Make the singular values positive.
+     if (s[k] <= 0.0f) {
+      s[k] = (s[k] < 0.0f ? -s[k] : 0.0f);
+      if (wantv) {
+       for (int i = 0; i <= pp; i++) {
+        V[k * n + i] = -V[k * n + i];
+       }
+      }
+     }
+     // Order the singular values.
+     while (k < pp) {
+      if (s[k] >= s[k + 1]) {
+       break;
+      }
+      float t = s[k];
+      s[k] = s[k + 1];
+      s[k + 1] = t;
+      if (wantv && (k < n - 1)) {
+       for (int i = 0; i < n; i++) {
+        t = V[(k + 1) * n + i];
+        V[(k + 1) * n + i] = V[k * n + i];
+        V[k * n + i] = t;
+       }
+      }
+      if (wantu && (k < m - 1)) {
+       for (int i = 0; i < m; i++) {
+        t = U[(k + 1) * m + i];
+        U[(k + 1) * m + i] = U[k * m + i];
+        U[k * m + i] = t;
+       }
+      }
+      k++;
+     }
+     iter = 0;
+     p--;
+    }
+    break;
+   }
+  }
+ }
+
+ /*
+	 * ------------------------ Public Methods ------------------------
+  */
+ /**
+  * Return the left singular vectors
+  *
+  * @return U
+  */
+ public MatrixF getU() {
+  if (U == null) {
+   throw new IllegalStateException("Singular vectors were not computed.");
+  }
+  int nu = U.length / Math.max(m, 1);
+  MatrixF X = new MatrixF(m, nu);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < nu; j++) {
+    X.A[i * nu + j] = U[j * m + i];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * Return the right singular vectors
+  *
+  * @return V
+  */
+ public MatrixF getV() {
+  if (V == null) {
+   throw new IllegalStateException("Singular vectors were not computed.");
+  }
+  MatrixF X = new MatrixF(n, n);
+  for (int i = 0; i < n; i++) {
+   for (int j = 0; j < n; j++) {
+    X.A[i * n + j] = V[j * n + i];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * Return the one-dimensional array of singular values
+  *
+  * @return diagonal of S.
+  */
+ public float[] getSingularValues() {
+  return s;
+ }
+
+ /**
+  * Return the diagonal matrix of singular values
+  *
+  * @return S
+  */
+ public MatrixF getS() {
+  MatrixF X = new MatrixF(n, n);
+  for (int i = 0; i < n; i++) {
+   X.A[i * n + i] = this.s[i];
+  }
+  return X;
+ }
+
+ /**
+  * Two norm
+  *
+  * @return max(S)
+  */
+ public float norm2() {
+  return s[0];
+ }
+
+ /**
+  * Two norm condition number
+  *
+  * @return max(S)/min(S)
+  */
+ public float cond() {
+  return s[0] / s[Math.min(m, n) - 1];
+ }
+
+ /**
+  * Effective numerical matrix rank
+  *
+  * @return Number of nonnegligible singular values.
+  */
+ public int rank() {
+  float eps = (float) Math.pow(2.0, -23.0);
+  float tol = Math.max(m, n) * s[0] * eps;
+  int r = 0;
+  for (int i = 0; i < s.length; i++) {
+   if (s[i] > tol) {
+    r++;
+   }
+  }
+  return r;
+ }
+ private static final long serialVersionUID = 1;
+
+ /**
+  * Number of elements touched by an update above which its columns run on the ForkJoin common
+  * pool.
+  */
+ private static final long PARALLEL_THRESHOLD = 1L << 16;
+ /**
+  * Rows of A in one block of the row transformation.
+  */
+ private static final int ROW_BLOCK = 256;
+
+ /**
+  * Runs column.accept(j) for j from (inclusive) to to (exclusive), in parallel when the update
+  * touches at least PARALLEL_THRESHOLD elements. The columns must be independent.
+  */
+ private static void columns(int from, int to, long size, IntConsumer column) {
+  if (size < PARALLEL_THRESHOLD) {
+   for (int j = from; j < to; j++) {
+    column.accept(j);
+   }
+  } else {
+   IntStream.range(from, to).parallel().forEach(column);
+  }
+ }
+
+ /**
+  * sqrt(a^2 + b^2) without under/overflow. *
+  */
+ static float hypot(float a, float b) {
+  float r;
+  if (Math.abs(a) > Math.abs(b)) {
+   r = b / a;
+   r = Math.abs(a) * (float) Math.sqrt(1 + r * r);
+  } else if (b != 0) {
+   r = a / b;
+   r = Math.abs(b) * (float) Math.sqrt(1 + r * r);
+  } else {
+   r = 0.0f;
+  }
+  return r;
+ }
+}
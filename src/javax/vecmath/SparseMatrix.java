@@ -0,0 +1,437 @@
+package javax.vecmath;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Sparse matrix in compressed sparse row (CSR) form.
+ * <P>
+ * Only the nonzero elements are stored: the column indices and values of row i are at positions
+ * rowPtr[i] to rowPtr[i+1]-1 of colIdx and values, sorted by column. Storage and the cost of the
+ * products grow with the number of nonzeros rather than with m*n. The transpose of a CSR matrix
+ * is its compressed sparse column form, so transpose() also serves for column access.
+ * <P>
+ * Large symmetric positive definite systems can be solved with solveConjugateGradient, which
+ * needs only a few vectors of memory besides the matrix.
+ */
+public class SparseMatrix implements java.io.Serializable {
+
+ /*
+	 * ------------------------ Class variables ------------------------
+  */
+ /**
+  * Row and column dimensions.
+  *
+  * @serial row dimension.
+  * @serial column dimension.
+  */
+ private final int m, n;
+ /**
+  * Start of each row in colIdx and values, length m+1.
+  *
+  * @serial row pointers.
+  */
+ private final int[] rowPtr;
+ /**
+  * Column indices of the nonzeros.
+  *
+  * @serial column indices.
+  */
+ private final int[] colIdx;
+ /**
+  * Values of the nonzeros.
+  *
+  * @serial nonzero values.
+  */
+ private final double[] values;
+
+ /*
+	 * ------------------------ Constructors ------------------------
+  */
+ /**
+  * Construct a sparse matrix from CSR arrays, which are used without copying.
+  *
+  * @param m Number of rows.
+  * @param n Number of colums.
+  * @param rowPtr Start of each row, length m+1, nondecreasing from 0.
+  * @param colIdx Column index of each nonzero, increasing within a row.
+  * @param values Value of each nonzero.
+  * @exception IllegalArgumentException Array lengths do not agree, or the row pointers or column
+  * indices are out of order or out of range.
+  */
+ public SparseMatrix(int m, int n, int[] rowPtr, int[] colIdx, double[] values) {
+  if (rowPtr.length != m + 1 || rowPtr[0] != 0 || colIdx.length < rowPtr[m]
+   || values.length < rowPtr[m]) {
+   throw new IllegalArgumentException("CSR array lengths do not agree.");
+  }
+  for (int i = 0; i < m; i++) {
+   if (rowPtr[i + 1] < rowPtr[i]) {
+    throw new IllegalArgumentException("Row pointers must be nondecreasing.");
+   }
+   for (int k = rowPtr[i], last = -1; k < rowPtr[i + 1]; k++) {
+    if (colIdx[k] <= last || colIdx[k] >= n) {
+     throw new IllegalArgumentException("Column indices of row " + i
+      + " must increase and lie in [0," + n + ").");
+    }
+    last = colIdx[k];
+   }
+  }
+  this.m = m;
+  this.n = n;
+  this.rowPtr = rowPtr;
+  this.colIdx = colIdx;
+  this.values = values;
+ }
+
+ /**
+  * Construct a sparse matrix from the nonzero elements of a dense matrix.
+  *
+  * @param A Dense matrix.
+  */
+ public SparseMatrix(Matrix A) {
+  m = A.getRowDimension();
+  n = A.getColumnDimension();
+  rowPtr = new int[m + 1];
+  int nnz = 0;
+  for (int i = 0; i < m; i++) {
+   for (int j = 0, a = A.offset + i * A.ld; j < n; j++) {
+    if (A.A[a + j] != 0.0) {
+     nnz++;
+    }
+   }
+  }
+  colIdx = new int[nnz];
+  values = new double[nnz];
+  for (int i = 0, k = 0; i < m; i++) {
+   for (int j = 0, a = A.offset + i * A.ld; j < n; j++) {
+    double v = A.A[a + j];
+    if (v != 0.0) {
+     colIdx[k] = j;
+     values[k++] = v;
+    }
+   }
+   rowPtr[i + 1] = k;
+  }
+ }
+
+ /**
+  * Construct a sparse matrix from (row, column, value) triplets in any order. Values given more
+  * than once for the same element are summed, as when assembling finite element matrices.
+  *
+  * @param m Number of rows.
+  * @param n Number of colums.
+  * @param rows Row index of each triplet.
+  * @param cols Column index of each triplet.
+  * @param vals Value of each triplet.
+  * @param count Number of triplets.
+  * @exception ArrayIndexOutOfBoundsException An index is outside the matrix.
+  */
+ public SparseMatrix(int m, int n, int[] rows, int[] cols, double[] vals, int count) {
+  this.m = m;
+  this.n = n;
+  int[] start = new int[m + 1];
+  for (int t = 0; t < count; t++) {
+   if (rows[t] < 0 || rows[t] >= m || cols[t] < 0 || cols[t] >= n) {
+    throw new ArrayIndexOutOfBoundsException("(" + rows[t] + "," + cols[t] + ") is outside "
+     + m + "x" + n);
+   }
+   start[rows[t] + 1]++;
+  }
+  for (int i = 0; i < m; i++) {
+   start[i + 1] += start[i];
+  }
+  // Order the triplets by column with a counting pass, then bucket them by row in that order so
+  // that each row comes out sorted by column, O(count + m + n). Both passes are stable, so
+  // duplicates are summed in the order given.
+  int[] colStart = new int[n + 1];
+  for (int t = 0; t < count; t++) {
+   colStart[cols[t] + 1]++;
+  }
+  for (int j = 0; j < n; j++) {
+   colStart[j + 1] += colStart[j];
+  }
+  int[] order = new int[count];
+  for (int t = 0; t < count; t++) {
+   order[colStart[cols[t]]++] = t;
+  }
+  int[] c = new int[count];
+  double[] v = new double[count];
+  int[] next = start.clone();
+  for (int o = 0; o < count; o++) {
+   int t = order[o];
+   int k = next[rows[t]]++;
+   c[k] = cols[t];
+   v[k] = vals[t];
+  }
+  rowPtr = new int[m + 1];
+  int nnz = 0;
+  for (int i = 0; i < m; i++) {
+   int r0 = start[i], r1 = start[i + 1];
+   for (int k = r0; k < r1; k++) {
+    if (nnz > rowPtr[i] && c[nnz - 1] == c[k]) {
+     v[nnz - 1] += v[k];
+    } else {
+     c[nnz] = c[k];
+     v[nnz++] = v[k];
+    }
+   }
+   rowPtr[i + 1] = nnz;
+  }
+  colIdx = Arrays.copyOf(c, nnz);
+  values = Arrays.copyOf(v, nnz);
+ }
+
+ /*
+	 * ------------------------ Public Methods ------------------------
+  */
+ /**
+  * Get row dimension.
+  *
+  * @return m, the number of rows.
+  */
+ public int getRowDimension() {
+  return m;
+ }
+
+ /**
+  * Get column dimension.
+  *
+  * @return n, the number of columns.
+  */
+ public int getColumnDimension() {
+  return n;
+ }
+
+ /**
+  * Get the number of stored elements.
+  *
+  * @return number of nonzeros.
+  */
+ public int getNonZeroCount() {
+  return rowPtr[m];
+ }
+
+ /**
+  * Get a single element.
+  *
+  * @param i Row index.
+  * @param j Column index.
+  * @return A(i,j), zero when the element is not stored
+  * @exception ArrayIndexOutOfBoundsException
+  */
+ public double get(int i, int j) {
+  if (i < 0 || i >= m || j < 0 || j >= n) {
+   throw new ArrayIndexOutOfBoundsException("(" + i + "," + j + ") is outside " + m + "x" + n);
+  }
+  int lo = rowPtr[i], hi = rowPtr[i + 1] - 1;
+  while (lo <= hi) {
+   int mid = (lo + hi) >>> 1;
+   int c = colIdx[mid];
+   if (c < j) {
+    lo = mid + 1;
+   } else if (c > j) {
+    hi = mid - 1;
+   } else {
+    return values[mid];
+   }
+  }
+  return 0.0;
+ }
+
+ /**
+  * Convert to a dense matrix.
+  *
+  * @return dense copy of this matrix
+  */
+ public Matrix toMatrix() {
+  Matrix X = new Matrix(m, n);
+  for (int i = 0; i < m; i++) {
+   for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) {
+    X.A[i * n + colIdx[k]] = values[k];
+   }
+  }
+  return X;
+ }
+
+ /**
+  * Sparse matrix transpose, which is the compressed sparse column form of this matrix.
+  *
+  * @return A'
+  */
+ public SparseMatrix transpose() {
+  int nnz = rowPtr[m];
+  int[] tPtr = new int[n + 1];
+  for (int k = 0; k < nnz; k++) {
+   tPtr[colIdx[k] + 1]++;
+  }
+  for (int j = 0; j < n; j++) {
+   tPtr[j + 1] += tPtr[j];
+  }
+  int[] next = Arrays.copyOf(tPtr, n);
+  int[] tIdx = new int[nnz];
+  double[] tVal = new double[nnz];
+  // Rows are visited in order, so the row indices come out sorted within each column.
+  for (int i = 0; i < m; i++) {
+   for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) {
+    int q = next[colIdx[k]]++;
+    tIdx[q] = i;
+    tVal[q] = values[k];
+   }
+  }
+  return new SparseMatrix(n, m, tPtr, tIdx, tVal);
+ }
+
+ /**
+  * Sparse matrix times vector, y = A*x.
+  *
+  * @param x Vector of length n.
+  * @param y Vector of length m to receive the product, must not be x.
+  * @return y for chaining
+  * @exception IllegalArgumentException Vector lengths do not agree.
+  */
+ public double[] times(double[] x, double[] y) {
+  if (x.length != n || y.length != m) {
+   throw new IllegalArgumentException("Vector lengths must agree.");
+  }
+  rows(rowPtr[m], i -> {
+   double s = 0.0;
+   for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) {
+    s += values[k] * x[colIdx[k]];
+   }
+   y[i] = s;
+  });
+  return y;
+ }
+
+ /**
+  * Sparse matrix times dense matrix, A*B.
+  *
+  * @param B Dense matrix with n rows.
+  * @return Dense product A*B
+  * @exception IllegalArgumentException Matrix inner dimensions must agree.
+  */
+ public Matrix times(Matrix B) {
+  if (B.getRowDimension() != n) {
+   throw new IllegalArgumentException("Matrix inner dimensions must agree.");
+  }
+  final int p = B.getColumnDimension();
+  Matrix X = new Matrix(m, p);
+  final double[] C = X.A, BA = B.A;
+  // row i of the product accumulates rows colIdx[k] of B, all unit stride
+  rows((long) rowPtr[m] * p, i -> {
+   for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) {
+    double s = values[k];
+    for (int j = 0, b = B.offset + colIdx[k] * B.ld, c = i * p; j < p; j++) {
+     C[c + j] += s * BA[b + j];
+    }
+   }
+  });
+  return X;
+ }
+
+ /**
+  * Solve A*x = b for a symmetric positive definite A with the conjugate gradient method,
+  * preconditioned by the diagonal of A. The iteration stops when the residual norm falls below
+  * tolerance times the norm of b.
+  *
+  * @param b Right hand side of length n.
+  * @param x Initial guess of length n, replaced by the solution.
+  * @param tolerance Relative residual to reach.
+  * @param maxIterations Maximum number of iterations.
+  * @return the number of iterations used, or -1 if the tolerance was not reached
+  * @exception IllegalArgumentException Matrix is not square or vector lengths do not agree.
+  * @exception IllegalArgumentException A diagonal element is not positive.
+  */
+ public int solveConjugateGradient(double[] b, double[] x, double tolerance, int maxIterations) {
+  if (m != n) {
+   throw new IllegalArgumentException("Matrix must be square.");
+  }
+  if (b.length != n || x.length != n) {
+   throw new IllegalArgumentException("Vector lengths must agree.");
+  }
+  double[] invDiag = new double[n];
+  for (int i = 0; i < n; i++) {
+   double d = get(i, i);
+   if (!(d > 0.0)) {
+    throw new IllegalArgumentException("Matrix is not symmetric positive definite.");
+   }
+   invDiag[i] = 1.0 / d;
+  }
+  // The preconditioned residual z = r/diag(A) is only needed in r'z and in the update of p, so it
+  // is formed on the fly rather than stored.
+  double[] r = times(x, new double[n]);
+  double[] p = new double[n];
+  double[] q = new double[n];
+  double bnorm = 0.0;
+  double rz = 0.0;
+  for (int i = 0; i < n; i++) {
+   bnorm += b[i] * b[i];
+   r[i] = b[i] - r[i];
+   p[i] = r[i] * invDiag[i];
+   rz += r[i] * p[i];
+  }
+  double limit = tolerance * tolerance * (bnorm > 0.0 ? bnorm : 1.0);
+  for (int iter = 0; iter <= maxIterations; iter++) {
+   if (dot(r, r) <= limit) {
+    return iter;
+   }
+   if (iter == maxIterations) {
+    break;
+   }
+   times(p, q);
+   double alpha = rz / dot(p, q);
+   double rzNext = 0.0;
+   for (int i = 0; i < n; i++) {
+    x[i] += alpha * p[i];
+    r[i] -= alpha * q[i];
+    rzNext += r[i] * r[i] * invDiag[i];
+   }
+   double beta = rzNext / rz;
+   rz = rzNext;
+   for (int i = 0; i < n; i++) {
+    p[i] = r[i] * invDiag[i] + beta * p[i];
+   }
+  }
+  return -1;
+ }
+
+ /**
+  * Number of multiply-adds above which the products split their rows across the ForkJoin common
+  * pool.
+  */
+ private static final long PARALLEL_THRESHOLD = 1L << 16;
+
+ /**
+  * Runs row.accept(i) for every row, in parallel when the product does at least
+  * PARALLEL_THRESHOLD multiply-adds. Each row writes only its own outputs.
+  */
+ private void rows(long work, IntConsumer row) {
+  if (work < PARALLEL_THRESHOLD) {
+   for (int i = 0; i < m; i++) {
+    row.accept(i);
+   }
+  } else {
+   IntStream.range(0, m).parallel().forEach(row);
+  }
+ }
+
+ private static double dot(double[] a, double[] b) {
+  double s = 0.0;
+  for (int i = 0; i < a.length; i++) {
+   s += a[i] * b[i];
+  }
+  return s;
+ }
+
+ /**
+  * Returns a string of the form m x n (nnz nonzeros).
+  *
+  * @return the String representation
+  */
+ @Override
+ public String toString() {
+  return m + "x" + n + " (" + rowPtr[m] + " nonzeros)";
+ }
+ private static final long serialVersionUID = 1;
+}
@@ -0,0 +1,149 @@
+package javax.vecmath;
+
+import java.util.Random;
+
+/**
+ * Truncated Singular Value Decomposition.
+ * <P>
+ * Approximates the k largest singular values of an m-by-n matrix A and their singular vectors, an
+ * m-by-k matrix U, a k-by-k diagonal matrix S and an n-by-k matrix V so that A ~ U*S*V'. Only k
+ * components are formed, which is far cheaper than the full decomposition when k is much smaller
+ * than m and n.
+ * <P>
+ * The decomposition uses a randomized range finder: A is multiplied by a random n-by-(k+p) matrix,
+ * the product is refined by power iterations and orthonormalized into Q, and the small matrix Q'*A
+ * is decomposed exactly. The products with A are the bulk of the work and use the parallel
+ * Matrix.times. The approximation is close to the best rank k approximation when the singular
+ * values decay; more oversampling p or power iterations improve it when they decay slowly.
+ */
+public class TruncatedSingularValueDecomposition implements java.io.Serializable {
+
+ /*
+	 * ------------------------ Class variables ------------------------
+  */
+ /**
+  * Left and right singular vectors.
+  *
+  * @serial m-by-k left singular vectors.
+  * @serial n-by-k right singular vectors.
+  */
+ private final Matrix U, V;
+ /**
+  * Array for internal storage of singular values.
+  *
+  * @serial internal storage of singular values.
+  */
+ private final double[] s;
+
+ /*
+	 * ------------------------ Constructors ------------------------
+  */
+ /**
+  * Construct the truncated decomposition with 10 columns of oversampling and 2 power iterations.
+  *
+  * @param A Rectangular matrix
+  * @param k Number of singular values and vectors to compute, at most min(m,n).
+  */
+ public TruncatedSingularValueDecomposition(Matrix A, int k) {
+  this(A, k, 10, 2, new Random());
+ }
+
+ /**
+  * Construct the truncated decomposition.
+  *
+  * @param A Rectangular matrix
+  * @param k Number of singular values and vectors to compute, at most min(m,n).
+  * @param oversampling Extra random directions sampled beyond k.
+  * @param powerIterations Number of multiplications by A*A' that sharpen the sampled range.
+  * @param random Source of the random test matrix.
+  * @exception IllegalArgumentException k is out of range.
+  */
+ public TruncatedSingularValueDecomposition(Matrix A, int k, int oversampling,
+  int powerIterations, Random random) {
+  int m = A.getRowDimension();
+  int n = A.getColumnDimension();
+  if (k < 1 || k > Math.min(m, n)) {
+   throw new IllegalArgumentException("k must be between 1 and min(m,n).");
+  }
+  int l = Math.min(k + Math.max(oversampling, 0), Math.min(m, n));
+  Matrix omega = new Matrix(n, l);
+  for (int i = 0; i < omega.A.length; i++) {
+   omega.A[i] = random.nextGaussian();
+  }
+  Matrix At = A.transpose();
+  // Sample the range of A and orthonormalize after each product to keep the small singular
+  // directions from being lost to rounding.
+  Matrix Q = new QRDecomposition(A.times(omega), true).getQ();
+  for (int i = 0; i < powerIterations; i++) {
+   Matrix Z = new QRDecomposition(At.times(Q), true).getQ();
+   Q = new QRDecomposition(A.times(Z), true).getQ();
+  }
+  // B = Q'*A is l-by-n, decompose its transpose B' = A'*Q = Ub*S*Vb' so that A ~ (Q*Vb)*S*Ub'.
+  SingularValueDecomposition svd = new SingularValueDecomposition(At.times(Q));
+  s = new double[k];
+  System.arraycopy(svd.getSingularValues(), 0, s, 0, k);
+  U = Q.times(svd.getV().getMatrixView(0, l - 1, 0, k - 1));
+  V = svd.getU().getMatrix(0, n - 1, 0, k - 1);
+ }
+
+ /*
+	 * ------------------------ Public Methods ------------------------
+  */
+ /**
+  * Return the left singular vectors
+  *
+  * @return m-by-k U
+  */
+ public Matrix getU() {
+  return U.copy();
+ }
+
+ /**
+  * Return the right singular vectors
+  *
+  * @return n-by-k V
+  */
+ public Matrix getV() {
+  return V.copy();
+ }
+
+ /**
+  * Return the one-dimensional array of singular values
+  *
+  * @return the k largest singular values in decreasing order.
+  */
+ public double[] getSingularValues() {
+  return s;
+ }
+
+ /**
+  * Return the diagonal matrix of singular values
+  *
+  * @return k-by-k S
+  */
+ public Matrix getS() {
+  int k = s.length;
+  Matrix X = new Matrix(k, k);
+  for (int i = 0; i < k; i++) {
+   X.A[i * k + i] = s[i];
+  }
+  return X;
+ }
+
+ /**
+  * Rank k approximation of A
+  *
+  * @return U*S*V'
+  */
+ public Matrix approximation() {
+  Matrix US = U.copy();
+  int k = s.length;
+  for (int i = 0; i < US.m; i++) {
+   for (int j = 0; j < k; j++) {
+    US.A[i * k + j] *= s[j];
+   }
+  }
+  return US.times(V.transpose());
+ }
+ private static final long serialVersionUID = 1;
+}
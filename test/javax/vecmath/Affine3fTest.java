@@ -0,0 +1,169 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks Affine3f against the Matrix4f operations it replaces.
+ */
+public class Affine3fTest {
+
+ static final float EPSILON = 1e-5f;
+
+ static Matrix4f randomAffine(Random r) {
+  Matrix4f m = new Matrix4f();
+  for (int i = 0; i < 3; i++) {
+   for (int j = 0; j < 4; j++) {
+    m.setElement(i, j, r.nextFloat() * 2.0f - 1.0f);
+   }
+  }
+  m.m33 = 1.0f;
+  return m;
+ }
+
+ static Quat4f randomRotation(Random r) {
+  Quat4f q = new Quat4f(r.nextFloat() - 0.5f, r.nextFloat() - 0.5f, r.nextFloat() - 0.5f,
+   r.nextFloat() - 0.5f);
+  q.normalize();
+  return q;
+ }
+
+ static Matrix4f rigid(Random r, float s) {
+  Matrix4f m = new Matrix4f();
+  m.set(randomRotation(r), new Vector3f(r.nextFloat(), -r.nextFloat(), 2.0f), s);
+  return m;
+ }
+
+ @Test
+ public void mulMatchesMatrix4f() {
+  Random r = new Random(91);
+  for (int i = 0; i < 20; i++) {
+   Matrix4f a = randomAffine(r), b = randomAffine(r);
+   Matrix4f expected = new Matrix4f().mul(a, b);
+   assertEquals(expected, new Affine3f().mul(new Affine3f(a), new Affine3f(b))
+    .get(new Matrix4f()));
+   Affine3f<?> c = new Affine3f(a);
+   c.mul(new Affine3f(b));
+   assertEquals(expected, c.get(new Matrix4f()));
+  }
+ }
+
+ @Test
+ public void invertMatchesMatrix4f() {
+  Random r = new Random(92);
+  for (int i = 0; i < 20; i++) {
+   Matrix4f a = randomAffine(r);
+   Matrix4f expected = new Matrix4f().invert(a);
+   assertEquals(expected, new Affine3f().invert(new Affine3f(a)).get(new Matrix4f()));
+   assertEquals(expected, new Affine3f(a).invert().get(new Matrix4f()));
+   assertEquals(a.determinant(), new Affine3f(a).determinant(), EPSILON);
+  }
+ }
+
+ @Test
+ public void invertRigidMatchesMatrix4f() {
+  Random r = new Random(93);
+  for (float s : new float[]{1.0f, 0.5f, 3.0f}) {
+   Matrix4f a = rigid(r, s);
+   Matrix4f expected = new Matrix4f().invertRigid(a);
+   Matrix4f actual = new Affine3f().invertRigid(new Affine3f(a)).get(new Matrix4f());
+   assertTrue(actual.toString(), actual.epsilonEquals(expected, EPSILON));
+   assertTrue(new Affine3f(a).invertRigid().get(new Matrix4f()).epsilonEquals(
+    new Matrix4f().invert(a), EPSILON));
+  }
+ }
+
+ @Test
+ public void matrixConversions() {
+  Random r = new Random(94);
+  Matrix4f m = randomAffine(r);
+  Affine3f<?> a = new Affine3f(m);
+  assertEquals(m, a.get(new Matrix4f()));
+  Matrix3f rs = a.getRotationScale(new Matrix3f());
+  Vector3f t = a.get(new Vector3f());
+  Matrix3f expected = new Matrix3f();
+  m.getRotationScale(expected);
+  assertEquals(expected, rs);
+  assertEquals(new Vector3f(m.m03, m.m13, m.m23), t);
+  assertEquals(a, new Affine3f(rs, t));
+  // the bottom row is always (0,0,0,1)
+  Matrix4f bottom = new Matrix4f();
+  bottom.m30 = 5.0f;
+  a.get(bottom);
+  assertEquals(0.0f, bottom.m30, 0.0f);
+  assertEquals(1.0f, bottom.m33, 0.0f);
+ }
+
+ @Test
+ public void quaternionConversions() {
+  Random r = new Random(95);
+  // rotations near pi about each axis take each branch of the quaternion extraction
+  Quat4f[] rotations = {randomRotation(r), randomRotation(r), new Quat4f(1, 0, 0, 0.05f),
+   new Quat4f(0, 1, 0, 0.05f), new Quat4f(0, 0, 1, 0.05f), new Quat4f(0, 0, 0, 1)};
+  Vector3f t = new Vector3f(1.5f, -2.0f, 0.25f);
+  for (Quat4f q : rotations) {
+   q.normalize();
+   for (float s : new float[]{1.0f, 2.5f, 0.2f}) {
+    Affine3f<?> a = new Affine3f(q, t, s);
+    Matrix4f expected = new Matrix4f();
+    expected.set(q, t, s);
+    assertTrue(a.get(new Matrix4f()).epsilonEquals(expected, EPSILON));
+    Quat4f back = a.get(new Quat4f());
+    if (back.dot(q) < 0.0f) {
+     back.negate();
+    }
+    assertTrue(back.toString(), back.epsilonEquals(q, EPSILON));
+    assertEquals(t, a.get(new Vector3f()));
+   }
+  }
+  // an unnormalized quaternion gives the same rotation
+  Quat4f q = rotations[0];
+  Quat4f scaled = new Quat4f(q);
+  scaled.scale(3.0f);
+  assertTrue(new Affine3f(scaled, t).epsilonEquals(new Affine3f(q, t), EPSILON));
+ }
+
+ @Test
+ public void quaternionUnderNonUniformScale() {
+  Random r = new Random(96);
+  Quat4f q = randomRotation(r);
+  Matrix3f scale = new Matrix3f(2, 0, 0, 0, 0.5f, 0, 0, 0, 3);
+  Matrix3f rs = new Matrix3f();
+  rs.set(q);
+  rs.mul(scale);
+  Quat4f back = new Affine3f(rs, new Vector3f()).get(new Quat4f());
+  if (back.dot(q) < 0.0f) {
+   back.negate();
+  }
+  assertTrue(back.epsilonEquals(q, EPSILON));
+ }
+
+ @Test
+ public void packedTransforms() {
+  Random r = new Random(97);
+  Matrix4f m = randomAffine(r);
+  Affine3f<?> a = new Affine3f(m);
+  float[] src = new float[40];
+  for (int i = 0; i < src.length; i++) {
+   src[i] = r.nextFloat() * 10.0f - 5.0f;
+  }
+  float[] expected = src.clone(), actual = src.clone();
+  m.transform(src, 1, 4, expected, 2, 4, 9);
+  a.transform(src, 1, 4, actual, 2, 4, 9);
+  assertArrayEquals(expected, actual, 0.0f);
+  m.transform3x3(src, 0, 3, expected, 0, 3, 13);
+  a.transform3x3(src, 0, 3, actual, 0, 3, 13);
+  assertArrayEquals(expected, actual, 0.0f);
+  // in place
+  float[] inPlace = src.clone();
+  m.transform(src, 0, 3, expected, 0, 3, 13);
+  a.transform(inPlace, 0, 3, inPlace, 0, 3, 13);
+  assertArrayEquals(expected, inPlace, 0.0f);
+  Point3f p = new Point3f(1, 2, 3);
+  assertEquals(m.transform(new Point3f(p), new Point3f()), a.transform(p, new Point3f()));
+  Vector3f v = new Vector3f(1, 2, 3);
+  assertEquals(m.transform3x3(v, new Vector3f()), a.transform3x3(v, new Vector3f()));
+ }
+}
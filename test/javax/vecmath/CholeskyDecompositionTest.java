@@ -0,0 +1,79 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static javax.vecmath.LUDecompositionTest.random;
+import static javax.vecmath.LUDecompositionTest.residual;
+import static javax.vecmath.LUDecompositionTest.view;
+import static org.junit.Assert.*;
+
+/**
+ * Residual checks for CholeskyDecomposition.
+ */
+public class CholeskyDecompositionTest {
+
+ static final double TOLERANCE = 1e-10;
+
+ /**
+  * M'*M + I, symmetric positive definite.
+  */
+ static Matrix spd(Random r, int n) {
+  Matrix M = random(r, n, n);
+  return M.transpose().times(M).plus(Matrix.identity(n, n));
+ }
+
+ @Test
+ public void solve() {
+  Random r = new Random(21);
+  for (int n : new int[]{1, 4, 19, 50}) {
+   Matrix A = spd(r, n);
+   Matrix B = random(r, n, 3);
+   CholeskyDecomposition chol = new CholeskyDecomposition(A);
+   assertTrue(chol.isSPD());
+   Matrix X = chol.solve(B);
+   assertEquals(0.0, residual(A, X, B), TOLERANCE * n);
+  }
+ }
+
+ @Test
+ public void factor() {
+  Random r = new Random(22);
+  Matrix A = spd(r, 10);
+  Matrix L = new CholeskyDecomposition(A).getL();
+  assertEquals(0.0, residual(L, L.transpose(), A), TOLERANCE);
+ }
+
+ @Test
+ public void solveInPlaceOverwriteViews() {
+  Random r = new Random(23);
+  Matrix A = spd(r, 11);
+  Matrix B = random(r, 11, 2);
+  Matrix Bv = view(B, 5.0);
+  Matrix X = new CholeskyDecomposition(view(A, Double.NaN), true).solveInPlace(Bv);
+  assertSame(Bv, X);
+  assertEquals(0.0, residual(A, X, B), TOLERANCE);
+ }
+
+ @Test
+ public void inverseAndDet() {
+  Random r = new Random(24);
+  Matrix A = spd(r, 7);
+  CholeskyDecomposition chol = new CholeskyDecomposition(A);
+  assertEquals(0.0, residual(A, chol.inverse(), Matrix.identity(7, 7)), TOLERANCE);
+  double d = new LUDecomposition(A).det();
+  assertEquals(d, chol.det(), Math.abs(d) * 1e-12);
+ }
+
+ @Test
+ public void notSPD() {
+  Matrix A = new Matrix(new double[][]{{1, 2}, {2, 1}});
+  assertFalse(new CholeskyDecomposition(A).isSPD());
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void solveNotSPD() {
+  Matrix A = new Matrix(new double[][]{{1, 2}, {2, 1}});
+  new CholeskyDecomposition(A).solve(Matrix.identity(2, 2));
+ }
+}
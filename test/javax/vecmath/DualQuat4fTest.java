@@ -0,0 +1,166 @@
+package javax.vecmath;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks for DualQuat4f and DualQuat4fArray normalization and blending.
+ */
+public class DualQuat4fTest {
+
+ static final float EPSILON = 1e-5f;
+
+ static DualQuat4f bone(float ax, float ay, float az, float angle, float tx, float ty, float tz) {
+  Quat4f r = new Quat4f();
+  r.set(new AxisAngle4f(ax, ay, az, angle));
+  return new DualQuat4f(r, new Vector3f(tx, ty, tz));
+ }
+
+ /**
+  * Checks that d is a unit dual quaternion: |r| = 1, r.d = 0, which is d * conj(d) = 1.
+  */
+ static void assertUnit(DualQuat4f d) {
+  assertEquals(1.0f, d.real.dot(d.real), EPSILON);
+  assertEquals(0.0f, d.real.dot(d.dual), EPSILON);
+  DualQuat4f c = new DualQuat4f(d);
+  c.conjugate();
+  DualQuat4f p = new DualQuat4f();
+  p.mul(d, c);
+  assertTrue(p.toString(), p.epsilonEquals(new DualQuat4f(), EPSILON));
+ }
+
+ @Test
+ public void normalizeScaled() {
+  DualQuat4f d = bone(0, 0, 1, 1.1f, 3, -2, 5);
+  DualQuat4f s = new DualQuat4f(d);
+  s.real.scale(2.5f);
+  s.dual.scale(2.5f);
+  s.normalize();
+  assertUnit(s);
+  assertTrue(s.epsilonEquals(d, EPSILON));
+ }
+
+ @Test
+ public void normalizeRemovesDualComponentAlongReal() {
+  DualQuat4f d = bone(1, 0, 0, 0.4f, 1, 2, 3);
+  DualQuat4f s = new DualQuat4f(d);
+  s.real.scale(0.5f);
+  s.dual.scale(0.5f);
+  s.dual.scaleAdd(0.25f, s.real, s.dual);
+  s.normalize();
+  assertUnit(s);
+  assertTrue(s.epsilonEquals(d, EPSILON));
+ }
+
+ @Test
+ public void blend() {
+  DualQuat4f a = bone(0, 1, 0, 0.3f, 4, 0, 1);
+  DualQuat4f b = bone(1, 1, 0, 2.0f, -1, 6, 2);
+  DualQuat4f d = new DualQuat4f();
+  d.blend(a, 0.3f, b, 0.7f);
+  assertUnit(d);
+  // the blend of a transform with itself is that transform
+  d.blend(a, 0.25f, a, 0.75f);
+  assertTrue(d.epsilonEquals(a, EPSILON));
+ }
+
+ @Test
+ public void arrayBlend() {
+  DualQuat4f[] bones = {bone(0, 1, 0, 0.3f, 4, 0, 1), bone(1, 1, 0, 2.0f, -1, 6, 2),
+   bone(0, 0, 1, -2.5f, 0, 0, -3)};
+  DualQuat4fArray palette = new DualQuat4fArray(bones.length);
+  for (int i = 0; i < bones.length; i++) {
+   palette.set(i, bones[i]);
+  }
+  int[] indices = {0, 1, 2, 2, 1, 0, 1, 1, 1};
+  float[] weights = {0.2f, 0.5f, 0.3f, 0.6f, 0.4f, 0, 0.1f, 0.1f, 0.8f};
+  DualQuat4fArray blended = new DualQuat4fArray(3);
+  blended.blend(0, 3, palette, indices, weights, 3);
+  DualQuat4f d = new DualQuat4f();
+  for (int i = 0; i < 3; i++) {
+   assertUnit(blended.get(i, d));
+  }
+  // all weight on one bone gives that bone
+  assertTrue(blended.get(2, d).epsilonEquals(bones[1], EPSILON));
+  // two bones match the single blend
+  DualQuat4f e = new DualQuat4f();
+  e.blend(bones[2], 0.6f, bones[1], 0.4f);
+  assertTrue(blended.get(1, d).epsilonEquals(e, EPSILON));
+ }
+
+ @Test
+ public void arrayNormalize() {
+  DualQuat4f a = bone(0, 1, 1, 1.3f, 2, -4, 1);
+  float[] v = new float[8];
+  v[0] = a.real.x * 3;
+  v[1] = a.real.y * 3;
+  v[2] = a.real.z * 3;
+  v[3] = a.real.w * 3;
+  v[4] = a.dual.x * 3 + a.real.x;
+  v[5] = a.dual.y * 3 + a.real.y;
+  v[6] = a.dual.z * 3 + a.real.z;
+  v[7] = a.dual.w * 3 + a.real.w;
+  DualQuat4fArray array = new DualQuat4fArray(v);
+  array.normalize(0, 1);
+  DualQuat4f d = array.get(0, new DualQuat4f());
+  assertUnit(d);
+  assertTrue(d.epsilonEquals(a, EPSILON));
+ }
+
+ @Test
+ public void transformUnnormalized() {
+  DualQuat4f<?> a = bone(1, 2, 3, 0.8f, 1, 2, 3);
+  DualQuat4f<?> s = new DualQuat4f<>(a);
+  s.real.scale(1.7f);
+  s.dual.scale(1.7f);
+  Point3f p = new Point3f(0.5f, -1, 2);
+  Point3f expected = a.transform(p, new Point3f());
+  assertTrue(expected.epsilonEquals(s.transform(p, new Point3f()), EPSILON));
+ }
+
+ @Test
+ public void matrixConversions() {
+  // rotations near pi about each axis take each branch of the quaternion extraction
+  DualQuat4f[] bones = {bone(1, 0, 0, 3.0f, 1, 2, 3), bone(0, 1, 0, 3.0f, -4, 0, 2),
+   bone(0, 0, 1, 3.0f, 0, 5, -1), bone(1, 2, 3, 0.5f, 2, 2, 2), bone(1, 1, 1, 0, 0, 0, 0)};
+  Matrix4fArray matrices = new Matrix4fArray(bones.length);
+  Matrix4f m = new Matrix4f();
+  Affine3f a = new Affine3f();
+  DualQuat4f d = new DualQuat4f();
+  for (int i = 0; i < bones.length; i++) {
+   DualQuat4f b = bones[i];
+   b.get(m);
+   assertEquals(0.0f, m.m30, 0.0f);
+   assertEquals(0.0f, m.m31, 0.0f);
+   assertEquals(0.0f, m.m32, 0.0f);
+   assertEquals(1.0f, m.m33, 0.0f);
+   Affine3f expected = new Affine3f(b.real, b.getTranslation(new Vector3f()));
+   assertTrue(new Matrix4f().set(expected).epsilonEquals(m, EPSILON));
+   b.get(a);
+   assertTrue(new Matrix4f().set(a).epsilonEquals(m, EPSILON));
+   assertTrue(d.set(m).epsilonEquals(b, EPSILON));
+   assertTrue(d.set(a).epsilonEquals(b, EPSILON));
+   matrices.set(i, m);
+  }
+  DualQuat4fArray array = new DualQuat4fArray(bones.length);
+  array.set(0, bones.length, matrices);
+  for (int i = 0; i < bones.length; i++) {
+   assertTrue(array.get(i, d).epsilonEquals(bones[i], EPSILON));
+  }
+ }
+
+ @Test
+ public void getUnnormalized() {
+  DualQuat4f<?> b = bone(0, 1, 1, 2.2f, 3, -1, 4);
+  DualQuat4f<?> s = new DualQuat4f<>(b);
+  s.real.scale(0.4f);
+  s.dual.scale(0.4f);
+  assertTrue(s.get(new Matrix4f()).epsilonEquals(b.get(new Matrix4f()), EPSILON));
+ }
+
+ @Test(expected = IndexOutOfBoundsException.class)
+ public void overflowingRange() {
+  new DualQuat4fArray(4).checkRange(1, Integer.MAX_VALUE);
+ }
+}
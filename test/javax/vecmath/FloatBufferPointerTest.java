@@ -0,0 +1,120 @@
+package javax.vecmath;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks FloatBufferPointer and IntBufferPointer copies between overlapping ranges.
+ */
+public class FloatBufferPointerTest {
+
+ static final int SIZE = 16;
+
+ static float[] values() {
+  float[] v = new float[SIZE];
+  for (int i = 0; i < SIZE; i++) {
+   v[i] = i + 1;
+  }
+  return v;
+ }
+
+ /**
+  * The array after copying length values from index s to index d through a temporary.
+  */
+ static float[] expected(int s, int d, int length) {
+  float[] v = values();
+  System.arraycopy(v.clone(), s, v, d, length);
+  return v;
+ }
+
+ static float[] contents(FloatBuffer b) {
+  float[] v = new float[b.capacity()];
+  for (int i = 0; i < v.length; i++) {
+   v[i] = b.get(i);
+  }
+  return v;
+ }
+
+ static FloatBuffer direct(ByteOrder order) {
+  FloatBuffer b = ByteBuffer.allocateDirect(SIZE * 4).order(order).asFloatBuffer();
+  b.put(values());
+  // through Buffer, the covariant overrides do not exist before Java 9
+  ((Buffer) b).clear();
+  return b;
+ }
+
+ @Test
+ public void derivedPointers() {
+  FloatBuffer[] buffers = {FloatBuffer.wrap(values()), direct(ByteOrder.nativeOrder()),
+   direct(ByteOrder.BIG_ENDIAN), direct(ByteOrder.LITTLE_ENDIAN)};
+  int[][] copies = {{2, 5, 8}, {5, 2, 8}, {3, 3, 6}, {0, 8, 8}};
+  for (int[] c : copies) {
+   for (FloatBuffer b : buffers) {
+    ((Buffer) b).clear();
+    b.put(values());
+    ((Buffer) b).clear();
+    FloatBufferPointer base = new FloatBufferPointer(b);
+    new FloatBufferPointer(base, c[1]).copy(new FloatBufferPointer(base, c[0]), c[2]);
+    assertArrayEquals(expected(c[0], c[1], c[2]), contents(b), 0.0f);
+   }
+  }
+ }
+
+ @Test
+ public void slicesOfOneArray() {
+  // pointers made from different slices and duplicates share only the backing array
+  int[][] copies = {{2, 5, 8}, {5, 2, 8}};
+  for (int[] c : copies) {
+   float[] array = values();
+   FloatBuffer whole = FloatBuffer.wrap(array);
+   ((Buffer) whole).position(1);
+   FloatBuffer slice = whole.slice();
+   FloatBufferPointer dst = new FloatBufferPointer(slice, c[1] - 1);
+   FloatBufferPointer src = new FloatBufferPointer(whole.duplicate(), c[0] - 1);
+   dst.copy(src, c[2]);
+   assertArrayEquals(expected(c[0], c[1], c[2]), array, 0.0f);
+  }
+ }
+
+ @Test
+ public void slicesOfDirectBuffer() {
+  int[][] copies = {{2, 5, 8}, {5, 2, 8}};
+  for (int[] c : copies) {
+   FloatBuffer b = direct(ByteOrder.nativeOrder());
+   FloatBufferPointer dst = new FloatBufferPointer(b, c[1]);
+   FloatBufferPointer src = new FloatBufferPointer(b.duplicate(), c[0]);
+   dst.copy(src, c[2]);
+   assertArrayEquals(expected(c[0], c[1], c[2]), contents(b), 0.0f);
+  }
+ }
+
+ @Test
+ public void separateBuffers() {
+  FloatBuffer a = FloatBuffer.wrap(values());
+  FloatBuffer b = direct(ByteOrder.BIG_ENDIAN);
+  new FloatBufferPointer(b, 4).copy(new FloatBufferPointer(a, 0), 8);
+  float[] v = values();
+  System.arraycopy(values(), 0, v, 4, 8);
+  assertArrayEquals(v, contents(b), 0.0f);
+ }
+
+ @Test
+ public void intSlicesOfOneArray() {
+  int[] array = new int[SIZE];
+  for (int i = 0; i < SIZE; i++) {
+   array[i] = i + 1;
+  }
+  int[] expected = array.clone();
+  System.arraycopy(array.clone(), 2, expected, 5, 8);
+  IntBuffer whole = IntBuffer.wrap(array);
+  ((Buffer) whole).position(3);
+  new IntBufferPointer(whole.slice(), 2).copy(new IntBufferPointer(IntBuffer.wrap(array), 2), 8);
+  assertArrayEquals(expected, array);
+ }
+}
@@ -0,0 +1,139 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Residual checks for LUDecomposition, including factoring in place and views of larger matrices.
+ */
+public class LUDecompositionTest {
+
+ static final double TOLERANCE = 1e-10;
+
+ /**
+  * A well conditioned random matrix whose rows still need pivoting.
+  */
+ static Matrix random(Random r, int m, int n) {
+  Matrix A = new Matrix(m, n);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < n; j++) {
+    A.set(i, j, r.nextDouble() * 2.0 - 1.0);
+   }
+  }
+  for (int i = 0; i < Math.min(m, n); i++) {
+   A.set(i, i, A.get(i, i) + 0.5 * n);
+  }
+  return A;
+ }
+
+ /**
+  * max|A*X - B|
+  */
+ static double residual(Matrix A, Matrix X, Matrix B) {
+  Matrix R = A.times(X).minus(B);
+  double max = 0.0;
+  for (int i = 0; i < R.getRowDimension(); i++) {
+   for (int j = 0; j < R.getColumnDimension(); j++) {
+    max = Math.max(max, Math.abs(R.get(i, j)));
+   }
+  }
+  return max;
+ }
+
+ /**
+  * A view of A embedded in a larger matrix filled with a sentinel.
+  */
+ static Matrix view(Matrix A, double fill) {
+  int m = A.getRowDimension(), n = A.getColumnDimension();
+  Matrix big = new Matrix(m + 3, n + 2, fill);
+  Matrix v = big.getMatrixView(2, m + 1, 1, n);
+  v.setMatrix(0, m - 1, 0, n - 1, A);
+  return v;
+ }
+
+ @Test
+ public void solveSquare() {
+  Random r = new Random(1);
+  for (int n : new int[]{1, 2, 5, 17, 40}) {
+   Matrix A = random(r, n, n);
+   Matrix B = random(r, n, 3);
+   Matrix X = new LUDecomposition(A).solve(B);
+   assertEquals(0.0, residual(A, X, B), TOLERANCE);
+  }
+ }
+
+ @Test
+ public void solveInPlaceOverwrite() {
+  Random r = new Random(2);
+  Matrix A = random(r, 12, 12);
+  Matrix B = random(r, 12, 4);
+  Matrix work = A.copy();
+  Matrix X = B.copy();
+  Matrix result = new LUDecomposition(work, true).solveInPlace(X);
+  assertSame(X, result);
+  assertEquals(0.0, residual(A, X, B), TOLERANCE);
+ }
+
+ @Test
+ public void solveViews() {
+  Random r = new Random(3);
+  Matrix A = random(r, 9, 9);
+  Matrix B = random(r, 9, 2);
+  Matrix Av = view(A, Double.NaN);
+  Matrix Bv = view(B, -7.0);
+  Matrix X = new LUDecomposition(Av, true).solveInPlace(Bv);
+  assertEquals(0.0, residual(A, X, B), TOLERANCE);
+  // the fill around the right hand side view is untouched
+  Matrix big = new Matrix(Bv.A, 0, Bv.ld, 12, 4);
+  assertEquals(-7.0, big.get(0, 0), 0.0);
+  assertEquals(-7.0, big.get(11, 3), 0.0);
+  assertEquals(-7.0, big.get(5, 0), 0.0);
+  assertEquals(-7.0, big.get(5, 3), 0.0);
+ }
+
+ @Test
+ public void permuteRowsCycles() {
+  // P maps rows through the cycles (0 2 4) and (1 3), row 5 stays in place
+  int[] p = {2, 3, 4, 1, 0, 5};
+  int n = p.length;
+  Matrix A = new Matrix(n, n);
+  for (int i = 0; i < n; i++) {
+   A.set(i, p[i], 1.0);
+  }
+  Matrix B = new Matrix(n, 2);
+  for (int i = 0; i < n; i++) {
+   B.set(i, 0, i);
+   B.set(i, 1, -10.0 * i);
+  }
+  LUDecomposition lu = new LUDecomposition(A);
+  Matrix X = lu.solve(B);
+  for (int i = 0; i < n; i++) {
+   assertEquals(i, X.get(p[i], 0), 0.0);
+   assertEquals(-10.0 * i, X.get(p[i], 1), 0.0);
+  }
+  assertEquals(-1.0, lu.det(), 0.0);
+ }
+
+ @Test
+ public void inverseAndDet() {
+  Random r = new Random(4);
+  Matrix A = random(r, 8, 8);
+  LUDecomposition lu = new LUDecomposition(A);
+  Matrix Ai = lu.inverse();
+  assertEquals(0.0, residual(A, Ai, Matrix.identity(8, 8)), TOLERANCE);
+  double[] s = A.svd().getSingularValues();
+  double d = 1.0;
+  for (double v : s) {
+   d *= v;
+  }
+  assertEquals(d, Math.abs(lu.det()), Math.abs(d) * 1e-12);
+ }
+
+ @Test(expected = SingularMatrixException.class)
+ public void singular() {
+  Matrix A = new Matrix(new double[][]{{1, 2}, {2, 4}});
+  new LUDecomposition(A).solve(Matrix.identity(2, 2));
+ }
+}
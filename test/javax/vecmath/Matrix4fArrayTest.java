@@ -0,0 +1,247 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the Matrix4fArray products against the Matrix4f methods, including results written over
+ * an operand.
+ */
+public class Matrix4fArrayTest {
+
+ static final int SIZE = 7;
+
+ static Matrix4f random(Random r) {
+  Matrix4f m = new Matrix4f();
+  for (int i = 0; i < 4; i++) {
+   for (int j = 0; j < 4; j++) {
+    m.setElement(i, j, r.nextFloat() * 2.0f - 1.0f);
+   }
+  }
+  return m;
+ }
+
+ static Matrix4fArray random(Random r, Matrix4f[] matrices) {
+  Matrix4fArray array = new Matrix4fArray(matrices.length);
+  for (int i = 0; i < matrices.length; i++) {
+   matrices[i] = random(r);
+   array.set(i, matrices[i]);
+  }
+  return array;
+ }
+
+ static void assertMatrices(Matrix4f[] expected, Matrix4fArray actual, int index, int length) {
+  Matrix4f m = new Matrix4f();
+  for (int i = index; i < index + length; i++) {
+   assertEquals(expected[i], actual.get(i, m));
+  }
+ }
+
+ @Test
+ public void products() {
+  Random r = new Random(81);
+  Matrix4f[] a = new Matrix4f[SIZE], b = new Matrix4f[SIZE], expected = new Matrix4f[SIZE];
+  Matrix4fArray as = random(r, a), bs = random(r, b);
+  Matrix4f single = random(r);
+  Matrix4fArray dst = new Matrix4fArray(SIZE);
+  for (int i = 0; i < SIZE; i++) {
+   expected[i] = new Matrix4f().mul(a[i], b[i]);
+  }
+  assertMatrices(expected, dst.mul(1, 5, as, bs), 1, 5);
+  for (int i = 0; i < SIZE; i++) {
+   expected[i] = new Matrix4f().mul(single, b[i]);
+  }
+  assertMatrices(expected, dst.mul(1, 5, single, bs), 1, 5);
+  for (int i = 0; i < SIZE; i++) {
+   expected[i] = new Matrix4f().mulTransposeLeft(a[i], b[i]);
+  }
+  assertMatrices(expected, dst.mulTransposeLeft(0, SIZE, as, bs), 0, SIZE);
+  for (int i = 0; i < SIZE; i++) {
+   expected[i] = new Matrix4f().mulTransposeRight(a[i], b[i]);
+  }
+  assertMatrices(expected, dst.mulTransposeRight(0, SIZE, as, bs), 0, SIZE);
+ }
+
+ @Test
+ public void productsInPlace() {
+  Random r = new Random(82);
+  Matrix4f[] a = new Matrix4f[SIZE], b = new Matrix4f[SIZE], expected = new Matrix4f[SIZE];
+  Matrix4fArray as = random(r, a), bs = random(r, b);
+  Matrix4f single = random(r);
+  for (int i = 0; i < SIZE; i++) {
+   expected[i] = new Matrix4f().mul(single, b[i]);
+  }
+  Matrix4fArray t = new Matrix4fArray(SIZE).set(0, SIZE, bs);
+  assertMatrices(expected, t.mul(0, SIZE, single, t), 0, SIZE);
+  for (int i = 0; i < SIZE; i++) {
+   expected[i] = new Matrix4f().mulTransposeLeft(a[i], b[i]);
+  }
+  t = new Matrix4fArray(SIZE).set(0, SIZE, as);
+  assertMatrices(expected, t.mulTransposeLeft(0, SIZE, t, bs), 0, SIZE);
+  t = new Matrix4fArray(SIZE).set(0, SIZE, bs);
+  assertMatrices(expected, t.mulTransposeLeft(0, SIZE, as, t), 0, SIZE);
+  for (int i = 0; i < SIZE; i++) {
+   expected[i] = new Matrix4f().mulTransposeRight(a[i], b[i]);
+  }
+  t = new Matrix4fArray(SIZE).set(0, SIZE, as);
+  assertMatrices(expected, t.mulTransposeRight(0, SIZE, t, bs), 0, SIZE);
+  t = new Matrix4fArray(SIZE).set(0, SIZE, bs);
+  assertMatrices(expected, t.mulTransposeRight(0, SIZE, as, t), 0, SIZE);
+ }
+
+ @Test
+ public void invert() {
+  Random r = new Random(83);
+  Matrix4f[] a = new Matrix4f[SIZE], expected = new Matrix4f[SIZE];
+  Matrix4fArray as = random(r, a);
+  // affine matrices take the cheaper routine, as in Matrix4f.invert
+  for (int i = 0; i < SIZE; i += 2) {
+   a[i].m30 = a[i].m31 = a[i].m32 = 0.0f;
+   a[i].m33 = 1.0f;
+   as.set(i, a[i]);
+  }
+  for (int i = 0; i < SIZE; i++) {
+   expected[i] = new Matrix4f().invert(a[i]);
+  }
+  assertMatrices(expected, new Matrix4fArray(SIZE).invert(0, SIZE, as), 0, SIZE);
+  assertMatrices(expected, as.invert(0, SIZE), 0, SIZE);
+ }
+
+ @Test(expected = IndexOutOfBoundsException.class)
+ public void overflowingRange() {
+  new Matrix4fArray(4).checkRange(1, Integer.MAX_VALUE);
+ }
+
+ /**
+  * Random bind pose data and a palette of rigid bones with uniform scale.
+  */
+ static final class Mesh {
+
+  final Matrix4fArray bones;
+  final Matrix4f[] boneMatrices;
+  final float[] positions, normals, weights;
+  final int[] indices;
+  final int influences = 4;
+
+  Mesh(Random r, int vertices) {
+   boneMatrices = new Matrix4f[12];
+   bones = new Matrix4fArray(boneMatrices.length);
+   for (int i = 0; i < boneMatrices.length; i++) {
+    Quat4f q = new Quat4f(r.nextFloat() - 0.5f, r.nextFloat() - 0.5f, r.nextFloat() - 0.5f,
+     r.nextFloat() - 0.5f);
+    q.normalize();
+    boneMatrices[i] = new Matrix4f();
+    boneMatrices[i].set(q, new Vector3f(r.nextFloat(), r.nextFloat(), r.nextFloat()),
+     0.5f + r.nextFloat());
+    bones.set(i, boneMatrices[i]);
+   }
+   positions = new float[vertices * 3];
+   normals = new float[vertices * 3];
+   for (int i = 0; i < positions.length; i++) {
+    positions[i] = r.nextFloat() * 4.0f - 2.0f;
+    normals[i] = r.nextFloat() * 2.0f - 1.0f;
+   }
+   indices = new int[vertices * influences];
+   weights = new float[vertices * influences];
+   for (int v = 0; v < vertices; v++) {
+    float sum = 0.0f;
+    for (int k = 0; k < influences; k++) {
+     int i = v * influences + k;
+     indices[i] = r.nextInt(boneMatrices.length);
+     // some influences are unused
+     weights[i] = k > 0 && r.nextInt(3) == 0 ? 0.0f : r.nextFloat();
+     sum += weights[i];
+    }
+    for (int k = 0; k < influences; k++) {
+     weights[v * influences + k] /= sum;
+    }
+   }
+  }
+ }
+
+ @Test
+ public void skinMatchesMatrix4f() {
+  Random r = new Random(71);
+  Mesh mesh = new Mesh(r, 50);
+  float[] positions = new float[mesh.positions.length];
+  float[] normals = new float[mesh.normals.length];
+  mesh.bones.skin(mesh.positions, mesh.normals, mesh.indices, mesh.weights, mesh.influences, 0,
+   50, positions, normals);
+  for (int v = 0; v < 50; v++) {
+   Matrix4f sum = new Matrix4f();
+   for (int k = 0; k < mesh.influences; k++) {
+    Matrix4f bone = new Matrix4f(mesh.boneMatrices[mesh.indices[v * mesh.influences + k]]);
+    bone.mul(mesh.weights[v * mesh.influences + k]);
+    sum.add(bone);
+   }
+   Point3f p = new Point3f(mesh.positions[v * 3], mesh.positions[v * 3 + 1],
+    mesh.positions[v * 3 + 2]);
+   sum.transform(p);
+   assertTrue(p.epsilonEquals(new Point3f(positions[v * 3], positions[v * 3 + 1],
+    positions[v * 3 + 2]), 1e-5f));
+   Vector3f n = new Vector3f(mesh.normals[v * 3], mesh.normals[v * 3 + 1],
+    mesh.normals[v * 3 + 2]);
+   sum.transform3x3(n);
+   n.normalize();
+   Vector3f actual = new Vector3f(normals[v * 3], normals[v * 3 + 1], normals[v * 3 + 2]);
+   assertTrue(actual.epsilonEquals(n, 1e-5f));
+   assertEquals(1.0f, actual.length(), 1e-5f);
+  }
+ }
+
+ @Test
+ public void skinParallelMatchesSerial() {
+  Random r = new Random(72);
+  int vertices = 10000;
+  Mesh mesh = new Mesh(r, vertices);
+  // skinned in one call, above the parallel threshold and not a whole number of chunks
+  float[] positions = new float[mesh.positions.length];
+  float[] normals = new float[mesh.normals.length];
+  mesh.bones.skin(mesh.positions, mesh.normals, mesh.indices, mesh.weights, mesh.influences, 7,
+   vertices - 9, positions, normals);
+  // skinned in calls small enough to run serially
+  float[] serialPositions = new float[mesh.positions.length];
+  float[] serialNormals = new float[mesh.normals.length];
+  for (int first = 7; first < vertices - 2; first += 500) {
+   mesh.bones.skin(mesh.positions, mesh.normals, mesh.indices, mesh.weights, mesh.influences,
+    first, Math.min(500, vertices - 2 - first), serialPositions, serialNormals);
+  }
+  assertArrayEquals(serialPositions, positions, 0.0f);
+  assertArrayEquals(serialNormals, normals, 0.0f);
+  // vertices outside the range are not written
+  for (int i = 0; i < 21; i++) {
+   assertEquals(0.0f, positions[i], 0.0f);
+  }
+  for (int i = positions.length - 6; i < positions.length; i++) {
+   assertEquals(0.0f, positions[i], 0.0f);
+  }
+  // in place, positions only
+  float[] inPlace = mesh.positions.clone();
+  mesh.bones.skin(inPlace, null, mesh.indices, mesh.weights, mesh.influences, 7, vertices - 9,
+   inPlace, null);
+  assertArrayEquals(java.util.Arrays.copyOfRange(positions, 21, positions.length - 6),
+   java.util.Arrays.copyOfRange(inPlace, 21, inPlace.length - 6), 0.0f);
+ }
+
+ @Test
+ public void skinZeroWeights() {
+  Matrix4fArray bones = new Matrix4fArray(1).setIdentity(0, 1);
+  // the unused influence has an index outside the palette
+  float[] positions = {1, 2, 3, 4, 5, 6};
+  float[] normals = {0, 0, 2, 0, 0, 0};
+  float[] skinned = new float[6], skinnedNormals = new float[6];
+  bones.skin(positions, normals, new int[]{0, 99, 0, 99}, new float[]{1, 0, 1, 0}, 2, 0, 2,
+   skinned, skinnedNormals);
+  assertArrayEquals(positions, skinned, 0.0f);
+  // a normal of length zero stays zero instead of becoming NaN
+  assertArrayEquals(new float[]{0, 0, 1, 0, 0, 0}, skinnedNormals, 0.0f);
+ }
+
+ @Test(expected = IndexOutOfBoundsException.class)
+ public void skinNegativeRange() {
+  new Matrix4fArray(1).skin(new float[3], null, new int[1], new float[1], 1, 0, -1,
+   new float[3], null);
+ }
+}
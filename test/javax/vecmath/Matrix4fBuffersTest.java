@@ -0,0 +1,100 @@
+package javax.vecmath;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that heap and direct buffers transform and bounds check the same way.
+ */
+public class Matrix4fBuffersTest {
+
+ static final Matrix4f M = new Matrix4f(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 0.5f, 0.25f, 2, 1);
+
+ static FloatBuffer direct(float[] values) {
+  FloatBuffer b = ByteBuffer.allocateDirect(values.length * 4).order(ByteOrder.nativeOrder())
+   .asFloatBuffer();
+  b.put(values);
+  // through Buffer, the covariant overrides do not exist before Java 9
+  ((Buffer) b).clear();
+  return b;
+ }
+
+ static float[] values(int n) {
+  float[] v = new float[n];
+  for (int i = 0; i < n; i++) {
+   v[i] = i * 0.5f - 3;
+  }
+  return v;
+ }
+
+ static float[] contents(FloatBuffer b) {
+  float[] v = new float[b.capacity()];
+  for (int i = 0; i < v.length; i++) {
+   v[i] = b.get(i);
+  }
+  return v;
+ }
+
+ @Test
+ public void heapMatchesDirect() {
+  FloatBuffer heap = FloatBuffer.wrap(values(20)), direct = direct(values(20));
+  Matrix4fBuffers.transform(M, heap, 1, 5, 3);
+  Matrix4fBuffers.transform(M, direct, 1, 5, 3);
+  assertArrayEquals(contents(direct), contents(heap), 0.0f);
+  Matrix4fBuffers.transform3x3(M, heap, 2, 6, 3);
+  Matrix4fBuffers.transform3x3(M, direct, 2, 6, 3);
+  assertArrayEquals(contents(direct), contents(heap), 0.0f);
+  Matrix4fBuffers.transform4(M, heap, 0, 5, 4);
+  Matrix4fBuffers.transform4(M, direct, 0, 5, 4);
+  assertArrayEquals(contents(direct), contents(heap), 0.0f);
+ }
+
+ @Test
+ public void heapRespectsLimit() {
+  FloatBuffer[] buffers = {FloatBuffer.wrap(values(20)), direct(values(20))};
+  for (FloatBuffer b : buffers) {
+   ((Buffer) b).limit(12);
+   // the last point ends exactly at the limit
+   Matrix4fBuffers.transform(M, b, 3, 3, 3);
+   Matrix4fBuffers.transform4(M, b, 0, 4, 3);
+   try {
+    Matrix4fBuffers.transform(M, b, 3, 3, 4);
+    fail();
+   } catch (IndexOutOfBoundsException e) {
+   }
+   try {
+    Matrix4fBuffers.transform3x3(M, b, 10, 3, 1);
+    fail();
+   } catch (IndexOutOfBoundsException e) {
+   }
+   try {
+    Matrix4fBuffers.transform4(M, b, 1, 4, 3);
+    fail();
+   } catch (IndexOutOfBoundsException e) {
+   }
+  }
+ }
+
+ @Test
+ public void sliceOffset() {
+  float[] v = values(20);
+  FloatBuffer heap = FloatBuffer.wrap(v.clone(), 4, 16).slice();
+  FloatBuffer direct = direct(v);
+  ((Buffer) direct).position(4);
+  direct = direct.slice();
+  Matrix4fBuffers.transform(M, heap, 0, 4, 4);
+  Matrix4fBuffers.transform(M, direct, 0, 4, 4);
+  assertArrayEquals(contents(direct), contents(heap), 0.0f);
+  ((Buffer) heap).limit(8);
+  try {
+   Matrix4fBuffers.transform(M, heap, 4, 3, 2);
+   fail();
+  } catch (IndexOutOfBoundsException e) {
+  }
+ }
+}
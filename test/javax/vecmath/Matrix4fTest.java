@@ -0,0 +1,102 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the Matrix4f general, affine and rigid inverses.
+ */
+public class Matrix4fTest {
+
+ static final float EPSILON = 1e-4f;
+
+ static Matrix4f<?> random(Random r, boolean affine) {
+  Matrix4f<?> m = new Matrix4f();
+  for (int i = 0; i < 4; i++) {
+   for (int j = 0; j < 4; j++) {
+    m.setElement(i, j, r.nextFloat() * 2.0f - 1.0f);
+   }
+  }
+  if (affine) {
+   m.m30 = 0.0f;
+   m.m31 = 0.0f;
+   m.m32 = 0.0f;
+   m.m33 = 1.0f;
+  }
+  return m;
+ }
+
+ static void assertIdentity(Matrix4f<?> m) {
+  Matrix4f<?> identity = new Matrix4f();
+  identity.setIdentity();
+  assertTrue(m.toString(), m.epsilonEquals(identity, EPSILON));
+ }
+
+ static void assertInverse(Matrix4f<?> m, Matrix4f<?> inverse) {
+  assertIdentity(new Matrix4f().mul(m, inverse));
+  assertIdentity(new Matrix4f().mul(inverse, m));
+ }
+
+ @Test
+ public void invertGeneral() {
+  Random r = new Random(51);
+  for (int i = 0; i < 50; i++) {
+   Matrix4f<?> m = random(r, false);
+   assertInverse(m, new Matrix4f().invert(m));
+   Matrix4f<?> inPlace = new Matrix4f(m);
+   assertEquals(new Matrix4f().invert(m), inPlace.invert());
+  }
+ }
+
+ @Test
+ public void invertAffine() {
+  Random r = new Random(52);
+  for (int i = 0; i < 50; i++) {
+   Matrix4f<?> m = random(r, true);
+   Matrix4f<?> inverse = new Matrix4f().invertAffine(m);
+   assertInverse(m, inverse);
+   assertEquals(inverse, new Matrix4f(m).invertAffine());
+   // the bottom row is taken to be (0,0,0,1) whatever its contents
+   Matrix4f<?> projective = new Matrix4f(m);
+   projective.m30 = 5.0f;
+   projective.m33 = 2.0f;
+   assertEquals(inverse, new Matrix4f().invertAffine(projective));
+  }
+ }
+
+ @Test
+ public void invertTakesAffinePath() {
+  Random r = new Random(53);
+  for (int i = 0; i < 50; i++) {
+   Matrix4f<?> affine = random(r, true);
+   assertEquals(new Matrix4f().invertAffine(affine), new Matrix4f().invert(affine));
+   // a bottom row that is not (0,0,0,1) still gets the general inverse
+   Matrix4f<?> nearly = new Matrix4f(affine);
+   nearly.m33 = 1.5f;
+   assertInverse(nearly, new Matrix4f().invert(nearly));
+   nearly.m33 = 1.0f;
+   nearly.m32 = 0.25f;
+   assertInverse(nearly, new Matrix4f().invert(nearly));
+  }
+ }
+
+ @Test
+ public void invertRigid() {
+  Random r = new Random(54);
+  for (float s : new float[]{1.0f, 0.5f, 4.0f}) {
+   for (int i = 0; i < 20; i++) {
+    Quat4f<?> q = new Quat4f(r.nextFloat() - 0.5f, r.nextFloat() - 0.5f, r.nextFloat() - 0.5f,
+     r.nextFloat() - 0.5f);
+    q.normalize();
+    Matrix4f<?> m = new Matrix4f();
+    m.set(q, new Vector3f(r.nextFloat() * 4.0f, -r.nextFloat(), 1.0f), s);
+    Matrix4f<?> inverse = new Matrix4f().invertRigid(m);
+    assertInverse(m, inverse);
+    assertTrue(inverse.epsilonEquals(new Matrix4f().invert(m), EPSILON));
+    assertEquals(inverse, new Matrix4f(m).invertRigid());
+   }
+  }
+ }
+}
@@ -0,0 +1,168 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks for the float MatrixF, its conversions and SingularValueDecompositionF.
+ */
+public class MatrixFTest {
+
+ static MatrixF random(Random r, int m, int n) {
+  MatrixF A = new MatrixF(m, n);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < n; j++) {
+    A.set(i, j, r.nextFloat() * 2.0f - 1.0f);
+   }
+  }
+  return A;
+ }
+
+ static Matrix toDouble(MatrixF A) {
+  Matrix X = new Matrix(A.getRowDimension(), A.getColumnDimension());
+  for (int i = 0; i < A.getRowDimension(); i++) {
+   for (int j = 0; j < A.getColumnDimension(); j++) {
+    X.set(i, j, A.get(i, j));
+   }
+  }
+  return X;
+ }
+
+ /**
+  * max|A*B - C|
+  */
+ static float residual(MatrixF A, MatrixF B, MatrixF C) {
+  MatrixF R = A.times(B).minus(C);
+  float max = 0.0f;
+  for (int i = 0; i < R.getRowDimension(); i++) {
+   for (int j = 0; j < R.getColumnDimension(); j++) {
+    max = Math.max(max, Math.abs(R.get(i, j)));
+   }
+  }
+  return max;
+ }
+
+ /**
+  * A*B by the textbook triple loop, summing each element in float in increasing k.
+  */
+ static MatrixF naiveTimes(MatrixF A, MatrixF B) {
+  int m = A.getRowDimension(), n = A.getColumnDimension(), p = B.getColumnDimension();
+  MatrixF C = new MatrixF(m, p);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < p; j++) {
+    float s = 0.0f;
+    for (int k = 0; k < n; k++) {
+     s += A.get(i, k) * B.get(k, j);
+    }
+    C.set(i, j, s);
+   }
+  }
+  return C;
+ }
+
+ @Test
+ public void timesMatchesNaive() {
+  Random r = new Random(71);
+  // the second pair takes the blocked parallel path
+  int[][] sizes = {{7, 5, 9}, {97, 150, 301}};
+  for (int[] s : sizes) {
+   MatrixF A = random(r, s[0], s[1]);
+   MatrixF B = random(r, s[1], s[2]);
+   assertArrayEquals(naiveTimes(A, B).getRowPackedCopy(), A.times(B).getRowPackedCopy(), 0.0f);
+  }
+ }
+
+ @Test
+ public void views() {
+  Random r = new Random(72);
+  MatrixF big = random(r, 12, 10);
+  MatrixF v = big.getMatrixView(2, 8, 3, 7);
+  assertEquals(7, v.getRowDimension());
+  assertEquals(5, v.getColumnDimension());
+  assertEquals(big.get(4, 6), v.get(2, 3), 0.0f);
+  v.set(0, 0, 42.0f);
+  assertEquals(42.0f, big.get(2, 3), 0.0f);
+  MatrixF B = random(r, 5, 4);
+  assertArrayEquals(naiveTimes(v, B).getRowPackedCopy(), v.times(B).getRowPackedCopy(), 0.0f);
+  assertArrayEquals(big.getMatrix(2, 8, 3, 7).getRowPackedCopy(), v.getRowPackedCopy(), 0.0f);
+ }
+
+ @Test
+ public void conversions() {
+  Matrix4f m4 = new Matrix4f(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16);
+  MatrixF A = new MatrixF(m4);
+  assertEquals(7.0f, A.get(1, 2), 0.0f);
+  assertEquals(13.0f, A.get(3, 0), 0.0f);
+  assertEquals(m4, A.get(new Matrix4f()));
+  Matrix3f m3 = A.get(new Matrix3f());
+  assertEquals(new Matrix3f(1, 2, 3, 5, 6, 7, 9, 10, 11), m3);
+  assertEquals(m3, new MatrixF(m3).get(new Matrix3f()));
+  // a view reads through its leading dimension
+  assertEquals(new Matrix3f(6, 7, 8, 10, 11, 12, 14, 15, 16),
+   A.getMatrixView(1, 3, 1, 3).get(new Matrix3f()));
+  Vector3f t = new Vector3f(1.5f, -2.0f, 3.25f);
+  assertEquals(t, new MatrixF(t).get(new Vector3f()));
+  assertEquals(new Vector3f(3, 7, 11), A.getMatrixView(0, 2, 2, 2).get(new Vector3f()));
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void conversionTooSmall() {
+  new MatrixF(3, 3).get(new Matrix4f());
+ }
+
+ @Test
+ public void svd() {
+  Random r = new Random(73);
+  for (int[] s : new int[][]{{6, 4}, {5, 5}, {300, 240}}) {
+   MatrixF A = random(r, s[0], s[1]);
+   SingularValueDecompositionF svd = A.svd();
+   MatrixF U = svd.getU(), V = svd.getV();
+   int n = s[1];
+   float scale = svd.norm2();
+   assertEquals(0.0f, residual(U.times(svd.getS()), V.transpose(), A), 1e-4f * scale * n);
+   assertEquals(0.0f, residual(V.transpose(), V, MatrixF.identity(n, n)), 1e-4f * n);
+   double[] expected = toDouble(A).svd().getSingularValues();
+   float[] values = svd.getSingularValues();
+   for (int i = 0; i < n; i++) {
+    assertEquals(expected[i], values[i], 1e-5 * expected[0] * n);
+   }
+   assertArrayEquals(values, new SingularValueDecompositionF(A, false).getSingularValues(), 0.0f);
+  }
+ }
+
+ @Test(expected = IllegalStateException.class)
+ public void svdValuesOnly() {
+  new SingularValueDecompositionF(MatrixF.identity(3, 3), false).getU();
+ }
+
+ @Test
+ public void rankAndCond() {
+  MatrixF D = new MatrixF(new float[][]{{4, 0, 0}, {0, 2, 0}, {0, 0, 0.5f}});
+  assertEquals(8.0f, D.cond(), 1e-5f);
+  assertEquals(3, D.rank());
+  assertEquals(6.5f, D.trace(), 0.0f);
+  MatrixF S = new MatrixF(new float[][]{{1, 2, 3}, {2, 4, 6}, {1, 0, 1}});
+  assertEquals(2, S.rank());
+ }
+
+ @Test
+ public void scaleRotateSingular() {
+  // rank 2, so Matrix3f.getScaleRotate falls back to the float SVD
+  Matrix3f A = new Matrix3f(1, 2, 3, 2, 4, 6, 1, 0, 1);
+  Vector3f scale = new Vector3f();
+  Matrix3f R = new Matrix3f();
+  A.getScaleRotate(scale, R);
+  double[] expected = new Matrix(new double[][]{{1, 2, 3}, {2, 4, 6}, {1, 0, 1}}).svd()
+   .getSingularValues();
+  assertEquals(expected[0], scale.x, 1e-5);
+  assertEquals(expected[1], scale.y, 1e-5);
+  assertEquals(expected[2], scale.z, 1e-5);
+  Matrix3f RtR = new Matrix3f();
+  RtR.mulTransposeLeft(R, R);
+  Matrix3f I = new Matrix3f();
+  I.setIdentity();
+  assertTrue(RtR.epsilonEquals(I, 1e-5f));
+ }
+}
@@ -0,0 +1,119 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static javax.vecmath.LUDecompositionTest.random;
+import static javax.vecmath.LUDecompositionTest.residual;
+import static javax.vecmath.LUDecompositionTest.view;
+import static org.junit.Assert.*;
+
+/**
+ * Residual checks for the Matrix solve, inverse and determinant shortcuts.
+ */
+public class MatrixTest {
+
+ static final double TOLERANCE = 1e-10;
+
+ @Test
+ public void solveSquare() {
+  Random r = new Random(31);
+  Matrix A = random(r, 13, 13);
+  Matrix B = random(r, 13, 4);
+  assertEquals(0.0, residual(A, A.solve(B), B), TOLERANCE);
+ }
+
+ @Test
+ public void solveTall() {
+  Random r = new Random(32);
+  Matrix A = random(r, 18, 5);
+  Matrix Xt = random(r, 5, 2);
+  Matrix X = A.solve(A.times(Xt));
+  assertEquals(0.0, residual(Matrix.identity(5, 5), X, Xt), TOLERANCE);
+ }
+
+ @Test
+ public void solveTranspose() {
+  Random r = new Random(33);
+  Matrix A = random(r, 6, 6);
+  Matrix B = random(r, 3, 6);
+  // X*A = B, returned as X' with A'*X' = B'
+  Matrix Xt = A.solveTranspose(B);
+  assertEquals(0.0, residual(Xt.transpose(), A, B), TOLERANCE);
+ }
+
+ @Test
+ public void views() {
+  Random r = new Random(34);
+  Matrix A = random(r, 10, 10);
+  Matrix B = random(r, 10, 3);
+  Matrix Av = view(A, Double.NaN);
+  Matrix Bv = view(B, Double.NaN);
+  assertEquals(0.0, residual(A, Av.solve(Bv), B), TOLERANCE);
+  assertEquals(0.0, residual(A, Av.inverse(), Matrix.identity(10, 10)), TOLERANCE);
+  assertEquals(A.det(), Av.det(), Math.abs(A.det()) * 1e-12);
+  assertArrayEquals(A.transpose().getRowPackedCopy(), Av.transpose().getRowPackedCopy(), 0.0);
+ }
+
+ @Test
+ public void inverseAndDet() {
+  Random r = new Random(35);
+  Matrix A = random(r, 9, 9);
+  assertEquals(0.0, residual(A, A.inverse(), Matrix.identity(9, 9)), TOLERANCE);
+  assertEquals(0.0, residual(A.inverse(), A, Matrix.identity(9, 9)), TOLERANCE);
+  Matrix D = new Matrix(new double[][]{{2, 0, 0}, {0, -3, 0}, {0, 0, 0.5}});
+  assertEquals(-3.0, D.det(), 1e-15);
+ }
+
+ @Test
+ public void timesViews() {
+  Random r = new Random(36);
+  Matrix A = random(r, 7, 5);
+  Matrix B = random(r, 5, 6);
+  Matrix C = view(A, Double.NaN).times(view(B, Double.NaN));
+  assertEquals(0.0, residual(A, B, C), 1e-14);
+ }
+
+ /**
+  * A*B by the textbook triple loop, summing each element in increasing k.
+  */
+ static Matrix naiveTimes(Matrix A, Matrix B) {
+  int m = A.getRowDimension(), n = A.getColumnDimension(), p = B.getColumnDimension();
+  Matrix C = new Matrix(m, p);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < p; j++) {
+    double s = 0.0;
+    for (int k = 0; k < n; k++) {
+     s += A.get(i, k) * B.get(k, j);
+    }
+    C.set(i, j, s);
+   }
+  }
+  return C;
+ }
+
+ @Test
+ public void timesSmallMatchesNaive() {
+  Random r = new Random(37);
+  Matrix A = random(r, 9, 4);
+  Matrix B = random(r, 4, 11);
+  assertArrayEquals(naiveTimes(A, B).getRowPackedCopy(), A.times(B).getRowPackedCopy(), 0.0);
+ }
+
+ @Test
+ public void timesBlockedMatchesNaive() {
+  // large enough for the parallel panels, with sizes that are not multiples of the blocks
+  Random r = new Random(38);
+  Matrix A = random(r, 97, 150);
+  Matrix B = random(r, 150, 301);
+  Matrix C = A.times(B);
+  assertArrayEquals(naiveTimes(A, B).getRowPackedCopy(), C.getRowPackedCopy(), 0.0);
+  Matrix Cv = view(A, Double.NaN).times(view(B, Double.NaN));
+  assertArrayEquals(C.getRowPackedCopy(), Cv.getRowPackedCopy(), 0.0);
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void timesDimensions() {
+  new Matrix(3, 4).times(new Matrix(3, 4));
+ }
+}
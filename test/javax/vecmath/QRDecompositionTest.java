@@ -0,0 +1,77 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static javax.vecmath.LUDecompositionTest.random;
+import static javax.vecmath.LUDecompositionTest.residual;
+import static javax.vecmath.LUDecompositionTest.view;
+import static org.junit.Assert.*;
+
+/**
+ * Residual checks for QRDecomposition on square and tall systems.
+ */
+public class QRDecompositionTest {
+
+ static final double TOLERANCE = 1e-10;
+
+ @Test
+ public void solveSquare() {
+  Random r = new Random(11);
+  for (int n : new int[]{1, 3, 16, 33}) {
+   Matrix A = random(r, n, n);
+   Matrix B = random(r, n, 2);
+   Matrix X = new QRDecomposition(A).solve(B);
+   assertEquals(0.0, residual(A, X, B), TOLERANCE);
+  }
+ }
+
+ @Test
+ public void solveTallConsistent() {
+  Random r = new Random(12);
+  Matrix A = random(r, 20, 7);
+  Matrix Xt = random(r, 7, 3);
+  Matrix B = A.times(Xt);
+  Matrix X = new QRDecomposition(A).solve(B);
+  assertEquals(7, X.getRowDimension());
+  assertEquals(0.0, residual(Matrix.identity(7, 7), X, Xt), TOLERANCE);
+ }
+
+ @Test
+ public void solveTallLeastSquares() {
+  Random r = new Random(13);
+  Matrix A = random(r, 25, 6);
+  Matrix B = random(r, 25, 2);
+  Matrix X = new QRDecomposition(A).solve(B);
+  // normal equations: A'*(A*X - B) = 0
+  Matrix R = A.times(X).minus(B);
+  assertEquals(0.0, residual(A.transpose(), R, new Matrix(6, 2)), TOLERANCE);
+ }
+
+ @Test
+ public void solveInPlaceOverwriteViews() {
+  Random r = new Random(14);
+  Matrix A = random(r, 15, 5);
+  Matrix Xt = random(r, 5, 2);
+  Matrix B = A.times(Xt);
+  Matrix Bv = view(B, -3.0);
+  Matrix X = new QRDecomposition(view(A, Double.NaN), true).solveInPlace(Bv);
+  assertEquals(5, X.getRowDimension());
+  assertSame(Bv.A, X.A);
+  assertEquals(0.0, residual(Matrix.identity(5, 5), X, Xt), TOLERANCE);
+ }
+
+ @Test
+ public void factors() {
+  Random r = new Random(15);
+  Matrix A = random(r, 9, 4);
+  QRDecomposition qr = new QRDecomposition(A);
+  assertEquals(0.0, residual(qr.getQ(), qr.getR(), A), TOLERANCE);
+ }
+
+ @Test(expected = SingularMatrixException.class)
+ public void rankDeficient() {
+  Matrix A = new Matrix(new double[][]{{1, 0}, {2, 0}, {3, 0}});
+  new QRDecomposition(A).solve(new Matrix(3, 1));
+ }
+}
@@ -0,0 +1,240 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the Quat4fArray batch operations against the Quat4f operations they replace.
+ */
+public class Quat4fArrayTest {
+
+ static final float EPSILON = 1e-5f;
+
+ static Quat4f randomRotation(Random r) {
+  Quat4f q = new Quat4f(r.nextFloat() - 0.5f, r.nextFloat() - 0.5f, r.nextFloat() - 0.5f,
+   r.nextFloat() - 0.5f);
+  q.normalize();
+  return q;
+ }
+
+ static Quat4fArray random(Random r, int size) {
+  Quat4fArray a = new Quat4fArray(size);
+  for (int i = 0; i < size; i++) {
+   a.set(i, randomRotation(r));
+  }
+  return a;
+ }
+
+ /**
+  * The angle in radians between the rotations of two unit quaternions.
+  */
+ static float angle(Quat4f a, Quat4f b) {
+  return 2.0f * (float) Math.acos(Math.min(1.0, Math.abs(a.dot(b))));
+ }
+
+ /**
+  * Returns q2, negated when its dot product with q1 is negative.
+  */
+ static Quat4f nearer(Quat4f q1, Quat4f q2) {
+  Quat4f q = new Quat4f(q2);
+  if (q1.dot(q2) < 0.0f) {
+   q.negate();
+  }
+  return q;
+ }
+
+ @Test
+ public void mul() {
+  Random r = new Random(61);
+  Quat4fArray a = random(r, 10), b = random(r, 10);
+  Quat4fArray c = new Quat4fArray(10).mul(2, 7, a, b);
+  for (int i = 0; i < 10; i++) {
+   Quat4f expected = i < 2 || i >= 9 ? new Quat4f()
+    : new Quat4f().mul(a.get(i, new Quat4f()), b.get(i, new Quat4f()));
+   assertEquals(expected, c.get(i, new Quat4f()));
+  }
+  // in place
+  Quat4fArray d = new Quat4fArray(10).set(0, 10, a).mul(0, 10, b);
+  for (int i = 0; i < 10; i++) {
+   assertEquals(new Quat4f().mul(a.get(i, new Quat4f()), b.get(i, new Quat4f())),
+    d.get(i, new Quat4f()));
+  }
+ }
+
+ @Test
+ public void slerpMatchesQuat4f() {
+  Random r = new Random(62);
+  int n = 50;
+  Quat4fArray a = random(r, n), b = random(r, n);
+  for (float alpha : new float[]{0.0f, 0.25f, 0.5f, 0.9f, 1.0f}) {
+   Quat4fArray c = new Quat4fArray(n).slerp(0, n, a, b, alpha);
+   for (int i = 0; i < n; i++) {
+    Quat4f qa = a.get(i, new Quat4f());
+    Quat4f expected = new Quat4f().slerp(qa, nearer(qa, b.get(i, new Quat4f())), alpha);
+    assertTrue(c.get(i, new Quat4f()).epsilonEquals(expected, EPSILON));
+   }
+  }
+ }
+
+ @Test
+ public void shorterArc() {
+  // b is a small rotation away from a, but with the opposite sign, so its dot product is negative
+  Quat4f qa = new Quat4f(0, 0, (float) Math.sin(0.1), (float) Math.cos(0.1));
+  Quat4f qb = new Quat4f(0, 0, (float) -Math.sin(0.3), (float) -Math.cos(0.3));
+  assertTrue(qa.dot(qb) < 0.0f);
+  Quat4fArray a = new Quat4fArray(1).set(0, qa), b = new Quat4fArray(1).set(0, qb);
+  Quat4f half = new Quat4f(0, 0, (float) Math.sin(0.2), (float) Math.cos(0.2));
+  Quat4fArray c = new Quat4fArray(1);
+  assertTrue(angle(c.slerp(0, 1, a, b, 0.5f).get(0, new Quat4f()), half) < 1e-3f);
+  assertTrue(angle(c.nlerp(0, 1, a, b, 0.5f).get(0, new Quat4f()), half) < 1e-3f);
+  assertTrue(angle(c.fastSlerp(0, 1, a, b, 0.5f).get(0, new Quat4f()), half) < 1e-3f);
+  // the result stays on the side of q1 rather than flipping sign halfway
+  assertTrue(c.slerp(0, 1, a, b, 0.5f).get(0, new Quat4f()).dot(qa) > 0.0f);
+  assertTrue(c.nlerp(0, 1, a, b, 0.5f).get(0, new Quat4f()).dot(qa) > 0.0f);
+  assertTrue(c.fastSlerp(0, 1, a, b, 0.5f).get(0, new Quat4f()).dot(qa) > 0.0f);
+ }
+
+ @Test
+ public void nlerpIsNormalizedBlend() {
+  Random r = new Random(63);
+  int n = 50;
+  Quat4fArray a = random(r, n), b = random(r, n);
+  Quat4fArray c = new Quat4fArray(n).nlerp(0, n, a, b, 0.3f);
+  for (int i = 0; i < n; i++) {
+   Quat4f qa = a.get(i, new Quat4f()), qb = nearer(qa, b.get(i, new Quat4f()));
+   Quat4f expected = new Quat4f(qa);
+   expected.scale(0.7f);
+   expected.scaleAdd(0.3f, qb, expected);
+   expected.normalize();
+   assertTrue(c.get(i, new Quat4f()).epsilonEquals(expected, EPSILON));
+  }
+ }
+
+ @Test
+ public void fastSlerpIsCloseToSlerp() {
+  Random r = new Random(64);
+  int n = 200;
+  Quat4fArray a = random(r, n), b = random(r, n);
+  Quat4fArray exact = new Quat4fArray(n), fast = new Quat4fArray(n);
+  for (int k = 0; k <= 10; k++) {
+   float alpha = k / 10.0f;
+   exact.slerp(0, n, a, b, alpha);
+   fast.fastSlerp(0, n, a, b, alpha);
+   for (int i = 0; i < n; i++) {
+    Quat4f q = fast.get(i, new Quat4f());
+    assertEquals(1.0f, q.dot(q), 1e-5f);
+    assertTrue(angle(q, exact.get(i, new Quat4f())) < 0.002f);
+   }
+  }
+ }
+
+ @Test
+ public void toPackedMatrices() {
+  Random r = new Random(65);
+  int n = 20;
+  Quat4fArray a = random(r, n);
+  float[] m = a.get(1, n - 1, new float[9 * n]);
+  for (int i = 1; i < n; i++) {
+   Matrix3f expected = new Matrix3f().set(a.get(i, new Quat4f()));
+   Matrix3f actual = new Matrix3f(java.util.Arrays.copyOfRange(m, 9 * i, 9 * i + 9));
+   assertTrue(actual.epsilonEquals(expected, EPSILON));
+  }
+  for (int i = 0; i < 9; i++) {
+   assertEquals(0.0f, m[i], 0.0f);
+  }
+  // and back
+  Quat4fArray b = new Quat4fArray(n).set(1, n - 1, m);
+  for (int i = 1; i < n; i++) {
+   Quat4f q = a.get(i, new Quat4f());
+   assertTrue(nearer(q, b.get(i, new Quat4f())).epsilonEquals(q, EPSILON));
+  }
+ }
+
+ @Test
+ public void toMatrix4fArray() {
+  Random r = new Random(66);
+  int n = 20;
+  Quat4fArray a = random(r, n);
+  Matrix4fArray m = a.get(0, n, new Matrix4fArray(n));
+  for (int i = 0; i < n; i++) {
+   Matrix4f expected = new Matrix4f().set(a.get(i, new Quat4f()));
+   assertTrue(m.get(i, new Matrix4f()).epsilonEquals(expected, EPSILON));
+  }
+  Quat4fArray b = new Quat4fArray(n).set(0, n, m);
+  for (int i = 0; i < n; i++) {
+   Quat4f q = a.get(i, new Quat4f());
+   assertTrue(nearer(q, b.get(i, new Quat4f())).epsilonEquals(q, EPSILON));
+  }
+ }
+
+ @Test
+ public void toTransforms() {
+  Random r = new Random(67);
+  int n = 20;
+  Quat4fArray a = random(r, n);
+  float[] translations = new float[3 * n], scales = new float[3 * n];
+  for (int i = 0; i < 3 * n; i++) {
+   translations[i] = r.nextFloat() * 10.0f - 5.0f;
+   scales[i] = 0.5f + r.nextFloat() * 2.0f;
+  }
+  Matrix4fArray m = a.get(0, n, translations, scales, new Matrix4fArray(n));
+  Matrix4fArray rotations = a.get(0, n, null, null, new Matrix4fArray(n));
+  for (int i = 0; i < n; i++) {
+   Matrix4f scale = new Matrix4f();
+   scale.setIdentity();
+   scale.m00 = scales[3 * i];
+   scale.m11 = scales[3 * i + 1];
+   scale.m22 = scales[3 * i + 2];
+   Matrix4f expected = new Matrix4f().set(a.get(i, new Quat4f()));
+   expected.mul(scale);
+   expected.setTranslation(new Vector3f(translations[3 * i], translations[3 * i + 1],
+    translations[3 * i + 2]));
+   assertTrue(m.get(i, new Matrix4f()).epsilonEquals(expected, EPSILON));
+   assertTrue(rotations.get(i, new Matrix4f()).epsilonEquals(
+    new Matrix4f().set(a.get(i, new Quat4f())), EPSILON));
+  }
+ }
+
+ @Test
+ public void unnormalizedQuaternions() {
+  Random r = new Random(68);
+  Quat4f q = randomRotation(r);
+  Quat4f scaled = new Quat4f(q);
+  scaled.scale(4.0f);
+  float[] m = new Quat4fArray(1).set(0, scaled).get(0, 1, new float[9]);
+  Matrix3f expected = new Matrix3f().set(q);
+  assertTrue(new Matrix3f(m).epsilonEquals(expected, EPSILON));
+ }
+
+ @Test
+ public void nearHalfTurns() {
+  // each branch of the matrix to quaternion conversion
+  Quat4f[] rotations = {new Quat4f(1, 0, 0, 0.01f), new Quat4f(0, 1, 0, 0.01f),
+   new Quat4f(0, 0, 1, 0.01f), new Quat4f(0, 0, 0, 1), new Quat4f(1, 1, 0, 0.01f),
+   new Quat4f(0, 1, 1, 0.01f)};
+  Quat4fArray a = new Quat4fArray(rotations.length);
+  for (int i = 0; i < rotations.length; i++) {
+   rotations[i].normalize();
+   a.set(i, rotations[i]);
+  }
+  Quat4fArray b = new Quat4fArray(rotations.length).set(0, rotations.length,
+   a.get(0, rotations.length, new float[9 * rotations.length]));
+  for (int i = 0; i < rotations.length; i++) {
+   Quat4f q = rotations[i];
+   assertTrue(nearer(q, b.get(i, new Quat4f())).epsilonEquals(q, EPSILON));
+  }
+ }
+
+ @Test(expected = IndexOutOfBoundsException.class)
+ public void rangeChecked() {
+  Quat4fArray a = new Quat4fArray(4);
+  a.slerp(2, 3, a, a, 0.5f);
+ }
+
+ @Test(expected = IndexOutOfBoundsException.class)
+ public void overflowingRange() {
+  new Quat4fArray(4).checkRange(1, Integer.MAX_VALUE);
+ }
+}
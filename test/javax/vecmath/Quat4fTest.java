@@ -0,0 +1,94 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the Quat4f tuple transforms, single and packed, against the rotation matrix.
+ */
+public class Quat4fTest {
+
+ static final float EPSILON = 1e-5f;
+
+ static Quat4f randomRotation(Random r) {
+  Quat4f<?> q = new Quat4f(r.nextFloat() - 0.5f, r.nextFloat() - 0.5f, r.nextFloat() - 0.5f,
+   r.nextFloat() - 0.5f);
+  q.normalize();
+  return q;
+ }
+
+ @Test
+ public void transformMatchesMatrix() {
+  Random r = new Random(41);
+  for (int i = 0; i < 20; i++) {
+   Quat4f<?> q = randomRotation(r);
+   Matrix3f<?> m = new Matrix3f().set(q);
+   Vector3f v = new Vector3f(r.nextFloat() * 4.0f - 2.0f, r.nextFloat() * 4.0f - 2.0f,
+    r.nextFloat() * 4.0f - 2.0f);
+   Vector3f expected = m.transform(v, new Vector3f());
+   assertTrue(q.transform(new Vector3f(v)).epsilonEquals(expected, EPSILON));
+   Matrix3f inverse = new Matrix3f();
+   inverse.transpose(m);
+   assertTrue(q.conjugateTransform(new Vector3f(v)).epsilonEquals(
+    inverse.transform(v, new Vector3f()), EPSILON));
+   assertTrue(q.conjugateTransform(q.transform(new Vector3f(v))).epsilonEquals(v, EPSILON));
+  }
+ }
+
+ @Test
+ public void transformUnnormalized() {
+  // q v q' of a quaternion of length l scales by l * l
+  Random r = new Random(42);
+  Quat4f<?> q = randomRotation(r);
+  Quat4f scaled = new Quat4f(q);
+  scaled.scale(2.0f);
+  Vector3f v = new Vector3f(1, -2, 0.5f);
+  Vector3f expected = q.transform(new Vector3f(v));
+  expected.scale(4.0f);
+  assertTrue(scaled.transform(new Vector3f(v)).epsilonEquals(expected, 4.0f * EPSILON));
+ }
+
+ @Test
+ public void packedMatchesTuples() {
+  Random r = new Random(43);
+  Quat4f<?> q = randomRotation(r);
+  int count = 9, stride = 4;
+  float[] src = new float[1 + count * stride];
+  for (int i = 0; i < src.length; i++) {
+   src[i] = r.nextFloat() * 10.0f - 5.0f;
+  }
+  float[] dst = new float[2 + count * 3];
+  float[] conj = new float[2 + count * 3];
+  q.transform(src, 1, stride, dst, 2, 3, count);
+  q.conjugateTransform(src, 1, stride, conj, 2, 3, count);
+  assertEquals(0.0f, dst[0], 0.0f);
+  assertEquals(0.0f, dst[1], 0.0f);
+  for (int i = 0; i < count; i++) {
+   int s = 1 + i * stride, d = 2 + i * 3;
+   Vector3f v = new Vector3f(src[s], src[s + 1], src[s + 2]);
+   assertEquals(q.transform(new Vector3f(v)), new Vector3f(dst[d], dst[d + 1], dst[d + 2]));
+   assertEquals(q.conjugateTransform(new Vector3f(v)),
+    new Vector3f(conj[d], conj[d + 1], conj[d + 2]));
+  }
+ }
+
+ @Test
+ public void packedInPlace() {
+  Random r = new Random(44);
+  Quat4f<?> q = randomRotation(r);
+  float[] src = new float[32];
+  for (int i = 0; i < src.length; i++) {
+   src[i] = r.nextFloat();
+  }
+  float[] expected = q.transform(src, 0, 4, src.clone(), 0, 4, 8);
+  float[] actual = q.transform(src.clone(), 0, 4, 8);
+  // the fourth value of each stride is untouched
+  assertArrayEquals(expected, actual, 0.0f);
+  for (int i = 3; i < src.length; i += 4) {
+   assertEquals(src[i], actual[i], 0.0f);
+  }
+  assertArrayEquals(src, q.conjugateTransform(actual, 0, 4, 8), EPSILON);
+ }
+}
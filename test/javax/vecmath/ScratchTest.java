@@ -0,0 +1,136 @@
+package javax.vecmath;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the Scratch frames, the reuse of pooled objects and the debug mode checks.
+ */
+public class ScratchTest {
+
+ @After
+ public void reset() {
+  Scratch.setDebug(false);
+  Scratch scratch = Scratch.get();
+  while (scratch.depth() > 0) {
+   scratch.pop();
+  }
+ }
+
+ @Test
+ public void pushPop() {
+  Scratch scratch = Scratch.get();
+  assertSame(scratch, Scratch.get());
+  assertEquals(0, scratch.depth());
+  int outer = scratch.push();
+  int inner = scratch.push();
+  assertEquals(outer + 1, inner);
+  assertEquals(2, scratch.depth());
+  scratch.pop(inner);
+  scratch.pop(outer);
+  assertEquals(0, scratch.depth());
+ }
+
+ @Test(expected = IllegalStateException.class)
+ public void popWithoutPush() {
+  Scratch.get().pop();
+ }
+
+ @Test(expected = IllegalStateException.class)
+ public void takeWithoutPush() {
+  Scratch.get().vector3f();
+ }
+
+ @Test
+ public void reusesPoppedObjects() {
+  Scratch scratch = Scratch.get();
+  int frame = scratch.push();
+  Vector3f v = scratch.vector3f();
+  Matrix4f m = scratch.matrix4f();
+  scratch.pop(frame);
+  frame = scratch.push();
+  assertSame(v, scratch.vector3f());
+  assertSame(m, scratch.matrix4f());
+  scratch.pop(frame);
+ }
+
+ @Test
+ public void distinctWhileOpen() {
+  Scratch scratch = Scratch.get();
+  int outer = scratch.push();
+  Vector3f a = scratch.vector3f();
+  int inner = scratch.push();
+  Vector3f b = scratch.vector3f();
+  Vector3f c = scratch.vector3f();
+  assertNotSame(a, b);
+  assertNotSame(b, c);
+  scratch.pop(inner);
+  // the outer frame's object is kept, the inner frame's are handed out again
+  assertSame(b, scratch.vector3f());
+  scratch.pop(outer);
+  // the pool grows past its initial capacity
+  outer = scratch.push();
+  java.util.Set<Quat4f> seen = java.util.Collections.newSetFromMap(
+   new java.util.IdentityHashMap<Quat4f, Boolean>());
+  for (int i = 0; i < 100; i++) {
+   assertTrue(seen.add(scratch.quat4f()));
+  }
+  scratch.pop(outer);
+ }
+
+ @Test
+ public void debugDetectsLeakedFrame() {
+  Scratch.setDebug(true);
+  Scratch scratch = Scratch.get();
+  int outer = scratch.push();
+  scratch.push();
+  try {
+   scratch.pop(outer);
+   fail();
+  } catch (IllegalStateException e) {
+  }
+  // without debug the innermost frame is popped whatever frame is passed
+  Scratch.setDebug(false);
+  scratch.pop(outer);
+  assertEquals(1, scratch.depth());
+ }
+
+ @Test
+ public void debugPoisonsObjects() {
+  Scratch.setDebug(true);
+  Scratch scratch = Scratch.get();
+  int frame = scratch.push();
+  Point3f p = scratch.point3f();
+  Matrix3f m = scratch.matrix3f();
+  assertTrue(Float.isNaN(p.x));
+  assertTrue(Float.isNaN(m.m21));
+  p.set(1, 2, 3);
+  scratch.pop(frame);
+  // a read after pop sees NaN and the object is never handed out again
+  assertTrue(Float.isNaN(p.y));
+  frame = scratch.push();
+  assertNotSame(p, scratch.point3f());
+  scratch.pop(frame);
+ }
+
+ @Test
+ public void debugDetectsUseAfterPop() {
+  Scratch.setDebug(true);
+  Scratch scratch = Scratch.get();
+  int frame = scratch.push();
+  Vector4f v = scratch.vector4f();
+  scratch.pop(frame);
+  v.x = 1.0f;
+  try {
+   scratch.push();
+   fail();
+  } catch (IllegalStateException e) {
+   assertTrue(e.getMessage().contains("Vector4f"));
+  }
+  // the report is made once
+  frame = scratch.push();
+  scratch.pop(frame);
+ }
+}
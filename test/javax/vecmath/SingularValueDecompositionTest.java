@@ -0,0 +1,83 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static javax.vecmath.LUDecompositionTest.random;
+import static javax.vecmath.LUDecompositionTest.residual;
+import static javax.vecmath.LUDecompositionTest.view;
+import static org.junit.Assert.*;
+
+/**
+ * Checks for SingularValueDecomposition, including the values-only form and matrices large enough
+ * for the parallel updates.
+ */
+public class SingularValueDecompositionTest {
+
+ static final double TOLERANCE = 1e-10;
+
+ /**
+  * Checks A = U*S*V', U'*U = I and V'*V = I.
+  */
+ static void assertDecomposes(Matrix A, SingularValueDecomposition svd) {
+  Matrix U = svd.getU(), V = svd.getV();
+  int n = A.getColumnDimension();
+  assertEquals(0.0, residual(U.times(svd.getS()), V.transpose(), A), TOLERANCE);
+  assertEquals(0.0, residual(U.transpose(), U, Matrix.identity(n, n)), TOLERANCE);
+  assertEquals(0.0, residual(V.transpose(), V, Matrix.identity(n, n)), TOLERANCE);
+  double[] s = svd.getSingularValues();
+  for (int i = 1; i < n; i++) {
+   assertTrue(s[i - 1] >= s[i]);
+  }
+ }
+
+ @Test
+ public void small() {
+  Random r = new Random(41);
+  Matrix A = random(r, 8, 5);
+  assertDecomposes(A, new SingularValueDecomposition(A));
+  assertDecomposes(A, new SingularValueDecomposition(view(A, Double.NaN)));
+ }
+
+ @Test
+ public void parallel() {
+  // the trailing updates of the first columns touch more than 2^16 elements
+  Random r = new Random(42);
+  Matrix A = random(r, 400, 250);
+  SingularValueDecomposition svd = new SingularValueDecomposition(A);
+  assertDecomposes(A, svd);
+  assertArrayEquals(svd.getSingularValues(),
+   new SingularValueDecomposition(A).getSingularValues(), 0.0);
+ }
+
+ @Test
+ public void valuesOnly() {
+  Random r = new Random(43);
+  for (Matrix A : new Matrix[]{random(r, 12, 7), random(r, 7, 7), random(r, 300, 240)}) {
+   double[] full = new SingularValueDecomposition(A).getSingularValues();
+   double[] values = new SingularValueDecomposition(A, false).getSingularValues();
+   assertArrayEquals(full, values, 0.0);
+  }
+ }
+
+ @Test(expected = IllegalStateException.class)
+ public void valuesOnlyU() {
+  new SingularValueDecomposition(Matrix.identity(3, 3), false).getU();
+ }
+
+ @Test(expected = IllegalStateException.class)
+ public void valuesOnlyV() {
+  new SingularValueDecomposition(Matrix.identity(3, 3), false).getV();
+ }
+
+ @Test
+ public void rankAndCond() {
+  Random r = new Random(44);
+  Matrix B = random(r, 10, 3);
+  Matrix A = B.times(random(r, 3, 6));
+  assertEquals(3, A.rank());
+  Matrix D = new Matrix(new double[][]{{4, 0, 0}, {0, 2, 0}, {0, 0, 0.5}});
+  assertEquals(8.0, D.cond(), 1e-12);
+  assertEquals(3, D.rank());
+ }
+}
@@ -0,0 +1,178 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static javax.vecmath.LUDecompositionTest.random;
+import static javax.vecmath.LUDecompositionTest.residual;
+import static org.junit.Assert.*;
+
+/**
+ * Checks SparseMatrix against the dense Matrix.
+ */
+public class SparseMatrixTest {
+
+ /**
+  * A random m x n matrix with about density*m*n nonzeros.
+  */
+ static Matrix sparse(Random r, int m, int n, double density) {
+  Matrix A = new Matrix(m, n);
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < n; j++) {
+    if (r.nextDouble() < density) {
+     A.set(i, j, r.nextDouble() * 2.0 - 1.0);
+    }
+   }
+  }
+  return A;
+ }
+
+ /**
+  * The 5 point Laplacian on a k x k grid, assembled from triplets.
+  */
+ static SparseMatrix laplacian(int k) {
+  int n = k * k;
+  int[] rows = new int[5 * n], cols = new int[5 * n];
+  double[] vals = new double[5 * n];
+  int t = 0;
+  for (int y = 0; y < k; y++) {
+   for (int x = 0; x < k; x++) {
+    int i = y * k + x;
+    int[][] neighbours = {{x - 1, y}, {x + 1, y}, {x, y - 1}, {x, y + 1}};
+    for (int[] nb : neighbours) {
+     if (nb[0] >= 0 && nb[0] < k && nb[1] >= 0 && nb[1] < k) {
+      rows[t] = i;
+      cols[t] = nb[1] * k + nb[0];
+      vals[t++] = -1.0;
+     }
+    }
+    rows[t] = i;
+    cols[t] = i;
+    vals[t++] = 4.0;
+   }
+  }
+  return new SparseMatrix(n, n, rows, cols, vals, t);
+ }
+
+ @Test
+ public void denseRoundTrip() {
+  Random r = new Random(61);
+  Matrix A = sparse(r, 30, 20, 0.2);
+  SparseMatrix S = new SparseMatrix(A);
+  assertArrayEquals(A.getRowPackedCopy(), S.toMatrix().getRowPackedCopy(), 0.0);
+  int nnz = 0;
+  for (int i = 0; i < 30; i++) {
+   for (int j = 0; j < 20; j++) {
+    assertEquals(A.get(i, j), S.get(i, j), 0.0);
+    nnz += A.get(i, j) != 0.0 ? 1 : 0;
+   }
+  }
+  assertEquals(nnz, S.getNonZeroCount());
+ }
+
+ @Test
+ public void tripletsUnsortedWithDuplicates() {
+  int[] rows = {2, 0, 2, 1, 0, 2, 2, 0};
+  int[] cols = {3, 1, 0, 2, 1, 3, 1, 0};
+  double[] vals = {1, 2, 3, 4, 5, 6, 7, 8};
+  SparseMatrix S = new SparseMatrix(3, 4, rows, cols, vals, rows.length);
+  Matrix expected = new Matrix(new double[][]{
+   {8, 7, 0, 0},
+   {0, 0, 4, 0},
+   {3, 7, 0, 7}});
+  assertArrayEquals(expected.getRowPackedCopy(), S.toMatrix().getRowPackedCopy(), 0.0);
+  assertEquals(6, S.getNonZeroCount());
+ }
+
+ @Test
+ public void tripletsMatchDense() {
+  Random r = new Random(62);
+  int m = 40, n = 25, count = 600;
+  int[] rows = new int[count], cols = new int[count];
+  double[] vals = new double[count];
+  Matrix A = new Matrix(m, n);
+  for (int t = 0; t < count; t++) {
+   rows[t] = r.nextInt(m);
+   cols[t] = r.nextInt(n);
+   vals[t] = r.nextInt(9) - 4;
+   A.set(rows[t], cols[t], A.get(rows[t], cols[t]) + vals[t]);
+  }
+  SparseMatrix S = new SparseMatrix(m, n, rows, cols, vals, count);
+  assertArrayEquals(A.getRowPackedCopy(), S.toMatrix().getRowPackedCopy(), 0.0);
+  // rows of the transpose come from the validating CSR constructor
+  assertArrayEquals(A.transpose().getRowPackedCopy(),
+   S.transpose().toMatrix().getRowPackedCopy(), 0.0);
+ }
+
+ @Test(expected = ArrayIndexOutOfBoundsException.class)
+ public void tripletOutside() {
+  new SparseMatrix(2, 2, new int[]{0, 2}, new int[]{0, 0}, new double[]{1, 1}, 2);
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void csrUnsortedColumns() {
+  new SparseMatrix(2, 3, new int[]{0, 2, 3}, new int[]{2, 0, 1}, new double[]{1, 2, 3});
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void csrDuplicateColumns() {
+  new SparseMatrix(1, 3, new int[]{0, 2}, new int[]{1, 1}, new double[]{1, 2});
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void csrColumnOutside() {
+  new SparseMatrix(1, 3, new int[]{0, 1}, new int[]{3}, new double[]{1});
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void csrDecreasingRows() {
+  new SparseMatrix(2, 3, new int[]{0, 2, 1}, new int[]{0, 1}, new double[]{1, 2});
+ }
+
+ @Test
+ public void times() {
+  Random r = new Random(63);
+  // the second size takes the parallel path
+  for (int size : new int[]{20, 400}) {
+   Matrix A = sparse(r, size, size + 7, 0.1);
+   SparseMatrix S = new SparseMatrix(A);
+   Matrix B = random(r, size + 7, 5);
+   assertEquals(0.0, residual(A, B, S.times(B)), 1e-12);
+   double[] x = B.getMatrix(0, size + 6, 0, 0).getColumnPackedCopy();
+   double[] y = S.times(x, new double[size]);
+   Matrix Y = new Matrix(y, size);
+   assertEquals(0.0, residual(A, B.getMatrix(0, size + 6, 0, 0), Y), 1e-12);
+  }
+ }
+
+ @Test
+ public void conjugateGradient() {
+  int k = 40;
+  SparseMatrix A = laplacian(k);
+  Random r = new Random(64);
+  double[] b = new double[k * k];
+  for (int i = 0; i < b.length; i++) {
+   b[i] = r.nextDouble();
+  }
+  double[] x = new double[b.length];
+  int iterations = A.solveConjugateGradient(b, x, 1e-10, 1000);
+  assertTrue(iterations > 0);
+  double[] Ax = A.times(x, new double[b.length]);
+  double err = 0.0, bnorm = 0.0;
+  for (int i = 0; i < b.length; i++) {
+   err += (Ax[i] - b[i]) * (Ax[i] - b[i]);
+   bnorm += b[i] * b[i];
+  }
+  assertTrue(Math.sqrt(err) <= 1e-10 * Math.sqrt(bnorm));
+  // starting from the solution needs no iterations
+  assertEquals(0, A.solveConjugateGradient(b, x, 1e-8, 1000));
+  // too few iterations
+  assertEquals(-1, A.solveConjugateGradient(b, new double[b.length], 1e-10, 3));
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void conjugateGradientNotPositive() {
+  SparseMatrix A = new SparseMatrix(new Matrix(new double[][]{{1, 0}, {0, 0}}));
+  A.solveConjugateGradient(new double[2], new double[2], 1e-10, 10);
+ }
+}
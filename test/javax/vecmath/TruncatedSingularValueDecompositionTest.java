@@ -0,0 +1,83 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static javax.vecmath.LUDecompositionTest.random;
+import static javax.vecmath.LUDecompositionTest.residual;
+import static org.junit.Assert.*;
+
+/**
+ * Compares TruncatedSingularValueDecomposition with the full decomposition.
+ */
+public class TruncatedSingularValueDecompositionTest {
+
+ /**
+  * A rank r matrix plus a little noise.
+  */
+ static Matrix lowRank(Random random, int m, int n, int r, double noise) {
+  Matrix A = random(random, m, r).times(random(random, r, n));
+  for (int i = 0; i < m; i++) {
+   for (int j = 0; j < n; j++) {
+    A.set(i, j, A.get(i, j) + noise * random.nextGaussian());
+   }
+  }
+  return A;
+ }
+
+ @Test
+ public void matchesFull() {
+  Random r = new Random(51);
+  Matrix A = lowRank(r, 300, 120, 8, 1e-3);
+  int k = 8;
+  TruncatedSingularValueDecomposition tsvd
+   = new TruncatedSingularValueDecomposition(A, k, 10, 2, new Random(52));
+  double[] full = new SingularValueDecomposition(A, false).getSingularValues();
+  double[] s = tsvd.getSingularValues();
+  assertEquals(k, s.length);
+  for (int i = 0; i < k; i++) {
+   assertEquals(full[i], s[i], full[i] * 1e-8);
+  }
+  Matrix U = tsvd.getU(), V = tsvd.getV();
+  assertEquals(300, U.getRowDimension());
+  assertEquals(k, U.getColumnDimension());
+  assertEquals(120, V.getRowDimension());
+  assertEquals(k, V.getColumnDimension());
+  assertEquals(0.0, residual(U.transpose(), U, Matrix.identity(k, k)), 1e-10);
+  assertEquals(0.0, residual(V.transpose(), V, Matrix.identity(k, k)), 1e-10);
+  // A*V = U*S
+  assertEquals(0.0, residual(A, V, U.times(tsvd.getS())), full[0] * 1e-8);
+ }
+
+ @Test
+ public void approximation() {
+  Random r = new Random(53);
+  Matrix A = lowRank(r, 150, 90, 5, 1e-4);
+  TruncatedSingularValueDecomposition tsvd
+   = new TruncatedSingularValueDecomposition(A, 5, 10, 2, new Random(54));
+  double[] full = new SingularValueDecomposition(A, false).getSingularValues();
+  // the best rank 5 approximation leaves a two norm error of full[5]
+  double error = new SingularValueDecomposition(A.minus(tsvd.approximation()), false)
+   .getSingularValues()[0];
+  assertEquals(full[5], error, full[5] * 1e-3);
+ }
+
+ @Test
+ public void fullRank() {
+  Random r = new Random(55);
+  Matrix A = random(r, 20, 6);
+  TruncatedSingularValueDecomposition tsvd = A.svd(6);
+  assertArrayEquals(A.svd().getSingularValues(), tsvd.getSingularValues(), 1e-10);
+  assertEquals(0.0, residual(Matrix.identity(20, 20), tsvd.approximation(), A), 1e-10);
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void kTooLarge() {
+  new TruncatedSingularValueDecomposition(new Matrix(5, 3), 4);
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void kTooSmall() {
+  new TruncatedSingularValueDecomposition(new Matrix(5, 3), 0);
+ }
+}
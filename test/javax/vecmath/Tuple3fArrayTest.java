@@ -0,0 +1,184 @@
+package javax.vecmath;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the Tuple3fArray bulk operations against Vector3f in both the planar and the interleaved
+ * layout.
+ */
+public class Tuple3fArrayTest {
+
+ static final float EPSILON = 1e-6f;
+ static final int N = 17;
+
+ static Vector3f[] random(Random r) {
+  Vector3f[] v = new Vector3f[N];
+  for (int i = 0; i < N; i++) {
+   v[i] = new Vector3f(r.nextFloat() * 2.0f - 1.0f, r.nextFloat() * 2.0f - 1.0f,
+    r.nextFloat() * 2.0f - 1.0f);
+  }
+  return v;
+ }
+
+ static Tuple3fArray array(Vector3f[] v, boolean interleaved) {
+  Tuple3fArray a = new Tuple3fArray(v.length, interleaved);
+  for (int i = 0; i < v.length; i++) {
+   a.set(i, v[i]);
+  }
+  return a;
+ }
+
+ static void assertTuples(Vector3f[] expected, Tuple3fArray actual) {
+  assertEquals(expected.length, actual.size());
+  for (int i = 0; i < expected.length; i++) {
+   Vector3f v = actual.get(i, new Vector3f());
+   assertTrue(i + ": " + expected[i] + " != " + v, v.epsilonEquals(expected[i], EPSILON));
+  }
+ }
+
+ /**
+  * Runs a check with every combination of layouts for the destination and the two sources.
+  */
+ interface Check {
+
+  void run(boolean d, boolean a, boolean b);
+ }
+
+ static void allLayouts(Check check) {
+  for (int k = 0; k < 8; k++) {
+   check.run((k & 1) != 0, (k & 2) != 0, (k & 4) != 0);
+  }
+ }
+
+ @Test
+ public void layouts() {
+  Tuple3fArray planar = new Tuple3fArray(4);
+  Tuple3fArray interleaved = new Tuple3fArray(4, true);
+  assertFalse(planar.isInterleaved());
+  assertTrue(interleaved.isInterleaved());
+  float[] x = {1, 2}, y = {3, 4}, z = {5, 6};
+  Tuple3fArray wrapped = new Tuple3fArray(x, y, z);
+  assertEquals(new Vector3f(2, 4, 6), wrapped.get(1, new Vector3f()));
+  wrapped.set(0, 7, 8, 9);
+  assertEquals(7.0f, x[0], 0.0f);
+  assertEquals(8.0f, y[0], 0.0f);
+  assertEquals(9.0f, z[0], 0.0f);
+  float[] xyz = {1, 2, 3, 4, 5, 6};
+  Tuple3fArray packed = new Tuple3fArray(xyz);
+  assertTrue(packed.isInterleaved());
+  assertEquals(2, packed.size());
+  assertEquals(new Vector3f(4, 5, 6), packed.get(1, new Vector3f()));
+  packed.setY(1, 10.0f);
+  assertEquals(10.0f, xyz[4], 0.0f);
+  assertEquals(10.0f, packed.getY(1), 0.0f);
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void mismatchedComponents() {
+  new Tuple3fArray(new float[2], new float[2], new float[3]);
+ }
+
+ @Test(expected = IllegalArgumentException.class)
+ public void partialTuple() {
+  new Tuple3fArray(new float[7]);
+ }
+
+ @Test
+ public void arithmetic() {
+  Random r = new Random(31);
+  final Vector3f[] v1 = random(r), v2 = random(r);
+  final Vector3f c = new Vector3f(0.5f, -1.0f, 2.0f);
+  allLayouts(new Check() {
+   @Override
+   public void run(boolean d, boolean a, boolean b) {
+    Tuple3fArray t1 = array(v1, a), t2 = array(v2, b);
+    Vector3f[] sum = new Vector3f[N], diff = new Vector3f[N], scaled = new Vector3f[N],
+     cross = new Vector3f[N], lerp = new Vector3f[N], offset = new Vector3f[N];
+    for (int i = 0; i < N; i++) {
+     sum[i] = new Vector3f().add(v1[i], v2[i]);
+     diff[i] = new Vector3f().sub(v1[i], v2[i]);
+     scaled[i] = new Vector3f().scaleAdd(3.0f, v1[i], v2[i]);
+     cross[i] = new Vector3f().cross(v1[i], v2[i]);
+     lerp[i] = new Vector3f().interpolate(v1[i], v2[i], 0.25f);
+     offset[i] = new Vector3f().add(v1[i], c);
+    }
+    assertTuples(sum, new Tuple3fArray(N, d).add(0, N, t1, t2));
+    assertTuples(diff, new Tuple3fArray(N, d).sub(0, N, t1, t2));
+    assertTuples(scaled, new Tuple3fArray(N, d).scaleAdd(0, N, 3.0f, t1, t2));
+    assertTuples(cross, new Tuple3fArray(N, d).cross(0, N, t1, t2));
+    assertTuples(lerp, new Tuple3fArray(N, d).interpolate(0, N, t1, t2, 0.25f));
+    assertTuples(offset, new Tuple3fArray(N, d).set(0, N, t1).add(0, N, c));
+    assertTuples(sum, new Tuple3fArray(N, d).set(0, N, t1).add(0, N, t2));
+    float[] dots = new Tuple3fArray(N, d).set(0, N, t1).dot(0, N, t2, new float[N + 1], 1);
+    for (int i = 0; i < N; i++) {
+     assertEquals(v1[i].dot(v2[i]), dots[i + 1], EPSILON);
+    }
+   }
+  });
+ }
+
+ @Test
+ public void lengths() {
+  Random r = new Random(32);
+  Vector3f[] v = random(r);
+  for (boolean interleaved : new boolean[]{false, true}) {
+   Tuple3fArray a = array(v, interleaved);
+   float[] lengths = a.length(0, N, new float[N], 0);
+   float[] squared = a.lengthSquared(0, N, new float[N], 0);
+   Vector3f[] normalized = new Vector3f[N];
+   for (int i = 0; i < N; i++) {
+    assertEquals(v[i].length(), lengths[i], EPSILON);
+    assertEquals(v[i].lengthSquared(), squared[i], EPSILON);
+    normalized[i] = new Vector3f(v[i]);
+    normalized[i].normalize();
+   }
+   assertTuples(normalized, a.normalize(0, N));
+  }
+ }
+
+ @Test
+ public void rangeOnly() {
+  Random r = new Random(33);
+  Vector3f[] v = random(r);
+  for (boolean interleaved : new boolean[]{false, true}) {
+   Tuple3fArray a = array(v, interleaved).negate(3, 5);
+   for (int i = 0; i < N; i++) {
+    Vector3f expected = new Vector3f(v[i]);
+    if (i >= 3 && i < 8) {
+     expected.negate();
+    }
+    assertEquals(expected, a.get(i, new Vector3f()));
+   }
+   a.setZero(0, N).fill(2, 2, new Vector3f(1, 2, 3));
+   assertEquals(new Vector3f(), a.get(1, new Vector3f()));
+   assertEquals(new Vector3f(1, 2, 3), a.get(3, new Vector3f()));
+   assertEquals(new Vector3f(), a.get(4, new Vector3f()));
+   a.clamp(0, N, 1.5f, 2.5f);
+   assertEquals(new Vector3f(1.5f, 2.0f, 2.5f), a.get(2, new Vector3f()));
+  }
+ }
+
+ @Test
+ public void checkRange() {
+  Tuple3fArray a = new Tuple3fArray(4), b = new Tuple3fArray(3, true);
+  a.checkRange(0, 4);
+  a.checkRange(4, 0);
+  int[][] bad = {{-1, 1}, {0, -1}, {3, 2}, {5, 0}, {1, Integer.MAX_VALUE}};
+  for (int[] range : bad) {
+   try {
+    a.checkRange(range[0], range[1]);
+    fail(range[0] + " + " + range[1]);
+   } catch (IndexOutOfBoundsException e) {
+   }
+  }
+  // the sources are checked as well as the destination
+  try {
+   a.add(0, 4, a, b);
+   fail();
+  } catch (IndexOutOfBoundsException e) {
+  }
+ }
+}
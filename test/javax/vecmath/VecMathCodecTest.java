@@ -0,0 +1,371 @@
+package javax.vecmath;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the VecMathCodec encodings: exact round trips, the error bounds of the quantized
+ * encodings, the rejection of bad input and the bytes of the frozen format.
+ */
+public class VecMathCodecTest {
+
+ static Vector3f randomDirection(Random r) {
+  Vector3f v = new Vector3f((float) r.nextGaussian(), (float) r.nextGaussian(),
+   (float) r.nextGaussian());
+  v.normalize();
+  return v;
+ }
+
+ static Quat4f randomRotation(Random r) {
+  Quat4f q = new Quat4f((float) r.nextGaussian(), (float) r.nextGaussian(),
+   (float) r.nextGaussian(), (float) r.nextGaussian());
+  q.normalize();
+  return q;
+ }
+
+ /**
+  * The angle between two unit vectors, from the chord since acos of a float dot product cannot
+  * resolve angles this small.
+  */
+ static float angle(Vector3f a, Vector3f b) {
+  Vector3f chord = new Vector3f();
+  chord.sub(a, b);
+  return 2.0f * (float) Math.asin(chord.length() / 2.0);
+ }
+
+ static String hex(ByteBuffer b) {
+  ((Buffer) b).flip();
+  StringBuilder s = new StringBuilder();
+  while (b.hasRemaining()) {
+   s.append(String.format("%02x", b.get()));
+  }
+  return s.toString();
+ }
+
+ @Test
+ public void exactRoundTrips() throws IOException {
+  Random r = new Random(81);
+  Vector3f t = new Vector3f(r.nextFloat(), -r.nextFloat(), Float.MIN_VALUE);
+  Quat4f q = randomRotation(r);
+  Matrix3f m3 = new Matrix3f(1, 2, 3, 4, 5, 6, 7, 8, Float.NaN);
+  Matrix4f m4 = new Matrix4f();
+  for (int i = 0; i < 16; i++) {
+   m4.setElement(i / 4, i % 4, r.nextFloat());
+  }
+  for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+   ByteBuffer b = ByteBuffer.allocate(256).order(order);
+   VecMathCodec.write(b, t);
+   VecMathCodec.write(b, q);
+   VecMathCodec.write(b, m3);
+   VecMathCodec.write(b, m4);
+   assertEquals(12 + 16 + 36 + 64, b.position());
+   ((Buffer) b).flip();
+   assertEquals(t, VecMathCodec.read(b, new Vector3f()));
+   assertEquals(q, VecMathCodec.read(b, new Quat4f()));
+   Matrix3f m = VecMathCodec.read(b, new Matrix3f());
+   assertEquals(m3.m21, m.m21, 0.0f);
+   assertTrue(Float.isNaN(m.m22));
+   assertEquals(m4, VecMathCodec.read(b, new Matrix4f()));
+   assertFalse(b.hasRemaining());
+  }
+  ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  DataOutputStream out = new DataOutputStream(bytes);
+  VecMathCodec.write(out, t);
+  VecMathCodec.write(out, m4);
+  DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+  assertEquals(t, VecMathCodec.read(in, new Vector3f()));
+  assertEquals(m4, VecMathCodec.read(in, new Matrix4f()));
+  // the stream form is the big endian buffer form
+  ByteBuffer b = ByteBuffer.allocate(76);
+  VecMathCodec.write(b, t);
+  VecMathCodec.write(b, m4);
+  assertArrayEquals(b.array(), bytes.toByteArray());
+ }
+
+ @Test
+ public void arrays() throws IOException {
+  Random r = new Random(82);
+  for (boolean interleaved : new boolean[]{false, true}) {
+   Tuple3fArray a = new Tuple3fArray(10, interleaved);
+   for (int i = 0; i < 10; i++) {
+    a.set(i, r.nextFloat(), r.nextFloat(), r.nextFloat());
+   }
+   ByteBuffer b = VecMathCodec.write(ByteBuffer.allocate(120), a, 2, 6);
+   assertEquals(72, b.position());
+   ((Buffer) b).flip();
+   Tuple3fArray c = VecMathCodec.read(b, new Tuple3fArray(10, !interleaved), 2, 6);
+   ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+   VecMathCodec.write(new DataOutputStream(bytes), a, 2, 6);
+   assertArrayEquals(java.util.Arrays.copyOf(b.array(), 72), bytes.toByteArray());
+   Tuple3fArray d = VecMathCodec.read(new DataInputStream(new ByteArrayInputStream(
+    bytes.toByteArray())), new Tuple3fArray(10, interleaved), 2, 6);
+   for (int i = 0; i < 10; i++) {
+    Vector3f expected = i >= 2 && i < 8 ? a.get(i, new Vector3f()) : new Vector3f();
+    assertEquals(expected, c.get(i, new Vector3f()));
+    assertEquals(expected, d.get(i, new Vector3f()));
+   }
+  }
+  Matrix4fArray m = new Matrix4fArray(3).setIdentity(0, 3);
+  ByteBuffer b = VecMathCodec.write(ByteBuffer.allocate(192), m, 1, 2);
+  ((Buffer) b).flip();
+  Matrix4fArray n = VecMathCodec.read(b, new Matrix4fArray(3), 0, 2);
+  assertEquals(m.get(0, new Matrix4f()), n.get(1, new Matrix4f()));
+ }
+
+ @Test
+ public void directionError() throws IOException {
+  Random r = new Random(83);
+  ByteBuffer b = ByteBuffer.allocate(4);
+  float worst = 0.0f;
+  for (int i = 0; i < 20000; i++) {
+   Vector3f v = i < 6 ? new Vector3f(i % 3 == 0 ? 1 : 0, i % 3 == 1 ? 1 : 0, i % 3 == 2 ? 1
+    : 0) : randomDirection(r);
+   if (i >= 3 && i < 6) {
+    v.negate();
+   }
+   ((Buffer) b).clear();
+   VecMathCodec.writeDirection(b, v);
+   ((Buffer) b).flip();
+   Vector3f d = VecMathCodec.readDirection(b, new Vector3f());
+   assertEquals(1.0f, d.length(), 1e-6f);
+   worst = Math.max(worst, angle(v, d));
+  }
+  assertTrue("angular error " + worst, worst < 1e-4f);
+  // not unit length
+  Vector3f v = new Vector3f(3, -4, 12);
+  ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  VecMathCodec.writeDirection(new DataOutputStream(bytes), v);
+  assertEquals(4, bytes.size());
+  Vector3f d = VecMathCodec.readDirection(new DataInputStream(new ByteArrayInputStream(
+   bytes.toByteArray())), new Vector3f());
+  v.normalize();
+  assertTrue(v.epsilonEquals(d, 1e-4f));
+ }
+
+ @Test
+ public void directionArrays() {
+  Random r = new Random(84);
+  Tuple3fArray a = new Tuple3fArray(50, true);
+  for (int i = 0; i < 50; i++) {
+   a.set(i, randomDirection(r));
+  }
+  ByteBuffer b = VecMathCodec.writeDirections(ByteBuffer.allocate(200), a, 0, 50);
+  assertEquals(200, b.position());
+  ((Buffer) b).flip();
+  Tuple3fArray c = VecMathCodec.readDirections(b, new Tuple3fArray(50), 0, 50);
+  for (int i = 0; i < 50; i++) {
+   assertTrue(angle(a.get(i, new Vector3f()), c.get(i, new Vector3f())) < 1e-4f);
+  }
+ }
+
+ @Test
+ public void rotationError() throws IOException {
+  Random r = new Random(85);
+  ByteBuffer b = ByteBuffer.allocate(6);
+  float worst = 0.0f;
+  for (int i = 0; i < 20000; i++) {
+   Quat4f q = randomRotation(r);
+   ((Buffer) b).clear();
+   VecMathCodec.writeRotation(b, q);
+   assertEquals(6, b.position());
+   ((Buffer) b).flip();
+   Quat4f d = VecMathCodec.readRotation(b, new Quat4f());
+   if (d.dot(q) < 0.0f) {
+    d.negate();
+   }
+   worst = Math.max(worst, Math.max(Math.max(Math.abs(d.x - q.x), Math.abs(d.y - q.y)), Math
+    .max(Math.abs(d.z - q.z), Math.abs(d.w - q.w))));
+  }
+  assertTrue("component error " + worst, worst < 1e-4f);
+  Quat4f q = randomRotation(r);
+  ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  VecMathCodec.writeRotation(new DataOutputStream(bytes), q);
+  assertEquals(6, bytes.size());
+  Quat4f d = VecMathCodec.readRotation(new DataInputStream(new ByteArrayInputStream(bytes
+   .toByteArray())), new Quat4f());
+  assertTrue(Math.abs(d.dot(q)) > 1.0f - 1e-6f);
+ }
+
+ @Test
+ public void quantizedError() throws IOException {
+  Random r = new Random(86);
+  float min = -50.0f, max = 150.0f, bound = (max - min) / 131070.0f;
+  Tuple3fArray a = new Tuple3fArray(100);
+  for (int i = 0; i < 100; i++) {
+   a.set(i, min + r.nextFloat() * (max - min), min + r.nextFloat() * (max - min), min + r
+    .nextFloat() * (max - min));
+  }
+  a.set(0, min, max, 0.0f);
+  ByteBuffer b = VecMathCodec.writeQuantized(ByteBuffer.allocate(600), a, 0, 100, min, max);
+  ((Buffer) b).flip();
+  Tuple3fArray c = VecMathCodec.readQuantized(b, new Tuple3fArray(100, true), 0, 100, min, max);
+  for (int i = 0; i < 100; i++) {
+   Vector3f expected = a.get(i, new Vector3f()), actual = c.get(i, new Vector3f());
+   assertEquals(expected.x, actual.x, bound * 1.01f);
+   assertEquals(expected.y, actual.y, bound * 1.01f);
+   assertEquals(expected.z, actual.z, bound * 1.01f);
+  }
+  assertEquals(new Vector3f(min, max, c.getZ(0)), c.get(0, new Vector3f()));
+  // out of range values are clamped
+  ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  VecMathCodec.writeQuantized(new DataOutputStream(bytes), new Vector3f(-1000, 1000, 0), min, max);
+  assertEquals(6, bytes.size());
+  Vector3f d = VecMathCodec.readQuantized(new DataInputStream(new ByteArrayInputStream(bytes
+   .toByteArray())), new Vector3f(), min, max);
+  assertEquals(min, d.x, 0.0f);
+  assertEquals(max, d.y, 0.0f);
+  assertEquals(0.0f, d.z, bound * 1.01f);
+ }
+
+ @Test
+ public void shortBuffersAreRejectedWhole() {
+  Tuple3fArray planar = new Tuple3fArray(4), interleaved = new Tuple3fArray(4, true);
+  ByteBuffer small = ByteBuffer.allocate(47);
+  ((Buffer) small).position(1);
+  Runnable[] writes = {
+   () -> VecMathCodec.write(small, planar, 0, 4),
+   () -> VecMathCodec.write(small, interleaved, 0, 4),
+   () -> VecMathCodec.write(small, new float[12], 0, 12),
+   () -> VecMathCodec.write(small, new Matrix4fArray(1), 0, 1),
+   () -> VecMathCodec.writeDirections(small, planar, 0, 4),
+   () -> VecMathCodec.writeQuantized(small, interleaved, 0, 4, 0, 1)};
+  for (Runnable write : writes) {
+   ((Buffer) small).position(small.limit() - 5);
+   try {
+    write.run();
+    fail();
+   } catch (BufferOverflowException e) {
+    assertEquals(small.limit() - 5, small.position());
+   }
+  }
+  ((Buffer) small).position(42);
+  try {
+   VecMathCodec.writeRotation(small, new Quat4f(0, 0, 0, 1));
+   fail();
+  } catch (BufferOverflowException e) {
+   assertEquals(42, small.position());
+  }
+  Runnable[] reads = {
+   () -> VecMathCodec.read(small, planar, 0, 1),
+   () -> VecMathCodec.read(small, interleaved, 0, 1),
+   () -> VecMathCodec.read(small, new float[3], 0, 3),
+   () -> VecMathCodec.readDirections(small, planar, 0, 2),
+   () -> VecMathCodec.readQuantized(small, planar, 0, 1, 0, 1),
+   () -> VecMathCodec.readQuantized(small, new Vector3f(), 0, 1),
+   () -> VecMathCodec.readRotation(small, new Quat4f())};
+  for (Runnable read : reads) {
+   ((Buffer) small).position(small.limit() - 5);
+   try {
+    read.run();
+    fail();
+   } catch (BufferUnderflowException e) {
+    assertEquals(small.limit() - 5, small.position());
+   }
+  }
+ }
+
+ @Test
+ public void badRanges() {
+  Tuple3fArray a = new Tuple3fArray(4);
+  ByteBuffer b = ByteBuffer.allocate(1024);
+  try {
+   VecMathCodec.write(b, a, 3, 2);
+   fail();
+  } catch (IndexOutOfBoundsException e) {
+  }
+  try {
+   VecMathCodec.readDirections(b, a, -1, 1);
+   fail();
+  } catch (IndexOutOfBoundsException e) {
+  }
+  try {
+   VecMathCodec.write(b, new Matrix4fArray(2), 1, 2);
+   fail();
+  } catch (IndexOutOfBoundsException e) {
+  }
+  assertEquals(0, b.position());
+  float[][] intervals = {{1, 1}, {2, 1}, {0, Float.NaN}};
+  for (float[] interval : intervals) {
+   try {
+    VecMathCodec.writeQuantized(b, new Vector3f(), interval[0], interval[1]);
+    fail();
+   } catch (IllegalArgumentException e) {
+   }
+   try {
+    VecMathCodec.readQuantized(b, a, 0, 1, interval[0], interval[1]);
+    fail();
+   } catch (IllegalArgumentException e) {
+   }
+  }
+  assertEquals(0, b.position());
+ }
+
+ @Test
+ public void reservedRotationBit() throws IOException {
+  ByteBuffer b = ByteBuffer.allocate(6);
+  VecMathCodec.writeRotation(b, new Quat4f(0, 0, 0, 1));
+  b.put(0, (byte) (b.get(0) | 0x80));
+  ((Buffer) b).flip();
+  try {
+   VecMathCodec.readRotation(b, new Quat4f());
+   fail();
+  } catch (IllegalArgumentException e) {
+  }
+  try {
+   VecMathCodec.readRotation(new DataInputStream(new ByteArrayInputStream(b.array())),
+    new Quat4f());
+   fail();
+  } catch (IllegalArgumentException e) {
+  }
+ }
+
+ /**
+  * The encoded bytes are a wire format, these must not change.
+  */
+ @Test
+ public void goldenBytes() {
+  ByteBuffer b = ByteBuffer.allocate(64);
+  assertEquals("3f800000c00000003f000000", hex(VecMathCodec.write(b, new Vector3f(1, -2, 0.5f))));
+  ((Buffer) b).clear();
+  b.order(ByteOrder.LITTLE_ENDIAN);
+  assertEquals("0000803f000000c00000003f", hex(VecMathCodec.write(b, new Vector3f(1, -2, 0.5f))));
+  ((Buffer) b).clear();
+  b.order(ByteOrder.BIG_ENDIAN);
+  Matrix4f m = new Matrix4f();
+  m.setIdentity();
+  m.m03 = 2.0f;
+  assertEquals("3f800000000000000000000040000000" + "000000003f8000000000000000000000"
+   + "00000000000000003f80000000000000" + "0000000000000000000000003f800000",
+   hex(VecMathCodec.write(b, m)));
+  ((Buffer) b).clear();
+  assertEquals("700020004000", hex(VecMathCodec.writeRotation(b, new Quat4f(0, 0, 0, 1))));
+  ((Buffer) b).clear();
+  assertEquals("70003b26c000", hex(VecMathCodec.writeRotation(b, new Quat4f(0, 0.6f, 0,
+   0.8f))));
+  ((Buffer) b).clear();
+  // the dropped component is made positive by negating the quaternion
+  assertEquals("100004d94000", hex(VecMathCodec.writeRotation(b, new Quat4f(-0.8f, 0, 0.6f,
+   0))));
+  ((Buffer) b).clear();
+  VecMathCodec.writeDirection(b, new Vector3f(0, 0, 1));
+  VecMathCodec.writeDirection(b, new Vector3f(0, 0, -1));
+  VecMathCodec.writeDirection(b, new Vector3f(1, 0, 0));
+  VecMathCodec.writeDirection(b, new Vector3f(0, -1, 0));
+  assertEquals("000000007fff7fff7fff000000008001", hex(b));
+  ((Buffer) b).clear();
+  assertEquals("8000ffff0000", hex(VecMathCodec.writeQuantized(b, new Vector3f(0, 1, -1), -1,
+   1)));
+ }
+}
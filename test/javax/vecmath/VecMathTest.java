@@ -0,0 +1,74 @@
+package javax.vecmath;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the float functions of VecMath in both math modes.
+ */
+public class VecMathTest {
+
+ private final boolean fastMath = VecMath.isFastMath();
+
+ @After
+ public void restoreMode() {
+  VecMath.setFastMath(fastMath);
+ }
+
+ static final float[] ANGLES = {0.0f, -0.0f, 0.1f, -0.7f, 1.0f, (float) Math.PI / 4, 1.5707964f,
+  2.5f, -3.1415927f, 4.0f, 7.5f, -12.25f, 100.0f, -1234.5f, 99999.0f};
+
+ @Test
+ public void sincosMatchesSinAndCos() {
+  for (boolean fast : new boolean[]{false, true}) {
+   VecMath.setFastMath(fast);
+   float[] sc = new float[2];
+   for (float x : ANGLES) {
+    VecMath.sincos(x, sc);
+    assertEquals(VecMath.sin(x), sc[0], 0.0f);
+    assertEquals(VecMath.cos(x), sc[1], 0.0f);
+   }
+  }
+ }
+
+ @Test
+ public void fastSinCosError() {
+  for (float x : ANGLES) {
+   assertEquals(Math.sin(x), VecMath.fastSin(x), 1e-6);
+   assertEquals(Math.cos(x), VecMath.fastCos(x), 1e-6);
+  }
+ }
+
+ @Test
+ public void fastSinCosOutsideRange() {
+  // beyond 1e5 the quadrant no longer fits the reduction, and past 2^31 not even an int
+  float[] large = {100001.0f, -4.0e6f, 3.0e9f, -1.0e30f, Float.MAX_VALUE};
+  VecMath.setFastMath(true);
+  float[] sc = new float[2];
+  for (float x : large) {
+   assertEquals((float) Math.sin(x), VecMath.fastSin(x), 0.0f);
+   assertEquals((float) Math.cos(x), VecMath.fastCos(x), 0.0f);
+   VecMath.sincos(x, sc);
+   assertEquals((float) Math.sin(x), sc[0], 0.0f);
+   assertEquals((float) Math.cos(x), sc[1], 0.0f);
+  }
+  assertTrue(Float.isNaN(VecMath.fastSin(Float.POSITIVE_INFINITY)));
+  assertTrue(Float.isNaN(VecMath.sincos(Float.NaN, sc)[1]));
+ }
+
+ @Test
+ public void rotationsInFastMode() {
+  VecMath.setFastMath(true);
+  Matrix3f r = new Matrix3f();
+  r.rotZ(0.75f);
+  assertEquals(Math.cos(0.75), r.m00, 1e-6);
+  assertEquals(-Math.sin(0.75), r.m01, 1e-6);
+  Quat4f q = new Quat4f();
+  q.set(new AxisAngle4f(0, 0, 1, 0.75f));
+  Matrix3f m = new Matrix3f();
+  m.set(q);
+  assertTrue(m.epsilonEquals(r, 1e-6f));
+ }
+}